@@ -0,0 +1,181 @@
+/**
+ * ArenaBenchmark.java - measures world transformation updates of an arena
+ */
+
+
+package spider;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jogamp.opengl.util.gl2.GLUT;
+
+/**
+ * Builds a crowd of copies of the spider model, all stored in one
+ * {@link SceneArena}, and measures the time taken to recompute the world
+ * transformations of every component in each frame, either in one pass over
+ * the arena with
+ * {@link TransformKernels#composeHierarchy(int[], float[], float[], int)} or
+ * component by component with {@link Component#worldTransform()}.
+ *
+ * Every spider is turned a little in each frame, so that the whole tree must
+ * be recomputed. Before building the crowd, the set up checks that the world
+ * transformation of a component stays up to date when the local
+ * transformation of its parent is computed first, as the composing pass
+ * does. The benchmark is forked with the jdk.incubator.vector module, so the
+ * fastest available kernels are used. No window or OpenGL context is created.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+public class ArenaBenchmark {
+  /** The arena in which the crowd is stored. */
+  private SceneArena arena;
+  /** The kernels with which the arena is composed. */
+  private final TransformKernels kernels = TransformKernels.instance();
+  /** The components of the crowd, in the order of their arena indices. */
+  private Component[] nodes;
+  /** The number of spiders in the crowd. */
+  @Param({ "1000" })
+  public int spiders;
+  /** The top level component of each spider. */
+  private Component[] tops;
+
+  /**
+   * Checks that the world transformation of a child follows a turn of its
+   * parent even when the local transformation of the parent is computed
+   * before the world transformation of the child, with the components in an
+   * arena or not.
+   *
+   * @param arena
+   *          The arena in which to store the components, or {@code null}.
+   * @throws IllegalStateException
+   *           If the world transformation of the child is stale.
+   */
+  private static void checkWorldAfterLocal(final SceneArena arena) {
+    final Component root = arena == null ? new Component(new Point3D(0, 0, 0),
+        "root") : new Component(arena, new Point3D(0, 0, 0), null, "root");
+    final Component child = arena == null ? new Component(new Point3D(1, 0,
+        0), "child") : new Component(arena, new Point3D(1, 0, 0), null,
+        "child");
+    root.addChild(child);
+    child.worldTransform();
+    root.setAngles(0, 0, 90);
+    root.localTransform();
+    final float[] world = child.worldTransform();
+    final int o = child.worldTransformOffset();
+    if (Math.abs(world[o + 12]) > 1e-6
+        || Math.abs(world[o + 13] - 1) > 1e-6) {
+      throw new IllegalStateException("stale world transformation: ("
+          + world[o + 12] + ", " + world[o + 13] + ") instead of (0, 1)");
+    }
+  }
+
+  /**
+   * Stores the specified component and its descendants at their arena indices
+   * in {@link #nodes}.
+   *
+   * @param component
+   *          The root of the subtree to store.
+   */
+  private void collect(final Component component) {
+    this.nodes[component.index()] = component;
+    for (int i = 0; i < component.childCount(); ++i) {
+      this.collect(component.child(i));
+    }
+  }
+
+  /**
+   * Turns every spider, brings the local transformations in the arena up to
+   * date, and composes the world transformations of the whole arena.
+   *
+   * @return The world transformations.
+   */
+  @Benchmark
+  public float[] composeHierarchy() {
+    this.turn();
+    for (final Component node : this.nodes) {
+      node.localTransform();
+    }
+    this.kernels.composeHierarchy(this.arena.parents(), this.arena
+        .localTransforms(), this.arena.worldTransforms(), this.arena.size());
+    return this.arena.worldTransforms();
+  }
+
+  /**
+   * Checks that world transformations do not go stale, then builds the crowd
+   * in one arena, from the top down, with the spiders on a square grid.
+   *
+   * @throws IllegalStateException
+   *           If a world transformation goes stale.
+   */
+  @Setup
+  public void setUp() {
+    checkWorldAfterLocal(null);
+    checkWorldAfterLocal(new SceneArena(2));
+    final GLUT glut = new GLUT();
+    this.arena = new SceneArena(1 + this.spiders
+        * (1 + SpiderModel.COMPONENT_COUNT));
+    this.nodes = new Component[this.arena.capacity()];
+    this.tops = new Component[this.spiders];
+    final Component crowd = new Component(this.arena, new Point3D(0, 0, 0),
+        null, "crowd");
+    final int columns = (int) Math.ceil(Math.sqrt(this.spiders));
+    for (int i = 0; i < this.spiders; ++i) {
+      final Component placement = new Component(this.arena, new Point3D(
+          CrowdBenchmark.SPACING * (i % columns), 0, CrowdBenchmark.SPACING
+              * (i / columns)), null, "spider " + i);
+      crowd.addChild(placement);
+      final SpiderModel model = new SpiderModel(glut, RenderMode.CALL_LIST,
+          this.arena);
+      this.tops[i] = model.topLevelComponent();
+      placement.addChild(this.tops[i]);
+      // some components of the model are not attached to its tree
+      for (final Component component : model.components()) {
+        this.nodes[component.index()] = component;
+      }
+    }
+    this.collect(crowd);
+  }
+
+  /**
+   * Turns every spider around the y axis by one degree.
+   */
+  private void turn() {
+    for (final Component top : this.tops) {
+      top.setAngles(top.xAngle(), (top.yAngle() + 1) % 360, top.zAngle());
+    }
+  }
+
+  /**
+   * Turns every spider and gets the world transformation of every component
+   * in the arena, one at a time.
+   *
+   * @return The world transformations.
+   */
+  @Benchmark
+  public float[] worldTransform() {
+    this.turn();
+    for (final Component node : this.nodes) {
+      node.worldTransform();
+    }
+    return this.arena.worldTransforms();
+  }
+}
@@ -0,0 +1,222 @@
+/**
+ * ComponentBenchmark.java - measures rotating and posing the components
+ */
+
+
+package spider;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import com.jogamp.opengl.util.gl2.GLUT;
+
+/**
+ * Measures the time taken to rotate every component of the spider beyond its
+ * limits with {@link Component#rotate(Axis, double)}, so that every rotation
+ * is clamped, and to set the angles of every component with
+ * {@link Component#setAngles(double, double, double)}. Each operation covers
+ * all the components of the model, and alternates between two sets of angles
+ * so that none is skipped as unchanged. The components are in Euler angle or
+ * quaternion orientation mode depending on {@link #quaternion}.
+ *
+ * After each iteration of {@link #rotateClamped()}, every component is checked
+ * to be within its limits: each angle within its extents in Euler angle mode,
+ * or the swing within its cone and the twist within its range in quaternion
+ * mode (see {@link SwingTwistJoint}). A component beyond its limits fails the
+ * benchmark.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+public class ComponentBenchmark {
+  /**
+   * The angle by which to rotate, which is more than the range of every
+   * limited joint but not a whole turn, which would leave a quaternion
+   * unchanged.
+   */
+  private static final double ROTATION = 200;
+  /**
+   * The amount in degrees by which a component may be beyond its limits,
+   * allowing for the single precision of quaternions.
+   */
+  private static final double TOLERANCE = 0.05;
+
+  /** The components of the model. */
+  private Component[] components;
+  /** Whether to use the second of the alternating angles. */
+  private boolean flip = false;
+  /** Whether the components are in quaternion orientation mode. */
+  @Param({ "false", "true" })
+  public boolean quaternion;
+
+  /**
+   * Checks that the specified component in Euler angle mode is within the
+   * extents around each axis.
+   *
+   * @param component
+   *          The component to check.
+   * @throws IllegalStateException
+   *           If an angle of the component is beyond its extents.
+   */
+  private static void checkAngles(final Component component) {
+    final double[] angles = { component.xAngle(), component.yAngle(),
+        component.zAngle() };
+    for (final Axis axis : Axis.values()) {
+      final double angle = angles[axis.ordinal()];
+      if (angle < component.negativeExtent(axis) - TOLERANCE
+          || angle > component.positiveExtent(axis) + TOLERANCE) {
+        throw new IllegalStateException(component.name() + " is at " + angle
+            + " degrees around " + axis + ", beyond its extents");
+      }
+    }
+  }
+
+  /**
+   * Checks that the specified component in quaternion orientation mode is
+   * within the swing cone and twist range derived from its extents, by
+   * splitting its orientation relative to the rest orientation into a swing
+   * and a twist as {@link SwingTwistJoint} does.
+   *
+   * @param component
+   *          The component to check.
+   * @throws IllegalStateException
+   *           If the swing or the twist of the component is beyond its limits.
+   */
+  private static void checkOrientation(final Component component) {
+    final double xHalfRange = 0.5 * (component.positiveExtent(Axis.X)
+        - component.negativeExtent(Axis.X));
+    final double yHalfRange = 0.5 * (component.positiveExtent(Axis.Y)
+        - component.negativeExtent(Axis.Y));
+    final double zHalfRange = 0.5 * (component.positiveExtent(Axis.Z)
+        - component.negativeExtent(Axis.Z));
+    if (xHalfRange >= 180 && yHalfRange >= 180 && zHalfRange >= 180) {
+      return;
+    }
+    final Quaternion relative = new Quaternion();
+    relative.setFromEuler(component.negativeExtent(Axis.X) + xHalfRange,
+        component.negativeExtent(Axis.Y) + yHalfRange, component
+            .negativeExtent(Axis.Z) + zHalfRange);
+    relative.conjugate();
+    relative.multiplyInPlace(component.orientation());
+    if (relative.s() < 0) {
+      relative.set(-relative.s(), -relative.v0(), -relative.v1(),
+          -relative.v2());
+    }
+
+    final double twistAngle = Math.toDegrees(2 * Math.atan2(relative.v2(),
+        relative.s()));
+    if (Math.abs(twistAngle) > zHalfRange + TOLERANCE) {
+      throw new IllegalStateException(component.name() + " is twisted by "
+          + twistAngle + " degrees, beyond " + zHalfRange);
+    }
+    final Quaternion twist = new Quaternion();
+    twist.setFromAxisAngle(0, 0, 1, (float) Math.toRadians(-twistAngle));
+    relative.multiplyInPlace(twist);
+
+    final double sinHalfSwing = Math.sqrt(relative.v0() * relative.v0()
+        + relative.v1() * relative.v1());
+    final double swingAngle = Math.toDegrees(2 * Math.atan2(sinHalfSwing,
+        relative.s()));
+    final double xSwing = sinHalfSwing == 0 ? 0 : swingAngle * relative.v0()
+        / sinHalfSwing;
+    final double ySwing = sinHalfSwing == 0 ? 0 : swingAngle * relative.v1()
+        / sinHalfSwing;
+    // the swing may exceed the cone by the tolerance along either axis
+    final double x = xSwing / (Math.max(xHalfRange, 0) + TOLERANCE);
+    final double y = ySwing / (Math.max(yHalfRange, 0) + TOLERANCE);
+    if (x * x + y * y > 1) {
+      throw new IllegalStateException(component.name() + " is swung by "
+          + xSwing + " and " + ySwing + " degrees, outside its cone of "
+          + xHalfRange + " by " + yHalfRange);
+    }
+  }
+
+  /**
+   * Checks that every component is within its limits after rotating them
+   * beyond their limits.
+   *
+   * @param params
+   *          The parameters of the benchmark, which tell which one ran.
+   * @throws IllegalStateException
+   *           If a component is beyond its limits.
+   */
+  @TearDown(Level.Iteration)
+  public void checkLimits(final BenchmarkParams params) {
+    if (!params.getBenchmark().endsWith(".rotateClamped")) {
+      return;
+    }
+    for (final Component component : this.components) {
+      if (this.quaternion) {
+        checkOrientation(component);
+      } else {
+        checkAngles(component);
+      }
+    }
+  }
+
+  /**
+   * Builds the model whose components are rotated, and switches them into
+   * quaternion orientation mode if required.
+   */
+  @Setup
+  public void setUp() {
+    final SpiderModel model = new SpiderModel(new GLUT());
+    this.components = model.components().toArray(
+        new Component[model.components().size()]);
+    for (final Component component : this.components) {
+      component.setQuaternionOrientation(this.quaternion);
+    }
+  }
+
+  /**
+   * Rotates every component around every axis beyond its limits.
+   *
+   * @return The components.
+   */
+  @Benchmark
+  public Component[] rotateClamped() {
+    final double angle = this.flip ? ROTATION : -ROTATION;
+    this.flip = !this.flip;
+    for (final Component component : this.components) {
+      component.rotate(Axis.X, angle);
+      component.rotate(Axis.Y, angle);
+      component.rotate(Axis.Z, angle);
+    }
+    return this.components;
+  }
+
+  /**
+   * Sets the angles of every component.
+   *
+   * @return The components.
+   */
+  @Benchmark
+  public Component[] setAngles() {
+    final double angle = this.flip ? 10 : 20;
+    this.flip = !this.flip;
+    for (final Component component : this.components) {
+      component.setAngles(angle, -angle, angle / 2);
+    }
+    return this.components;
+  }
+}
@@ -0,0 +1,108 @@
+/**
+ * CrowdBenchmark.java - measures world transformation updates of a crowd
+ */
+
+
+package spider;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jogamp.opengl.util.gl2.GLUT;
+
+/**
+ * Builds a crowd of copies of the spider model under one top level component
+ * and measures the time taken to recompute the world transformations of every
+ * component in each frame, sequentially or with a
+ * {@link ParallelTransformEvaluator} with a number of threads.
+ *
+ * Every spider is turned a little in each frame, so that the whole tree must
+ * be recomputed. No window or OpenGL context is created. Speedups are only
+ * meaningful on a machine with at least as many processors as threads.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+public class CrowdBenchmark {
+  /** The spacing between the spiders of the crowd. */
+  public static final double SPACING = 3;
+
+  /** The top level component of the crowd. */
+  private Component crowd;
+  /** The evaluator which is measured, or {@code null} if sequential. */
+  private ParallelTransformEvaluator evaluator;
+  /** The number of spiders in the crowd. */
+  @Param({ "300" })
+  public int spiders;
+  /** The number of threads of the evaluator, or 0 to evaluate sequentially. */
+  @Param({ "0", "1", "2", "4" })
+  public int threads;
+  /** The top level component of each spider. */
+  private Component[] tops;
+
+  /**
+   * Turns every spider and recomputes the world transformations of the crowd.
+   *
+   * @return The top level component of the crowd.
+   */
+  @Benchmark
+  public Component evaluate() {
+    for (final Component top : this.tops) {
+      top.setAngles(top.xAngle(), (top.yAngle() + 1) % 360, top.zAngle());
+    }
+    if (this.evaluator == null) {
+      ParallelTransformEvaluator.evaluateSequentially(this.crowd);
+    } else {
+      this.evaluator.evaluate(this.crowd);
+    }
+    return this.crowd;
+  }
+
+  /**
+   * Builds the crowd, with the spiders on a square grid, and the evaluator.
+   */
+  @Setup
+  public void setUp() {
+    final GLUT glut = new GLUT();
+    this.crowd = new Component(new Point3D(0, 0, 0), "crowd");
+    this.tops = new Component[this.spiders];
+    final int columns = (int) Math.ceil(Math.sqrt(this.spiders));
+    for (int i = 0; i < this.spiders; ++i) {
+      final Component placement = new Component(new Point3D(SPACING
+          * (i % columns), 0, SPACING * (i / columns)), "spider " + i);
+      this.tops[i] = new SpiderModel(glut).topLevelComponent();
+      placement.addChild(this.tops[i]);
+      this.crowd.addChild(placement);
+    }
+    this.evaluator = this.threads == 0 ? null
+        : new ParallelTransformEvaluator(this.threads);
+  }
+
+  /**
+   * Stops the threads of the evaluator.
+   */
+  @TearDown
+  public void tearDown() {
+    if (this.evaluator != null) {
+      this.evaluator.shutdown();
+    }
+  }
+}
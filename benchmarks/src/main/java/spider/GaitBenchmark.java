@@ -0,0 +1,111 @@
+/**
+ * GaitBenchmark.java - simulates the gaits of many spiders headlessly
+ */
+
+
+package spider;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jogamp.opengl.util.gl2.GLUT;
+
+/**
+ * Measures the time taken to advance a number of copies of the spider model
+ * by one timestep of a {@link Gait}, with the legs driven by direct joint
+ * curves or by a {@link LegSolver}.
+ *
+ * The number of legs on the ground, a measure of how stable each gait is, is
+ * reported with the times as the counters of {@link Stance}. No window or
+ * OpenGL context is created.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+public class GaitBenchmark {
+  /**
+   * The counters of the legs on the ground, which JMH reports alongside the
+   * time taken by each step, summed over the measurement iterations.
+   */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Stance {
+    /** The number of legs on the ground, summed over all steps. */
+    public long legs;
+    /** The total number of steps of all spiders. */
+    public long steps;
+
+    /**
+     * Clears the counters before each iteration.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+      this.legs = 0;
+      this.steps = 0;
+    }
+  }
+
+  /** The gait with which the spiders walk. */
+  @Param({ "TRIPOD", "RIPPLE", "WAVE" })
+  public Gait gait;
+  /** The generator which walks each spider. */
+  private GaitGenerator[] generators;
+  /** Whether the legs are driven by a leg solver rather than by curves. */
+  @Param({ "false", "true" })
+  public boolean solving;
+  /** The number of spiders. */
+  @Param({ "100" })
+  public int spiders;
+
+  /**
+   * Builds the spiders and their generators.
+   */
+  @Setup
+  public void setUp() {
+    final GLUT glut = new GLUT();
+    final LegSolver solver = new LegSolver();
+    this.generators = new GaitGenerator[this.spiders];
+    for (int i = 0; i < this.spiders; ++i) {
+      this.generators[i] = new GaitGenerator(new SpiderModel(glut), this.gait,
+          this.solving ? solver : null);
+    }
+  }
+
+  /**
+   * Advances every spider by one timestep.
+   *
+   * @param stance
+   *          The counters of the legs on the ground.
+   * @return The number of legs on the ground of all spiders.
+   */
+  @Benchmark
+  public int step(final Stance stance) {
+    int legs = 0;
+    for (final GaitGenerator generator : this.generators) {
+      generator.step();
+      legs += generator.stanceCount();
+    }
+    stance.legs += legs;
+    stance.steps += this.generators.length;
+    return legs;
+  }
+}
@@ -0,0 +1,250 @@
+/**
+ * LegSolverBenchmark.java - measures the throughput of the leg solver
+ */
+
+
+package spider;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jogamp.opengl.util.gl2.GLUT;
+
+/**
+ * Measures the time taken by a {@link LegSolver} to solve one leg pose of the
+ * spider model.
+ *
+ * In {@link #solveRandom()}, each target is the foot position of a random pose
+ * of a random leg within the extents of its joints, so every target is
+ * reachable; the leg is moved to another random pose and solved back toward
+ * the target. In {@link #solveTracking()}, the solver follows the foot of a
+ * leg which moves smoothly from pose to pose, starting each solve from the
+ * previous solution, as when the feet follow a gait. The number of solves,
+ * how many of them reached their target, and the total number of iterations
+ * of the solver are reported with the times as the counters of
+ * {@link Accuracy}. No window or OpenGL context is created.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+public class LegSolverBenchmark {
+  /** The number of random targets, which are solved in turn. */
+  public static final int TARGETS = 4096;
+  /**
+   * The number of frames over which a followed foot moves from one pose to
+   * the next.
+   */
+  public static final int TRACKING_FRAMES = 30;
+  /** The number of poses between which a followed foot moves. */
+  public static final int TRACKING_POSES = 64;
+
+  /**
+   * The counters of the accuracy of the solver, which JMH reports alongside
+   * the time taken by each solve, summed over the measurement iterations.
+   */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Accuracy {
+    /** The total number of iterations of the solver. */
+    public long iterations;
+    /** The number of solves which reached their target. */
+    public long reached;
+    /** The number of solves. */
+    public long solves;
+
+    /**
+     * Counts one solve of the specified solver which ended at the specified
+     * distance from its target.
+     *
+     * @param solver
+     *          The solver.
+     * @param distance
+     *          The distance of the foot from the target.
+     */
+    void count(final LegSolver solver, final double distance) {
+      this.iterations += solver.iterations();
+      ++this.solves;
+      if (distance <= LegSolver.DEFAULT_TOLERANCE) {
+        ++this.reached;
+      }
+    }
+
+    /**
+     * Clears the counters before each iteration.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+      this.iterations = 0;
+      this.reached = 0;
+      this.solves = 0;
+    }
+  }
+
+  /** The index of the leg solved for each random target. */
+  private final int[] legIndices = new int[TARGETS];
+  /** The legs of the model. */
+  private Leg[] legs;
+  /** The index of the next target to solve. */
+  private int next;
+  /** The targets along the path of the followed foot. */
+  private final double[] path = new double[3 * TRACKING_FRAMES
+      * TRACKING_POSES];
+  /** The solver which is measured. */
+  private final LegSolver solver = new LegSolver();
+  /** The angles of the three joints from which each random target is solved. */
+  private final double[] startAngles = new double[9 * TARGETS];
+  /** The foot position of each random target. */
+  private final double[] targets = new double[3 * TARGETS];
+
+  /**
+   * Sets the joints of the specified leg to random angles within their
+   * extents.
+   *
+   * @param leg
+   *          The leg to pose.
+   * @param random
+   *          The source of random numbers.
+   * @param angles
+   *          The array in which to store the nine angles, or {@code null}.
+   * @param offset
+   *          The offset of the angles within the array.
+   */
+  private static void randomPose(final Leg leg, final Random random,
+      final double[] angles, final int offset) {
+    for (int j = 0; j < 3; ++j) {
+      final Component joint = leg.joints().get(j);
+      final double x = randomAngle(joint, Axis.X, random);
+      final double y = randomAngle(joint, Axis.Y, random);
+      final double z = randomAngle(joint, Axis.Z, random);
+      joint.setAngles(x, y, z);
+      if (angles != null) {
+        angles[offset + 3 * j] = x;
+        angles[offset + 3 * j + 1] = y;
+        angles[offset + 3 * j + 2] = z;
+      }
+    }
+  }
+
+  /**
+   * Gets a random angle within the extents of the specified joint around the
+   * specified axis.
+   *
+   * @param joint
+   *          The joint.
+   * @param axis
+   *          The axis of rotation.
+   * @param random
+   *          The source of random numbers.
+   * @return A random angle within the extents, in degrees.
+   */
+  private static double randomAngle(final Component joint, final Axis axis,
+      final Random random) {
+    final double min = joint.negativeExtent(axis);
+    final double max = joint.positiveExtent(axis);
+    return min + random.nextDouble() * (max - min);
+  }
+
+  /**
+   * Builds the model, the random targets with their starting poses, and the
+   * path of the followed foot, which moves from pose to pose and back to the
+   * first.
+   */
+  @Setup
+  public void setUp() {
+    final SpiderModel model = new SpiderModel(new GLUT());
+    this.legs = model.legs();
+    final Random random = new Random(0);
+    for (int i = 0; i < TARGETS; ++i) {
+      this.legIndices[i] = random.nextInt(this.legs.length);
+      final Leg leg = this.legs[this.legIndices[i]];
+      randomPose(leg, random, null, 0);
+      this.solver.footPosition(leg, this.targets, 3 * i);
+      randomPose(leg, random, this.startAngles, 9 * i);
+    }
+
+    final double[] poses = new double[9 * TRACKING_POSES];
+    final Leg trackedLeg = this.legs[0];
+    for (int i = 0; i < TRACKING_POSES; ++i) {
+      randomPose(trackedLeg, random, poses, 9 * i);
+    }
+    for (int i = 0; i < this.path.length / 3; ++i) {
+      final int from = 9 * (i / TRACKING_FRAMES);
+      final int to = 9 * ((i / TRACKING_FRAMES + 1) % TRACKING_POSES);
+      final double t = (double) (i % TRACKING_FRAMES) / TRACKING_FRAMES;
+      for (int j = 0; j < 3; ++j) {
+        final int k = 3 * j;
+        trackedLeg.joints().get(j).setAngles(poses[from + k] + t
+            * (poses[to + k] - poses[from + k]), poses[from + k + 1] + t
+            * (poses[to + k + 1] - poses[from + k + 1]), poses[from + k + 2]
+            + t * (poses[to + k + 2] - poses[from + k + 2]));
+      }
+      this.solver.footPosition(trackedLeg, this.path, 3 * i);
+    }
+    for (int j = 0; j < 3; ++j) {
+      trackedLeg.joints().get(j).setAngles(poses[3 * j], poses[3 * j + 1],
+          poses[3 * j + 2]);
+    }
+    this.next = 0;
+  }
+
+  /**
+   * Moves a leg to its starting pose and solves it toward the next random
+   * target.
+   *
+   * @param accuracy
+   *          The counters of the accuracy of the solver.
+   * @return The distance of the foot from the target.
+   */
+  @Benchmark
+  public double solveRandom(final Accuracy accuracy) {
+    final int i = this.next;
+    this.next = i + 1 == TARGETS ? 0 : i + 1;
+    final Leg leg = this.legs[this.legIndices[i]];
+    for (int j = 0; j < 3; ++j) {
+      final int k = 9 * i + 3 * j;
+      leg.joints().get(j).setAngles(this.startAngles[k],
+          this.startAngles[k + 1], this.startAngles[k + 2]);
+    }
+    final double distance = this.solver.solve(leg, this.targets[3 * i],
+        this.targets[3 * i + 1], this.targets[3 * i + 2]);
+    accuracy.count(this.solver, distance);
+    return distance;
+  }
+
+  /**
+   * Solves the followed leg toward the next point along its path, from the
+   * previous solution.
+   *
+   * @param accuracy
+   *          The counters of the accuracy of the solver.
+   * @return The distance of the foot from the target.
+   */
+  @Benchmark
+  public double solveTracking(final Accuracy accuracy) {
+    final int i = this.next;
+    this.next = 3 * (i + 1) == this.path.length ? 0 : i + 1;
+    final double distance = this.solver.solve(this.legs[0], this.path[3 * i],
+        this.path[3 * i + 1], this.path[3 * i + 2]);
+    accuracy.count(this.solver, distance);
+    return distance;
+  }
+}
@@ -0,0 +1,111 @@
+/**
+ * MixerBenchmark.java - measures blending layers of joint angles
+ */
+
+
+package spider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jogamp.opengl.util.gl2.GLUT;
+
+/**
+ * Measures the time taken by {@link AnimationMixer#apply()} to blend a number
+ * of layers into the animated joints of the spider, the legs and the pupils.
+ *
+ * The layers are, in order: a {@link TestCases} pose on every joint; a second
+ * pose at half weight; an eye tracking layer masked to the pupils; a gesture
+ * masked to the claws; and a fading layer with a weight of zero, which is
+ * skipped. Only the first {@link #layers} of them are added. The weight of the
+ * first layer alternates between two values so that no joint is skipped as
+ * unchanged.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+public class MixerBenchmark {
+  /** Whether to use the second of the alternating weights. */
+  private boolean flip = false;
+  /** The number of layers blended, from one to five. */
+  @Param({ "1", "5" })
+  public int layers;
+  /** The mixer which blends the layers. */
+  private AnimationMixer mixer;
+
+  /**
+   * Builds the model and the mixer, and adds the layers.
+   */
+  @Setup
+  public void setUp() {
+    final SpiderModel model = new SpiderModel(new GLUT());
+    this.mixer = new AnimationMixer(model);
+    final TestCases testCases = new TestCases();
+    final List<Map<String, Angled>> poses =
+        new ArrayList<Map<String, Angled>>(2);
+    for (int i = 0; i < 2; ++i) {
+      poses.add(testCases.next());
+    }
+
+    final int walk = this.mixer.addLayer();
+    this.mixer.setPose(walk, poses.get(0));
+    if (this.layers > 1) {
+      final int pose = this.mixer.addLayer();
+      this.mixer.setPose(pose, poses.get(1));
+      this.mixer.setLayerWeight(pose, 0.5);
+    }
+    if (this.layers > 2) {
+      final int eyes = this.mixer.addLayer();
+      this.mixer.setMask(eyes, SpiderModel.LEFT_PUPIL_NAME,
+          SpiderModel.RIGHT_PUPIL_NAME);
+      for (int j = 0; j < this.mixer.jointCount(); ++j) {
+        this.mixer.setAngles(eyes, j, 20, -15, 0);
+      }
+    }
+    if (this.layers > 3) {
+      final int claws = this.mixer.addLayer();
+      this.mixer.setPose(claws, poses.get(1));
+      this.mixer.setMask(claws, SpiderModel.CLAW_NAME,
+          SpiderModel.CLAW_MIDDLE_NAME, SpiderModel.CLAW_DISTAL_NAME);
+    }
+    if (this.layers > 4) {
+      final int fade = this.mixer.addLayer();
+      this.mixer.setPose(fade, poses.get(0));
+      this.mixer.setLayerWeight(fade, 0);
+    }
+  }
+
+  /**
+   * Blends the layers into the joints, after changing the weight of the first
+   * layer.
+   *
+   * @return The mixer.
+   */
+  @Benchmark
+  public AnimationMixer apply() {
+    this.mixer.setLayerWeight(0, this.flip ? 1 : 0.75);
+    this.flip = !this.flip;
+    this.mixer.apply();
+    return this.mixer;
+  }
+}
@@ -0,0 +1,134 @@
+/**
+ * PoseBenchmark.java - measures applying poses to the model
+ */
+
+
+package spider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jogamp.opengl.util.gl2.GLUT;
+
+/**
+ * Measures the ways in which a pose is applied to the model: setting the
+ * {@link TestCases} poses directly with
+ * {@link SpiderModel#setModelState(Map)}, as the program did before poses
+ * were animated; advancing a {@link PoseAnimator} between them by one step of
+ * the {@link Simulation}; and setting the angles of every component to those
+ * interpolated between two {@link PoseSnapshot}s, as each frame does.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+public class PoseBenchmark {
+  /** The animator which moves the model between poses. */
+  private PoseAnimator animator;
+  /** The components of the model. */
+  private Component[] components;
+  /** The snapshot of the model in the first pose. */
+  private PoseSnapshot from;
+  /** The model which is posed. */
+  private SpiderModel model;
+  /** The index of the next pose to apply. */
+  private int next = 0;
+  /** The poses of the test cases. */
+  private final List<Map<String, Angled>> poses =
+      new ArrayList<Map<String, Angled>>(TestCasesBenchmark.POSE_COUNT);
+  /** The fraction of the way between the snapshots. */
+  private double t = 0.25;
+  /** The snapshot of the model in the second pose. */
+  private PoseSnapshot to;
+
+  /**
+   * Gets the next pose, cycling through the test cases.
+   *
+   * @return The pose.
+   */
+  private Map<String, Angled> nextPose() {
+    final Map<String, Angled> pose = this.poses.get(this.next);
+    this.next = this.next + 1 == this.poses.size() ? 0 : this.next + 1;
+    return pose;
+  }
+
+  /**
+   * Builds the model, the poses of the test cases, and the snapshots of the
+   * first two poses.
+   */
+  @Setup
+  public void setUp() {
+    this.model = new SpiderModel(new GLUT());
+    this.animator = new PoseAnimator(this.model);
+    this.components = this.model.components().toArray(
+        new Component[this.model.components().size()]);
+
+    final TestCases testCases = new TestCases();
+    for (int i = 0; i < TestCasesBenchmark.POSE_COUNT; ++i) {
+      this.poses.add(testCases.next());
+    }
+
+    this.from = new PoseSnapshot(this.components.length);
+    this.to = new PoseSnapshot(this.components.length);
+    this.model.setModelState(this.poses.get(0));
+    this.from.capture(this.components, 0, 0);
+    this.model.setModelState(this.poses.get(1));
+    this.to.capture(this.components, 1, 1);
+  }
+
+  /**
+   * Advances the animation by one step of the simulation, starting a
+   * transition to the next pose whenever the last one has finished.
+   *
+   * @return Whether the angles of the joints may have changed.
+   */
+  @Benchmark
+  public boolean animate() {
+    if (this.animator.update(1.0 / Simulation.DEFAULT_RATE)) {
+      return true;
+    }
+    this.animator.transitionTo(this.nextPose());
+    return false;
+  }
+
+  /**
+   * Sets the angles of every component to those between two snapshots.
+   *
+   * @return The components.
+   */
+  @Benchmark
+  public Component[] interpolate() {
+    this.t = 1 - this.t;
+    PoseSnapshot.interpolate(this.from, this.to, this.t, this.components);
+    return this.components;
+  }
+
+  /**
+   * Sets the model to the next pose directly.
+   *
+   * @return The model.
+   */
+  @Benchmark
+  public SpiderModel setModelState() {
+    this.model.setModelState(this.nextPose());
+    return this.model;
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * QuaternionBenchmark.java - measures the quaternion operations
+ */
+
+
+package spider;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken by the {@link Quaternion} operations used for each
+ * joint in every frame: multiplying, normalizing, and converting to a
+ * rotation matrix, both allocating a new result and writing into an existing
+ * one.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+public class QuaternionBenchmark {
+  /** The left operand. */
+  private final Quaternion a = new Quaternion();
+  /** The right operand. */
+  private final Quaternion b = new Quaternion();
+  /** The matrix into which a quaternion is converted. */
+  private final float[] matrix = new float[Matrix4.SIZE];
+  /** The quaternion into which results are written. */
+  private final Quaternion result = new Quaternion();
+  /** A quaternion which is not of unit length. */
+  private final Quaternion unnormalized = new Quaternion();
+
+  /**
+   * Sets the operands to arbitrary rotations.
+   */
+  @Setup
+  public void setUp() {
+    this.a.setFromEuler(30, -45, 60);
+    this.b.setFromEuler(-10, 80, 25);
+    this.unnormalized.set(1.5f * this.a.s(), 1.5f * this.a.v0(),
+        1.5f * this.a.v1(), 1.5f * this.a.v2());
+  }
+
+  /**
+   * Multiplies two quaternions into a new one.
+   *
+   * @return The product.
+   */
+  @Benchmark
+  public Quaternion multiply() {
+    return this.a.multiply(this.b);
+  }
+
+  /**
+   * Multiplies two quaternions in place.
+   *
+   * @return The product.
+   */
+  @Benchmark
+  public Quaternion multiplyInPlace() {
+    this.result.set(this.a);
+    this.result.multiplyInPlace(this.b);
+    return this.result;
+  }
+
+  /**
+   * Normalizes a quaternion which is not of unit length.
+   *
+   * @return The normalized quaternion.
+   */
+  @Benchmark
+  public Quaternion normalize() {
+    this.result.set(this.unnormalized);
+    this.result.normalize();
+    return this.result;
+  }
+
+  /**
+   * Converts a quaternion into a new rotation matrix.
+   *
+   * @return The matrix.
+   */
+  @Benchmark
+  public float[] toMatrix() {
+    return this.a.toMatrix();
+  }
+
+  /**
+   * Converts a quaternion into an existing rotation matrix.
+   *
+   * @return The matrix.
+   */
+  @Benchmark
+  public float[] toMatrixInPlace() {
+    this.a.toMatrix(this.matrix, 0);
+    return this.matrix;
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * SceneBenchmark.java - measures traversing the scene without OpenGL
+ */
+
+
+package spider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jogamp.opengl.util.gl2.GLUT;
+
+/**
+ * Measures the time taken to draw one frame of the spider into a
+ * {@link RecordingRenderBackend}, as {@link HeadlessRender} does, which
+ * traverses the whole scene and computes the transformation of every
+ * component without an OpenGL context. The scene is either drawn in the same
+ * pose in every frame, when no transformation needs to be recomputed, or in
+ * the next pose of the {@link TestCases} in each frame.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+public class SceneBenchmark {
+  /** The backend into which the frames are drawn. */
+  private final RecordingRenderBackend backend = new RecordingRenderBackend();
+  /** The model which is drawn. */
+  private SpiderModel model;
+  /** The index of the next pose to apply. */
+  private int next = 0;
+  /** Whether the model is posed differently in each frame. */
+  @Param({ "false", "true" })
+  public boolean posing;
+  /** The poses of the test cases. */
+  private final List<Map<String, Angled>> poses =
+      new ArrayList<Map<String, Angled>>(TestCasesBenchmark.POSE_COUNT);
+
+  /**
+   * Builds the model and the poses of the test cases, and draws the first
+   * frame.
+   */
+  @Setup
+  public void setUp() {
+    this.model = new SpiderModel(new GLUT());
+    final TestCases testCases = new TestCases();
+    for (int i = 0; i < TestCasesBenchmark.POSE_COUNT; ++i) {
+      this.poses.add(testCases.next());
+    }
+    this.traverse();
+  }
+
+  /**
+   * Draws one frame, after setting the next pose if posing.
+   *
+   * @return The number of commands recorded in the frame.
+   */
+  @Benchmark
+  public int traverse() {
+    if (this.posing) {
+      this.model.setModelState(this.poses.get(this.next));
+      this.next = this.next + 1 == this.poses.size() ? 0 : this.next + 1;
+    }
+    this.backend.beginFrame();
+    this.model.topLevelComponent().render(this.backend);
+    this.backend.endFrame();
+    return this.backend.commandLength();
+  }
+}
@@ -0,0 +1,60 @@
+/**
+ * TestCasesBenchmark.java - measures building and cycling the test cases
+ */
+
+
+package spider;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken to build the {@link TestCases}, with the maps of
+ * angles of each of their poses, and to cycle through them.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+public class TestCasesBenchmark {
+  /** The number of poses in the test cases. */
+  public static final int POSE_COUNT = 6;
+
+  /** The test cases which are cycled through. */
+  private final TestCases testCases = new TestCases();
+
+  /**
+   * Builds the test cases.
+   *
+   * @return The test cases.
+   */
+  @Benchmark
+  public TestCases construct() {
+    return new TestCases();
+  }
+
+  /**
+   * Gets the next pose of the test cases.
+   *
+   * @return The pose.
+   */
+  @Benchmark
+  public Map<String, Angled> cycle() {
+    return this.testCases.next();
+  }
+}
@@ -0,0 +1,198 @@
+/**
+ * TransformBenchmark.java - measures the throughput of the transform kernels
+ */
+
+
+package spider;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken by the batch {@link TransformKernels}, scalar or
+ * vector, to process one batch of items, against multiplying the same number
+ * of {@link Quaternion} objects one at a time with
+ * {@link Quaternion#multiply(Quaternion)}.
+ *
+ * The benchmark is forked with the jdk.incubator.vector module so that the
+ * vector implementation can be loaded; measuring it fails if it cannot be.
+ * Until the vector operations are compiled into vector instructions they are
+ * orders of magnitude slower than scalar code, so the warm up must not be
+ * shortened when measuring them.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+public class TransformBenchmark {
+  /** The left quaternion operands. */
+  private float[] a;
+  /** The left quaternion operands as objects. */
+  private Quaternion[] aObjects;
+  /** The right quaternion operands. */
+  private float[] b;
+  /** The right quaternion operands as objects. */
+  private Quaternion[] bObjects;
+  /** The number of items in each batch. */
+  @Param({ "4096" })
+  public int count;
+  /** The quaternions into which results are written. */
+  private float[] dst;
+  /** The implementation of the kernels which is measured. */
+  private TransformKernels kernels;
+  /** The name of the implementation to measure, "scalar" or "vector". */
+  @Param({ "scalar", "vector" })
+  public String implementation;
+  /** The local transformation of each node. */
+  private float[] locals;
+  /** The matrices into which results are written. */
+  private float[] matrices;
+  /** The parent of each node, which precedes it. */
+  private int[] parents;
+  /** The products of the quaternion objects. */
+  private Quaternion[] products;
+  /** The world transformation of each node. */
+  private float[] worlds;
+
+  /**
+   * Chooses the implementation and fills the batches with random operands.
+   *
+   * @throws IllegalStateException
+   *           If the vector implementation is required but cannot be loaded.
+   */
+  @Setup
+  public void setUp() {
+    if ("vector".equals(this.implementation)) {
+      this.kernels = TransformKernels.instance();
+      if (this.kernels == TransformKernels.scalar()) {
+        throw new IllegalStateException("the vector implementation of the "
+            + "kernels is not available");
+      }
+    } else {
+      this.kernels = TransformKernels.scalar();
+    }
+
+    final Random random = new Random(0);
+    final int length = this.count * TransformKernels.QUATERNION_STRIDE;
+    this.a = new float[length];
+    this.b = new float[length];
+    this.dst = new float[length];
+    for (int i = 0; i < length; ++i) {
+      this.a[i] = random.nextFloat() - 0.5f;
+      this.b[i] = random.nextFloat() - 0.5f;
+    }
+    this.aObjects = new Quaternion[this.count];
+    this.bObjects = new Quaternion[this.count];
+    this.products = new Quaternion[this.count];
+    for (int i = 0; i < this.count; ++i) {
+      final int j = i * TransformKernels.QUATERNION_STRIDE;
+      this.aObjects[i] = new Quaternion(this.a[j], this.a[j + 1],
+          this.a[j + 2], this.a[j + 3]);
+      this.bObjects[i] = new Quaternion(this.b[j], this.b[j + 1],
+          this.b[j + 2], this.b[j + 3]);
+    }
+
+    this.matrices = new float[this.count * Matrix4.SIZE];
+    this.locals = new float[this.count * Matrix4.SIZE];
+    this.worlds = new float[this.count * Matrix4.SIZE];
+    this.parents = new int[this.count];
+    for (int i = 0; i < this.count; ++i) {
+      Matrix4.setTranslationRotation(this.locals, i * Matrix4.SIZE, random
+          .nextDouble(), random.nextDouble(), random.nextDouble(), random
+          .nextDouble() * 360, random.nextDouble() * 360,
+          random.nextDouble() * 360);
+      this.parents[i] = i == 0 ? SceneArena.NO_PARENT : random.nextInt(i);
+    }
+  }
+
+  /**
+   * Composes the world transformations of a hierarchy of nodes.
+   *
+   * @return The world transformations.
+   */
+  @Benchmark
+  public float[] composeHierarchy() {
+    this.kernels.composeHierarchy(this.parents, this.locals, this.worlds,
+        this.count);
+    return this.worlds;
+  }
+
+  /**
+   * Multiplies pairs of matrices.
+   *
+   * @return The products.
+   */
+  @Benchmark
+  public float[] multiplyMatrices() {
+    this.kernels.multiplyMatrices(this.locals, 0, this.worlds, 0,
+        this.matrices, 0, this.count);
+    return this.matrices;
+  }
+
+  /**
+   * Multiplies pairs of quaternion objects one at a time, into new objects,
+   * whatever the implementation of the kernels.
+   *
+   * @return The products.
+   */
+  @Benchmark
+  public Quaternion[] multiplyQuaternionObjects() {
+    for (int i = 0; i < this.count; ++i) {
+      this.products[i] = this.aObjects[i].multiply(this.bObjects[i]);
+    }
+    return this.products;
+  }
+
+  /**
+   * Multiplies pairs of quaternions.
+   *
+   * @return The products.
+   */
+  @Benchmark
+  public float[] multiplyQuaternions() {
+    this.kernels.multiplyQuaternions(this.a, 0, this.b, 0, this.dst, 0,
+        this.count);
+    return this.dst;
+  }
+
+  /**
+   * Normalizes a copy of the left quaternion operands.
+   *
+   * @return The normalized quaternions.
+   */
+  @Benchmark
+  public float[] normalizeQuaternions() {
+    System.arraycopy(this.a, 0, this.dst, 0, this.dst.length);
+    this.kernels.normalizeQuaternions(this.dst, 0, this.count);
+    return this.dst;
+  }
+
+  /**
+   * Converts quaternions into rotation matrices.
+   *
+   * @return The matrices.
+   */
+  @Benchmark
+  public float[] quaternionsToMatrices() {
+    this.kernels.quaternionsToMatrices(this.a, 0, this.matrices, 0,
+        this.count);
+    return this.matrices;
+  }
+}
@@ -0,0 +1,331 @@
+/**
+ * AnimationMixer.java - blends several layers of joint angles together
+ */
+
+
+import java.util.Map;
+
+/**
+ * Blends several layers of joint angles, such as a walk cycle on the legs, an
+ * eye tracking layer on the pupils, and a gesture on the claws, into the angles
+ * of a fixed set of joints.
+ *
+ * Every layer holds three angles per joint and a blend weight per joint, all
+ * stored in flat arrays indexed by layer and joint. Each frame,
+ * {@link #apply()} starts every joint from its bind pose, the angles it had
+ * when this mixer was created, and moves it toward the angles of each layer in
+ * turn by the weight of the layer times the weight of the joint in that layer,
+ * so that later layers override earlier ones. This takes a single pass over
+ * the joints with no map lookups and no allocation; joints are looked up by
+ * name only when the weights or poses of a layer are set up.
+ *
+ * A mask is a set of joint weights of either zero or one. Several joints of
+ * the {@link SpiderModel} share a name, since the legs on either side of the
+ * body mirror each other, so a weight set by name applies to all the joints
+ * with that name.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class AnimationMixer {
+  /** The initial number of layers for which room is allocated. */
+  public static final int INITIAL_LAYER_CAPACITY = 4;
+
+  /** The angles of each joint in each layer, layer by layer. */
+  private double[] angles;
+  /** The angles of each joint when this mixer was created. */
+  private final double[] bindAngles;
+  /** The weight of each joint in each layer, layer by layer. */
+  private double[] jointWeights;
+  /** The joints whose angles are blended. */
+  private final Component[] joints;
+  /** The number of layers. */
+  private int layerCount = 0;
+  /** The weight of each layer as a whole. */
+  private double[] layerWeights;
+
+  /**
+   * Instantiates this mixer with no layers for the animated joints of the
+   * specified model.
+   *
+   * @param model
+   *          The model to animate.
+   */
+  public AnimationMixer(final SpiderModel model) {
+    this(model.animatedJoints());
+  }
+
+  /**
+   * Instantiates this mixer with no layers for the specified joints, taking
+   * their current angles as the bind pose.
+   *
+   * @param joints
+   *          The joints whose angles are blended.
+   */
+  public AnimationMixer(final Component... joints) {
+    this.joints = joints;
+    this.bindAngles = new double[joints.length * SceneArena.ANGLE_STRIDE];
+    for (int j = 0; j < joints.length; ++j) {
+      final int i = j * SceneArena.ANGLE_STRIDE;
+      this.bindAngles[i] = joints[j].xAngle();
+      this.bindAngles[i + 1] = joints[j].yAngle();
+      this.bindAngles[i + 2] = joints[j].zAngle();
+    }
+    this.angles = new double[INITIAL_LAYER_CAPACITY * this.bindAngles.length];
+    this.jointWeights = new double[INITIAL_LAYER_CAPACITY * joints.length];
+    this.layerWeights = new double[INITIAL_LAYER_CAPACITY];
+  }
+
+  /**
+   * Adds a layer on top of the existing layers, with a weight of one for the
+   * layer and each of its joints and the angles of the bind pose.
+   *
+   * @return The index of the new layer.
+   */
+  public int addLayer() {
+    if (this.layerCount == this.layerWeights.length) {
+      final int capacity = 2 * this.layerCount;
+      final double[] newAngles = new double[capacity * this.bindAngles.length];
+      System.arraycopy(this.angles, 0, newAngles, 0, this.angles.length);
+      this.angles = newAngles;
+      final double[] newJointWeights = new double[capacity
+          * this.joints.length];
+      System.arraycopy(this.jointWeights, 0, newJointWeights, 0,
+          this.jointWeights.length);
+      this.jointWeights = newJointWeights;
+      final double[] newLayerWeights = new double[capacity];
+      System.arraycopy(this.layerWeights, 0, newLayerWeights, 0,
+          this.layerCount);
+      this.layerWeights = newLayerWeights;
+    }
+    final int layer = this.layerCount++;
+    System.arraycopy(this.bindAngles, 0, this.angles, this.angleOffset(layer),
+        this.bindAngles.length);
+    for (int j = 0; j < this.joints.length; ++j) {
+      this.jointWeights[layer * this.joints.length + j] = 1;
+    }
+    this.layerWeights[layer] = 1;
+    return layer;
+  }
+
+  /**
+   * Gets the offset of the angles of the first joint of the specified layer
+   * within the array returned by {@link #angles()}.
+   *
+   * @param layer
+   *          The index of the layer.
+   * @return The offset of the angles of the layer.
+   */
+  public int angleOffset(final int layer) {
+    return layer * this.bindAngles.length;
+  }
+
+  /**
+   * Gets the array of the angles of each joint in each layer, which a source
+   * of animation may write into directly each frame; the angles of joint
+   * {@code j} of a layer start at {@code angleOffset(layer) + 3 * j}.
+   *
+   * The array is replaced when a layer is added, so it must be retrieved
+   * again after {@link #addLayer()}.
+   *
+   * @return The array of the angles of each joint in each layer.
+   */
+  public double[] angles() {
+    return this.angles;
+  }
+
+  /**
+   * Sets the angles of every joint to the blend of all the layers, in a
+   * single pass over the joints.
+   */
+  public void apply() {
+    final int jointCount = this.joints.length;
+    for (int j = 0; j < jointCount; ++j) {
+      final int i = j * SceneArena.ANGLE_STRIDE;
+      double x = this.bindAngles[i];
+      double y = this.bindAngles[i + 1];
+      double z = this.bindAngles[i + 2];
+      for (int layer = 0; layer < this.layerCount; ++layer) {
+        final double weight = this.layerWeights[layer]
+            * this.jointWeights[layer * jointCount + j];
+        if (weight == 0) {
+          continue;
+        }
+        final int k = layer * this.bindAngles.length + i;
+        x += weight * (this.angles[k] - x);
+        y += weight * (this.angles[k + 1] - y);
+        z += weight * (this.angles[k + 2] - z);
+      }
+      this.joints[j].setAngles(x, y, z);
+    }
+  }
+
+  /**
+   * Gets the number of joints whose angles are blended.
+   *
+   * @return The number of joints.
+   */
+  public int jointCount() {
+    return this.joints.length;
+  }
+
+  /**
+   * Gets the weight of the specified joint in the specified layer.
+   *
+   * @param layer
+   *          The index of the layer.
+   * @param joint
+   *          The index of the joint.
+   * @return The weight of the joint in the layer.
+   */
+  public double jointWeight(final int layer, final int joint) {
+    return this.jointWeights[layer * this.joints.length + joint];
+  }
+
+  /**
+   * Gets the number of layers.
+   *
+   * @return The number of layers.
+   */
+  public int layerCount() {
+    return this.layerCount;
+  }
+
+  /**
+   * Gets the weight of the specified layer as a whole.
+   *
+   * @param layer
+   *          The index of the layer.
+   * @return The weight of the layer.
+   */
+  public double layerWeight(final int layer) {
+    return this.layerWeights[layer];
+  }
+
+  /**
+   * Sets the angles of the specified joint in the specified layer.
+   *
+   * @param layer
+   *          The index of the layer.
+   * @param joint
+   *          The index of the joint.
+   * @param x
+   *          The angle around the x axis, in degrees.
+   * @param y
+   *          The angle around the y axis, in degrees.
+   * @param z
+   *          The angle around the z axis, in degrees.
+   */
+  public void setAngles(final int layer, final int joint, final double x,
+      final double y, final double z) {
+    final int k = this.angleOffset(layer) + joint * SceneArena.ANGLE_STRIDE;
+    this.angles[k] = x;
+    this.angles[k + 1] = y;
+    this.angles[k + 2] = z;
+  }
+
+  /**
+   * Sets the weight of every joint in the specified layer.
+   *
+   * @param layer
+   *          The index of the layer.
+   * @param weight
+   *          The weight of every joint, between 0 and 1.
+   */
+  public void setJointWeight(final int layer, final double weight) {
+    for (int j = 0; j < this.joints.length; ++j) {
+      this.jointWeights[layer * this.joints.length + j] = weight;
+    }
+  }
+
+  /**
+   * Sets the weight of the specified joint in the specified layer.
+   *
+   * @param layer
+   *          The index of the layer.
+   * @param joint
+   *          The index of the joint.
+   * @param weight
+   *          The weight of the joint, between 0 and 1.
+   */
+  public void setJointWeight(final int layer, final int joint,
+      final double weight) {
+    this.jointWeights[layer * this.joints.length + joint] = weight;
+  }
+
+  /**
+   * Sets the weight of every joint with the specified name in the specified
+   * layer.
+   *
+   * @param layer
+   *          The index of the layer.
+   * @param name
+   *          The name of the joints.
+   * @param weight
+   *          The weight of the joints, between 0 and 1.
+   * @return The number of joints with the specified name.
+   */
+  public int setJointWeight(final int layer, final String name,
+      final double weight) {
+    int count = 0;
+    for (int j = 0; j < this.joints.length; ++j) {
+      if (this.joints[j].name().equals(name)) {
+        this.jointWeights[layer * this.joints.length + j] = weight;
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Sets the weight of the specified layer as a whole, by which the weight of
+   * each of its joints is multiplied, for example to fade the layer in or out.
+   *
+   * @param layer
+   *          The index of the layer.
+   * @param weight
+   *          The weight of the layer, between 0 and 1.
+   */
+  public void setLayerWeight(final int layer, final double weight) {
+    this.layerWeights[layer] = weight;
+  }
+
+  /**
+   * Restricts the specified layer to the joints with the specified names,
+   * giving them a weight of one and every other joint a weight of zero.
+   *
+   * @param layer
+   *          The index of the layer.
+   * @param names
+   *          The names of the joints affected by the layer.
+   */
+  public void setMask(final int layer, final String... names) {
+    this.setJointWeight(layer, 0);
+    for (final String name : names) {
+      this.setJointWeight(layer, name, 1);
+    }
+  }
+
+  /**
+   * Sets the angles of the posed joints in the specified layer to those given
+   * by a pose, keyed by joint name as in {@link TestCases}. This mixer must
+   * have been created for the animated joints of a {@link SpiderModel}.
+   *
+   * @param layer
+   *          The index of the layer.
+   * @param state
+   *          The angles of each of the joints, keyed by joint name.
+   * @throws IllegalStateException
+   *           If this mixer has fewer joints than the animated joints of a
+   *           model, so that the pose would overrun the layer.
+   */
+  public void setPose(final int layer, final Map<String, Angled> state) {
+    if (this.joints.length < SpiderModel.ANIMATED_JOINT_COUNT) {
+      throw new IllegalStateException("A pose needs the "
+          + SpiderModel.ANIMATED_JOINT_COUNT
+          + " animated joints of a model, but this mixer has "
+          + this.joints.length);
+    }
+    SpiderModel.resolvePose(state, this.angles, this.angleOffset(layer));
+  }
+}
@@ -3,15 +3,23 @@
  */
 
 
+import javax.media.opengl.GL2;
+
 import com.jogamp.opengl.util.gl2.GLUT;//for new version of gl
 
 /**
- * A circular object.
+ * A circular object which draws itself from a call list shared with all other
+ * circular objects which have the same geometry.
  * 
  * @author Jeffrey Finkelstein <jeffrey.finkelstein@gmail.com>
  * @since Spring 2011
  */
-public class Circular {
+public abstract class Circular implements Displayable {
+  /**
+   * The OpenGL handle to the shared display list which contains all the
+   * components which comprise this object.
+   */
+  private int callListHandle;
   /** The OpenGL utility toolkit object to use to draw this object. */
   private final GLUT glut;
   /** The radius of this object. */
@@ -28,6 +36,35 @@ public class Circular {
     this.glut = glut;
   }
 
+  /**
+   * Issues the OpenGL commands which draw the geometry of this object, while
+   * the shared call list for that geometry is being compiled.
+   * 
+   * @param gl
+   *          The OpenGL object on which to draw the geometry.
+   */
+  protected abstract void compile(final GL2 gl);
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @param gl
+   *          {@inheritDoc}
+   * @see Displayable#draw(GL2)
+   */
+  @Override
+  public void draw(final GL2 gl) {
+    gl.glCallList(this.callListHandle);
+  }
+
+  /**
+   * Gets the key which identifies the geometry of this object; objects with
+   * equal keys share a single call list.
+   * 
+   * @return The key which identifies the geometry of this object.
+   */
+  public abstract GeometryKey geometryKey();
+
   /**
    * Gets the OpenGL utility toolkit object.
    * 
@@ -37,6 +74,20 @@ public class Circular {
     return this.glut;
   }
 
+  /**
+   * Gets the shared call list which draws the geometry of this object from the
+   * {@link GeometryCache}, compiling it only if no object with the same
+   * geometry has done so already.
+   * 
+   * @param gl
+   *          {@inheritDoc}
+   * @see Displayable#initialize(GL2)
+   */
+  @Override
+  public void initialize(final GL2 gl) {
+    this.callListHandle = GeometryCache.instance().callList(gl, this);
+  }
+
   /**
    * Gets the radius of this object.
    * 
@@ -45,4 +96,28 @@ public class Circular {
   protected double radius() {
     return this.radius;
   }
+
+  /**
+   * Generates a triangle mesh for the geometry of this object, with the
+   * numbers of slices and stacks given by its {@linkplain #geometryKey() key}.
+   * 
+   * @return A new triangle mesh for the geometry of this object.
+   */
+  public Mesh tessellate() {
+    final GeometryKey key = this.geometryKey();
+    return this.tessellate(key.slices(), key.stacks());
+  }
+
+  /**
+   * Generates a triangle mesh for the geometry of this object with the
+   * specified numbers of slices and stacks, without requiring an OpenGL
+   * context.
+   * 
+   * @param slices
+   *          The number of subdivisions around the z axis.
+   * @param stacks
+   *          The number of subdivisions along the z axis.
+   * @return A new triangle mesh for the geometry of this object.
+   */
+  public abstract Mesh tessellate(final int slices, final int stacks);
 }
@@ -3,9 +3,6 @@
  */
 
 
-import java.util.HashSet;
-import java.util.Set;
-
 import javax.media.opengl.GL;
 import javax.media.opengl.GL2;
 
@@ -17,37 +14,110 @@ import javax.media.opengl.GL2;
  */
 public class Component implements Rotatable, Nameable, UpdatingDisplayable,
     Colorable {
+  /** The children of a component which has no children. */
+  private static final Component[] NO_CHILDREN = new Component[0];
+  /** The index of the x negative extent within the six extents of a node. */
+  private static final int X_NEGATIVE_EXTENT = 0;
+  /** The index of the x positive extent within the six extents of a node. */
+  private static final int X_POSITIVE_EXTENT = 1;
+  /** The index of the y negative extent within the six extents of a node. */
+  private static final int Y_NEGATIVE_EXTENT = 2;
+  /** The index of the y positive extent within the six extents of a node. */
+  private static final int Y_POSITIVE_EXTENT = 3;
+  /** The index of the z negative extent within the six extents of a node. */
+  private static final int Z_NEGATIVE_EXTENT = 4;
+  /** The index of the z positive extent within the six extents of a node. */
+  private static final int Z_POSITIVE_EXTENT = 5;
+
+  /** The offset of the x, y, and z angles of this joint within the array. */
+  private final int angleOffset;
+  /**
+   * The array containing the current angles at which this joint is rotated
+   * around the x, y, and z axes.
+   */
+  private final double[] angles;
+  /** The arena in which the state of this component is stored, if any. */
+  private final SceneArena arena;
   /** The handle to the OpenGL call list to use to draw this component. */
   private int callListHandle;
+  /** The number of children of this component. */
+  private int childCount = 0;
   /**
-   * The children of this component, which will be drawn respecting the
-   * translation and rotation of this component.
+   * The children of this component in the order in which they were added, which
+   * will be drawn respecting the translation and rotation of this component.
+   * 
+   * Only the first {@link #childCount} elements of this array are children.
    */
-  private Set<Component> children = new HashSet<Component>();
+  private Component[] children = NO_CHILDREN;
   /** The color of this component. */
   private FloatColor color = FloatColor.ORANGE;
+  /** The number of descendants of this component, not including itself. */
+  private int descendantCount = 0;
+  /**
+   * Whether the call list of this component must be recompiled on the next
+   * call to {@link #update(GL2)}.
+   */
+  private boolean dirty = true;
   /** The displayable object which this component draws. */
   private final Displayable displayable;
-  /** The position of this component. */
-  private final Point3D position;
-  /** The current angle at which this joint is rotated around the x axis. */
-  private double xAngle = 0.0;
-  /** The minimum angle to which this joint can be rotated around the x axis. */
-  private double xNegativeExtent = -360;
-  /** The maximum angle to which this joint can be rotated around the x axis. */
-  private double xPositiveExtent = 360;
-  /** The current angle at which this joint is rotated around the y axis. */
-  private double yAngle = 0.0;
-  /** The minimum angle to which this joint can be rotated around the y axis. */
-  private double yNegativeExtent = -360;
-  /** The maximum angle to which this joint can be rotated around the y axis. */
-  private double yPositiveExtent = 360;
-  /** The current angle at which this joint is rotated around the z axis. */
-  private double zAngle = 0.0;
-  /** The minimum angle to which this joint can be rotated around the z axis. */
-  private double zNegativeExtent = -360;
-  /** The maximum angle to which this joint can be rotated around the z axis. */
-  private double zPositiveExtent = 360;
+  /** The offset of the six extents of this joint within the array. */
+  private final int extentOffset;
+  /**
+   * The array containing the minimum and maximum angles to which this joint
+   * can be rotated around each of the x, y, and z axes.
+   */
+  private final double[] extents;
+  /**
+   * The index of this component in its arena, or -1 if this component is not
+   * stored in an arena.
+   */
+  private final int index;
+  /**
+   * The orientation of this joint as a quaternion, or {@code null} if the
+   * orientation is given by the Euler angles alone.
+   */
+  private SwingTwistJoint joint = null;
+  /** Whether the local transformation must be recomputed from the angles. */
+  private boolean localTransformDirty = true;
+  /** The offset of the local transformation within the array. */
+  private final int localTransformOffset;
+  /**
+   * The array containing the transformation from the coordinate system of this
+   * component to that of its parent, that is, its translation followed by its
+   * rotations.
+   */
+  private final float[] localTransforms;
+  /** The component of which this component is a child, if any. */
+  private Component parent = null;
+  /**
+   * The version of the world transformation of the parent of this component
+   * from which the world transformation of this component was computed.
+   */
+  private int parentWorldTransformVersion = -1;
+  /** The offset of the x, y, and z components of the position in the array. */
+  private final int positionOffset;
+  /** The array containing the position of this component. */
+  private final double[] positions;
+  /**
+   * Whether this component or any of its descendants is dirty, that is,
+   * whether {@link #update(GL2)} needs to descend into this subtree at all.
+   */
+  private boolean subtreeDirty = true;
+  /** The offset of the world transformation within the array. */
+  private final int worldTransformOffset;
+  /**
+   * The array containing the transformation from the coordinate system of this
+   * component to that of the top level component in the scene.
+   */
+  private final float[] worldTransforms;
+  /**
+   * Whether the world transformation must be recomputed because the local
+   * transformation has changed, which only {@link #updateWorldTransform()}
+   * clears, whether or not the local transformation has since been recomputed.
+   */
+  private boolean worldTransformDirty = true;
+  /** Incremented each time the world transformation is recomputed. */
+  private int worldTransformVersion = 0;
 
   /**
    * Instantiates this component with the specified position, but with nothing
@@ -74,22 +144,119 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    */
   public Component(final Point3D position, final Displayable displayable,
       final String name) {
-    this.position = position;
+    this.arena = null;
+    this.index = -1;
+    this.displayable = displayable;
+    this.name = name;
+
+    // keep all the state of this component in one small array of its own
+    this.positions = new double[SceneArena.POSITION_STRIDE
+        + SceneArena.ANGLE_STRIDE + SceneArena.EXTENT_STRIDE];
+    this.angles = this.positions;
+    this.extents = this.positions;
+    this.positionOffset = 0;
+    this.angleOffset = SceneArena.POSITION_STRIDE;
+    this.extentOffset = this.angleOffset + SceneArena.ANGLE_STRIDE;
+    this.positions[0] = position.x();
+    this.positions[1] = position.y();
+    this.positions[2] = position.z();
+    SceneArena.setDefaultExtents(this.extents, this.extentOffset);
+
+    this.localTransforms = new float[2 * Matrix4.SIZE];
+    this.worldTransforms = this.localTransforms;
+    this.localTransformOffset = 0;
+    this.worldTransformOffset = Matrix4.SIZE;
+  }
+
+  /**
+   * Instantiates this component with the specified position and the
+   * displayable which this component represents, storing its state in the
+   * specified arena.
+   * 
+   * If the specified displayable object is {@code null}, this component will
+   * only provide a positioning and rotation.
+   * 
+   * @param arena
+   *          The arena in which to store the state of this component.
+   * @param position
+   *          The position of this component.
+   * @param displayable
+   *          The object which this component represents.
+   * @throws IllegalStateException
+   *           If the arena is full.
+   */
+  public Component(final SceneArena arena, final Point3D position,
+      final Displayable displayable, final String name) {
+    this.arena = arena;
+    this.index = arena.allocate(position);
     this.displayable = displayable;
     this.name = name;
+
+    this.positions = arena.positions();
+    this.angles = arena.angles();
+    this.extents = arena.extents();
+    this.positionOffset = this.index * SceneArena.POSITION_STRIDE;
+    this.angleOffset = this.index * SceneArena.ANGLE_STRIDE;
+    this.extentOffset = this.index * SceneArena.EXTENT_STRIDE;
+
+    this.localTransforms = arena.localTransforms();
+    this.worldTransforms = arena.worldTransforms();
+    this.localTransformOffset = this.index * SceneArena.TRANSFORM_STRIDE;
+    this.worldTransformOffset = this.index * SceneArena.TRANSFORM_STRIDE;
   }
 
   /** The human-readable name of this component. */
   private final String name;
 
   /**
-   * Adds the specified child to the set of children of this component.
+   * Adds the specified child to the end of the list of children of this
+   * component.
+   * 
+   * If the specified component is already a child of this component, this
+   * method does nothing. If it is a child of another component, it is first
+   * removed from that component.
+   * 
+   * If both components are stored in the same arena, the child must have been
+   * allocated after this component, so that every parent precedes its
+   * children in the arena.
    * 
    * @param component
    *          The component to add as a child of this component.
+   * @throws IllegalArgumentException
+   *           If both components are in the same arena and the child precedes
+   *           this component in it.
    */
   public void addChild(final Component component) {
-    this.children.add(component);
+    if (component.parent == this) {
+      return;
+    }
+    if (this.arena != null && this.arena == component.arena
+        && component.index < this.index) {
+      throw new IllegalArgumentException("Child " + component.index
+          + " precedes its parent " + this.index + " in the scene arena");
+    }
+    if (component.parent != null) {
+      component.parent.removeChild(component);
+    }
+
+    if (this.childCount == this.children.length) {
+      final Component[] newChildren = new Component[Math.max(2,
+          2 * this.childCount)];
+      System.arraycopy(this.children, 0, newChildren, 0, this.childCount);
+      this.children = newChildren;
+    }
+    this.children[this.childCount++] = component;
+    component.parent = this;
+    for (Component ancestor = this; ancestor != null;
+        ancestor = ancestor.parent) {
+      ancestor.descendantCount += component.descendantCount + 1;
+    }
+    component.parentWorldTransformVersion = -1;
+    if (this.arena != null && this.arena == component.arena) {
+      this.arena.parents()[component.index] = this.index;
+    }
+    // the call list of this component must now call the list of the child
+    this.markDirty();
   }
 
   /**
@@ -106,6 +273,121 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
     }
   }
 
+  /**
+   * Gets the child of this component at the specified index.
+   * 
+   * @param index
+   *          The index of the child, between 0 (inclusive) and
+   *          {@link #childCount()} (exclusive).
+   * @return The child of this component at the specified index.
+   * @throws IndexOutOfBoundsException
+   *           If the index is out of range.
+   */
+  public Component child(final int index) {
+    if (index < 0 || index >= this.childCount) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", child count: "
+          + this.childCount);
+    }
+    return this.children[index];
+  }
+
+  /**
+   * Gets the number of children of this component.
+   * 
+   * @return The number of children of this component.
+   */
+  public int childCount() {
+    return this.childCount;
+  }
+
+  /**
+   * Gets the number of descendants of this component, that is, the number of
+   * components in its subtree other than itself.
+   * 
+   * @return The number of descendants of this component.
+   */
+  public int descendantCount() {
+    return this.descendantCount;
+  }
+
+  /**
+   * Gets the index of the specified component in the list of children of this
+   * component.
+   * 
+   * @param component
+   *          The component to find.
+   * @return The index of the specified component, or -1 if it is not a child
+   *         of this component.
+   */
+  public int indexOf(final Component component) {
+    for (int i = 0; i < this.childCount; ++i) {
+      if (this.children[i] == component) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the component of which this component is a child.
+   * 
+   * @return The parent of this component, or {@code null} if it has none.
+   */
+  public Component parent() {
+    return this.parent;
+  }
+
+  /**
+   * Removes the specified child from the list of children of this component,
+   * preserving the order of the remaining children.
+   * 
+   * @param component
+   *          The child to remove.
+   * @return Whether the specified component was a child of this component.
+   */
+  public boolean removeChild(final Component component) {
+    final int i = this.indexOf(component);
+    if (i < 0) {
+      return false;
+    }
+    System.arraycopy(this.children, i + 1, this.children, i, this.childCount
+        - i - 1);
+    this.children[--this.childCount] = null;
+    for (Component ancestor = this; ancestor != null;
+        ancestor = ancestor.parent) {
+      ancestor.descendantCount -= component.descendantCount + 1;
+    }
+
+    component.parent = null;
+    component.parentWorldTransformVersion = -1;
+    if (this.arena != null && this.arena == component.arena) {
+      this.arena.parents()[component.index] = SceneArena.NO_PARENT;
+    }
+    // the call list of this component must no longer call the list of the
+    // child
+    this.markDirty();
+    return true;
+  }
+
+  /**
+   * Gets the color of this component.
+   * 
+   * @return The color of this component.
+   */
+  public FloatColor color() {
+    return this.color;
+  }
+
+  /**
+   * Gets the object which this component draws.
+   * 
+   * @return The object which this component draws, or {@code null} if this
+   *         component only provides a positioning and rotation.
+   */
+  public Displayable displayable() {
+    return this.displayable;
+  }
+
   /**
    * Calls the OpenGL call list which contains the commands which draw this
    * component.
@@ -120,6 +402,26 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
     gl.glCallList(this.callListHandle);
   }
 
+  /**
+   * Gets the arena in which the state of this component is stored.
+   * 
+   * @return The arena in which the state of this component is stored, or
+   *         {@code null} if this component stores its own state.
+   */
+  public SceneArena arena() {
+    return this.arena;
+  }
+
+  /**
+   * Gets the index of this component within its arena.
+   * 
+   * @return The index of this component within its arena, or -1 if this
+   *         component stores its own state.
+   */
+  public int index() {
+    return this.index;
+  }
+
   /**
    * Initializes the call list which this component uses for drawing, then
    * calls the corresponding method on the children of this component.
@@ -131,8 +433,15 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    */
   @Override
   public void initialize(final GL2 gl) {
+    final ComponentInitializeEvent event = ComponentInitializeEvent
+        .isRecorded() ? new ComponentInitializeEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
+
     // create a new OpenGL call list handle
     this.callListHandle = gl.glGenLists(1);
+    this.markDirty();
 
     // initialize the displayable object which this component represents
     if (this.displayable != null) {
@@ -140,11 +449,178 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
     }
 
     // initialize each of the children of this component
-    for (final Component child : this.children) {
-      child.initialize(gl);
+    for (int i = 0; i < this.childCount; ++i) {
+      this.children[i].initialize(gl);
+    }
+
+    if (event != null && event.shouldCommit()) {
+      event.componentName = this.name;
+      event.subtreeSize = this.descendantCount + 1;
+      event.commit();
+    }
+  }
+
+  /**
+   * Marks the local and world transformations of this component as stale
+   * after a change to its angles, and marks this component dirty.
+   */
+  private void anglesChanged() {
+    this.localTransformDirty = true;
+    this.worldTransformDirty = true;
+    this.markDirty();
+  }
+
+  /**
+   * Gets the array containing the transformation from the coordinate system of
+   * this component to that of its parent, recomputing it first if the angles
+   * of this component have changed.
+   * 
+   * The matrix starts at {@link #localTransformOffset()} within the returned
+   * array. The returned array is owned by this component (or its arena) and
+   * must not be modified.
+   * 
+   * @return The array containing the local transformation of this component as
+   *         a 4 by 4 matrix in column major order.
+   */
+  public float[] localTransform() {
+    if (this.localTransformDirty && this.joint != null) {
+      // one rotation matrix from the quaternion, followed by the translation
+      final int o = this.localTransformOffset;
+      final int p = this.positionOffset;
+      this.joint.orientation().toMatrix(this.localTransforms, o);
+      this.localTransforms[o + 12] = (float) this.positions[p];
+      this.localTransforms[o + 13] = (float) this.positions[p + 1];
+      this.localTransforms[o + 14] = (float) this.positions[p + 2];
+      this.localTransformDirty = false;
+    } else if (this.localTransformDirty) {
+      Matrix4.setTranslationRotation(this.localTransforms,
+          this.localTransformOffset, this.positions[this.positionOffset],
+          this.positions[this.positionOffset + 1],
+          this.positions[this.positionOffset + 2], this.xAngle(),
+          this.yAngle(), this.zAngle());
+      this.localTransformDirty = false;
+    }
+    return this.localTransforms;
+  }
+
+  /**
+   * Gets the offset of the local transformation within the array returned by
+   * {@link #localTransform()}.
+   * 
+   * @return The offset of the local transformation of this component.
+   */
+  public int localTransformOffset() {
+    return this.localTransformOffset;
+  }
+
+  /**
+   * Gets the transformation from the coordinate system of this component to
+   * that of the top level component in the scene, that is, the composition of
+   * the local transformations of this component and all its ancestors.
+   * 
+   * The world transformation is recomputed only if the angles of this
+   * component have changed or the world transformation of its parent has been
+   * recomputed since the last call to this method. The matrix starts at
+   * {@link #worldTransformOffset()} within the returned array. The returned
+   * array is owned by this component (or its arena) and must not be modified.
+   * 
+   * @return The array containing the world transformation of this component as
+   *         a 4 by 4 matrix in column major order.
+   */
+  public float[] worldTransform() {
+    if (this.parent != null) {
+      this.parent.worldTransform();
+    }
+    this.updateWorldTransform();
+    return this.worldTransforms;
+  }
+
+  /**
+   * Recomputes the world transformation of this component if its angles have
+   * changed or the world transformation of its parent has been recomputed,
+   * assuming that the world transformation of its parent is up to date.
+   * 
+   * Unlike {@link #worldTransform()}, this method does not visit the ancestors
+   * of this component, so a traversal from the top level component down can
+   * update each component once, and the subtrees of different children can be
+   * updated concurrently (see {@link ParallelTransformEvaluator}).
+   */
+  void updateWorldTransform() {
+    if (this.parent == null) {
+      if (this.worldTransformDirty || this.parentWorldTransformVersion != 0) {
+        Matrix4.copy(this.localTransform(), this.localTransformOffset,
+            this.worldTransforms, this.worldTransformOffset);
+        this.worldTransformDirty = false;
+        this.parentWorldTransformVersion = 0;
+        ++this.worldTransformVersion;
+      }
+    } else if (this.worldTransformDirty
+        || this.parentWorldTransformVersion != this.parent.worldTransformVersion) {
+      Matrix4.multiply(this.parent.worldTransforms,
+          this.parent.worldTransformOffset, this.localTransform(),
+          this.localTransformOffset, this.worldTransforms,
+          this.worldTransformOffset);
+      this.worldTransformDirty = false;
+      this.parentWorldTransformVersion = this.parent.worldTransformVersion;
+      ++this.worldTransformVersion;
+    }
+  }
+
+  /**
+   * Gets the offset of the world transformation within the array returned by
+   * {@link #worldTransform()}.
+   * 
+   * @return The offset of the world transformation of this component.
+   */
+  public int worldTransformOffset() {
+    return this.worldTransformOffset;
+  }
+
+  /**
+   * Marks the call list of this component as needing to be recompiled, and
+   * marks each of the ancestors of this component as having a dirty subtree.
+   * 
+   * The call lists of the ancestors themselves are not recompiled: a call list
+   * only records a call to the call list of each child by handle, so it picks
+   * up the recompiled list of a child without being recompiled itself.
+   */
+  public void markDirty() {
+    this.dirty = true;
+    for (Component component = this; component != null
+        && !component.subtreeDirty; component = component.parent) {
+      component.subtreeDirty = true;
     }
   }
 
+  /**
+   * Draws this component and its children directly into the specified
+   * backend, without using or updating any call lists.
+   * 
+   * This component is transformed by its cached local transformation and
+   * colored appropriately, its {@link Displayable} is drawn, and then its
+   * children are drawn with respect to that transformation. This is the draw
+   * path used with displayables which must not be compiled into a call list,
+   * such as {@link VertexBufferDisplayable}, and with backends which do not
+   * draw with OpenGL at all.
+   * 
+   * @param backend
+   *          The backend to which to issue the drawing commands.
+   */
+  public void render(final RenderBackend backend) {
+    backend.pushMatrix();
+    backend.multMatrix(this.localTransform(), this.localTransformOffset);
+
+    if (this.displayable != null) {
+      backend.draw(this.displayable, this.color);
+    }
+
+    for (int i = 0; i < this.childCount; ++i) {
+      this.children[i].render(backend);
+    }
+
+    backend.popMatrix();
+  }
+
   /**
    * {@inheritDoc}
    * 
@@ -154,25 +630,94 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    *          {@inheritDoc}
    */
   public void rotate(final Axis axis, final double angleDelta) {
-    if (axis.equals(Axis.X)) {
-      this.xAngle += angleDelta;
-      this.xAngle = Math.min(this.xAngle, this.xPositiveExtent);
-      this.xAngle = Math.max(this.xAngle, this.xNegativeExtent);
-    } else if (axis.equals(Axis.Y)) {
-      this.yAngle += angleDelta;
-      this.yAngle = Math.min(this.yAngle, this.yPositiveExtent);
-      this.yAngle = Math.max(this.yAngle, this.yNegativeExtent);
-    } else if (axis.equals(Axis.Z)) {
-      this.zAngle += angleDelta;
-      this.zAngle = Math.min(this.zAngle, this.zPositiveExtent);
-      this.zAngle = Math.max(this.zAngle, this.zNegativeExtent);
+    if (this.joint != null) {
+      // rotate around the axis of this joint, then limit the swing and twist
+      this.joint.rotate(axis, angleDelta);
+      this.joint.constrain(this.extents, this.extentOffset);
+      this.orientationChanged();
+      return;
     }
+
+    // the angles and extents are stored in x, y, z order
+    final int i = this.angleOffset + axis.ordinal();
+    final int j = this.extentOffset + 2 * axis.ordinal();
+    this.angles[i] += angleDelta;
+    this.angles[i] = Math.min(this.angles[i], this.extents[j + 1]);
+    this.angles[i] = Math.max(this.angles[i], this.extents[j]);
+    this.anglesChanged();
+  }
+
+  /**
+   * Gets the minimum angle to which this joint can be rotated around the
+   * specified axis.
+   * 
+   * @param axis
+   *          The axis of rotation.
+   * @return The negative extent around the axis, in degrees.
+   */
+  public double negativeExtent(final Axis axis) {
+    return this.extents[this.extentOffset + 2 * axis.ordinal()];
+  }
+
+  /**
+   * Gets the maximum angle to which this joint can be rotated around the
+   * specified axis.
+   * 
+   * @param axis
+   *          The axis of rotation.
+   * @return The positive extent around the axis, in degrees.
+   */
+  public double positiveExtent(final Axis axis) {
+    return this.extents[this.extentOffset + 2 * axis.ordinal() + 1];
+  }
+
+  /**
+   * Returns whether the orientation of this component is stored as a
+   * quaternion, with swing and twist limits, rather than as Euler angles with
+   * limits per axis.
+   * 
+   * @return Whether this component is in quaternion orientation mode.
+   */
+  public boolean isQuaternionOrientation() {
+    return this.joint != null;
+  }
+
+  /**
+   * Gets the orientation of this component as a quaternion, if it is in
+   * quaternion orientation mode.
+   * 
+   * The returned quaternion is owned by this component and must not be
+   * modified; use {@link #setOrientation(Quaternion)} instead.
+   * 
+   * @return The orientation of this component, or {@code null} if it is not in
+   *         quaternion orientation mode.
+   */
+  public Quaternion orientation() {
+    return this.joint == null ? null : this.joint.orientation();
+  }
+
+  /**
+   * Recomputes the Euler angles of this component from its quaternion
+   * orientation, and marks the local transformation stale.
+   */
+  private void orientationChanged() {
+    this.joint.orientation().toEuler(this.angles, this.angleOffset);
+    this.anglesChanged();
   }
 
   public void setAngles(final double x, final double y, final double z) {
-    this.xAngle = x;
-    this.yAngle = y;
-    this.zAngle = z;
+    final int i = this.angleOffset;
+    if (this.angles[i] == x && this.angles[i + 1] == y
+        && this.angles[i + 2] == z) {
+      return;
+    }
+    this.angles[i] = x;
+    this.angles[i + 1] = y;
+    this.angles[i + 2] = z;
+    if (this.joint != null) {
+      this.joint.orientation().setFromEuler(x, y, z);
+    }
+    this.anglesChanged();
   }
 
   public void setAngles(final Angled angledObject) {
@@ -190,7 +735,58 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    */
   @Override
   public void setColor(final FloatColor color) {
+    if (this.color.equals(color)) {
+      return;
+    }
     this.color = color;
+    this.markDirty();
+  }
+
+  /**
+   * Sets the orientation of this component to that of the specified unit
+   * quaternion, without applying any limits.
+   * 
+   * In quaternion orientation mode the quaternion is used directly; otherwise
+   * it is converted to Euler angles.
+   * 
+   * @param orientation
+   *          The new orientation of this component.
+   */
+  public void setOrientation(final Quaternion orientation) {
+    if (this.joint != null) {
+      this.joint.orientation().set(orientation);
+      this.orientationChanged();
+    } else {
+      orientation.toEuler(this.angles, this.angleOffset);
+      this.anglesChanged();
+    }
+  }
+
+  /**
+   * Switches this component into or out of quaternion orientation mode,
+   * keeping its current orientation.
+   * 
+   * In quaternion orientation mode the local transformation is computed from a
+   * quaternion in one step, {@link #rotate(Axis, double)} rotates around the
+   * axes of the joint itself without gimbal lock, and the extents are applied
+   * as a swing cone and a twist range (see {@link SwingTwistJoint}) instead of
+   * per axis. The Euler angles are kept up to date from the quaternion.
+   * 
+   * @param enabled
+   *          Whether to use quaternion orientation mode.
+   */
+  public void setQuaternionOrientation(final boolean enabled) {
+    if (enabled == (this.joint != null)) {
+      return;
+    }
+    if (enabled) {
+      this.joint = new SwingTwistJoint();
+      this.joint.orientation().setFromEuler(this.xAngle(), this.yAngle(),
+          this.zAngle());
+    } else {
+      this.joint = null;
+    }
+    this.anglesChanged();
   }
 
   /**
@@ -200,7 +796,7 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    *          {@inheritDoc}
    */
   public void setXNegativeExtent(final double newXNegativeExtent) {
-    this.xNegativeExtent = newXNegativeExtent;
+    this.extents[this.extentOffset + X_NEGATIVE_EXTENT] = newXNegativeExtent;
   }
 
   /**
@@ -210,7 +806,7 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    *          {@inheritDoc}
    */
   public void setXPositiveExtent(final double newXPositiveExtent) {
-    this.xPositiveExtent = newXPositiveExtent;
+    this.extents[this.extentOffset + X_POSITIVE_EXTENT] = newXPositiveExtent;
   }
 
   /**
@@ -220,7 +816,7 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    *          {@inheritDoc}
    */
   public void setYNegativeExtent(final double newYNegativeExtent) {
-    this.yNegativeExtent = newYNegativeExtent;
+    this.extents[this.extentOffset + Y_NEGATIVE_EXTENT] = newYNegativeExtent;
   }
 
   /**
@@ -230,7 +826,7 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    *          {@inheritDoc}
    */
   public void setYPositiveExtent(final double newYPositiveExtent) {
-    this.yPositiveExtent = newYPositiveExtent;
+    this.extents[this.extentOffset + Y_POSITIVE_EXTENT] = newYPositiveExtent;
   }
 
   /**
@@ -240,7 +836,7 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    *          {@inheritDoc}
    */
   public void setZNegativeExtent(final double newZNegativeExtent) {
-    this.zNegativeExtent = newZNegativeExtent;
+    this.extents[this.extentOffset + Z_NEGATIVE_EXTENT] = newZNegativeExtent;
   }
 
   /**
@@ -250,14 +846,19 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    *          {@inheritDoc}
    */
   public void setZPositiveExtent(final double newZPositiveExtent) {
-    this.zPositiveExtent = newZPositiveExtent;
+    this.extents[this.extentOffset + Z_POSITIVE_EXTENT] = newZPositiveExtent;
   }
 
   /**
    * Updates the call list used to when this component is drawn.
    * 
+   * Only the call lists of components which have been marked dirty since the
+   * last update are recompiled, and subtrees which contain no dirty components
+   * are skipped entirely.
+   * 
    * This method first calls the corresponding method on the children of this
-   * component. Then this component is translated, rotated, and colored
+   * component. Then this component is transformed by its cached local
+   * transformation (see {@link #localTransform()}) and colored
    * appropriately. Next this component is drawn using the {@link Displayable}
    * specified in the constructor of this class. Finally, the children of this
    * component are drawn with respect to the rotation and translation done to
@@ -270,21 +871,54 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    */
   @Override
   public void update(final GL2 gl) {
+    this.update(gl, null);
+  }
+
+  /**
+   * Recompiles the call lists of the dirty components in the tree rooted at
+   * this component, as {@link #update(GL2)} does, counting the components
+   * traversed and the call lists recompiled in the specified metrics.
+   * 
+   * @param gl
+   *          The OpenGL object with which to perform the drawing.
+   * @param metrics
+   *          The metrics of the current frame, or {@code null} to count
+   *          nothing.
+   */
+  public void update(final GL2 gl, final FrameMetrics metrics) {
+    if (!this.subtreeDirty) {
+      return;
+    }
+    if (metrics != null) {
+      metrics.addNodesTraversed(1);
+    }
+    final ComponentUpdateEvent event = ComponentUpdateEvent.isRecorded()
+        ? new ComponentUpdateEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
+
     // update each of the children of this component
-    for (final Component child : this.children) {
-      child.update(gl);
+    for (int i = 0; i < this.childCount; ++i) {
+      this.children[i].update(gl, metrics);
+    }
+    this.subtreeDirty = false;
+
+    if (!this.dirty) {
+      this.commitUpdateEvent(event, false);
+      return;
+    }
+    this.dirty = false;
+    if (metrics != null) {
+      metrics.addDisplayListsCompiled(1);
     }
 
     gl.glNewList(this.callListHandle, GL2.GL_COMPILE);
     gl.glPushMatrix();
 
-    // translate this component to where it will be located in the scene
-    gl.glTranslated(this.position.x(), this.position.y(), this.position.z());
-
-    // first, rotate this component around each of the three axes
-    gl.glRotated(this.xAngle, 1, 0, 0);
-    gl.glRotated(this.yAngle, 0, 1, 0);
-    gl.glRotated(this.zAngle, 0, 0, 1);
+    // translate this component to where it will be located in the scene and
+    // rotate it around each of the three axes, using the cached matrix
+    gl.glMultMatrixf(this.localTransform(), this.localTransformOffset);
 
     // draw the displayable which this component represents in its color
     if (this.displayable != null) {
@@ -295,12 +929,33 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
     }
 
     // draw all the children of this component
-    for (final Component child : this.children) {
-      child.draw(gl);
+    for (int i = 0; i < this.childCount; ++i) {
+      this.children[i].draw(gl);
     }
 
     gl.glPopMatrix();
     gl.glEndList();
+    this.commitUpdateEvent(event, true);
+  }
+
+  /**
+   * Commits the flight recorder event of an update of this component, if it
+   * is being recorded.
+   * 
+   * @param event
+   *          The event, begun before the children were updated, or
+   *          {@code null} if the event is not recorded.
+   * @param compiled
+   *          Whether the call list of this component was recompiled.
+   */
+  private void commitUpdateEvent(final ComponentUpdateEvent event,
+      final boolean compiled) {
+    if (event != null && event.shouldCommit()) {
+      event.compiled = compiled;
+      event.componentName = this.name;
+      event.subtreeSize = this.descendantCount + 1;
+      event.commit();
+    }
   }
 
   /**
@@ -309,7 +964,7 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    * @return {@inheritDoc}
    */
   public double xAngle() {
-    return this.xAngle;
+    return this.angles[this.angleOffset];
   }
 
   /**
@@ -318,7 +973,7 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    * @return {@inheritDoc}
    */
   public double yAngle() {
-    return this.yAngle;
+    return this.angles[this.angleOffset + 1];
   }
 
   /**
@@ -327,7 +982,7 @@ public class Component implements Rotatable, Nameable, UpdatingDisplayable,
    * @return {@inheritDoc}
    */
   public double zAngle() {
-    return this.zAngle;
+    return this.angles[this.angleOffset + 2];
   }
 
   /**
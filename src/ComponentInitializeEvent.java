@@ -0,0 +1,46 @@
+/**
+ * ComponentInitializeEvent.java - flight recorder event for initialization
+ */
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded by Java Flight Recorder for each component initialized, covering
+ * the initialization of its children, as in
+ * {@link Component#initialize(javax.media.opengl.GL2)}.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@Name("spider.ComponentInitialize")
+@Label("Component Initialize")
+@Category({ "Spider", "Rendering" })
+@Description("Creation of the call lists of a subtree of components")
+public class ComponentInitializeEvent extends Event {
+  /** The type of these events, which tells whether they are recorded. */
+  private static final EventType TYPE = EventType
+      .getEventType(ComponentInitializeEvent.class);
+
+  /** The name of the component. */
+  @Label("Component")
+  String componentName;
+  /** The number of components in the subtree rooted at the component. */
+  @Label("Subtree Size")
+  int subtreeSize;
+
+  /**
+   * Returns whether these events are being recorded, so that none need be
+   * created when they are not.
+   *
+   * @return Whether a recording has these events enabled.
+   */
+  static boolean isRecorded() {
+    return TYPE.isEnabled();
+  }
+}
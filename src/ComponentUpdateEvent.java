@@ -0,0 +1,49 @@
+/**
+ * ComponentUpdateEvent.java - flight recorder event for updating call lists
+ */
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded by Java Flight Recorder for each component visited while updating
+ * the call lists of the dirty components, covering the updates of its
+ * children, as in {@link Component#update(javax.media.opengl.GL2, FrameMetrics)}.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@Name("spider.ComponentUpdate")
+@Label("Component Update")
+@Category({ "Spider", "Rendering" })
+@Description("Update of the call lists of a dirty subtree of components")
+public class ComponentUpdateEvent extends Event {
+  /** The type of these events, which tells whether they are recorded. */
+  private static final EventType TYPE = EventType
+      .getEventType(ComponentUpdateEvent.class);
+
+  /** Whether the call list of the component itself was recompiled. */
+  @Label("Compiled")
+  boolean compiled;
+  /** The name of the component. */
+  @Label("Component")
+  String componentName;
+  /** The number of components in the subtree rooted at the component. */
+  @Label("Subtree Size")
+  int subtreeSize;
+
+  /**
+   * Returns whether these events are being recorded, so that none need be
+   * created when they are not.
+   *
+   * @return Whether a recording has these events enabled.
+   */
+  static boolean isRecorded() {
+    return TYPE.isEnabled();
+  }
+}
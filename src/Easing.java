@@ -0,0 +1,68 @@
+/**
+ * Easing.java - curves which shape the progress of an animated transition
+ */
+
+
+/**
+ * A curve which maps the linear progress of a transition, from 0 at its start
+ * to 1 at its end, to the fraction of the way from the start value to the end
+ * value, so that a transition can speed up or slow down smoothly.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public enum Easing {
+  /** Starts slowly and speeds up until the end (quadratic). */
+  EASE_IN {
+    @Override
+    public double apply(final double t) {
+      return t * t;
+    }
+  },
+  /** Starts slowly, speeds up, and slows down again at the end (cubic). */
+  EASE_IN_OUT {
+    @Override
+    public double apply(final double t) {
+      return t * t * (3 - 2 * t);
+    }
+  },
+  /** Starts quickly and slows down until the end (quadratic). */
+  EASE_OUT {
+    @Override
+    public double apply(final double t) {
+      return t * (2 - t);
+    }
+  },
+  /** Moves at a constant rate. */
+  LINEAR {
+    @Override
+    public double apply(final double t) {
+      return t;
+    }
+  };
+
+  /**
+   * Gets the fraction of the way from the start value to the end value at the
+   * specified progress through a transition.
+   *
+   * @param t
+   *          The progress through the transition, between 0 and 1 inclusive.
+   * @return The fraction of the way to the end value, which is 0 when
+   *         {@code t} is 0 and 1 when {@code t} is 1.
+   */
+  public abstract double apply(final double t);
+
+  /**
+   * Gets the easing curve with the specified name, ignoring case and allowing
+   * hyphens in place of underscores.
+   *
+   * @param name
+   *          The name of the easing curve, for example {@code ease-in-out}.
+   * @return The easing curve with the specified name.
+   * @throws IllegalArgumentException
+   *           If there is no easing curve with the specified name.
+   */
+  public static Easing forName(final String name) {
+    return valueOf(name.trim().replace('-', '_').toUpperCase());
+  }
+}
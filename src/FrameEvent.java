@@ -0,0 +1,48 @@
+/**
+ * FrameEvent.java - flight recorder event for drawing a frame
+ */
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded by Java Flight Recorder for each frame drawn by
+ * {@link PA2#display(javax.media.opengl.GLAutoDrawable)}.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@Name("spider.Frame")
+@Label("Frame")
+@Category({ "Spider", "Rendering" })
+@Description("Drawing of a frame, including the input and pose applied")
+public class FrameEvent extends Event {
+  /** The type of these events, which tells whether they are recorded. */
+  private static final EventType TYPE = EventType
+      .getEventType(FrameEvent.class);
+
+  /** The number of input events handled in the frame. */
+  @Label("Input Events")
+  int inputEvents;
+  /** Whether a change of state caused call lists to be recompiled. */
+  @Label("Rebuilt")
+  boolean rebuilt;
+  /** The name of the way in which the scene was drawn. */
+  @Label("Render Mode")
+  String renderMode;
+
+  /**
+   * Returns whether these events are being recorded, so that none need be
+   * created when they are not.
+   *
+   * @return Whether a recording has these events enabled.
+   */
+  static boolean isRecorded() {
+    return TYPE.isEnabled();
+  }
+}
@@ -0,0 +1,329 @@
+/**
+ * FrameMetrics.java - where the time and work of each frame goes
+ */
+
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Records, for each frame drawn, the time spent updating and drawing the
+ * components, the number of call lists recompiled, the number of components
+ * traversed, the number of OpenGL calls issued, and the number of input
+ * events processed, and summarizes each over the most recent frames with a
+ * {@link RollingHistogram}.
+ *
+ * The thread which draws the scene brackets each frame with
+ * {@link #beginFrame()} and {@link #endFrame()} and adds to the counts of the
+ * frame in between; these methods do not allocate. The summaries can be read
+ * from any thread, in particular through JMX once the metrics are
+ * {@link #register() registered} with the platform MBean server, so that a
+ * running program can be watched with standard JMX tools such as JConsole.
+ *
+ * The times are those taken on the drawing thread; in particular the draw time
+ * is the time taken to issue the drawing commands, which OpenGL may carry out
+ * later. The frame time runs from {@link #beginFrame()} to {@link #endFrame()},
+ * so it does not include the time between frames, which is meaningless when
+ * frames are only drawn on demand.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class FrameMetrics implements FrameMetricsMBean {
+  /** The default number of most recent frames summarized. */
+  public static final int DEFAULT_WINDOW = 600;
+  /** The name under which the metrics are registered by default. */
+  public static final String OBJECT_NAME = "spider:type=FrameMetrics";
+  /** The number of nanoseconds in a millisecond. */
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  /** The call lists recompiled per frame. */
+  private final RollingHistogram displayListsCompiled;
+  /** The number of call lists recompiled in the current frame. */
+  private long displayListsCompiledThisFrame = 0;
+  /** The time spent drawing per frame, in nanoseconds. */
+  private final RollingHistogram drawTimes;
+  /** The time spent drawing in the current frame, in nanoseconds. */
+  private long drawTimeThisFrame = 0;
+  /** The time taken by each whole frame, in nanoseconds. */
+  private final RollingHistogram frameTimes;
+  /** The start of the current frame. */
+  private long frameStart = 0;
+  /** The OpenGL calls issued per frame. */
+  private final RollingHistogram glCalls;
+  /** The number of OpenGL calls issued in the current frame. */
+  private long glCallsThisFrame = 0;
+  /** The input events processed per frame. */
+  private final RollingHistogram inputEvents;
+  /** The number of input events processed in the current frame. */
+  private long inputEventsThisFrame = 0;
+  /** The components traversed per frame. */
+  private final RollingHistogram nodesTraversed;
+  /** The number of components traversed in the current frame. */
+  private long nodesTraversedThisFrame = 0;
+  /** The time spent updating call lists per frame, in nanoseconds. */
+  private final RollingHistogram updateTimes;
+  /** The time spent updating call lists in the current frame. */
+  private long updateTimeThisFrame = 0;
+
+  /**
+   * Instantiates these metrics over the default number of most recent frames.
+   */
+  public FrameMetrics() {
+    this(DEFAULT_WINDOW);
+  }
+
+  /**
+   * Instantiates these metrics over the specified number of most recent
+   * frames.
+   *
+   * @param window
+   *          The number of frames summarized.
+   */
+  public FrameMetrics(final int window) {
+    this.displayListsCompiled = new RollingHistogram(window);
+    this.drawTimes = new RollingHistogram(window);
+    this.frameTimes = new RollingHistogram(window);
+    this.glCalls = new RollingHistogram(window);
+    this.inputEvents = new RollingHistogram(window);
+    this.nodesTraversed = new RollingHistogram(window);
+    this.updateTimes = new RollingHistogram(window);
+  }
+
+  /**
+   * Adds to the number of call lists recompiled in the current frame.
+   *
+   * @param count
+   *          The number of call lists recompiled.
+   */
+  public void addDisplayListsCompiled(final int count) {
+    this.displayListsCompiledThisFrame += count;
+  }
+
+  /**
+   * Adds to the time spent drawing in the current frame.
+   *
+   * @param nanos
+   *          The time spent, in nanoseconds.
+   */
+  public void addDrawTime(final long nanos) {
+    this.drawTimeThisFrame += nanos;
+  }
+
+  /**
+   * Adds to the number of OpenGL calls issued in the current frame.
+   *
+   * @param count
+   *          The number of calls issued.
+   */
+  public void addGlCalls(final long count) {
+    this.glCallsThisFrame += count;
+  }
+
+  /**
+   * Adds to the number of input events processed in the current frame.
+   *
+   * @param count
+   *          The number of events processed.
+   */
+  public void addInputEvents(final int count) {
+    this.inputEventsThisFrame += count;
+  }
+
+  /**
+   * Adds to the number of components traversed in the current frame.
+   *
+   * @param count
+   *          The number of components traversed.
+   */
+  public void addNodesTraversed(final int count) {
+    this.nodesTraversedThisFrame += count;
+  }
+
+  /**
+   * Adds to the time spent updating call lists in the current frame.
+   *
+   * @param nanos
+   *          The time spent, in nanoseconds.
+   */
+  public void addUpdateTime(final long nanos) {
+    this.updateTimeThisFrame += nanos;
+  }
+
+  /**
+   * Starts a frame, with every count zero.
+   */
+  public void beginFrame() {
+    this.frameStart = System.nanoTime();
+    this.displayListsCompiledThisFrame = 0;
+    this.drawTimeThisFrame = 0;
+    this.glCallsThisFrame = 0;
+    this.inputEventsThisFrame = 0;
+    this.nodesTraversedThisFrame = 0;
+    this.updateTimeThisFrame = 0;
+  }
+
+  /**
+   * Ends the current frame, recording its counts and times.
+   *
+   * @return The time taken by the frame, in nanoseconds.
+   */
+  public long endFrame() {
+    final long frameTime = System.nanoTime() - this.frameStart;
+    this.frameTimes.record(frameTime);
+    this.displayListsCompiled.record(this.displayListsCompiledThisFrame);
+    this.drawTimes.record(this.drawTimeThisFrame);
+    this.glCalls.record(this.glCallsThisFrame);
+    this.inputEvents.record(this.inputEventsThisFrame);
+    this.nodesTraversed.record(this.nodesTraversedThisFrame);
+    this.updateTimes.record(this.updateTimeThisFrame);
+    return frameTime;
+  }
+
+  @Override
+  public long getDisplayListsCompiledMax() {
+    return this.displayListsCompiled.max();
+  }
+
+  @Override
+  public long getDisplayListsCompiledP50() {
+    return this.displayListsCompiled.percentile(50);
+  }
+
+  @Override
+  public long getDisplayListsCompiledP99() {
+    return this.displayListsCompiled.percentile(99);
+  }
+
+  @Override
+  public double getDrawTimeMax() {
+    return this.drawTimes.max() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getDrawTimeP50() {
+    return this.drawTimes.percentile(50) / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getDrawTimeP99() {
+    return this.drawTimes.percentile(99) / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public long getFrameCount() {
+    return this.drawTimes.count();
+  }
+
+  @Override
+  public double getFrameTimeMax() {
+    return this.frameTimes.max() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getFrameTimeP50() {
+    return this.frameTimes.percentile(50) / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getFrameTimeP99() {
+    return this.frameTimes.percentile(99) / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public long getGlCallsMax() {
+    return this.glCalls.max();
+  }
+
+  @Override
+  public long getGlCallsP50() {
+    return this.glCalls.percentile(50);
+  }
+
+  @Override
+  public long getGlCallsP99() {
+    return this.glCalls.percentile(99);
+  }
+
+  @Override
+  public long getInputEventsMax() {
+    return this.inputEvents.max();
+  }
+
+  @Override
+  public long getInputEventsP50() {
+    return this.inputEvents.percentile(50);
+  }
+
+  @Override
+  public long getInputEventsP99() {
+    return this.inputEvents.percentile(99);
+  }
+
+  @Override
+  public long getNodesTraversedMax() {
+    return this.nodesTraversed.max();
+  }
+
+  @Override
+  public long getNodesTraversedP50() {
+    return this.nodesTraversed.percentile(50);
+  }
+
+  @Override
+  public long getNodesTraversedP99() {
+    return this.nodesTraversed.percentile(99);
+  }
+
+  @Override
+  public double getUpdateTimeMax() {
+    return this.updateTimes.max() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getUpdateTimeP50() {
+    return this.updateTimes.percentile(50) / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getUpdateTimeP99() {
+    return this.updateTimes.percentile(99) / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public int getWindowSize() {
+    return this.drawTimes.window();
+  }
+
+  /**
+   * Registers these metrics with the platform MBean server under
+   * {@link #OBJECT_NAME}.
+   *
+   * @throws IllegalStateException
+   *           If the metrics cannot be registered, for example because other
+   *           metrics are already registered under the same name.
+   */
+  public void register() {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      server.registerMBean(this, new ObjectName(OBJECT_NAME));
+    } catch (final JMException exception) {
+      throw new IllegalStateException("Failed to register " + OBJECT_NAME,
+          exception);
+    }
+  }
+
+  @Override
+  public void reset() {
+    this.displayListsCompiled.reset();
+    this.drawTimes.reset();
+    this.frameTimes.reset();
+    this.glCalls.reset();
+    this.inputEvents.reset();
+    this.nodesTraversed.reset();
+    this.updateTimes.reset();
+  }
+}
@@ -0,0 +1,188 @@
+/**
+ * FrameMetricsMBean.java - the management interface of the frame metrics
+ */
+
+
+/**
+ * The attributes and operations of {@link FrameMetrics} exposed through JMX.
+ *
+ * Each per-frame quantity is summarized over the most recent
+ * {@link #getWindowSize()} frames by its median, its 99th percentile, and its
+ * maximum. Times are in milliseconds.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public interface FrameMetricsMBean {
+  /**
+   * Gets the number of call lists recompiled by the maximum frame.
+   *
+   * @return The maximum number of call lists recompiled per frame.
+   */
+  long getDisplayListsCompiledMax();
+
+  /**
+   * Gets the median number of call lists recompiled per frame.
+   *
+   * @return The median number of call lists recompiled per frame.
+   */
+  long getDisplayListsCompiledP50();
+
+  /**
+   * Gets the 99th percentile of the number of call lists recompiled per
+   * frame.
+   *
+   * @return The 99th percentile of call lists recompiled per frame.
+   */
+  long getDisplayListsCompiledP99();
+
+  /**
+   * Gets the maximum time spent drawing the components in a frame.
+   *
+   * @return The maximum draw time, in milliseconds.
+   */
+  double getDrawTimeMax();
+
+  /**
+   * Gets the median time spent drawing the components in a frame.
+   *
+   * @return The median draw time, in milliseconds.
+   */
+  double getDrawTimeP50();
+
+  /**
+   * Gets the 99th percentile of the time spent drawing the components in a
+   * frame.
+   *
+   * @return The 99th percentile of the draw time, in milliseconds.
+   */
+  double getDrawTimeP99();
+
+  /**
+   * Gets the number of frames recorded since the metrics were created or
+   * reset.
+   *
+   * @return The number of frames recorded.
+   */
+  long getFrameCount();
+
+  /**
+   * Gets the maximum time taken by a whole frame.
+   *
+   * @return The maximum frame time, in milliseconds.
+   */
+  double getFrameTimeMax();
+
+  /**
+   * Gets the median time taken by a whole frame.
+   *
+   * @return The median frame time, in milliseconds.
+   */
+  double getFrameTimeP50();
+
+  /**
+   * Gets the 99th percentile of the time taken by a whole frame.
+   *
+   * @return The 99th percentile of the frame time, in milliseconds.
+   */
+  double getFrameTimeP99();
+
+  /**
+   * Gets the maximum number of OpenGL calls issued in a frame.
+   *
+   * @return The maximum number of OpenGL calls per frame.
+   */
+  long getGlCallsMax();
+
+  /**
+   * Gets the median number of OpenGL calls issued per frame.
+   *
+   * @return The median number of OpenGL calls per frame.
+   */
+  long getGlCallsP50();
+
+  /**
+   * Gets the 99th percentile of the number of OpenGL calls issued per frame.
+   *
+   * @return The 99th percentile of OpenGL calls per frame.
+   */
+  long getGlCallsP99();
+
+  /**
+   * Gets the maximum number of input events processed in a frame.
+   *
+   * @return The maximum number of input events per frame.
+   */
+  long getInputEventsMax();
+
+  /**
+   * Gets the median number of input events processed per frame.
+   *
+   * @return The median number of input events per frame.
+   */
+  long getInputEventsP50();
+
+  /**
+   * Gets the 99th percentile of the number of input events processed per
+   * frame.
+   *
+   * @return The 99th percentile of input events per frame.
+   */
+  long getInputEventsP99();
+
+  /**
+   * Gets the maximum number of components traversed in a frame.
+   *
+   * @return The maximum number of components traversed per frame.
+   */
+  long getNodesTraversedMax();
+
+  /**
+   * Gets the median number of components traversed per frame.
+   *
+   * @return The median number of components traversed per frame.
+   */
+  long getNodesTraversedP50();
+
+  /**
+   * Gets the 99th percentile of the number of components traversed per
+   * frame.
+   *
+   * @return The 99th percentile of components traversed per frame.
+   */
+  long getNodesTraversedP99();
+
+  /**
+   * Gets the maximum time spent updating the call lists in a frame.
+   *
+   * @return The maximum update time, in milliseconds.
+   */
+  double getUpdateTimeMax();
+
+  /**
+   * Gets the median time spent updating the call lists in a frame.
+   *
+   * @return The median update time, in milliseconds.
+   */
+  double getUpdateTimeP50();
+
+  /**
+   * Gets the 99th percentile of the time spent updating the call lists in a
+   * frame.
+   *
+   * @return The 99th percentile of the update time, in milliseconds.
+   */
+  double getUpdateTimeP99();
+
+  /**
+   * Gets the number of most recent frames summarized.
+   *
+   * @return The number of frames in the window.
+   */
+  int getWindowSize();
+
+  /**
+   * Discards every recorded frame.
+   */
+  void reset();
+}
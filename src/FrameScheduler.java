@@ -0,0 +1,126 @@
+/**
+ * FrameScheduler.java - draws frames only when something has changed
+ */
+
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.media.opengl.GLAutoDrawable;
+
+/**
+ * Draws a {@link GLAutoDrawable} on a dedicated thread only when a frame has
+ * been requested, instead of redrawing it at a fixed rate as an
+ * {@link com.jogamp.opengl.util.FPSAnimator} does, so an idle scene costs no
+ * processor or graphics time.
+ *
+ * Any thread may call {@link #request()} when something shown in the scene
+ * changes. Requests made before a frame starts are merged into that frame, and
+ * a request made while a frame is being drawn causes one more frame after it,
+ * so no change is missed. The drawing thread sleeps while there are no
+ * requests and is woken directly by the first one, so a change after a long
+ * idle period is drawn as quickly as one during continuous motion; the rate of
+ * frames is limited only by how fast they can be drawn and, with vertical
+ * synchronization, by the display.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class FrameScheduler {
+  /** The drawable which is drawn. */
+  private final GLAutoDrawable drawable;
+  /** The number of frames drawn so far. */
+  private volatile long frameCount = 0;
+  /** Whether a frame has been requested and not yet started. */
+  private final AtomicBoolean requested = new AtomicBoolean(true);
+  /** Whether the drawing thread should keep running. */
+  private volatile boolean running = false;
+  /** The thread which draws the frames, or {@code null} if stopped. */
+  private volatile Thread thread = null;
+
+  /**
+   * Instantiates this scheduler for the specified drawable; the first frame
+   * is requested as soon as it is started.
+   *
+   * @param drawable
+   *          The drawable to draw.
+   */
+  public FrameScheduler(final GLAutoDrawable drawable) {
+    this.drawable = drawable;
+  }
+
+  /**
+   * Gets the number of frames drawn so far.
+   *
+   * @return The number of frames drawn.
+   */
+  public long frameCount() {
+    return this.frameCount;
+  }
+
+  /**
+   * Requests that a frame be drawn as soon as possible. Any thread may call
+   * this method.
+   */
+  public void request() {
+    if (!this.requested.getAndSet(true)) {
+      final Thread thread = this.thread;
+      if (thread != null) {
+        LockSupport.unpark(thread);
+      }
+    }
+  }
+
+  /**
+   * Draws a frame whenever one has been requested until this scheduler is
+   * stopped, sleeping in between.
+   */
+  private void run() {
+    while (this.running) {
+      if (!this.requested.getAndSet(false)) {
+        LockSupport.park(this);
+        continue;
+      }
+      this.drawable.display();
+      ++this.frameCount;
+    }
+  }
+
+  /**
+   * Starts the drawing thread, if it is not already running.
+   */
+  public synchronized void start() {
+    if (this.thread != null) {
+      return;
+    }
+    this.running = true;
+    this.thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        FrameScheduler.this.run();
+      }
+    }, "frame-scheduler");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Stops the drawing thread and waits for it to finish its current frame.
+   */
+  public synchronized void stop() {
+    final Thread thread = this.thread;
+    if (thread == null) {
+      return;
+    }
+    this.running = false;
+    LockSupport.unpark(thread);
+    if (thread != Thread.currentThread()) {
+      try {
+        thread.join();
+      } catch (final InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    this.thread = null;
+  }
+}
@@ -0,0 +1,274 @@
+/**
+ * GLCallCounter.java - counts, and optionally traces, the OpenGL calls issued
+ */
+
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.media.opengl.GL2;
+import javax.media.opengl.GL4bc;
+import javax.media.opengl.TraceGL2;
+
+/**
+ * An OpenGL object which passes every call on to another one, counting the
+ * calls of each type, such as {@code glCallList}, {@code glPushMatrix} or
+ * {@code glNewList}, both in the current frame and since it was installed, and
+ * optionally printing each call with its arguments. This shows directly how
+ * many calls, and in particular how many state changes, drawing each
+ * component costs, and whether a change to the drawing code reduces them.
+ *
+ * The counter is installed in place of the OpenGL object of a drawable when
+ * its context is initialized, as in
+ * {@code drawable.setGL(new GLCallCounter(gl, null))}, after which every
+ * listener of the drawable issues its calls through it. The thread which draws
+ * the scene brackets each frame with {@link #beginFrame()} and
+ * {@link #endFrame()}, and may then print {@link #frameSummary(int)} or
+ * {@link #report(int)}.
+ *
+ * The counter is built on the tracing pipeline of JOGL, which formats every
+ * call with its arguments before passing it on, and takes the type of each
+ * call from that text, so it slows drawing down noticeably and is meant for
+ * diagnosis only. It requires an OpenGL object which implements
+ * {@link GL4bc}, as every desktop OpenGL object of JOGL does.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class GLCallCounter extends TraceGL2 {
+  /**
+   * The number of calls of one type.
+   */
+  private static final class Count {
+    /** The number of calls in the current frame. */
+    long frame = 0;
+    /** The type of call. */
+    final String name;
+    /** The number of calls since the counter was installed. */
+    long total = 0;
+
+    /**
+     * Instantiates this count of no calls of the specified type.
+     *
+     * @param name
+     *          The type of call.
+     */
+    Count(final String name) {
+      this.name = name;
+    }
+  }
+
+  /** Orders counts by decreasing number of calls in the current frame. */
+  private static final Comparator<Count> BY_FRAME = new Comparator<Count>() {
+    @Override
+    public int compare(final Count left, final Count right) {
+      return Long.compare(right.frame, left.frame);
+    }
+  };
+  /** Orders counts by decreasing number of calls since installation. */
+  private static final Comparator<Count> BY_TOTAL = new Comparator<Count>() {
+    @Override
+    public int compare(final Count left, final Count right) {
+      return Long.compare(right.total, left.total);
+    }
+  };
+
+  /** The counts of the calls, keyed by type of call. */
+  private final Map<String, Count> counts = new HashMap<String, Count>();
+  /** The number of frames ended since the counter was installed. */
+  private long frameCount = 0;
+  /** The number of calls of every type in the current frame. */
+  private long frameTotal = 0;
+  /** The number of calls of every type since the counter was installed. */
+  private long total = 0;
+  /** Whether each call is printed. */
+  private final boolean tracing;
+
+  /**
+   * Instantiates this counter, passing every call on to the specified OpenGL
+   * object and printing each to the specified stream, if any.
+   *
+   * @param downstream
+   *          The OpenGL object which carries out the calls.
+   * @param trace
+   *          The stream to which to print each call, or {@code null} to only
+   *          count the calls.
+   * @throws IllegalArgumentException
+   *           If the OpenGL object does not implement {@link GL4bc}.
+   */
+  public GLCallCounter(final GL2 downstream, final PrintStream trace) {
+    super(checkDownstream(downstream), trace != null ? trace : System.err);
+    this.tracing = trace != null;
+  }
+
+  /**
+   * Checks that the specified OpenGL object can be passed calls by the tracing
+   * pipeline, which requires the full desktop profile.
+   *
+   * @param downstream
+   *          The OpenGL object which carries out the calls.
+   * @return The OpenGL object.
+   * @throws IllegalArgumentException
+   *           If the OpenGL object does not implement {@link GL4bc}.
+   */
+  private static GL2 checkDownstream(final GL2 downstream) {
+    if (!(downstream instanceof GL4bc)) {
+      throw new IllegalArgumentException("Cannot count the calls of "
+          + downstream.getClass().getName());
+    }
+    return downstream;
+  }
+
+  /**
+   * Starts a frame, with every count of the frame zero.
+   */
+  public void beginFrame() {
+    for (final Count count : this.counts.values()) {
+      count.frame = 0;
+    }
+    this.frameTotal = 0;
+  }
+
+  /**
+   * Ends the current frame.
+   *
+   * @return The number of calls issued in the frame.
+   */
+  public long endFrame() {
+    ++this.frameCount;
+    return this.frameTotal;
+  }
+
+  /**
+   * Describes the calls of the current frame, with the types of call issued
+   * most often, on one line.
+   *
+   * @param limit
+   *          The greatest number of types of call to list.
+   * @return The summary of the frame.
+   */
+  public String frameSummary(final int limit) {
+    final StringBuilder summary = new StringBuilder("frame ")
+        .append(this.frameCount).append(": ").append(this.frameTotal)
+        .append(" GL calls");
+    final List<Count> sorted = this.sorted(BY_FRAME);
+    for (int i = 0; i < Math.min(limit, sorted.size()); ++i) {
+      final Count count = sorted.get(i);
+      if (count.frame == 0) {
+        break;
+      }
+      summary.append(i == 0 ? "; " : ", ").append(count.name).append(' ')
+          .append(count.frame);
+    }
+    return summary.toString();
+  }
+
+  /**
+   * Counts a call, and prints it if tracing. The tracing pipeline passes each
+   * call to this method, with its arguments, before carrying it out.
+   *
+   * @param call
+   *          The call, starting with its name.
+   */
+  @Override
+  protected void print(final String call) {
+    final int end = call.indexOf('(');
+    final String name = end < 0 ? call : call.substring(0, end);
+    Count count = this.counts.get(name);
+    if (count == null) {
+      count = new Count(name);
+      this.counts.put(name, count);
+    }
+    ++count.frame;
+    ++count.total;
+    ++this.frameTotal;
+    ++this.total;
+    if (this.tracing) {
+      super.print(call);
+    }
+  }
+
+  /**
+   * Indents the next call, if tracing.
+   */
+  @Override
+  protected void printIndent() {
+    if (this.tracing) {
+      super.printIndent();
+    }
+  }
+
+  /**
+   * Ends the line of the last call, with its result, if tracing.
+   *
+   * @param result
+   *          The result of the call, or the empty string.
+   */
+  @Override
+  protected void println(final String result) {
+    if (this.tracing) {
+      super.println(result);
+    }
+  }
+
+  /**
+   * Describes the types of call issued most often since the counter was
+   * installed, one per line, with their number, their share of all calls,
+   * and their average number per frame.
+   *
+   * @param limit
+   *          The greatest number of types of call to list.
+   * @return The report.
+   */
+  public String report(final int limit) {
+    final StringBuilder report = new StringBuilder();
+    report.append(String.format("%d GL calls in %d frames, %.1f per frame%n",
+        this.total, this.frameCount, this.perFrame(this.total)));
+    final List<Count> sorted = this.sorted(BY_TOTAL);
+    for (int i = 0; i < Math.min(limit, sorted.size()); ++i) {
+      final Count count = sorted.get(i);
+      report.append(String.format("%-28s %12d %6.1f%% %10.1f/frame%n",
+          count.name, count.total, 100.0 * count.total / this.total,
+          this.perFrame(count.total)));
+    }
+    return report.toString();
+  }
+
+  /**
+   * Gets the average number per frame of the specified number of calls.
+   *
+   * @param calls
+   *          The number of calls since the counter was installed.
+   * @return The average number of calls per frame.
+   */
+  private double perFrame(final long calls) {
+    return this.frameCount == 0 ? calls : (double) calls / this.frameCount;
+  }
+
+  /**
+   * Gets the counts of every type of call issued, in the specified order.
+   *
+   * @param order
+   *          The order of the counts.
+   * @return The sorted counts.
+   */
+  private List<Count> sorted(final Comparator<Count> order) {
+    final List<Count> sorted = new ArrayList<Count>(this.counts.values());
+    Collections.sort(sorted, order);
+    return sorted;
+  }
+
+  /**
+   * Gets the number of calls of every type since the counter was installed.
+   *
+   * @return The number of calls issued.
+   */
+  public long total() {
+    return this.total;
+  }
+}
@@ -0,0 +1,104 @@
+/**
+ * Gait.java - the patterns in which the legs of the spider step
+ */
+
+
+/**
+ * A pattern in which the eight walking legs of the spider step, given by the
+ * fraction of each cycle that a leg spends on the ground and the phase at
+ * which each leg starts its cycle.
+ *
+ * Legs are identified by their side of the body, 0 or 1, and their position
+ * along that side, from 0 at the rear to 3 at the front.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public enum Gait {
+  /**
+   * Alternating tetrapods: every other leg along each side, and the opposite
+   * legs on the other side, step together, so half the legs are always on the
+   * ground. This is the fastest gait.
+   */
+  TRIPOD(0.5) {
+    @Override
+    public double phaseOffset(final int side, final int position) {
+      return ((side + position) % 2) * 0.5;
+    }
+  },
+  /**
+   * A wave runs from the rear to the front of each side in turn, with the two
+   * sides half a cycle apart, so two legs are in the air at a time.
+   */
+  RIPPLE(0.75) {
+    @Override
+    public double phaseOffset(final int side, final int position) {
+      return (position / 4.0 + side * 0.5) % 1;
+    }
+  },
+  /**
+   * A wave runs from the rear to the front of one side and then of the other,
+   * so only one leg is in the air at a time. This is the slowest and most
+   * stable gait.
+   */
+  WAVE(0.875) {
+    @Override
+    public double phaseOffset(final int side, final int position) {
+      return (position + 4 * side) / 8.0;
+    }
+  };
+
+  /** The number of walking legs on each side of the body. */
+  public static final int LEGS_PER_SIDE = 4;
+
+  /** The fraction of each cycle which a leg spends on the ground. */
+  private final double dutyFactor;
+
+  /**
+   * Instantiates this gait with the specified duty factor.
+   *
+   * @param dutyFactor
+   *          The fraction of each cycle which a leg spends on the ground.
+   */
+  private Gait(final double dutyFactor) {
+    this.dutyFactor = dutyFactor;
+  }
+
+  /**
+   * Gets the fraction of each cycle which a leg spends on the ground, in
+   * stance; it spends the rest in the air, in swing.
+   *
+   * @return The duty factor of this gait.
+   */
+  public double dutyFactor() {
+    return this.dutyFactor;
+  }
+
+  /**
+   * Gets the fraction of a cycle by which the cycle of the specified leg lags
+   * the cycle of the gait, so that legs with larger offsets step later.
+   *
+   * @param side
+   *          The side of the body, 0 or 1.
+   * @param position
+   *          The position of the leg along its side, from 0 at the rear to 3
+   *          at the front.
+   * @return The phase offset of the leg, between 0 (inclusive) and 1
+   *         (exclusive).
+   */
+  public abstract double phaseOffset(final int side, final int position);
+
+  /**
+   * Gets the gait with the specified name, ignoring case and allowing hyphens
+   * in place of underscores.
+   *
+   * @param name
+   *          The name of the gait, for example {@code tripod}.
+   * @return The gait with the specified name.
+   * @throws IllegalArgumentException
+   *           If there is no gait with the specified name.
+   */
+  public static Gait forName(final String name) {
+    return valueOf(name.trim().replace('-', '_').toUpperCase());
+  }
+}
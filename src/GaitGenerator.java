@@ -0,0 +1,395 @@
+/**
+ * GaitGenerator.java - procedural walking of the legs of the spider
+ */
+
+
+/**
+ * Moves the eight walking legs of a {@link SpiderModel} through the swing and
+ * stance phases of a {@link Gait}, at a fixed timestep.
+ *
+ * Each leg follows the cycle of the gait, lagging it by the phase offset of the
+ * leg. While in stance, the foot sweeps backward along the ground at a constant
+ * rate, which would push the body forward, along the x axis of the left body;
+ * while in swing, it is lifted and carried forward again along a smooth arc.
+ * The claws do not walk.
+ *
+ * The legs are driven in one of two ways. By default, the trajectory is given
+ * by direct joint curves: the limb joint sweeps around its y axis and lifts
+ * around its x axis, relative to the pose of the leg when this generator was
+ * created and clamped to the extents of the joint. Given a {@link LegSolver},
+ * the trajectory is instead a path for the foot, relative to its initial
+ * position in the coordinate system of the left body, and the joints are
+ * solved to follow it. The direct curves cost a few trigonometric functions
+ * per leg, so thousands of creatures can be simulated headlessly per second
+ * of real time; none of the methods of this class allocate.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class GaitGenerator {
+  /** The default duration of a cycle of the gait, in seconds. */
+  public static final double DEFAULT_PERIOD = 1.0;
+  /** The default timestep of the generator, in seconds. */
+  public static final double DEFAULT_TIMESTEP = 1.0 / 120;
+  /** The default angle by which a foot is lifted during swing, in degrees. */
+  public static final double DEFAULT_LIFT_ANGLE = 12;
+  /** The default height to which a foot is lifted during swing. */
+  public static final double DEFAULT_LIFT_HEIGHT = 0.08;
+  /** The default angle through which a leg sweeps each cycle, in degrees. */
+  public static final double DEFAULT_STRIDE_ANGLE = 16;
+  /** The default distance which a foot sweeps each cycle. */
+  public static final double DEFAULT_STRIDE_LENGTH = 0.15;
+  /** The indices of the walking legs within {@link SpiderModel#legs()}. */
+  public static final int[] WALKING_LEGS = { 0, 1, 2, 3, 5, 6, 7, 8 };
+  /** The number of divisions of a cycle to which the phase is rounded. */
+  private static final double PHASE_GRID = 0x1p32;
+
+  /** The body to which the legs are attached, which defines forward. */
+  private final Component body;
+  /** The gait which the legs follow. */
+  private Gait gait;
+  /** The legs of the model. */
+  private final Leg[] legs;
+  /** The angle by which a foot is lifted during swing, in degrees. */
+  private double liftAngle = DEFAULT_LIFT_ANGLE;
+  /** The height to which a foot is lifted during swing, when solving. */
+  private double liftHeight = DEFAULT_LIFT_HEIGHT;
+  /** The position of each foot at rest relative to the body. */
+  private final double[] neutralFeet = new double[3 * WALKING_LEGS.length];
+  /** The duration of a cycle of the gait, in seconds. */
+  private double period = DEFAULT_PERIOD;
+  /** The phase of the cycle of the gait, between 0 and 1. */
+  private double phase = 0;
+  /** The time not yet simulated by {@link #advance(double)}, in seconds. */
+  private double remainder = 0;
+  /** The x and y angles of the limb joint of each leg at rest. */
+  private final double[] restAngles = new double[2 * WALKING_LEGS.length];
+  /** The solver which moves the feet, or {@code null} for direct curves. */
+  private final LegSolver solver;
+  /** The angle through which a leg sweeps each cycle, in degrees. */
+  private double strideAngle = DEFAULT_STRIDE_ANGLE;
+  /** The distance which a foot sweeps each cycle, when solving. */
+  private double strideLength = DEFAULT_STRIDE_LENGTH;
+  /** The position of a foot target, in the coordinate system of the tree. */
+  private final double[] target = new double[3];
+  /** The duration of each step of the simulation, in seconds. */
+  private double timestep = DEFAULT_TIMESTEP;
+
+  /**
+   * Instantiates this generator for the specified model, driving the legs by
+   * direct joint curves.
+   *
+   * @param model
+   *          The model whose legs are moved.
+   * @param gait
+   *          The gait which the legs follow.
+   */
+  public GaitGenerator(final SpiderModel model, final Gait gait) {
+    this(model, gait, null);
+  }
+
+  /**
+   * Instantiates this generator for the specified model, driving the legs by
+   * solving for foot positions with the specified solver. The current pose of
+   * the model is taken as the pose at rest.
+   *
+   * @param model
+   *          The model whose legs are moved.
+   * @param gait
+   *          The gait which the legs follow.
+   * @param solver
+   *          The solver which moves the feet, or {@code null} to drive the
+   *          legs by direct joint curves.
+   */
+  public GaitGenerator(final SpiderModel model, final Gait gait,
+      final LegSolver solver) {
+    this.legs = model.legs();
+    this.body = model.leftBody();
+    this.gait = gait;
+    this.solver = solver;
+
+    final float[] world = this.body.worldTransform();
+    final int w = this.body.worldTransformOffset();
+    for (int i = 0; i < WALKING_LEGS.length; ++i) {
+      final Component limb = this.legs[WALKING_LEGS[i]].palmJoint();
+      this.restAngles[2 * i] = limb.xAngle();
+      this.restAngles[2 * i + 1] = limb.yAngle();
+      if (solver == null) {
+        continue;
+      }
+
+      // the foot relative to the body is R^T (foot - t) for the rigid body
+      // transformation with rotation R and translation t
+      solver.footPosition(this.legs[WALKING_LEGS[i]], this.target, 0);
+      final double dx = this.target[0] - world[w + 12];
+      final double dy = this.target[1] - world[w + 13];
+      final double dz = this.target[2] - world[w + 14];
+      for (int k = 0; k < 3; ++k) {
+        this.neutralFeet[3 * i + k] = world[w + 4 * k] * dx
+            + world[w + 4 * k + 1] * dy + world[w + 4 * k + 2] * dz;
+      }
+    }
+  }
+
+  /**
+   * Simulates as many whole timesteps as fit in the specified time, together
+   * with any time left over from previous calls.
+   *
+   * @param seconds
+   *          The time which has passed, in seconds.
+   * @return The number of timesteps simulated.
+   */
+  public int advance(final double seconds) {
+    this.remainder += seconds;
+    int steps = 0;
+    while (this.remainder >= this.timestep) {
+      this.remainder -= this.timestep;
+      this.step();
+      ++steps;
+    }
+    return steps;
+  }
+
+  /**
+   * Gets the gait which the legs follow.
+   *
+   * @return The gait which the legs follow.
+   */
+  public Gait gait() {
+    return this.gait;
+  }
+
+  /**
+   * Returns whether the specified walking leg is on the ground.
+   *
+   * @param walkingLeg
+   *          The index of the leg within {@link #WALKING_LEGS}.
+   * @return Whether the leg is in the stance phase of its cycle.
+   */
+  public boolean isStance(final int walkingLeg) {
+    return this.legPhase(walkingLeg) < this.gait.dutyFactor();
+  }
+
+  /**
+   * Gets the phase of the specified walking leg, the phase of the gait less
+   * the phase offset of the leg.
+   *
+   * @param walkingLeg
+   *          The index of the leg within {@link #WALKING_LEGS}.
+   * @return The phase of the leg, between 0 (inclusive) and 1 (exclusive).
+   */
+  private double legPhase(final int walkingLeg) {
+    final int side = walkingLeg / Gait.LEGS_PER_SIDE;
+    final int position = walkingLeg % Gait.LEGS_PER_SIDE;
+    final double legPhase = this.phase
+        - this.gait.phaseOffset(side, position);
+    return legPhase < 0 ? legPhase + 1 : legPhase;
+  }
+
+  /**
+   * Gets the phase of the cycle of the gait.
+   *
+   * @return The phase of the gait, between 0 (inclusive) and 1 (exclusive).
+   */
+  public double phase() {
+    return this.phase;
+  }
+
+  /**
+   * Sets the gait which the legs follow, keeping the phase of the cycle.
+   *
+   * @param gait
+   *          The gait which the legs follow.
+   */
+  public void setGait(final Gait gait) {
+    this.gait = gait;
+  }
+
+  /**
+   * Sets the angle by which the limb joint lifts a leg during swing, when
+   * driving the legs by direct joint curves.
+   *
+   * @param degrees
+   *          The lift angle, in degrees.
+   */
+  public void setLiftAngle(final double degrees) {
+    this.liftAngle = degrees;
+  }
+
+  /**
+   * Sets the height to which a foot is lifted during swing, when driving the
+   * legs with a solver.
+   *
+   * @param height
+   *          The lift height.
+   */
+  public void setLiftHeight(final double height) {
+    this.liftHeight = height;
+  }
+
+  /**
+   * Sets the duration of a cycle of the gait.
+   *
+   * @param seconds
+   *          The duration of a cycle, in seconds.
+   * @throws IllegalArgumentException
+   *           If the duration is not positive.
+   */
+  public void setPeriod(final double seconds) {
+    if (!(seconds > 0)) {
+      throw new IllegalArgumentException("Invalid period " + seconds);
+    }
+    this.period = seconds;
+  }
+
+  /**
+   * Sets the angle through which the limb joint sweeps a leg each cycle, when
+   * driving the legs by direct joint curves.
+   *
+   * @param degrees
+   *          The stride angle, in degrees.
+   */
+  public void setStrideAngle(final double degrees) {
+    this.strideAngle = degrees;
+  }
+
+  /**
+   * Sets the distance which a foot sweeps each cycle, when driving the legs
+   * with a solver.
+   *
+   * @param length
+   *          The stride length.
+   */
+  public void setStrideLength(final double length) {
+    this.strideLength = length;
+  }
+
+  /**
+   * Sets the duration of each step of the simulation.
+   *
+   * @param seconds
+   *          The timestep, in seconds.
+   * @throws IllegalArgumentException
+   *           If the timestep is not positive.
+   */
+  public void setTimestep(final double seconds) {
+    if (!(seconds > 0)) {
+      throw new IllegalArgumentException("Invalid timestep " + seconds);
+    }
+    this.timestep = seconds;
+  }
+
+  /**
+   * Gets the number of walking legs which are on the ground.
+   *
+   * @return The number of legs in the stance phase of their cycles.
+   */
+  public int stanceCount() {
+    int count = 0;
+    for (int i = 0; i < WALKING_LEGS.length; ++i) {
+      if (this.isStance(i)) {
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Advances the cycle of the gait by one timestep and moves the legs
+   * accordingly.
+   */
+  public void step() {
+    // the phase is kept on a binary grid so that the phases of the legs,
+    // whose offsets are multiples of 1/8, are exact, and one leg lands at
+    // exactly the step at which the next lifts
+    this.phase += this.timestep / this.period;
+    this.phase -= Math.floor(this.phase);
+    this.phase = Math.rint(this.phase * PHASE_GRID) / PHASE_GRID;
+    if (this.phase >= 1) {
+      this.phase = 0;
+    }
+
+    final double dutyFactor = this.gait.dutyFactor();
+    for (int i = 0; i < WALKING_LEGS.length; ++i) {
+      // the sweep runs from 1 at the front to -1 at the rear during stance and
+      // back during swing, and the lift is positive only during swing
+      final double legPhase = this.legPhase(i);
+      final double sweep;
+      final double lift;
+      if (legPhase < dutyFactor) {
+        sweep = 1 - 2 * legPhase / dutyFactor;
+        lift = 0;
+      } else {
+        final double s = (legPhase - dutyFactor) / (1 - dutyFactor);
+        sweep = -Math.cos(Math.PI * s);
+        lift = Math.sin(Math.PI * s);
+      }
+
+      final Leg leg = this.legs[WALKING_LEGS[i]];
+      if (this.solver == null) {
+        this.moveLimb(i, leg.palmJoint(), sweep, lift);
+      } else {
+        this.moveFoot(i, leg, sweep, lift);
+      }
+    }
+  }
+
+  /**
+   * Solves the joints of the specified leg so that its foot reaches the
+   * specified point of its trajectory.
+   *
+   * @param walkingLeg
+   *          The index of the leg within {@link #WALKING_LEGS}.
+   * @param leg
+   *          The leg.
+   * @param sweep
+   *          The position of the foot along its stride, from -1 at the rear to
+   *          1 at the front.
+   * @param lift
+   *          The height of the foot as a fraction of the lift height.
+   */
+  private void moveFoot(final int walkingLeg, final Leg leg,
+      final double sweep, final double lift) {
+    // the target relative to the body is the neutral foot moved forward along
+    // x and up along y, and the target in the tree is R p + t
+    final double px = this.neutralFeet[3 * walkingLeg] + 0.5
+        * this.strideLength * sweep;
+    final double py = this.neutralFeet[3 * walkingLeg + 1] + this.liftHeight
+        * lift;
+    final double pz = this.neutralFeet[3 * walkingLeg + 2];
+    final float[] world = this.body.worldTransform();
+    final int w = this.body.worldTransformOffset();
+    Matrix4.transformPoint(world, w, px, py, pz, this.target, 0);
+    this.solver.solve(leg, this.target[0], this.target[1], this.target[2]);
+  }
+
+  /**
+   * Turns the limb joint of the specified leg to the specified point of its
+   * trajectory, within the extents of the joint.
+   *
+   * The legs on the second side of the body mirror those on the first side,
+   * as in {@link Component#setReverseAngles(Angled)}, so their angles turn the
+   * other way.
+   *
+   * @param walkingLeg
+   *          The index of the leg within {@link #WALKING_LEGS}.
+   * @param limb
+   *          The limb joint of the leg.
+   * @param sweep
+   *          The position of the foot along its stride, from -1 at the rear to
+   *          1 at the front.
+   * @param lift
+   *          The height of the foot as a fraction of the lift angle.
+   */
+  private void moveLimb(final int walkingLeg, final Component limb,
+      final double sweep, final double lift) {
+    final double sign = walkingLeg < Gait.LEGS_PER_SIDE ? 1 : -1;
+    final double x = this.restAngles[2 * walkingLeg] - sign * this.liftAngle
+        * lift;
+    final double y = this.restAngles[2 * walkingLeg + 1] + sign * 0.5
+        * this.strideAngle * sweep;
+    limb.setAngles(Math.max(limb.negativeExtent(Axis.X), Math.min(limb
+        .positiveExtent(Axis.X), x)), Math.max(limb.negativeExtent(Axis.Y),
+        Math.min(limb.positiveExtent(Axis.Y), y)), limb.zAngle());
+  }
+}
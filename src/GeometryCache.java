@@ -0,0 +1,127 @@
+/**
+ * GeometryCache.java - call lists shared by all shapes with equal geometry
+ */
+
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.media.opengl.GL2;
+import javax.media.opengl.GLContext;
+
+/**
+ * A process-wide cache of OpenGL call lists and buffer objects, one per
+ * distinct {@link GeometryKey}, so that displayable objects with identical
+ * geometry share a single compiled call list or uploaded mesh instead of each
+ * creating its own.
+ *
+ * OpenGL handles are only valid in the context in which they were created, so
+ * the cache is emptied whenever it is used with a different context.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public final class GeometryCache {
+  /** The single instance of this class. */
+  private static final GeometryCache INSTANCE = new GeometryCache();
+
+  /**
+   * Gets the single instance of this class.
+   *
+   * @return The single instance of this class.
+   */
+  public static GeometryCache instance() {
+    return INSTANCE;
+  }
+
+  /** The call list handle for each distinct geometry. */
+  private final Map<GeometryKey, Integer> callLists = new HashMap<GeometryKey, Integer>();
+  /** The OpenGL context in which the cached call lists were created. */
+  private GLContext context = null;
+  /** The uploaded mesh for each distinct geometry. */
+  private final Map<GeometryKey, MeshBuffers> meshBuffers = new HashMap<GeometryKey, MeshBuffers>();
+
+  /** Instantiates this class. */
+  private GeometryCache() {
+    // intentionally unimplemented
+  }
+
+  /**
+   * Gets the handle to the call list which draws the geometry of the specified
+   * shape, compiling that call list first if no shape with an equal key has
+   * been compiled in the current context.
+   *
+   * @param gl
+   *          The OpenGL object with which to compile the call list.
+   * @param shape
+   *          The shape whose geometry the call list draws.
+   * @return The handle to the call list which draws the geometry of the shape.
+   */
+  public synchronized int callList(final GL2 gl, final Circular shape) {
+    this.checkContext(gl);
+
+    final GeometryKey key = shape.geometryKey();
+    final Integer cached = this.callLists.get(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    final int handle = gl.glGenLists(1);
+    gl.glNewList(handle, GL2.GL_COMPILE);
+    shape.compile(gl);
+    gl.glEndList();
+
+    this.callLists.put(key, handle);
+    return handle;
+  }
+
+  /**
+   * Empties this cache if the specified OpenGL object belongs to a context
+   * other than the one in which the cached geometry was created.
+   *
+   * @param gl
+   *          The OpenGL object which is about to be used.
+   */
+  private void checkContext(final GL2 gl) {
+    final GLContext current = gl.getContext();
+    if (current != this.context) {
+      this.callLists.clear();
+      this.meshBuffers.clear();
+      this.context = current;
+    }
+  }
+
+  /**
+   * Gets the buffer objects containing the mesh of the specified shape,
+   * tessellating and uploading that mesh first if no shape with an equal key
+   * has been uploaded in the current context.
+   *
+   * @param gl
+   *          The OpenGL object with which to upload the mesh.
+   * @param shape
+   *          The shape whose mesh the buffer objects contain.
+   * @return The buffer objects containing the mesh of the shape.
+   */
+  public synchronized MeshBuffers meshBuffers(final GL2 gl,
+      final Circular shape) {
+    this.checkContext(gl);
+
+    final GeometryKey key = shape.geometryKey();
+    MeshBuffers buffers = this.meshBuffers.get(key);
+    if (buffers == null) {
+      buffers = MeshBuffers.upload(gl, shape.tessellate());
+      this.meshBuffers.put(key, buffers);
+    }
+    return buffers;
+  }
+
+  /**
+   * Gets the number of distinct geometries which have been compiled or
+   * uploaded in the current context.
+   *
+   * @return The number of distinct geometries in this cache.
+   */
+  public synchronized int size() {
+    return this.callLists.size() + this.meshBuffers.size();
+  }
+}
@@ -0,0 +1,160 @@
+/**
+ * GeometryKey.java - identifies a shape with particular dimensions
+ */
+
+
+/**
+ * Identifies a shape by its type, dimensions, and tessellation, so that all
+ * displayable objects with equal keys can share the same geometry.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public final class GeometryKey {
+
+  /**
+   * The type of a shape.
+   *
+   * @author Tian Chen
+   * @since Fall 2020
+   */
+  public enum Shape {
+    /** A sphere scaled into an ellipsoid, as drawn by {@link Limb}. */
+    ELLIPSOID,
+    /** A cylinder with a sphere at its top, as drawn by {@link RoundedCylinder}. */
+    ROUNDED_CYLINDER,
+    /** A sphere, as drawn by {@link eyeball}. */
+    SPHERE;
+  }
+
+  /** The height of the shape, or zero if it has no height. */
+  private final double height;
+  /** The radius of the shape. */
+  private final double radius;
+  /** The type of the shape. */
+  private final Shape shape;
+  /** The number of slices with which the shape is tessellated. */
+  private final int slices;
+  /** The number of stacks with which the shape is tessellated. */
+  private final int stacks;
+
+  /**
+   * Instantiates this key with the specified shape type, dimensions, and
+   * tessellation.
+   *
+   * @param shape
+   *          The type of the shape.
+   * @param radius
+   *          The radius of the shape.
+   * @param height
+   *          The height of the shape, or zero if it has no height.
+   * @param slices
+   *          The number of slices with which the shape is tessellated.
+   * @param stacks
+   *          The number of stacks with which the shape is tessellated.
+   */
+  public GeometryKey(final Shape shape, final double radius,
+      final double height, final int slices, final int stacks) {
+    this.shape = shape;
+    this.radius = radius;
+    this.height = height;
+    this.slices = slices;
+    this.stacks = stacks;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param object
+   *          {@inheritDoc}
+   * @return {@inheritDoc}
+   */
+  @Override
+  public boolean equals(final Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof GeometryKey)) {
+      return false;
+    }
+    final GeometryKey that = (GeometryKey) object;
+    return this.shape == that.shape
+        && Double.compare(this.radius, that.radius) == 0
+        && Double.compare(this.height, that.height) == 0
+        && this.slices == that.slices && this.stacks == that.stacks;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @return {@inheritDoc}
+   */
+  @Override
+  public int hashCode() {
+    int result = this.shape.hashCode();
+    final long radiusBits = Double.doubleToLongBits(this.radius);
+    final long heightBits = Double.doubleToLongBits(this.height);
+    result = 31 * result + (int) (radiusBits ^ (radiusBits >>> 32));
+    result = 31 * result + (int) (heightBits ^ (heightBits >>> 32));
+    result = 31 * result + this.slices;
+    result = 31 * result + this.stacks;
+    return result;
+  }
+
+  /**
+   * Gets the height of the shape.
+   *
+   * @return The height of the shape, or zero if it has no height.
+   */
+  public double height() {
+    return this.height;
+  }
+
+  /**
+   * Gets the radius of the shape.
+   *
+   * @return The radius of the shape.
+   */
+  public double radius() {
+    return this.radius;
+  }
+
+  /**
+   * Gets the type of the shape.
+   *
+   * @return The type of the shape.
+   */
+  public Shape shape() {
+    return this.shape;
+  }
+
+  /**
+   * Gets the number of slices with which the shape is tessellated.
+   *
+   * @return The number of slices with which the shape is tessellated.
+   */
+  public int slices() {
+    return this.slices;
+  }
+
+  /**
+   * Gets the number of stacks with which the shape is tessellated.
+   *
+   * @return The number of stacks with which the shape is tessellated.
+   */
+  public int stacks() {
+    return this.stacks;
+  }
+
+  /**
+   * Returns the String representation of this object.
+   *
+   * @return The String representation of this object.
+   */
+  @Override
+  public String toString() {
+    return "GeometryKey[" + this.shape + ", radius " + this.radius
+        + ", height " + this.height + ", " + this.slices + "x" + this.stacks
+        + "]";
+  }
+}
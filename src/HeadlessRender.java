@@ -0,0 +1,69 @@
+/**
+ * HeadlessRender.java - draws the spider without a window or OpenGL context
+ */
+
+
+import com.jogamp.opengl.util.gl2.GLUT;//for new version of gl
+
+/**
+ * Builds the same spider model as {@link PA2} and draws it for a number of
+ * frames into a {@link RecordingRenderBackend}, cycling through the poses of
+ * the {@link TestCases}, then prints the commands recorded per frame and the
+ * average time taken to draw a frame.
+ *
+ * No window or OpenGL context is created, so this program can be run on a
+ * machine without a display, for example as a smoke test or a benchmark of
+ * the scene traversal.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class HeadlessRender {
+  /** The default number of frames to draw. */
+  public static final int DEFAULT_FRAMES = 10000;
+  /** The number of frames for which each pose is held. */
+  public static final int FRAMES_PER_POSE = 30;
+
+  /**
+   * Runs the spider model headlessly.
+   *
+   * @param args
+   *          The number of frames to draw may be given as the first argument.
+   */
+  public static void main(final String[] args) {
+    final int frames = args.length > 0 ? Integer.parseInt(args[0])
+        : DEFAULT_FRAMES;
+
+    final SpiderModel model = new SpiderModel(new GLUT(),
+        RenderMode.CALL_LIST, new SceneArena(SpiderModel.COMPONENT_COUNT));
+    final TestCases testCases = new TestCases();
+    final RecordingRenderBackend backend = new RecordingRenderBackend();
+
+    final long start = System.nanoTime();
+    for (int frame = 0; frame < frames; ++frame) {
+      if (frame % FRAMES_PER_POSE == 0) {
+        model.setModelState(testCases.next());
+      }
+      backend.beginFrame();
+      model.topLevelComponent().render(backend);
+      backend.endFrame();
+    }
+    final long elapsed = System.nanoTime() - start;
+
+    System.out.println("frames:          " + backend.frames());
+    System.out.println("components:      " + model.components().size());
+    System.out.println("distinct meshes: " + backend.meshCount());
+    System.out.println("draws/frame:     "
+        + backend.frameCount(RecordingRenderBackend.DRAW));
+    System.out.println("matrices/frame:  "
+        + backend.frameCount(RecordingRenderBackend.MULT_MATRIX));
+    System.out.println("pushes/frame:    "
+        + backend.frameCount(RecordingRenderBackend.PUSH_MATRIX));
+    System.out.println("pops/frame:      "
+        + backend.frameCount(RecordingRenderBackend.POP_MATRIX));
+    System.out.println("commands/frame:  " + backend.commandLength()
+        + " ints, " + backend.operandLength() + " floats");
+    System.out.println("time/frame:      "
+        + (frames == 0 ? 0 : elapsed / frames) + " ns");
+  }
+}
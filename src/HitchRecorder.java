@@ -0,0 +1,212 @@
+/**
+ * HitchRecorder.java - keeps a flight recording to dump when a frame is slow
+ */
+
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Keeps a Java Flight Recorder recording of the last few seconds of the
+ * program running, including the {@link FrameEvent}s and the other events of
+ * the spider as well as the usual events of the virtual machine, such as
+ * garbage collections, and writes it to a file whenever a frame takes longer
+ * than its budget, so a hitch can be diagnosed after the fact instead of
+ * being reproduced.
+ *
+ * The recording keeps only the most recent {@link #DEFAULT_MAX_AGE_SECONDS}
+ * seconds, a few hundred frames. The file is written on a background thread,
+ * so the slow frame is not made slower. The first
+ * {@link #DEFAULT_WARM_UP_FRAMES} frames, which compile the call lists and
+ * run before the code is compiled, are never counted as slow; after them, at
+ * most one file is written per {@link #DEFAULT_COOLDOWN_SECONDS} seconds, and
+ * at most {@link #DEFAULT_MAX_DUMPS} files in all, so a program which keeps
+ * missing its budget does not fill the disk. The files are named
+ * {@code hitch-<date>-<time>.jfr} and can be opened with JDK Mission Control
+ * or the {@code jfr} tool.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class HitchRecorder {
+  /** The default budget of a frame, that of 60 frames per second. */
+  public static final long DEFAULT_BUDGET_NANOS = TimeUnit.SECONDS.toNanos(1)
+      / 60;
+  /** The default minimum time between dumps, in seconds. */
+  public static final int DEFAULT_COOLDOWN_SECONDS = 30;
+  /** The default time for which recorded events are kept, in seconds. */
+  public static final int DEFAULT_MAX_AGE_SECONDS = 10;
+  /** The default greatest number of recordings written. */
+  public static final int DEFAULT_MAX_DUMPS = 10;
+  /** The default number of frames at the start which are never recorded. */
+  public static final int DEFAULT_WARM_UP_FRAMES = 300;
+
+  /** The longest time a frame may take without causing a dump. */
+  private final long budgetNanos;
+  /** The minimum time between dumps, in nanoseconds. */
+  private final long cooldownNanos;
+  /** The directory in which the recordings are written. */
+  private final Path directory;
+  /** The number of recordings written so far. */
+  private volatile int dumpCount = 0;
+  /** The number of recordings requested by slow frames so far. */
+  private int dumpsRequested = 0;
+  /** The thread which writes the recordings. */
+  private final ExecutorService executor;
+  /** The number of frames ended so far. */
+  private long frameCount = 0;
+  /** The time of the last dump, or of the start, in nanoseconds. */
+  private long lastDump;
+  /** The recording which is kept. */
+  private final Recording recording;
+
+  /**
+   * Instantiates this recorder with the default budget, writing recordings
+   * to the specified directory.
+   *
+   * @param directory
+   *          The directory in which the recordings are written.
+   * @throws IllegalStateException
+   *           If the flight recorder is not available, or the directory cannot
+   *           be created.
+   */
+  public HitchRecorder(final Path directory) {
+    this(directory, DEFAULT_BUDGET_NANOS);
+  }
+
+  /**
+   * Instantiates this recorder with the specified budget, writing recordings
+   * to the specified directory.
+   *
+   * @param directory
+   *          The directory in which the recordings are written.
+   * @param budgetNanos
+   *          The longest time a frame may take without causing a dump, in
+   *          nanoseconds.
+   * @throws IllegalStateException
+   *           If the flight recorder is not available, or the directory cannot
+   *           be created.
+   */
+  public HitchRecorder(final Path directory, final long budgetNanos) {
+    try {
+      Files.createDirectories(directory);
+    } catch (final IOException exception) {
+      throw new IllegalStateException("Failed to create " + directory,
+          exception);
+    }
+    this.directory = directory;
+    this.budgetNanos = budgetNanos;
+    this.cooldownNanos = TimeUnit.SECONDS.toNanos(DEFAULT_COOLDOWN_SECONDS);
+    this.lastDump = System.nanoTime() - this.cooldownNanos;
+    try {
+      this.recording = new Recording(Configuration.getConfiguration("default"));
+    } catch (final IOException | ParseException exception) {
+      throw new IllegalStateException("Failed to configure the recording",
+          exception);
+    }
+    this.recording.setName("hitches");
+    this.recording.setMaxAge(Duration.ofSeconds(DEFAULT_MAX_AGE_SECONDS));
+    this.recording.setToDisk(true);
+    this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "hitch-recorder");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  /**
+   * Gets the number of recordings written so far.
+   *
+   * @return The number of recordings written.
+   */
+  public int dumpCount() {
+    return this.dumpCount;
+  }
+
+  /**
+   * Writes the recording to a new file in the directory of this recorder on
+   * the background thread.
+   */
+  public void dump() {
+    final Path path = this.directory.resolve("hitch-"
+        + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date())
+        + ".jfr");
+    this.executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          HitchRecorder.this.recording.dump(path);
+          ++HitchRecorder.this.dumpCount;
+          System.err.println("Frame over budget; recording written to "
+              + path);
+        } catch (final IOException | IllegalStateException exception) {
+          System.err.println("Failed to write recording " + path + ": "
+              + exception.getMessage());
+        }
+      }
+    });
+  }
+
+  /**
+   * Writes the recording if the frame which has just ended took longer than
+   * the budget, the program has warmed up, no recording has been written
+   * recently, and not too many have been written in all. Only the thread which
+   * draws the frames may call this method.
+   *
+   * @param frameNanos
+   *          The time taken by the frame, in nanoseconds.
+   * @return Whether a recording is being written.
+   */
+  public boolean frameEnded(final long frameNanos) {
+    if (++this.frameCount <= DEFAULT_WARM_UP_FRAMES
+        || frameNanos <= this.budgetNanos
+        || this.dumpsRequested >= DEFAULT_MAX_DUMPS) {
+      return false;
+    }
+    final long now = System.nanoTime();
+    if (now - this.lastDump < this.cooldownNanos) {
+      return false;
+    }
+    this.lastDump = now;
+    ++this.dumpsRequested;
+    this.dump();
+    return true;
+  }
+
+  /**
+   * Starts recording.
+   */
+  public void start() {
+    this.recording.start();
+  }
+
+  /**
+   * Stops recording, waiting for any recording being written, and discards
+   * the recording.
+   */
+  public void stop() {
+    this.executor.shutdown();
+    try {
+      this.executor.awaitTermination(DEFAULT_COOLDOWN_SECONDS,
+          TimeUnit.SECONDS);
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+    this.recording.close();
+  }
+}
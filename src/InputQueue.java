@@ -0,0 +1,120 @@
+/**
+ * InputQueue.java - lock-free queue of input events between two threads
+ */
+
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded queue of input events passed from one producing thread, such as
+ * the AWT event dispatch thread, to one consuming thread, such as the thread
+ * which draws the scene, without locks and without allocating.
+ *
+ * Each event is a type and two integer arguments, such as a key code or the
+ * coordinates of the mouse, stored in a ring of {@link #EVENT_SIZE} integers
+ * per event. The producer only writes the tail index and the consumer only
+ * writes the head index; each publishes its index with an ordered write after
+ * touching the ring, so an event is fully written before the consumer can see
+ * it and fully read before the producer can overwrite it. A full queue
+ * rejects new events rather than waiting.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class InputQueue {
+  /** The default maximum number of events in the queue. */
+  public static final int DEFAULT_CAPACITY = 1024;
+  /** The number of integers per event: the type and two arguments. */
+  public static final int EVENT_SIZE = 3;
+
+  /** The ring of events. */
+  private final int[] events;
+  /** The number of events read so far, written only by the consumer. */
+  private final AtomicLong head = new AtomicLong();
+  /** The capacity less one, to reduce an index to a slot of the ring. */
+  private final int mask;
+  /** The number of events rejected because the queue was full. */
+  private final AtomicLong rejected = new AtomicLong();
+  /** The number of events written so far, written only by the producer. */
+  private final AtomicLong tail = new AtomicLong();
+
+  /**
+   * Instantiates this queue with the default capacity.
+   */
+  public InputQueue() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Instantiates this queue with the specified capacity.
+   *
+   * @param capacity
+   *          The maximum number of events in the queue, a power of two.
+   * @throws IllegalArgumentException
+   *           If the capacity is not a positive power of two.
+   */
+  public InputQueue(final int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Invalid capacity " + capacity);
+    }
+    this.events = new int[capacity * EVENT_SIZE];
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Adds an event to the tail of this queue. Only the producer may call this
+   * method.
+   *
+   * @param type
+   *          The type of the event.
+   * @param a
+   *          The first argument of the event.
+   * @param b
+   *          The second argument of the event.
+   * @return Whether the event was added; {@code false} if the queue was full.
+   */
+  public boolean offer(final int type, final int a, final int b) {
+    final long tail = this.tail.get();
+    if (tail - this.head.get() > this.mask) {
+      this.rejected.incrementAndGet();
+      return false;
+    }
+    final int i = (int) (tail & this.mask) * EVENT_SIZE;
+    this.events[i] = type;
+    this.events[i + 1] = a;
+    this.events[i + 2] = b;
+    this.tail.lazySet(tail + 1);
+    return true;
+  }
+
+  /**
+   * Removes the event at the head of this queue, if any. Only the consumer
+   * may call this method.
+   *
+   * @param dst
+   *          The array in which to store the type and the two arguments of
+   *          the event.
+   * @return Whether there was an event to remove.
+   */
+  public boolean poll(final int[] dst) {
+    final long head = this.head.get();
+    if (head == this.tail.get()) {
+      return false;
+    }
+    final int i = (int) (head & this.mask) * EVENT_SIZE;
+    dst[0] = this.events[i];
+    dst[1] = this.events[i + 1];
+    dst[2] = this.events[i + 2];
+    this.head.lazySet(head + 1);
+    return true;
+  }
+
+  /**
+   * Gets the number of events rejected because this queue was full.
+   *
+   * @return The number of rejected events.
+   */
+  public long rejectedCount() {
+    return this.rejected.get();
+  }
+}
@@ -0,0 +1,337 @@
+/**
+ * InstancedRenderer.java - draws all components with the same mesh at once
+ */
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.media.opengl.GL;
+import javax.media.opengl.GL2;
+import javax.media.opengl.GL2ES2;
+
+/**
+ * Draws a tree of components by collecting the world transformation and color
+ * of every component into one batch per distinct mesh, then drawing each batch
+ * with instanced draw calls instead of one draw call per component.
+ *
+ * The per-instance matrices and colors are passed to a small vertex shader as
+ * uniform arrays indexed by the instance ID, which only requires the
+ * {@code GL_ARB_draw_instanced} extension. The shader reproduces the fixed
+ * function lighting set up by {@link PA2#init(javax.media.opengl.GLAutoDrawable)}:
+ * ambient plus diffuse light from light 0, with the color of each component
+ * as its material.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class InstancedRenderer {
+
+  /**
+   * The components which share a single mesh, collected for one frame.
+   *
+   * @author Tian Chen
+   * @since Fall 2020
+   */
+  private static class Batch {
+    /** The buffer objects containing the shared mesh. */
+    private final MeshBuffers buffers;
+    /** The red, green, and blue components of the color of each instance. */
+    private float[] colors = new float[3 * MAX_INSTANCES_PER_DRAW];
+    /** The number of instances collected in this frame. */
+    private int count = 0;
+    /** The world transformation of each instance. */
+    private float[] matrices = new float[Matrix4.SIZE * MAX_INSTANCES_PER_DRAW];
+
+    /**
+     * Instantiates this batch with the specified mesh.
+     *
+     * @param buffers
+     *          The buffer objects containing the shared mesh.
+     */
+    Batch(final MeshBuffers buffers) {
+      this.buffers = buffers;
+    }
+
+    /**
+     * Adds the specified component to this batch.
+     *
+     * @param component
+     *          The component to add.
+     */
+    void add(final Component component) {
+      if (this.count * Matrix4.SIZE == this.matrices.length) {
+        final float[] newMatrices = new float[2 * this.matrices.length];
+        System.arraycopy(this.matrices, 0, newMatrices, 0,
+            this.matrices.length);
+        this.matrices = newMatrices;
+        final float[] newColors = new float[2 * this.colors.length];
+        System.arraycopy(this.colors, 0, newColors, 0, this.colors.length);
+        this.colors = newColors;
+      }
+      Matrix4.copy(component.worldTransform(), component
+          .worldTransformOffset(), this.matrices, this.count * Matrix4.SIZE);
+      final FloatColor color = component.color();
+      this.colors[3 * this.count] = color.red();
+      this.colors[3 * this.count + 1] = color.green();
+      this.colors[3 * this.count + 2] = color.blue();
+      ++this.count;
+    }
+  }
+
+  /** The name of the extension required by this renderer. */
+  public static final String EXTENSION = "GL_ARB_draw_instanced";
+  /**
+   * The maximum number of instances drawn by a single draw call, limited by
+   * the number of uniform components available to a vertex shader.
+   */
+  public static final int MAX_INSTANCES_PER_DRAW = 16;
+
+  /** The source code of the fragment shader. */
+  private static final String FRAGMENT_SHADER = "#version 120\n"
+      + "varying vec4 color;\n"
+      + "void main() {\n"
+      + "  gl_FragColor = color;\n"
+      + "}\n";
+  /** The source code of the vertex shader. */
+  private static final String VERTEX_SHADER = "#version 120\n"
+      + "#extension GL_ARB_draw_instanced : require\n"
+      + "uniform mat4 instanceMatrices[" + MAX_INSTANCES_PER_DRAW + "];\n"
+      + "uniform vec3 instanceColors[" + MAX_INSTANCES_PER_DRAW + "];\n"
+      + "varying vec4 color;\n"
+      + "void main() {\n"
+      + "  mat4 model = instanceMatrices[gl_InstanceIDARB];\n"
+      + "  vec3 material = instanceColors[gl_InstanceIDARB];\n"
+      + "  mat3 rotation = mat3(model[0].xyz, model[1].xyz, model[2].xyz);\n"
+      + "  vec3 normal = normalize(gl_NormalMatrix * (rotation * gl_Normal));\n"
+      + "  vec3 light = normalize(gl_LightSource[0].position.xyz);\n"
+      + "  float diffuse = max(dot(normal, light), 0.0);\n"
+      + "  vec3 ambient = gl_LightModel.ambient.rgb"
+      + " + gl_LightSource[0].ambient.rgb;\n"
+      + "  color = vec4(material * (ambient"
+      + " + diffuse * gl_LightSource[0].diffuse.rgb), 1.0);\n"
+      + "  gl_Position = gl_ModelViewProjectionMatrix * (model * gl_Vertex);\n"
+      + "}\n";
+
+  /**
+   * Compiles a shader of the specified type from the specified source code.
+   *
+   * @param gl
+   *          The OpenGL object with which to compile the shader.
+   * @param type
+   *          The type of the shader.
+   * @param source
+   *          The source code of the shader.
+   * @return The handle to the compiled shader.
+   * @throws IllegalStateException
+   *           If the shader fails to compile.
+   */
+  private static int compileShader(final GL2 gl, final int type,
+      final String source) {
+    final int shader = gl.glCreateShader(type);
+    gl.glShaderSource(shader, 1, new String[] { source }, null, 0);
+    gl.glCompileShader(shader);
+
+    final int[] status = new int[1];
+    gl.glGetShaderiv(shader, GL2ES2.GL_COMPILE_STATUS, status, 0);
+    if (status[0] == GL.GL_FALSE) {
+      final byte[] log = new byte[4096];
+      final int[] length = new int[1];
+      gl.glGetShaderInfoLog(shader, log.length, length, 0, log, 0);
+      throw new IllegalStateException("Failed to compile shader: "
+          + new String(log, 0, length[0]));
+    }
+    return shader;
+  }
+
+  /**
+   * Returns whether instanced rendering is supported by the specified OpenGL
+   * object.
+   *
+   * @param gl
+   *          The OpenGL object.
+   * @return Whether this renderer can be used with the specified OpenGL
+   *         object.
+   */
+  public static boolean isSupported(final GL2 gl) {
+    return gl.isExtensionAvailable(EXTENSION)
+        && gl.isFunctionAvailable("glDrawElementsInstanced");
+  }
+
+  /** The batch for each distinct displayable, resolved the first time. */
+  private final Map<Displayable, Batch> batchesByDisplayable = new IdentityHashMap<Displayable, Batch>();
+  /** The batch for each distinct geometry. */
+  private final Map<GeometryKey, Batch> batchesByGeometry = new HashMap<GeometryKey, Batch>();
+  /** The list of all batches, in the order in which they were created. */
+  private final List<Batch> batches = new ArrayList<Batch>();
+  /** The location of the uniform array of instance colors. */
+  private int colorsLocation;
+  /** The number of draw calls issued in the last frame. */
+  private int drawCalls = 0;
+  /**
+   * The evaluator which updates the world transformations before they are
+   * collected, or {@code null} to update them on the calling thread.
+   */
+  private final ParallelTransformEvaluator evaluator;
+  /** The OpenGL object with which batches were created. */
+  private GL2 gl = null;
+  /** The location of the uniform array of instance matrices. */
+  private int matricesLocation;
+  /** The handle to the shader program. */
+  private int program;
+
+  /**
+   * Instantiates this renderer, which updates the world transformations of
+   * the components on the thread which draws them.
+   */
+  public InstancedRenderer() {
+    this(null);
+  }
+
+  /**
+   * Instantiates this renderer, which updates the world transformations of
+   * the components with the specified evaluator before collecting them.
+   * 
+   * @param evaluator
+   *          The evaluator which updates the world transformations, or
+   *          {@code null} to update them on the thread which draws them.
+   */
+  public InstancedRenderer(final ParallelTransformEvaluator evaluator) {
+    this.evaluator = evaluator;
+  }
+
+  /**
+   * Adds the specified component and all its descendants to the batch for
+   * their meshes.
+   *
+   * Components whose displayable is not a {@link Circular} shape, or which
+   * have no displayable, are positioning only and are not drawn.
+   *
+   * @param component
+   *          The root of the subtree to collect.
+   */
+  private void collect(final Component component) {
+    final Displayable displayable = component.displayable();
+    if (displayable instanceof Circular) {
+      Batch batch = this.batchesByDisplayable.get(displayable);
+      if (batch == null) {
+        final Circular shape = (Circular) displayable;
+        final GeometryKey key = shape.geometryKey();
+        batch = this.batchesByGeometry.get(key);
+        if (batch == null) {
+          batch = new Batch(GeometryCache.instance().meshBuffers(this.gl,
+              shape));
+          this.batchesByGeometry.put(key, batch);
+          this.batches.add(batch);
+        }
+        this.batchesByDisplayable.put(displayable, batch);
+      }
+      batch.add(component);
+    }
+
+    for (int i = 0; i < component.childCount(); ++i) {
+      this.collect(component.child(i));
+    }
+  }
+
+  /**
+   * Gets the number of instanced draw calls issued in the last frame.
+   *
+   * @return The number of draw calls issued in the last frame.
+   */
+  public int drawCalls() {
+    return this.drawCalls;
+  }
+
+  /**
+   * Compiles and links the shader program used by this renderer.
+   *
+   * @param gl
+   *          The OpenGL object with which to create the shader program.
+   * @throws IllegalStateException
+   *           If the shader program fails to compile or link.
+   */
+  public void initialize(final GL2 gl) {
+    this.gl = gl;
+    this.batchesByDisplayable.clear();
+    this.batchesByGeometry.clear();
+    this.batches.clear();
+
+    final int vertexShader = compileShader(gl, GL2ES2.GL_VERTEX_SHADER,
+        VERTEX_SHADER);
+    final int fragmentShader = compileShader(gl, GL2ES2.GL_FRAGMENT_SHADER,
+        FRAGMENT_SHADER);
+    this.program = gl.glCreateProgram();
+    gl.glAttachShader(this.program, vertexShader);
+    gl.glAttachShader(this.program, fragmentShader);
+    gl.glLinkProgram(this.program);
+    gl.glDeleteShader(vertexShader);
+    gl.glDeleteShader(fragmentShader);
+
+    final int[] status = new int[1];
+    gl.glGetProgramiv(this.program, GL2ES2.GL_LINK_STATUS, status, 0);
+    if (status[0] == GL.GL_FALSE) {
+      final byte[] log = new byte[4096];
+      final int[] length = new int[1];
+      gl.glGetProgramInfoLog(this.program, log.length, length, 0, log, 0);
+      throw new IllegalStateException("Failed to link shader program: "
+          + new String(log, 0, length[0]));
+    }
+
+    this.matricesLocation = gl.glGetUniformLocation(this.program,
+        "instanceMatrices");
+    this.colorsLocation = gl.glGetUniformLocation(this.program,
+        "instanceColors");
+  }
+
+  /**
+   * Draws the specified component and all its descendants, with one instanced
+   * draw call per distinct mesh (or per {@link #MAX_INSTANCES_PER_DRAW}
+   * instances of that mesh).
+   *
+   * The world transformations of the whole tree are brought up to date first,
+   * with the evaluator of this renderer if it has one, so that collecting the
+   * components only copies them. The current model view matrix is applied on
+   * top of the world transformation of each component.
+   *
+   * @param gl
+   *          The OpenGL object with which to draw.
+   * @param root
+   *          The top level component of the tree to draw.
+   */
+  public void render(final GL2 gl, final Component root) {
+    this.gl = gl;
+    if (this.evaluator == null) {
+      ParallelTransformEvaluator.evaluateSequentially(root);
+    } else {
+      this.evaluator.evaluate(root);
+    }
+    for (int i = 0; i < this.batches.size(); ++i) {
+      this.batches.get(i).count = 0;
+    }
+    this.collect(root);
+
+    this.drawCalls = 0;
+    gl.glUseProgram(this.program);
+    for (int i = 0; i < this.batches.size(); ++i) {
+      final Batch batch = this.batches.get(i);
+      if (batch.count == 0) {
+        continue;
+      }
+      batch.buffers.bind(gl);
+      for (int first = 0; first < batch.count; first += MAX_INSTANCES_PER_DRAW) {
+        final int count = Math.min(MAX_INSTANCES_PER_DRAW, batch.count - first);
+        gl.glUniformMatrix4fv(this.matricesLocation, count, false,
+            batch.matrices, first * Matrix4.SIZE);
+        gl.glUniform3fv(this.colorsLocation, count, batch.colors, first * 3);
+        batch.buffers.drawElementsInstanced(gl, count);
+        ++this.drawCalls;
+      }
+      batch.buffers.unbind(gl);
+    }
+    gl.glUseProgram(0);
+  }
+}
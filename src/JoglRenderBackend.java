@@ -0,0 +1,104 @@
+/**
+ * JoglRenderBackend.java - issues drawing commands to a JOGL OpenGL object
+ */
+
+
+import javax.media.opengl.GL2;
+
+/**
+ * A {@link RenderBackend} which issues each command directly to a JOGL OpenGL
+ * object, using the fixed-function matrix stack.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class JoglRenderBackend implements RenderBackend {
+  /** The OpenGL object to which to issue commands. */
+  private GL2 gl;
+
+  /**
+   * Instantiates this backend with no OpenGL object; one must be set with
+   * {@link #setGL(GL2)} before the first frame.
+   */
+  public JoglRenderBackend() {
+    this(null);
+  }
+
+  /**
+   * Instantiates this backend with the specified OpenGL object.
+   *
+   * @param gl
+   *          The OpenGL object to which to issue commands.
+   */
+  public JoglRenderBackend(final GL2 gl) {
+    this.gl = gl;
+  }
+
+  /**
+   * This method is intentionally unimplemented.
+   */
+  @Override
+  public void beginFrame() {
+    // intentionally unimplemented
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param displayable
+   *          {@inheritDoc}
+   * @param color
+   *          {@inheritDoc}
+   */
+  @Override
+  public void draw(final Displayable displayable, final FloatColor color) {
+    this.gl.glPushAttrib(GL2.GL_CURRENT_BIT);
+    this.gl.glColor3f(color.red(), color.green(), color.blue());
+    displayable.draw(this.gl);
+    this.gl.glPopAttrib();
+  }
+
+  /**
+   * This method is intentionally unimplemented.
+   */
+  @Override
+  public void endFrame() {
+    // intentionally unimplemented
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param matrix
+   *          {@inheritDoc}
+   * @param offset
+   *          {@inheritDoc}
+   */
+  @Override
+  public void multMatrix(final float[] matrix, final int offset) {
+    this.gl.glMultMatrixf(matrix, offset);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void popMatrix() {
+    this.gl.glPopMatrix();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void pushMatrix() {
+    this.gl.glPushMatrix();
+  }
+
+  /**
+   * Sets the OpenGL object to which to issue commands, which may change each
+   * time the drawable is displayed.
+   *
+   * @param gl
+   *          The OpenGL object to which to issue commands.
+   */
+  public void setGL(final GL2 gl) {
+    this.gl = gl;
+  }
+}
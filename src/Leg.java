@@ -0,0 +1,81 @@
+/**
+ * Leg.java - a limb with a limb joint, a middle joint, and a distal joint
+ */
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A limb which has a limb joint, a middle joint, and a distal joint.
+ * 
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class Leg {
+  /** The distal joint of this limb. */
+  private final Component distalJoint;
+  /** The list of all the joints in this limb. */
+  private final List<Component> joints;
+  /** The middle joint of this limb. */
+  private final Component middleJoint;
+  /** The palm joint of this limb. */
+  private final Component limbJoint;
+
+  /**
+   * Instantiates this limb with the three specified joints.
+   * 
+   * @param limbJoint
+   *          The palm joint of this limb.
+   * @param middleJoint
+   *          The middle joint of this limb.
+   * @param distalJoint
+   *          The distal joint of this limb.
+   */
+  public Leg(final Component limbJoint, final Component middleJoint,
+             final Component distalJoint) {
+    this.limbJoint = limbJoint;
+    this.middleJoint = middleJoint;
+    this.distalJoint = distalJoint;
+
+    this.joints = Collections.unmodifiableList(Arrays.asList(this.limbJoint,
+        this.middleJoint, this.distalJoint));
+  }
+
+  /**
+   * Gets the distal joint of this limb.
+   * 
+   * @return The distal joint of this limb.
+   */
+  Component distalJoint() {
+    return this.distalJoint;
+  }
+
+  /**
+   * Gets an unmodifiable view of the list of the joints of this limb.
+   * 
+   * @return An unmodifiable view of the list of the joints of this limb.
+   */
+  List<Component> joints() {
+    return this.joints;
+  }
+
+  /**
+   * Gets the middle joint of this limb.
+   * 
+   * @return The middle joint of this limb.
+   */
+  Component middleJoint() {
+    return this.middleJoint;
+  }
+
+  /**
+   * Gets the palm joint of this limb.
+   * 
+   * @return The palm joint of this limb.
+   */
+  Component palmJoint() {
+    return this.limbJoint;
+  }
+}
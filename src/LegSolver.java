@@ -0,0 +1,307 @@
+/**
+ * LegSolver.java - inverse kinematics for the joint chain of a leg
+ */
+
+
+/**
+ * Solves the angles of the limb, middle, and distal joints of a {@link Leg} so
+ * that its foot, the tip of the distal joint, reaches a target position, using
+ * cyclic coordinate descent.
+ *
+ * Each iteration visits the joints from the limb joint down to the distal
+ * joint, and for each axis around which the joint can rotate, turns the joint by the
+ * angle which best swings the foot toward the target around that axis,
+ * clamped to the extents of the joint around that axis. The axes, pivots, and
+ * foot position are taken from the world transformations of the components,
+ * so the target is given in the coordinate system of the top of the tree,
+ * and the solution accounts for however the body is posed. Iteration stops
+ * when the foot is within the tolerance of the target or after the maximum
+ * number of iterations. Solving from the pose of the previous frame toward a
+ * target which has moved a little, as when a foot follows a gait, takes
+ * fewer iterations than solving from an unrelated pose.
+ *
+ * An unreachable target leaves the foot as close to it as the extents allow.
+ * None of the methods of this class allocate, so one solver can be used for
+ * every leg of many creatures each frame. A solver must only be used by one
+ * thread at a time.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class LegSolver {
+  /** The default maximum number of iterations of each solve. */
+  public static final int DEFAULT_MAX_ITERATIONS = 16;
+  /** The default distance from the target at which a solve stops. */
+  public static final double DEFAULT_TOLERANCE = 1e-3;
+  /** The axes of rotation, in x, y, z order, without copying the values. */
+  private static final Axis[] AXES = Axis.values();
+  /**
+   * The minimum length of the projections of the foot and the target around
+   * an axis for the angle between them to be meaningful.
+   */
+  private static final double MIN_PROJECTION = 1e-9;
+
+  /** The x, y, and z components of the world axis of a rotation. */
+  private final double[] axis = new double[3];
+  /** The x, y, and z components of the position of the foot. */
+  private final double[] foot = new double[3];
+  /** The length of the distal joint, from its origin to the foot. */
+  private final double footLength;
+  /** The number of iterations taken by the last solve. */
+  private int iterations = 0;
+  /** The maximum number of iterations of each solve. */
+  private int maxIterations = DEFAULT_MAX_ITERATIONS;
+  /** The distance from the target at which a solve stops. */
+  private double tolerance = DEFAULT_TOLERANCE;
+
+  /**
+   * Instantiates this solver for the legs of the {@link SpiderModel}, whose
+   * feet are at the tip of a distal joint of height
+   * {@link SpiderModel#DISTAL_JOINT_HEIGHT}.
+   */
+  public LegSolver() {
+    this(SpiderModel.DISTAL_JOINT_HEIGHT);
+  }
+
+  /**
+   * Instantiates this solver for legs whose feet are the specified distance
+   * along the z axis of their distal joints.
+   *
+   * @param footLength
+   *          The distance from the origin of the distal joint to the foot.
+   */
+  public LegSolver(final double footLength) {
+    this.footLength = footLength;
+  }
+
+  /**
+   * Gets the position of the foot of the specified leg.
+   *
+   * @param leg
+   *          The leg.
+   * @param dst
+   *          The array in which to store the x, y, and z components of the
+   *          position of the foot, in the coordinate system of the top of the
+   *          tree.
+   * @param dstOffset
+   *          The offset of the position within the array.
+   */
+  public void footPosition(final Leg leg, final double[] dst,
+      final int dstOffset) {
+    final Component distal = leg.distalJoint();
+    Matrix4.transformPoint(distal.worldTransform(), distal
+        .worldTransformOffset(), 0, 0, this.footLength, dst, dstOffset);
+  }
+
+  /**
+   * Gets the number of iterations taken by the last solve.
+   *
+   * @return The number of iterations taken by the last solve.
+   */
+  public int iterations() {
+    return this.iterations;
+  }
+
+  /**
+   * Sets the maximum number of iterations of each solve.
+   *
+   * @param maxIterations
+   *          The maximum number of iterations.
+   */
+  public void setMaxIterations(final int maxIterations) {
+    this.maxIterations = maxIterations;
+  }
+
+  /**
+   * Sets the distance from the target at which a solve stops.
+   *
+   * @param tolerance
+   *          The distance from the target which counts as reaching it.
+   */
+  public void setTolerance(final double tolerance) {
+    this.tolerance = tolerance;
+  }
+
+  /**
+   * Sets the angles of the joints of the specified leg so that its foot
+   * reaches, or comes as close as the extents of its joints allow to, the
+   * specified target, starting from the current angles.
+   *
+   * @param leg
+   *          The leg to pose.
+   * @param x
+   *          The x component of the target, in the coordinate system of the
+   *          top of the tree.
+   * @param y
+   *          The y component of the target.
+   * @param z
+   *          The z component of the target.
+   * @return The remaining distance from the foot to the target.
+   */
+  public double solve(final Leg leg, final double x, final double y,
+      final double z) {
+    double distance = this.distanceToFoot(leg, x, y, z);
+    this.iterations = 0;
+    while (distance > this.tolerance && this.iterations < this.maxIterations) {
+      ++this.iterations;
+      this.step(leg.palmJoint(), leg, x, y, z);
+      this.step(leg.middleJoint(), leg, x, y, z);
+      this.step(leg.distalJoint(), leg, x, y, z);
+      distance = this.distanceToFoot(leg, x, y, z);
+    }
+    return distance;
+  }
+
+  /**
+   * Computes the position of the foot of the specified leg and its distance
+   * from the specified target.
+   *
+   * @param leg
+   *          The leg.
+   * @param x
+   *          The x component of the target.
+   * @param y
+   *          The y component of the target.
+   * @param z
+   *          The z component of the target.
+   * @return The distance from the foot to the target.
+   */
+  private double distanceToFoot(final Leg leg, final double x, final double y,
+      final double z) {
+    this.footPosition(leg, this.foot, 0);
+    final double dx = x - this.foot[0];
+    final double dy = y - this.foot[1];
+    final double dz = z - this.foot[2];
+    return Math.sqrt(dx * dx + dy * dy + dz * dz);
+  }
+
+  /**
+   * Turns the specified joint around each of its axes in turn, from the z
+   * axis out to the x axis, to swing the foot toward the target.
+   *
+   * The rotation around the x axis is about the x axis of the parent, the
+   * rotation around the y axis is about the y axis after the rotation around
+   * x, and the rotation around the z axis is about the z axis of the joint
+   * itself, as in {@link Matrix4#setTranslationRotation}.
+   *
+   * @param joint
+   *          The joint to turn.
+   * @param leg
+   *          The leg to which the joint belongs.
+   * @param x
+   *          The x component of the target.
+   * @param y
+   *          The y component of the target.
+   * @param z
+   *          The z component of the target.
+   */
+  private void step(final Component joint, final Leg leg, final double x,
+      final double y, final double z) {
+    for (int a = 2; a >= 0; --a) {
+      final Axis rotationAxis = AXES[a];
+      final double min = joint.negativeExtent(rotationAxis);
+      final double max = joint.positiveExtent(rotationAxis);
+      if (min >= max) {
+        continue;
+      }
+
+      final float[] world = joint.worldTransform();
+      final int w = joint.worldTransformOffset();
+      if (rotationAxis == Axis.Z) {
+        this.setAxis(world, w, 0, 0, 1);
+      } else if (joint.parent() == null) {
+        this.setAxis(null, 0, a == 0 ? 1 : 0, a == 0 ? 0 : Math.cos(Math
+            .toRadians(joint.xAngle())), a == 0 ? 0 : Math.sin(Math
+            .toRadians(joint.xAngle())));
+      } else {
+        final Component parent = joint.parent();
+        final float[] parentWorld = parent.worldTransform();
+        final int p = parent.worldTransformOffset();
+        if (rotationAxis == Axis.X) {
+          this.setAxis(parentWorld, p, 1, 0, 0);
+        } else {
+          // the y axis after the rotation around x, Rx * (0, 1, 0)
+          final double xAngle = Math.toRadians(joint.xAngle());
+          this.setAxis(parentWorld, p, 0, Math.cos(xAngle), Math.sin(xAngle));
+        }
+      }
+
+      // the foot and the target relative to the pivot, projected onto the
+      // plane perpendicular to the axis
+      this.footPosition(leg, this.foot, 0);
+      final double ax = this.axis[0], ay = this.axis[1], az = this.axis[2];
+      double ux = this.foot[0] - world[w + 12];
+      double uy = this.foot[1] - world[w + 13];
+      double uz = this.foot[2] - world[w + 14];
+      double vx = x - world[w + 12];
+      double vy = y - world[w + 13];
+      double vz = z - world[w + 14];
+      final double uDotA = ux * ax + uy * ay + uz * az;
+      final double vDotA = vx * ax + vy * ay + vz * az;
+      ux -= uDotA * ax;
+      uy -= uDotA * ay;
+      uz -= uDotA * az;
+      vx -= vDotA * ax;
+      vy -= vDotA * ay;
+      vz -= vDotA * az;
+      if (ux * ux + uy * uy + uz * uz < MIN_PROJECTION
+          || vx * vx + vy * vy + vz * vz < MIN_PROJECTION) {
+        continue;
+      }
+
+      // the signed angle from u to v around the axis
+      final double sin = ax * (uy * vz - uz * vy) + ay * (uz * vx - ux * vz)
+          + az * (ux * vy - uy * vx);
+      final double cos = ux * vx + uy * vy + uz * vz;
+      final double delta = Math.toDegrees(Math.atan2(sin, cos));
+
+      final double oldX = joint.xAngle();
+      final double oldY = joint.yAngle();
+      final double oldZ = joint.zAngle();
+      switch (rotationAxis) {
+      case X:
+        joint.setAngles(Math.max(min, Math.min(max, oldX + delta)), oldY,
+            oldZ);
+        break;
+      case Y:
+        joint.setAngles(oldX, Math.max(min, Math.min(max, oldY + delta)),
+            oldZ);
+        break;
+      default:
+        joint.setAngles(oldX, oldY, Math.max(min, Math.min(max, oldZ
+            + delta)));
+        break;
+      }
+    }
+  }
+
+  /**
+   * Sets the world axis of a rotation to a direction given in the coordinate
+   * system of the specified transformation, normalized.
+   *
+   * @param m
+   *          The array containing the transformation, or {@code null} for the
+   *          identity.
+   * @param offset
+   *          The offset of the transformation within the array.
+   * @param x
+   *          The x component of the direction.
+   * @param y
+   *          The y component of the direction.
+   * @param z
+   *          The z component of the direction.
+   */
+  private void setAxis(final float[] m, final int offset, final double x,
+      final double y, final double z) {
+    double ax = x, ay = y, az = z;
+    if (m != null) {
+      ax = m[offset] * x + m[offset + 4] * y + m[offset + 8] * z;
+      ay = m[offset + 1] * x + m[offset + 5] * y + m[offset + 9] * z;
+      az = m[offset + 2] * x + m[offset + 6] * y + m[offset + 10] * z;
+    }
+    final double length = Math.sqrt(ax * ax + ay * ay + az * az);
+    this.axis[0] = ax / length;
+    this.axis[1] = ay / length;
+    this.axis[2] = az / length;
+  }
+}
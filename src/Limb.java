@@ -15,11 +15,14 @@ import com.jogamp.opengl.util.gl2.GLUT;//for new version of gl
  */
 public class Limb extends Circular implements Displayable {
 
-  /**
-   * The OpenGL handle to the display list which contains all the components
-   * which comprise this cylinder.
-   */
-  private int callListHandle;
+  /** The number of slices to use when drawing the sphere. */
+  public static final int SLICES = 36;
+  /** The number of stacks to use when drawing the sphere. */
+  public static final int STACKS = 18;
+  /** The factor by which the sphere is scaled along the x axis. */
+  public static final float X_SCALE = 0.9f;
+  /** The factor by which the sphere is scaled along the y axis. */
+  public static final float Y_SCALE = 0.6f;
 
   /**
    * Instantiates this object with the specified radius and OpenGL utility
@@ -35,39 +38,47 @@ public class Limb extends Circular implements Displayable {
   }
 
   /**
-   * {@inheritDoc}
+   * Draws a scaled sphere.
    * 
    * @param gl
    *          {@inheritDoc}
-   * @see edu.bu.cs.cs480.Displayable#draw(javax.media.opengl.GL)
    */
   @Override
-  public void draw(GL2 gl) {
-    gl.glCallList(this.callListHandle);
+  protected void compile(final GL2 gl) {
+    // create an ellipsoid for the palm by scaling a sphere
+    gl.glPushMatrix();
+    // position this so that the sphere is drawn above the x-y plane, not at
+    // the origin
+    gl.glTranslated(0, 0, this.radius());
+    gl.glScalef(X_SCALE, Y_SCALE, 1);
+    this.glut().glutSolidSphere(this.radius(), SLICES, STACKS);
+    gl.glPopMatrix();
   }
 
   /**
-   * Defines the OpenGL call list which draws a scaled sphere.
-   * 
-   * @param gl
-   *          {@inheritDoc}
+   * {@inheritDoc}
    * 
-   * @see edu.bu.cs.cs480.Displayable#initialize(javax.media.opengl.GL)
+   * @return {@inheritDoc}
    */
   @Override
-  public void initialize(final GL2 gl) {
-    this.callListHandle = gl.glGenLists(1);
+  public GeometryKey geometryKey() {
+    return new GeometryKey(GeometryKey.Shape.ELLIPSOID, this.radius(), 0, SLICES,
+        STACKS);
+  }
 
-    // create an ellipsoid for the palm by scaling a sphere
-    gl.glNewList(this.callListHandle, GL2.GL_COMPILE);
-    gl.glPushMatrix();
-    // position this so that the sphere is drawn above the x-y plane, not at
-    // the origin
-    gl.glTranslated(0, 0, this.radius());
-    gl.glScalef(0.9f, 0.6f, 1);
-    this.glut().glutSolidSphere(this.radius(), 36, 18);
-    gl.glPopMatrix();
-    gl.glEndList();
+  /**
+   * {@inheritDoc}
+   * 
+   * @param slices
+   *          {@inheritDoc}
+   * @param stacks
+   *          {@inheritDoc}
+   * @return {@inheritDoc}
+   */
+  @Override
+  public Mesh tessellate(final int slices, final int stacks) {
+    return Tessellator.ellipsoid(this.radius(), X_SCALE, Y_SCALE, 1,
+        this.radius(), slices, stacks);
   }
 
 }
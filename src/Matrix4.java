@@ -0,0 +1,216 @@
+/**
+ * Matrix4.java - operations on 4 by 4 matrices stored in float arrays
+ */
+
+
+/**
+ * Static operations on 4 by 4 matrices which are stored in column major order
+ * in {@code float} arrays, as expected by OpenGL.
+ *
+ * Each matrix is specified by an array and the offset within that array of the
+ * first of its sixteen elements, so that many matrices may be stored in one
+ * contiguous array. None of these methods allocate.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public final class Matrix4 {
+  /** The number of elements in a 4 by 4 matrix. */
+  public static final int SIZE = 16;
+
+  /**
+   * Copies the specified matrix into the specified destination.
+   *
+   * @param src
+   *          The array containing the matrix to copy.
+   * @param srcOffset
+   *          The offset of the matrix within {@code src}.
+   * @param dst
+   *          The array in which to store the copy.
+   * @param dstOffset
+   *          The offset of the copy within {@code dst}.
+   */
+  public static void copy(final float[] src, final int srcOffset,
+      final float[] dst, final int dstOffset) {
+    System.arraycopy(src, srcOffset, dst, dstOffset, SIZE);
+  }
+
+  /**
+   * Computes the product {@code a * b} and stores it in the specified
+   * destination.
+   *
+   * The destination may be the same matrix as {@code b}, but must not be the
+   * same matrix as {@code a}.
+   *
+   * @param a
+   *          The array containing the left operand.
+   * @param aOffset
+   *          The offset of the left operand within {@code a}.
+   * @param b
+   *          The array containing the right operand.
+   * @param bOffset
+   *          The offset of the right operand within {@code b}.
+   * @param dst
+   *          The array in which to store the product.
+   * @param dstOffset
+   *          The offset of the product within {@code dst}.
+   */
+  public static void multiply(final float[] a, final int aOffset,
+      final float[] b, final int bOffset, final float[] dst,
+      final int dstOffset) {
+    for (int column = 0; column < 4; ++column) {
+      final int j = column * 4;
+      final float b0 = b[bOffset + j];
+      final float b1 = b[bOffset + j + 1];
+      final float b2 = b[bOffset + j + 2];
+      final float b3 = b[bOffset + j + 3];
+      for (int row = 0; row < 4; ++row) {
+        dst[dstOffset + j + row] = a[aOffset + row] * b0
+            + a[aOffset + 4 + row] * b1 + a[aOffset + 8 + row] * b2
+            + a[aOffset + 12 + row] * b3;
+      }
+    }
+  }
+
+  /**
+   * Sets the specified matrix to the identity matrix.
+   *
+   * @param m
+   *          The array containing the matrix.
+   * @param offset
+   *          The offset of the matrix within {@code m}.
+   */
+  public static void setIdentity(final float[] m, final int offset) {
+    for (int i = 0; i < SIZE; ++i) {
+      m[offset + i] = (i % 5 == 0) ? 1 : 0;
+    }
+  }
+
+  /**
+   * Sets the specified matrix to a perspective projection, the same as the
+   * one produced by calling {@code gluPerspective} on the identity matrix.
+   *
+   * @param m
+   *          The array in which to store the matrix.
+   * @param offset
+   *          The offset of the matrix within {@code m}.
+   * @param fieldOfView
+   *          The vertical field of view, in degrees.
+   * @param aspect
+   *          The ratio of the width to the height of the viewport.
+   * @param near
+   *          The distance to the near clipping plane.
+   * @param far
+   *          The distance to the far clipping plane.
+   */
+  public static void setPerspective(final float[] m, final int offset,
+      final double fieldOfView, final double aspect, final double near,
+      final double far) {
+    final double f = 1 / Math.tan(Math.toRadians(fieldOfView) / 2);
+    for (int i = 0; i < SIZE; ++i) {
+      m[offset + i] = 0;
+    }
+    m[offset] = (float) (f / aspect);
+    m[offset + 5] = (float) f;
+    m[offset + 10] = (float) ((far + near) / (near - far));
+    m[offset + 11] = -1;
+    m[offset + 14] = (float) (2 * far * near / (near - far));
+  }
+
+  /**
+   * Sets the specified matrix to a translation followed by rotations around
+   * the x, y, and z axes, in that order.
+   *
+   * The resulting matrix is the same as the one produced by calling
+   * {@code glTranslated(x, y, z)}, then {@code glRotated(xAngle, 1, 0, 0)},
+   * {@code glRotated(yAngle, 0, 1, 0)}, and {@code glRotated(zAngle, 0, 0, 1)}
+   * on the identity matrix.
+   *
+   * @param m
+   *          The array in which to store the matrix.
+   * @param offset
+   *          The offset of the matrix within {@code m}.
+   * @param x
+   *          The x component of the translation.
+   * @param y
+   *          The y component of the translation.
+   * @param z
+   *          The z component of the translation.
+   * @param xAngle
+   *          The angle of rotation around the x axis, in degrees.
+   * @param yAngle
+   *          The angle of rotation around the y axis, in degrees.
+   * @param zAngle
+   *          The angle of rotation around the z axis, in degrees.
+   */
+  public static void setTranslationRotation(final float[] m, final int offset,
+      final double x, final double y, final double z, final double xAngle,
+      final double yAngle, final double zAngle) {
+    final double cx = Math.cos(Math.toRadians(xAngle));
+    final double sx = Math.sin(Math.toRadians(xAngle));
+    final double cy = Math.cos(Math.toRadians(yAngle));
+    final double sy = Math.sin(Math.toRadians(yAngle));
+    final double cz = Math.cos(Math.toRadians(zAngle));
+    final double sz = Math.sin(Math.toRadians(zAngle));
+
+    // the first column, R * (1, 0, 0) where R = Rx * Ry * Rz
+    m[offset] = (float) (cy * cz);
+    m[offset + 1] = (float) (cx * sz + sx * sy * cz);
+    m[offset + 2] = (float) (sx * sz - cx * sy * cz);
+    m[offset + 3] = 0;
+
+    // the second column, R * (0, 1, 0)
+    m[offset + 4] = (float) (-cy * sz);
+    m[offset + 5] = (float) (cx * cz - sx * sy * sz);
+    m[offset + 6] = (float) (sx * cz + cx * sy * sz);
+    m[offset + 7] = 0;
+
+    // the third column, R * (0, 0, 1)
+    m[offset + 8] = (float) sy;
+    m[offset + 9] = (float) (-sx * cy);
+    m[offset + 10] = (float) (cx * cy);
+    m[offset + 11] = 0;
+
+    // the translation
+    m[offset + 12] = (float) x;
+    m[offset + 13] = (float) y;
+    m[offset + 14] = (float) z;
+    m[offset + 15] = 1;
+  }
+
+  /**
+   * Transforms the specified point by the specified matrix and stores the
+   * resulting point in the specified destination.
+   *
+   * @param m
+   *          The array containing the matrix.
+   * @param offset
+   *          The offset of the matrix within {@code m}.
+   * @param x
+   *          The x component of the point.
+   * @param y
+   *          The y component of the point.
+   * @param z
+   *          The z component of the point.
+   * @param dst
+   *          The array in which to store the x, y, and z components of the
+   *          transformed point.
+   * @param dstOffset
+   *          The offset of the transformed point within {@code dst}.
+   */
+  public static void transformPoint(final float[] m, final int offset,
+      final double x, final double y, final double z, final double[] dst,
+      final int dstOffset) {
+    dst[dstOffset] = m[offset] * x + m[offset + 4] * y + m[offset + 8] * z
+        + m[offset + 12];
+    dst[dstOffset + 1] = m[offset + 1] * x + m[offset + 5] * y + m[offset + 9]
+        * z + m[offset + 13];
+    dst[dstOffset + 2] = m[offset + 2] * x + m[offset + 6] * y
+        + m[offset + 10] * z + m[offset + 14];
+  }
+
+  /** This class should not be instantiated. */
+  private Matrix4() {
+    // intentionally unimplemented
+  }
+}
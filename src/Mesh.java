@@ -0,0 +1,135 @@
+/**
+ * Mesh.java - an indexed triangle mesh stored in direct buffers
+ */
+
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * An indexed triangle mesh whose vertex positions, vertex normals, and
+ * triangle indices are stored in direct buffers in native byte order, ready to
+ * be handed to OpenGL (or read on the CPU).
+ *
+ * Triangles are wound counterclockwise when viewed from outside the mesh.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class Mesh {
+  /** The number of bytes in a {@code float} or an {@code int}. */
+  private static final int BYTES_PER_ELEMENT = 4;
+
+  /**
+   * Allocates a direct buffer of {@code float}s in native byte order.
+   *
+   * @param capacity
+   *          The number of {@code float}s in the buffer.
+   * @return A new direct buffer of {@code float}s.
+   */
+  static FloatBuffer newFloatBuffer(final int capacity) {
+    return ByteBuffer.allocateDirect(capacity * BYTES_PER_ELEMENT).order(
+        ByteOrder.nativeOrder()).asFloatBuffer();
+  }
+
+  /**
+   * Allocates a direct buffer of {@code int}s in native byte order.
+   *
+   * @param capacity
+   *          The number of {@code int}s in the buffer.
+   * @return A new direct buffer of {@code int}s.
+   */
+  static IntBuffer newIntBuffer(final int capacity) {
+    return ByteBuffer.allocateDirect(capacity * BYTES_PER_ELEMENT).order(
+        ByteOrder.nativeOrder()).asIntBuffer();
+  }
+
+  /** The indices of the vertices of each triangle, three per triangle. */
+  private final IntBuffer indices;
+  /** The x, y, and z components of the normal at each vertex. */
+  private final FloatBuffer normals;
+  /** The x, y, and z components of the position of each vertex. */
+  private final FloatBuffer vertices;
+
+  /**
+   * Instantiates this mesh with empty buffers large enough for the specified
+   * numbers of vertices and indices.
+   *
+   * @param vertexCount
+   *          The number of vertices in this mesh.
+   * @param indexCount
+   *          The number of indices in this mesh, three per triangle.
+   */
+  Mesh(final int vertexCount, final int indexCount) {
+    this.vertices = newFloatBuffer(3 * vertexCount);
+    this.normals = newFloatBuffer(3 * vertexCount);
+    this.indices = newIntBuffer(indexCount);
+  }
+
+  /**
+   * Gets the number of indices in this mesh, three per triangle.
+   *
+   * @return The number of indices in this mesh.
+   */
+  public int indexCount() {
+    return this.indices.capacity();
+  }
+
+  /**
+   * Gets the buffer of the indices of the vertices of each triangle.
+   *
+   * The returned buffer is shared; callers which change its position should
+   * use a {@linkplain IntBuffer#duplicate() duplicate}.
+   *
+   * @return The buffer of the indices of this mesh.
+   */
+  public IntBuffer indices() {
+    return this.indices;
+  }
+
+  /**
+   * Gets the buffer of the x, y, and z components of the normal at each
+   * vertex.
+   *
+   * The returned buffer is shared; callers which change its position should
+   * use a {@linkplain FloatBuffer#duplicate() duplicate}.
+   *
+   * @return The buffer of the normals of this mesh.
+   */
+  public FloatBuffer normals() {
+    return this.normals;
+  }
+
+  /**
+   * Gets the number of triangles in this mesh.
+   *
+   * @return The number of triangles in this mesh.
+   */
+  public int triangleCount() {
+    return this.indexCount() / 3;
+  }
+
+  /**
+   * Gets the number of vertices in this mesh.
+   *
+   * @return The number of vertices in this mesh.
+   */
+  public int vertexCount() {
+    return this.vertices.capacity() / 3;
+  }
+
+  /**
+   * Gets the buffer of the x, y, and z components of the position of each
+   * vertex.
+   *
+   * The returned buffer is shared; callers which change its position should
+   * use a {@linkplain FloatBuffer#duplicate() duplicate}.
+   *
+   * @return The buffer of the vertices of this mesh.
+   */
+  public FloatBuffer vertices() {
+    return this.vertices;
+  }
+}
@@ -0,0 +1,152 @@
+/**
+ * MeshBuffers.java - a mesh uploaded into OpenGL buffer objects
+ */
+
+
+import javax.media.opengl.GL;
+import javax.media.opengl.GL2;
+
+/**
+ * A triangle mesh which has been uploaded into an OpenGL vertex buffer object,
+ * holding the positions followed by the normals, and an index buffer object.
+ *
+ * Only buffer objects and fixed-function vertex arrays are used, which are
+ * available in any OpenGL 1.5 or later implementation, including software
+ * implementations such as Mesa llvmpipe.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class MeshBuffers {
+  /** The number of bytes in a {@code float}. */
+  private static final int BYTES_PER_FLOAT = 4;
+  /** The number of bytes in an {@code int}. */
+  private static final int BYTES_PER_INT = 4;
+
+  /**
+   * Uploads the specified mesh into new buffer objects.
+   *
+   * @param gl
+   *          The OpenGL object with which to create the buffer objects.
+   * @param mesh
+   *          The mesh to upload.
+   * @return The buffer objects containing the mesh.
+   */
+  public static MeshBuffers upload(final GL2 gl, final Mesh mesh) {
+    final int[] handles = new int[2];
+    gl.glGenBuffers(2, handles, 0);
+
+    final long verticesSize = (long) mesh.vertices().capacity()
+        * BYTES_PER_FLOAT;
+    final long normalsSize = (long) mesh.normals().capacity() * BYTES_PER_FLOAT;
+    gl.glBindBuffer(GL.GL_ARRAY_BUFFER, handles[0]);
+    gl.glBufferData(GL.GL_ARRAY_BUFFER, verticesSize + normalsSize, null,
+        GL.GL_STATIC_DRAW);
+    gl.glBufferSubData(GL.GL_ARRAY_BUFFER, 0, verticesSize, mesh.vertices()
+        .duplicate());
+    gl.glBufferSubData(GL.GL_ARRAY_BUFFER, verticesSize, normalsSize, mesh
+        .normals().duplicate());
+    gl.glBindBuffer(GL.GL_ARRAY_BUFFER, 0);
+
+    gl.glBindBuffer(GL.GL_ELEMENT_ARRAY_BUFFER, handles[1]);
+    gl.glBufferData(GL.GL_ELEMENT_ARRAY_BUFFER, (long) mesh.indexCount()
+        * BYTES_PER_INT, mesh.indices().duplicate(), GL.GL_STATIC_DRAW);
+    gl.glBindBuffer(GL.GL_ELEMENT_ARRAY_BUFFER, 0);
+
+    return new MeshBuffers(handles[0], handles[1], mesh.indexCount(),
+        verticesSize);
+  }
+
+  /** The handle to the buffer object containing the indices. */
+  private final int indexBuffer;
+  /** The number of indices in the mesh. */
+  private final int indexCount;
+  /** The offset in bytes of the normals within the vertex buffer object. */
+  private final long normalOffset;
+  /** The handle to the buffer object containing the positions and normals. */
+  private final int vertexBuffer;
+
+  /**
+   * Instantiates this object with the specified buffer objects.
+   *
+   * @param vertexBuffer
+   *          The handle to the buffer object containing the positions and
+   *          normals.
+   * @param indexBuffer
+   *          The handle to the buffer object containing the indices.
+   * @param indexCount
+   *          The number of indices in the mesh.
+   * @param normalOffset
+   *          The offset in bytes of the normals within the vertex buffer.
+   */
+  private MeshBuffers(final int vertexBuffer, final int indexBuffer,
+      final int indexCount, final long normalOffset) {
+    this.vertexBuffer = vertexBuffer;
+    this.indexBuffer = indexBuffer;
+    this.indexCount = indexCount;
+    this.normalOffset = normalOffset;
+  }
+
+  /**
+   * Binds the buffer objects of this mesh and points the fixed-function vertex
+   * and normal arrays at them.
+   *
+   * @param gl
+   *          The OpenGL object with which to bind the buffers.
+   */
+  public void bind(final GL2 gl) {
+    gl.glBindBuffer(GL.GL_ARRAY_BUFFER, this.vertexBuffer);
+    gl.glEnableClientState(GL2.GL_VERTEX_ARRAY);
+    gl.glEnableClientState(GL2.GL_NORMAL_ARRAY);
+    gl.glVertexPointer(3, GL.GL_FLOAT, 0, 0);
+    gl.glNormalPointer(GL.GL_FLOAT, 0, this.normalOffset);
+    gl.glBindBuffer(GL.GL_ELEMENT_ARRAY_BUFFER, this.indexBuffer);
+  }
+
+  /**
+   * Draws the triangles of this mesh, which must be bound.
+   *
+   * @param gl
+   *          The OpenGL object with which to draw.
+   */
+  public void drawElements(final GL2 gl) {
+    gl.glDrawElements(GL.GL_TRIANGLES, this.indexCount, GL.GL_UNSIGNED_INT, 0);
+  }
+
+  /**
+   * Draws the specified number of instances of the triangles of this mesh,
+   * which must be bound.
+   *
+   * @param gl
+   *          The OpenGL object with which to draw.
+   * @param instanceCount
+   *          The number of instances to draw.
+   */
+  public void drawElementsInstanced(final GL2 gl, final int instanceCount) {
+    gl.glDrawElementsInstanced(GL.GL_TRIANGLES, this.indexCount,
+        GL.GL_UNSIGNED_INT, 0, instanceCount);
+  }
+
+  /**
+   * Gets the number of indices in this mesh.
+   *
+   * @return The number of indices in this mesh.
+   */
+  public int indexCount() {
+    return this.indexCount;
+  }
+
+  /**
+   * Unbinds the buffer objects and disables the fixed-function vertex and
+   * normal arrays.
+   *
+   * @param gl
+   *          The OpenGL object with which to unbind the buffers.
+   */
+  public void unbind(final GL2 gl) {
+    gl.glDisableClientState(GL2.GL_NORMAL_ARRAY);
+    gl.glDisableClientState(GL2.GL_VERTEX_ARRAY);
+    gl.glBindBuffer(GL.GL_ELEMENT_ARRAY_BUFFER, 0);
+    gl.glBindBuffer(GL.GL_ARRAY_BUFFER, 0);
+  }
+}
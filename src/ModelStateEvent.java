@@ -0,0 +1,44 @@
+/**
+ * ModelStateEvent.java - flight recorder event for setting a pose
+ */
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded by Java Flight Recorder each time the spider model is set to a
+ * pose, either at once by {@link SpiderModel#setModelState(java.util.Map)} or
+ * by starting a transition with
+ * {@link PoseAnimator#transitionTo(java.util.Map)}.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+@Name("spider.ModelState")
+@Label("Model State")
+@Category({ "Spider", "Animation" })
+@Description("Setting of the pose of the spider model")
+public class ModelStateEvent extends Event {
+  /** The type of these events, which tells whether they are recorded. */
+  private static final EventType TYPE = EventType
+      .getEventType(ModelStateEvent.class);
+
+  /** Whether the pose starts a transition rather than being set at once. */
+  @Label("Animated")
+  boolean animated;
+
+  /**
+   * Returns whether these events are being recorded, so that none need be
+   * created when they are not.
+   *
+   * @return Whether a recording has these events enabled.
+   */
+  static boolean isRecorded() {
+    return TYPE.isEnabled();
+  }
+}
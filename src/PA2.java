@@ -24,8 +24,8 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.io.PrintStream;
-import java.util.Arrays;
-import java.util.Collections;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -53,101 +53,44 @@ import com.jogamp.opengl.util.gl2.GLUT;//for new version of gl
 public class PA2 extends JFrame implements GLEventListener, KeyListener,
     MouseListener, MouseMotionListener {
 
-  /**
-   * A limb which has a limb joint, a middle joint, and a distal joint.
-   * 
-   * @author Tian Chen
-   * @since Fall 2020
-   */
-  private class Leg {
-    /** The distal joint of this limb. */
-    private final Component distalJoint;
-    /** The list of all the joints in this limb. */
-    private final List<Component> joints;
-    /** The middle joint of this limb. */
-    private final Component middleJoint;
-    /** The palm joint of this limb. */
-    private final Component limbJoint;
-
-    /**
-     * Instantiates this limb with the three specified joints.
-     * 
-     * @param limbJoint
-     *          The palm joint of this limb.
-     * @param middleJoint
-     *          The middle joint of this limb.
-     * @param distalJoint
-     *          The distal joint of this limb.
-     */
-    public Leg(final Component limbJoint, final Component middleJoint,
-               final Component distalJoint) {
-      this.limbJoint = limbJoint;
-      this.middleJoint = middleJoint;
-      this.distalJoint = distalJoint;
-
-      this.joints = Collections.unmodifiableList(Arrays.asList(this.limbJoint,
-          this.middleJoint, this.distalJoint));
-    }
-
-    /**
-     * Gets the distal joint of this limb.
-     * 
-     * @return The distal joint of this limb.
-     */
-    Component distalJoint() {
-      return this.distalJoint;
-    }
-
-    /**
-     * Gets an unmodifiable view of the list of the joints of this limb.
-     * 
-     * @return An unmodifiable view of the list of the joints of this limb.
-     */
-    List<Component> joints() {
-      return this.joints;
-    }
-
-    /**
-     * Gets the middle joint of this limb.
-     * 
-     * @return The middle joint of this limb.
-     */
-    Component middleJoint() {
-      return this.middleJoint;
-    }
-
-    /**
-     * Gets the palm joint of this limb.
-     * 
-     * @return The palm joint of this limb.
-     */
-    Component palmJoint() {
-      return this.limbJoint;
-    }
-  }
-
   /** The color for components which are selected for rotation. */
   public static final FloatColor ACTIVE_COLOR = FloatColor.RED;
   /** The default width of the created window. */
   public static final int DEFAULT_WINDOW_HEIGHT = 512;
   /** The default height of the created window. */
   public static final int DEFAULT_WINDOW_WIDTH = 512;
-  /** The height of the distal joint on each of the limbs. */
-  public static final double DISTAL_JOINT_HEIGHT = 0.2;
-  /** The radius of each joint which comprises the limb. */
-  public static final double LIMB_RADIUS = 0.09;
-  /** The radius of the body. */
-  public static final double BODY_RADIUS = 0.5;
   /** The color for components which are not selected for rotation. */
   public static final FloatColor INACTIVE_COLOR = FloatColor.ORANGE;
-  /** The initial position of the top level component in the scene. */
-  public static final Point3D INITIAL_POSITION = new Point3D(0, 0, 0);
-  /** The height of the middle joint on each of the limbs. */
-  public static final double MIDDLE_JOINT_HEIGHT = 0.25;
-  /** The height of the palm joint on each of the limbs. */
-  public static final double LIMB_JOINT_HEIGHT = 0.25;
   /** The angle by which to rotate the joint on user request to rotate. */
   public static final double ROTATION_ANGLE = 2.0;
+  /** The argument which selects counting the OpenGL calls of each frame. */
+  public static final String COUNT_GL_ARGUMENT = "count-gl";
+  /** The number of types of call listed in reports of the OpenGL calls. */
+  private static final int GL_REPORT_LIMIT = 20;
+  /** The number of types of call listed in the summary of each frame. */
+  private static final int GL_SUMMARY_LIMIT = 5;
+  /** The type of an input event for a pressed key, with its key code. */
+  private static final int KEY_PRESSED = 1;
+  /** The type of an input event for a typed key, with its character. */
+  private static final int KEY_TYPED = 2;
+  /** The type of an input event for a mouse drag, with its coordinates. */
+  private static final int MOUSE_DRAGGED = 3;
+  /** The type of an input event for a mouse move, with its coordinates. */
+  private static final int MOUSE_MOVED = 4;
+  /** The type of an input event for a left button press, with coordinates. */
+  private static final int MOUSE_PRESSED = 5;
+  /** The type of an input event for a left button release. */
+  private static final int MOUSE_RELEASED = 6;
+  /** The argument which selects drawing frames only when needed. */
+  public static final String ON_DEMAND_ARGUMENT = "on-demand";
+  /** The argument which selects printing every OpenGL call as it is made. */
+  public static final String TRACE_GL_ARGUMENT = "trace-gl";
+  /**
+   * The argument which selects writing a flight recording whenever a frame is
+   * slow, to the working directory or to the directory given after an equals
+   * sign.
+   */
+  public static final String RECORD_HITCHES_ARGUMENT = "record-hitches";
   /** Randomly generated serial version UID. */
   private static final long serialVersionUID = -7060944143920496524L;
 
@@ -155,32 +98,146 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
    * Runs the hand simulation in a single JFrame.
    * 
    * @param args
-   *          This parameter is ignored.
+   *          The optional name of the {@link RenderMode} with which to draw the
+   *          scene, for example {@code vertex-buffer}; by default the scene is
+   *          drawn with call lists. With {@link #ON_DEMAND_ARGUMENT} as an
+   *          argument, frames are only drawn when the scene changes, instead
+   *          of 60 times per second. With {@link #COUNT_GL_ARGUMENT}, the
+   *          OpenGL calls of each type are counted, and with
+   *          {@link #TRACE_GL_ARGUMENT} they are also printed, followed by a
+   *          summary of each frame. With {@link #RECORD_HITCHES_ARGUMENT},
+   *          or {@code record-hitches=<directory>}, the last few seconds are
+   *          written to a flight recording whenever a frame is slow. Any
+   *          other argument prints the valid ones and exits with status 1.
    */
   public static void main(final String[] args) {
-    new PA2().animator.start();
+    RenderMode renderMode = RenderMode.CALL_LIST;
+    boolean onDemand = false;
+    boolean countGlCalls = false;
+    boolean traceGlCalls = false;
+    Path hitchDirectory = null;
+    for (final String arg : args) {
+      if (arg.equalsIgnoreCase(ON_DEMAND_ARGUMENT)) {
+        onDemand = true;
+      } else if (arg.equalsIgnoreCase(COUNT_GL_ARGUMENT)) {
+        countGlCalls = true;
+      } else if (arg.equalsIgnoreCase(TRACE_GL_ARGUMENT)) {
+        countGlCalls = true;
+        traceGlCalls = true;
+      } else if (arg.equalsIgnoreCase(RECORD_HITCHES_ARGUMENT)) {
+        hitchDirectory = Paths.get(".");
+      } else if (arg.regionMatches(true, 0, RECORD_HITCHES_ARGUMENT + "=", 0,
+          RECORD_HITCHES_ARGUMENT.length() + 1)) {
+        hitchDirectory = Paths.get(arg.substring(RECORD_HITCHES_ARGUMENT
+            .length() + 1));
+      } else {
+        try {
+          renderMode = RenderMode.forName(arg);
+        } catch (final IllegalArgumentException exception) {
+          printUsage(arg);
+          System.exit(1);
+        }
+      }
+    }
+    new PA2(renderMode, onDemand, countGlCalls, traceGlCalls, hitchDirectory)
+        .start();
   }
 
   /**
-   * The animator which controls the framerate at which the canvas is animated.
+   * Prints the specified unrecognized argument to standard error, followed by
+   * the names of the render modes and the flags which are recognized.
+   *
+   * @param arg
+   *          The unrecognized argument.
+   */
+  private static void printUsage(final String arg) {
+    final StringBuilder modes = new StringBuilder();
+    for (final RenderMode mode : RenderMode.values()) {
+      if (modes.length() > 0) {
+        modes.append(", ");
+      }
+      modes.append(mode.name().toLowerCase().replace('_', '-'));
+    }
+    System.err.println("Unrecognized argument: " + arg);
+    System.err.println("Render modes: " + modes);
+    System.err.println("Flags: " + ON_DEMAND_ARGUMENT + ", "
+        + COUNT_GL_ARGUMENT + ", " + TRACE_GL_ARGUMENT + ", "
+        + RECORD_HITCHES_ARGUMENT + "[=<directory>]");
+  }
+
+  /**
+   * The animator which controls the framerate at which the canvas is animated,
+   * or {@code null} if frames are drawn on demand.
    */
   final FPSAnimator animator;
+  /**
+   * The scheduler which draws frames when the scene changes, or {@code null}
+   * if frames are drawn at a fixed rate.
+   */
+  private final FrameScheduler scheduler;
   /** The canvas on which we draw the scene. */
   private final GLCanvas canvas;
+  /** The backend which issues the commands of a direct traversal to OpenGL. */
+  private final JoglRenderBackend backend = new JoglRenderBackend();
+  /** Whether to count the OpenGL calls of each frame. */
+  private final boolean countGlCalls;
+  /**
+   * The counter of the OpenGL calls of each frame, or {@code null} if they are
+   * not counted.
+   */
+  private GLCallCounter glCallCounter = null;
+  /** Whether to print every OpenGL call as it is made. */
+  private final boolean traceGlCalls;
   /** The capabilities of the canvas. */
   private final GLCapabilities capabilities = new GLCapabilities(null);
   /** The legs on the body to be modeled. */
   private final Leg[] legs;
   /** The middle body to be modeled. */
   private final Component middleBody;
+  /** The model of the spider. */
+  private final SpiderModel model;
   /** The OpenGL utility object. */
   private final GLU glu = new GLU();
   /** The OpenGL utility toolkit object. */
   private final GLUT glut = new GLUT();
+  /**
+   * The renderer which draws the scene with instanced draw calls, or
+   * {@code null} if instanced rendering is not in use.
+   */
+  private InstancedRenderer instancedRenderer = null;
+  /** The events passed from the event dispatch thread to this thread. */
+  private final InputQueue input = new InputQueue();
+  /** The type and arguments of the input event being handled. */
+  private final int[] inputEvent = new int[InputQueue.EVENT_SIZE];
+  /** The number of input events handled in the current frame. */
+  private int frameInputEvents = 0;
   /** The left body to be modeled. */
   private final Component leftBody;
+  /**
+   * The recorder which writes the last few seconds of events when a frame is
+   * slow, or {@code null} if slow frames are not recorded.
+   */
+  private final HitchRecorder hitchRecorder;
+  /** The metrics of the frames drawn, exposed through JMX. */
+  private final FrameMetrics metrics = new FrameMetrics();
   /** The last x and y coordinates of the mouse press. */
   private int last_x = 0, last_y = 0;
+  /**
+   * The x component of the sum of the rotations of the mouse drag events not
+   * yet applied to the view, each one degree around a unit axis.
+   */
+  private double pendingDragX = 0;
+  /**
+   * The y component of the sum of the rotations of the mouse drag events not
+   * yet applied to the view, each one degree around a unit axis.
+   */
+  private double pendingDragY = 0;
+  /** Whether the mouse has moved since the eyes last followed it. */
+  private boolean pendingMove = false;
+  /** The last x and y coordinates of the mouse move. */
+  private int pendingMoveX = 0, pendingMoveY = 0;
+  /** The angle of rotation of the selection not yet applied, in degrees. */
+  private double pendingRotation = 0;
   /** Whether the world is being rotated. */
   private boolean rotate_world = false;
   /** The axis around which to rotate the selected joints. */
@@ -194,6 +251,8 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
    * fingers.
    **/
   private final Set<Leg> selectedLegs = new HashSet<Leg>(5);
+  /** The simulation which animates the model on its own thread. */
+  private final Simulation simulation = new Simulation();
   /** Whether the state of the model has been changed. */
   private boolean stateChanged = true;
   /**
@@ -201,39 +260,112 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
    * rotation of everything in the scene.
    */
   private final Component topLevelComponent;
+  /**
+   * The evaluator which updates the world transformations for the instanced
+   * renderer on several processors, or {@code null} if there is only one
+   * processor or instanced rendering is not in use.
+   */
+  private ParallelTransformEvaluator transformEvaluator = null;
   /** The right body to be modeled. */
   private final Component rightBody;
   /** The quaternion which controls the rotation of the world. */
-  private Quaternion viewing_quaternion = new Quaternion();
+  private final Quaternion viewing_quaternion = new Quaternion();
+  /** The rotation of the world by a single mouse drag event. */
+  private final Quaternion drag_quaternion = new Quaternion();
+  /** The matrix of the rotation of the world, reused every frame. */
+  private final float[] viewing_matrix = new float[Matrix4.SIZE];
   /** The set of all components. */
   private final List<Component> components;
+  /** The array of all components, in the same order. */
+  private final Component[] componentArray;
+  /** The gait in which the spider walks, or {@code null} if standing. */
+  private Gait gait = null;
+  /** The way in which the scene is drawn. */
+  private final RenderMode renderMode;
 
   private boolean legside = false;
 
-  public static String INDEX_LIMB_NAME = "index limb";
-  public static String INDEX_MIDDLE_NAME = "index middle";
-  public static String INDEX_DISTAL_NAME = "index distal";
-  public static String RING_LIMB_NAME = "ring limb";
-  public static String RING_MIDDLE_NAME = "ring middle";
-  public static String RING_DISTAL_NAME = "ring distal";
-  public static String MIDDLE_LIMB_NAME = "middle limb";
-  public static String MIDDLE_MIDDLE_NAME = "middle middle";
-  public static String MIDDLE_DISTAL_NAME = "middle distal";
-  public static String PINKY_LIMB_NAME = "pinky limb";
-  public static String PINKY_MIDDLE_NAME = "pinky middle";
-  public static String PINKY_DISTAL_NAME = "pinky distal";
-  public static String CLAW_NAME = "claw";
-  public static String CLAW_MIDDLE_NAME = "claw middle";
-  public static String CLAW_DISTAL_NAME = "claw distal";
-  public static String LEFT_BODY_NAME = "left body";
-  public static String MIDDLE_BODY_NAME = "middle body";
-  public static String RIGHT_BODY_NAME = "right body";
-  public static String TOP_LEVEL_NAME = "top level";
-
   /**
-   * Initializes the necessary OpenGL objects and adds a canvas to this JFrame.
+   * Initializes the necessary OpenGL objects and adds a canvas to this JFrame,
+   * drawing the scene with call lists.
    */
   public PA2() {
+    this(RenderMode.CALL_LIST);
+  }
+
+  /**
+   * Initializes the necessary OpenGL objects and adds a canvas to this JFrame,
+   * drawing the scene in the specified way.
+   * 
+   * @param renderMode
+   *          The way in which to draw the scene.
+   */
+  public PA2(final RenderMode renderMode) {
+    this(renderMode, false);
+  }
+
+  /**
+   * Initializes the necessary OpenGL objects and adds a canvas to this JFrame,
+   * drawing the scene in the specified way, either at a fixed rate or only
+   * when it changes.
+   * 
+   * @param renderMode
+   *          The way in which to draw the scene.
+   * @param onDemand
+   *          Whether to draw frames only when the pose, the selection, the
+   *          view, or the size of the window changes.
+   */
+  public PA2(final RenderMode renderMode, final boolean onDemand) {
+    this(renderMode, onDemand, false, false);
+  }
+
+  /**
+   * Initializes the necessary OpenGL objects and adds a canvas to this JFrame,
+   * drawing the scene in the specified way, either at a fixed rate or only
+   * when it changes, and optionally counting the OpenGL calls of each frame.
+   * 
+   * @param renderMode
+   *          The way in which to draw the scene.
+   * @param onDemand
+   *          Whether to draw frames only when the pose, the selection, the
+   *          view, or the size of the window changes.
+   * @param countGlCalls
+   *          Whether to count the OpenGL calls of each type in each frame.
+   * @param traceGlCalls
+   *          Whether to also print every OpenGL call, and a summary of each
+   *          frame.
+   */
+  public PA2(final RenderMode renderMode, final boolean onDemand,
+      final boolean countGlCalls, final boolean traceGlCalls) {
+    this(renderMode, onDemand, countGlCalls, traceGlCalls, null);
+  }
+
+  /**
+   * Initializes the necessary OpenGL objects and adds a canvas to this JFrame,
+   * drawing the scene in the specified way, either at a fixed rate or only
+   * when it changes, optionally counting the OpenGL calls of each frame and
+   * recording slow frames.
+   * 
+   * @param renderMode
+   *          The way in which to draw the scene.
+   * @param onDemand
+   *          Whether to draw frames only when the pose, the selection, the
+   *          view, or the size of the window changes.
+   * @param countGlCalls
+   *          Whether to count the OpenGL calls of each type in each frame.
+   * @param traceGlCalls
+   *          Whether to also print every OpenGL call, and a summary of each
+   *          frame.
+   * @param hitchDirectory
+   *          The directory to which to write a flight recording whenever a
+   *          frame is slow, or {@code null} to record nothing.
+   */
+  public PA2(final RenderMode renderMode, final boolean onDemand,
+      final boolean countGlCalls, final boolean traceGlCalls,
+      final Path hitchDirectory) {
+    this.renderMode = renderMode;
+    this.countGlCalls = countGlCalls;
+    this.traceGlCalls = traceGlCalls;
     this.capabilities.setDoubleBuffered(true);
 
     this.canvas = new GLCanvas(this.capabilities);
@@ -245,309 +377,126 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
     this.canvas.setAutoSwapBufferMode(true);
     this.getContentPane().add(this.canvas);
 
-    // refresh the scene at 60 frames per second
-    this.animator = new FPSAnimator(this.canvas, 60);
+    // refresh the scene at 60 frames per second, or only when it changes;
+    // the canvas itself redraws when the window is exposed or resized
+    if (onDemand) {
+      this.animator = null;
+      this.scheduler = new FrameScheduler(this.canvas);
+    } else {
+      this.animator = new FPSAnimator(this.canvas, 60);
+      this.scheduler = null;
+    }
 
     this.setTitle("CS480/CS680 : Hand Simulator");
     this.setSize(DEFAULT_WINDOW_WIDTH, DEFAULT_WINDOW_HEIGHT);
     this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
     this.setVisible(true);
 
-    // all the distal joints
-    final Component distal1 = new Component(new Point3D(0, 0,
-        MIDDLE_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-        DISTAL_JOINT_HEIGHT, this.glut), PINKY_DISTAL_NAME);
-    final Component distal2 = new Component(new Point3D(0, 0,
-        MIDDLE_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-        DISTAL_JOINT_HEIGHT, this.glut), RING_DISTAL_NAME);
-    final Component distal3 = new Component(new Point3D(0, 0,
-        MIDDLE_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-        DISTAL_JOINT_HEIGHT, this.glut), MIDDLE_DISTAL_NAME);
-    final Component distal4 = new Component(new Point3D(0, 0,
-        MIDDLE_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-        DISTAL_JOINT_HEIGHT, this.glut), INDEX_DISTAL_NAME);
-    final Component distal5 = new Component(new Point3D(0, 0,
-        MIDDLE_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-        DISTAL_JOINT_HEIGHT, this.glut), CLAW_DISTAL_NAME);
-    final Component distal6 = new Component(new Point3D(0, 0,
-            MIDDLE_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-            DISTAL_JOINT_HEIGHT, this.glut), PINKY_DISTAL_NAME);
-    final Component distal7 = new Component(new Point3D(0, 0,
-            MIDDLE_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-            DISTAL_JOINT_HEIGHT, this.glut), RING_DISTAL_NAME);
-    final Component distal8 = new Component(new Point3D(0, 0,
-            MIDDLE_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-            DISTAL_JOINT_HEIGHT, this.glut), MIDDLE_DISTAL_NAME);
-    final Component distal9 = new Component(new Point3D(0, 0,
-            MIDDLE_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-            DISTAL_JOINT_HEIGHT, this.glut), INDEX_DISTAL_NAME);
-    final Component distal10 = new Component(new Point3D(0, 0,
-            MIDDLE_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-            DISTAL_JOINT_HEIGHT, this.glut), CLAW_DISTAL_NAME);
-
-    // all the middle joints
-    final Component middle1 = new Component(new Point3D(0, 0,
-            LIMB_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-        MIDDLE_JOINT_HEIGHT, this.glut), PINKY_MIDDLE_NAME);
-    final Component middle2 = new Component(new Point3D(0, 0,
-            LIMB_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-        MIDDLE_JOINT_HEIGHT, this.glut), RING_MIDDLE_NAME);
-    final Component middle3 = new Component(new Point3D(0, 0,
-            LIMB_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-        MIDDLE_JOINT_HEIGHT, this.glut), MIDDLE_MIDDLE_NAME);
-    final Component middle4 = new Component(new Point3D(0, 0,
-            LIMB_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-        MIDDLE_JOINT_HEIGHT, this.glut), INDEX_MIDDLE_NAME);
-    final Component middle5 = new Component(new Point3D(0, 0,
-            LIMB_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-        MIDDLE_JOINT_HEIGHT, this.glut), CLAW_MIDDLE_NAME);
-    final Component middle6 = new Component(new Point3D(0, 0,
-            LIMB_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-            MIDDLE_JOINT_HEIGHT, this.glut), PINKY_MIDDLE_NAME);
-    final Component middle7 = new Component(new Point3D(0, 0,
-            LIMB_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-            MIDDLE_JOINT_HEIGHT, this.glut), RING_MIDDLE_NAME);
-    final Component middle8 = new Component(new Point3D(0, 0,
-            LIMB_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-            MIDDLE_JOINT_HEIGHT, this.glut), MIDDLE_MIDDLE_NAME);
-    final Component middle9 = new Component(new Point3D(0, 0,
-            LIMB_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-            MIDDLE_JOINT_HEIGHT, this.glut), INDEX_MIDDLE_NAME);
-    final Component middle10 = new Component(new Point3D(0, 0,
-            LIMB_JOINT_HEIGHT), new RoundedCylinder(LIMB_RADIUS,
-            MIDDLE_JOINT_HEIGHT, this.glut), CLAW_MIDDLE_NAME);
-
-    // all the limb joints, displaced by various amounts from the limb
-    final Component limb1 = new Component(new Point3D(-0.3, 0, 0.7),
-        new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut),
-            PINKY_LIMB_NAME);
-    final Component limb2 = new Component(new Point3D(-.1, 0, 0.9),
-        new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut),
-            RING_LIMB_NAME);
-    final Component limb3 = new Component(new Point3D(0.1, 0, 0.95),
-        new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut),
-            MIDDLE_LIMB_NAME);
-    final Component limb4 = new Component(new Point3D(0.3, 0, 0.75),
-        new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut),
-            INDEX_LIMB_NAME);
-    final Component claw1 = new Component(new Point3D(0.24, 0, 0.23),
-        new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut),
-            CLAW_NAME);
-    final Component limb6 = new Component(new Point3D(-0.3, 0, -0.7),
-            new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut),
-            PINKY_LIMB_NAME);
-    final Component limb7 = new Component(new Point3D(-.1, 0, -0.9),
-            new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut),
-            RING_LIMB_NAME);
-    final Component limb8 = new Component(new Point3D(0.1, 0, -0.95),
-            new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut),
-            MIDDLE_LIMB_NAME);
-    final Component limb9 = new Component(new Point3D(0.3, 0, -0.75),
-            new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut),
-            INDEX_LIMB_NAME);
-    final Component claw2 = new Component(new Point3D(0.24, 0, -0.23),
-            new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut),
-            CLAW_NAME);
-    final Component eye1 = new Component(new Point3D(0.24, 0, 0.23),
-            new eyeball(LIMB_RADIUS *2, this.glut),
-            CLAW_NAME);
-    Component lefteye = new Component(new Point3D(0,0,0.23),new eyeball(LIMB_RADIUS,this.glut), CLAW_DISTAL_NAME);
-    eye1.addChild(lefteye);
-    final Component eye2 = new Component(new Point3D(0.24, 0, -0.23),
-            new eyeball(LIMB_RADIUS *2, this.glut),
-            CLAW_NAME);
-    Component righteye = new Component(new Point3D(0,0,0.23),new eyeball(LIMB_RADIUS,this.glut), CLAW_DISTAL_NAME);
-    eye2.addChild(righteye);
-
-    // put together limbs for easier selection by keyboard input later on
-    this.legs = new Leg[] { new Leg(limb1, middle1, distal1),
-        new Leg(limb2, middle2, distal2),
-        new Leg(limb3, middle3, distal3),
-        new Leg(limb4, middle4, distal4),
-        new Leg(claw1, middle5, distal5),
-            new Leg(limb6, middle6, distal6),
-            new Leg(limb7, middle7, distal7),
-            new Leg(limb8, middle8, distal8),
-            new Leg(limb9, middle9, distal9),
-            new Leg(claw2, middle10, distal10),};
-
-    // the left body, which models the left joint
-    this.leftBody = new Component(new Point3D(0, 0, 0), new Limb(
-            BODY_RADIUS, this.glut), LEFT_BODY_NAME);
-
-    // the middle, which models the middle joint
-    this.middleBody = new Component(new Point3D(0,0,-1), new Limb(BODY_RADIUS, this.glut), LEFT_BODY_NAME);
-
-    // the right body which models the right joint
-    this.rightBody = new Component(new Point3D(0,0,-0.5), new Limb(BODY_RADIUS, this.glut), LEFT_BODY_NAME);
-
-    this.leftBody.addChildren(middleBody, rightBody);
-    // the top level component which provides an initial position and rotation
-    // to the scene (but does not cause anything to be drawn)
-    this.topLevelComponent = new Component(INITIAL_POSITION, TOP_LEVEL_NAME);
-
-    //this.topLevelComponent.addChild(this.hand);
-    this.topLevelComponent.addChild(leftBody);
-
-    // the left body's connected to the...left legs
-    this.leftBody.addChildren(limb1, limb2, limb3, limb4, claw1);
-    this.leftBody.addChildren(limb6, limb7, limb8, limb9, claw2);
-    this.leftBody.addChildren(eye1, eye2);
-    limb1.addChild(middle1);
-    limb2.addChild(middle2);
-    limb3.addChild(middle3);
-    limb4.addChild(middle4);
-    claw1.addChild(middle5);
-    middle1.addChild(distal1);
-    middle2.addChild(distal2);
-    middle3.addChild(distal3);
-    middle4.addChild(distal4);
-    limb6.addChild(middle6);
-    limb7.addChild(middle7);
-    limb8.addChild(middle8);
-    limb9.addChild(middle9);
-    claw2.addChild(middle10);
-    middle6.addChild(distal6);
-    middle7.addChild(distal7);
-    middle8.addChild(distal8);
-    middle9.addChild(distal9);
-
-
-    this.leftBody.rotate(Axis.Y,-90);
-    middle1.rotate(Axis.X, 50);
-    middle2.rotate(Axis.X, 50);
-    middle3.rotate(Axis.X, 50);
-    middle4.rotate(Axis.X, 50);
-    limb6.rotate(Axis.Y, -180);
-    limb7.rotate(Axis.Y, -180);
-    limb8.rotate(Axis.Y, -180);
-    limb9.rotate(Axis.Y, -180);
-    middle6.rotate(Axis.X, 50);
-    middle7.rotate(Axis.X, 50);
-    middle8.rotate(Axis.X, 50);
-    middle9.rotate(Axis.X, 50);
-
-    eye2.rotate(Axis.Y, 90);
-    eye1.rotate(Axis.Y, 90);
-    claw1.rotate(Axis.X, 90);
-    claw2.rotate(Axis.X, 90);
-    
-    // set rotation limits for the right body
-    this.rightBody.setXPositiveExtent(0);
-    this.rightBody.setXNegativeExtent(0);
-    this.rightBody.setYPositiveExtent(0);
-    this.rightBody.setYNegativeExtent(0);
-    this.rightBody.setZPositiveExtent(0);
-    this.rightBody.setZNegativeExtent(0);
-
-    // set rotation limits for the middle body
-    this.middleBody.setXPositiveExtent(0);
-    this.middleBody.setXNegativeExtent(0);
-    this.middleBody.setYPositiveExtent(0);
-    this.middleBody.setYNegativeExtent(0);
-    this.middleBody.setZPositiveExtent(0);
-    this.middleBody.setZNegativeExtent(0);
-
-    // set rotation limits for the left body
-    this.leftBody.setXPositiveExtent(90);
-    this.leftBody.setXNegativeExtent(-90);
-    this.leftBody.setYPositiveExtent(-80);
-    this.leftBody.setYNegativeExtent(-100);
-    this.leftBody.setZPositiveExtent(10);
-    this.leftBody.setZNegativeExtent(-10);
-
-    // set rotation limits for the limb joints of the limbs
-    for (final Component limbJoint : Arrays.asList(limb1, limb2, limb3, limb4)) {
-      limbJoint.setXPositiveExtent(30);
-      limbJoint.setXNegativeExtent(-15);
-      limbJoint.setYPositiveExtent(10);
-      limbJoint.setYNegativeExtent(-10);
-      limbJoint.setZPositiveExtent(0);
-      limbJoint.setZNegativeExtent(0);
+    // build the model of the spider in an arena of its own, with its shapes
+    // drawn as required by the render mode
+    this.model = new SpiderModel(this.glut, renderMode, new SceneArena(
+        SpiderModel.COMPONENT_COUNT));
+    this.legs = this.model.legs();
+    this.leftBody = this.model.leftBody();
+    this.middleBody = this.model.middleBody();
+    this.rightBody = this.model.rightBody();
+    this.topLevelComponent = this.model.topLevelComponent();
+    this.components = this.model.components();
+    this.componentArray = this.components.toArray(
+        new Component[this.components.size()]);
+
+    // expose the metrics of the frames to JMX tools
+    try {
+      this.metrics.register();
+    } catch (final IllegalStateException exception) {
+      System.err.println(exception.getMessage()
+          + "; frame metrics are not available through JMX");
     }
 
-    for (final Component limbJoint : Arrays.asList(limb6, limb7, limb8, limb9)) {
-      limbJoint.setXPositiveExtent(15);
-      limbJoint.setXNegativeExtent(-30);
-      limbJoint.setYPositiveExtent(-170);
-      limbJoint.setYNegativeExtent(-190);
-      limbJoint.setZPositiveExtent(0);
-      limbJoint.setZNegativeExtent(0);
+    // if requested, record the last few seconds of events to write out after
+    // a slow frame
+    HitchRecorder hitchRecorder = null;
+    if (hitchDirectory != null) {
+      try {
+        hitchRecorder = new HitchRecorder(hitchDirectory);
+        hitchRecorder.start();
+      } catch (final IllegalStateException exception) {
+        System.err.println(exception.getMessage()
+            + "; slow frames are not recorded");
+      }
     }
+    this.hitchRecorder = hitchRecorder;
 
-    // and set the rotation limits for the claw joint of the claw
-    claw1.setXPositiveExtent(100);
-    claw1.setXNegativeExtent(90);
-    claw1.setYPositiveExtent(30);
-    claw1.setYNegativeExtent(0);
-    claw1.setZPositiveExtent(0);
-    claw1.setZNegativeExtent(0);
-
-    claw2.setXPositiveExtent(90);
-    claw2.setXNegativeExtent(80);
-    claw2.setYPositiveExtent(30);
-    claw2.setYNegativeExtent(0);
-    claw2.setZPositiveExtent(0);
-    claw2.setZNegativeExtent(0);
-
-    // set rotation limits for the middle joints of the limbs
-    for (final Component middleJoint : Arrays.asList(middle1, middle2,
-        middle3, middle4, middle6, middle7, middle8, middle9)) {
-      middleJoint.setXPositiveExtent(100);
-      middleJoint.setXNegativeExtent(0);
-      middleJoint.setYPositiveExtent(0);
-      middleJoint.setYNegativeExtent(0);
-      middleJoint.setZPositiveExtent(0);
-      middleJoint.setZNegativeExtent(0);
+    // animate and walk the spider on its own thread, whose poses are drawn
+    if (this.scheduler != null) {
+      this.simulation.setListener(new Runnable() {
+        @Override
+        public void run() {
+          PA2.this.scheduler.request();
+        }
+      });
     }
+    this.simulation.start();
+  }
 
-    for (final Component middleJoint : Arrays.asList(middle5)) {
-      middleJoint.setXPositiveExtent(15);
-      middleJoint.setXNegativeExtent(0);
-      middleJoint.setYPositiveExtent(0);
-      middleJoint.setYNegativeExtent(0);
-      middleJoint.setZPositiveExtent(0);
-      middleJoint.setZNegativeExtent(0);
+  /**
+   * Redisplays the scene containing the hand model, recording the metrics of
+   * the frame.
+   * 
+   * @param drawable
+   *          The OpenGL drawable object with which to create OpenGL models.
+   */
+  public void display(final GLAutoDrawable drawable) {
+    final FrameEvent event = FrameEvent.isRecorded() ? new FrameEvent()
+        : null;
+    if (event != null) {
+      event.begin();
     }
-
-    for (final Component middleJoint : Arrays.asList(middle10)) {
-      middleJoint.setXPositiveExtent(0);
-      middleJoint.setXNegativeExtent(-15);
-      middleJoint.setYPositiveExtent(0);
-      middleJoint.setYNegativeExtent(0);
-      middleJoint.setZPositiveExtent(0);
-      middleJoint.setZNegativeExtent(0);
+    this.metrics.beginFrame();
+    if (this.glCallCounter != null) {
+      this.glCallCounter.beginFrame();
     }
-
-
-
-    // set rotation limits for the distal joints of the limb
-    for (final Component distalJoint : Arrays.asList(distal1, distal2,
-        distal3, distal4, distal5, distal6, distal7, distal8, distal9,distal10)) {
-      distalJoint.setXPositiveExtent(70);
-      distalJoint.setXNegativeExtent(-5);
-      distalJoint.setYPositiveExtent(0);
-      distalJoint.setYNegativeExtent(0);
-      distalJoint.setZPositiveExtent(0);
-      distalJoint.setZNegativeExtent(0);
+    final boolean rebuilt = this.displayFrame((GL2)drawable.getGL());
+    if (this.glCallCounter != null) {
+      this.metrics.addGlCalls(this.glCallCounter.endFrame());
+      if (this.traceGlCalls) {
+        System.err.println(this.glCallCounter.frameSummary(GL_SUMMARY_LIMIT));
+      }
+    }
+    final long frameNanos = this.metrics.endFrame();
+    if (event != null && event.shouldCommit()) {
+      event.inputEvents = this.frameInputEvents;
+      event.rebuilt = rebuilt;
+      event.renderMode = this.renderMode.name();
+      event.commit();
     }
 
-    // create the list of all the components for debugging purposes
-    this.components = Arrays.asList(limb1, middle1, distal1, limb2, middle2,
-        distal2, limb3, middle3, distal3, limb4, middle4, distal4, claw1,
-        middle5, distal5,limb6, middle6, distal6, limb7, middle7,
-            distal7, limb8, middle8, distal8, limb9, middle9, distal9, claw2,
-            middle10, distal10, this.leftBody, this.middleBody, this.rightBody, lefteye, righteye);
+    // keep the recording of the frames before a hitch
+    if (this.hitchRecorder != null) {
+      this.hitchRecorder.frameEnded(frameNanos);
+    }
   }
 
   /**
-   * Redisplays the scene containing the hand model.
+   * Applies the pending input and the latest pose and draws the scene.
    * 
-   * @param drawable
-   *          The OpenGL drawable object with which to create OpenGL models.
+   * @param gl
+   *          The OpenGL object with which to draw.
+   * @return Whether a change of state caused call lists to be recompiled.
    */
-  public void display(final GLAutoDrawable drawable) {
-    final GL2 gl = (GL2)drawable.getGL();
+  private boolean displayFrame(final GL2 gl) {
+    // apply the input received since the last frame
+    this.frameInputEvents = this.processInput();
+    this.metrics.addInputEvents(this.frameInputEvents);
+
+    // pose the model as interpolated from the latest simulated poses
+    if (this.simulation.apply(this.componentArray, System.nanoTime())) {
+      this.stateChanged = true;
+    }
+    if (this.scheduler != null && this.simulation.isInterpolating()) {
+      // draw again until the latest pose is reached
+      this.scheduler.request();
+    }
 
     // clear the display
     gl.glClear(GL.GL_COLOR_BUFFER_BIT | GL.GL_DEPTH_BUFFER_BIT);
@@ -559,17 +508,52 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
     gl.glLoadIdentity();
 
     // rotate the world by the appropriate rotation quaternion
-    gl.glMultMatrixf(this.viewing_quaternion.toMatrix(), 0);
+    this.viewing_quaternion.toMatrix(this.viewing_matrix, 0);
+    gl.glMultMatrixf(this.viewing_matrix, 0);
+
+    if (this.instancedRenderer != null) {
+      // draw all the components which share a mesh with one draw call, which
+      // traverses every component
+      this.metrics.addNodesTraversed(this.topLevelComponent.descendantCount()
+          + 1);
+      final long start = System.nanoTime();
+      this.instancedRenderer.render(gl, this.topLevelComponent);
+      this.metrics.addDrawTime(System.nanoTime() - start);
+      this.stateChanged = false;
+      return false;
+    }
+
+    if (this.renderMode != RenderMode.CALL_LIST) {
+      // traverse and draw the components directly
+      this.metrics.addNodesTraversed(this.topLevelComponent.descendantCount()
+          + 1);
+      final long start = System.nanoTime();
+      this.backend.setGL(gl);
+      this.backend.beginFrame();
+      this.topLevelComponent.render(this.backend);
+      this.backend.endFrame();
+      this.metrics.addDrawTime(System.nanoTime() - start);
+      this.stateChanged = false;
+      return false;
+    }
 
-    // update the position of the components which need to be updated
-    // TODO only need to update the selected and JUST deselected components
+    // update the call lists of the components which have been changed; each
+    // component tracks whether it is dirty, so only those lists are recompiled,
+    // and only the components visited by the update are counted as traversed,
+    // since drawing the scene is then a single call
+    final boolean rebuilt = this.stateChanged;
     if (this.stateChanged) {
-      this.topLevelComponent.update(gl);
+      final long start = System.nanoTime();
+      this.topLevelComponent.update(gl, this.metrics);
+      this.metrics.addUpdateTime(System.nanoTime() - start);
       this.stateChanged = false;
     }
 
     // redraw the components
+    final long start = System.nanoTime();
     this.topLevelComponent.draw(gl);
+    this.metrics.addDrawTime(System.nanoTime() - start);
+    return rebuilt;
   }
 
   /**
@@ -594,13 +578,49 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
    *          {@inheritDoc}
    */
   public void init(final GLAutoDrawable drawable) {
+    // count the calls of every listener of the canvas from now on
+    if (this.countGlCalls) {
+      try {
+        this.glCallCounter = new GLCallCounter((GL2)drawable.getGL(),
+            this.traceGlCalls ? System.err : null);
+        drawable.setGL(this.glCallCounter);
+      } catch (final IllegalArgumentException exception) {
+        System.err.println(exception.getMessage()
+            + "; OpenGL calls are not counted");
+      }
+    }
     final GL2 gl = (GL2)drawable.getGL();
 
+    // frames drawn on demand are still limited to the refresh rate
+    if (this.scheduler != null) {
+      gl.setSwapInterval(1);
+    }
+
     // perform any initialization needed by the hand model
     this.topLevelComponent.initialize(gl);
 
     // initially draw the scene
-    this.topLevelComponent.update(gl);
+    if (this.renderMode == RenderMode.CALL_LIST) {
+      this.topLevelComponent.update(gl);
+    }
+
+    // instanced rendering falls back to drawing each component directly if
+    // the OpenGL implementation does not support it
+    if (this.renderMode == RenderMode.INSTANCED) {
+      if (InstancedRenderer.isSupported(gl)) {
+        // on a single processor the pool would only add overhead
+        final int processors = Runtime.getRuntime().availableProcessors();
+        if (processors > 1) {
+          this.transformEvaluator = new ParallelTransformEvaluator(processors);
+        }
+        this.instancedRenderer = new InstancedRenderer(
+            this.transformEvaluator);
+        this.instancedRenderer.initialize(gl);
+      } else {
+        System.err.println(InstancedRenderer.EXTENSION
+            + " is not available; drawing each component separately");
+      }
+    }
 
     // set up for shaded display of the hand
     final float light0_position[] = { 1, 1, 1, 0 };
@@ -627,7 +647,8 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
   }
 
   /**
-   * Interprets key presses according to the following scheme:
+   * Passes key presses to the thread which draws the scene, which interprets
+   * them according to the following scheme:
    * 
    * up-arrow, down-arrow: increase/decrease rotation angle
    * 
@@ -635,24 +656,8 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
    *          The key press event object.
    */
   public void keyPressed(final KeyEvent key) {
-    switch (key.getKeyCode()) {
-    case KeyEvent.VK_KP_UP:
-    case KeyEvent.VK_UP:
-      for (final Component component : this.selectedComponents) {
-        component.rotate(this.selectedAxis, ROTATION_ANGLE);
-      }
-      this.stateChanged = true;
-      break;
-    case KeyEvent.VK_KP_DOWN:
-    case KeyEvent.VK_DOWN:
-      for (final Component component : this.selectedComponents) {
-        component.rotate(this.selectedAxis, -ROTATION_ANGLE);
-      }
-      this.stateChanged = true;
-      break;
-    default:
-      break;
-    }
+    this.input.offer(KEY_PRESSED, key.getKeyCode(), 0);
+    this.requestFrame();
   }
 
   /**
@@ -667,40 +672,87 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
 
   private final TestCases testCases = new TestCases();
 
+  /**
+   * Requests that a frame be drawn to handle new input, if frames are drawn on
+   * demand; otherwise the next frame comes soon enough anyway.
+   */
+  private void requestFrame() {
+    if (this.scheduler != null) {
+      this.scheduler.request();
+    }
+  }
+
+  /**
+   * Rotates the selected components around the selected axis on the
+   * simulation thread, which owns the pose of the model.
+   * 
+   * @param angle
+   *          The angle by which to rotate, in degrees.
+   */
+  private void rotateSelection(final double angle) {
+    final int[] indices = new int[this.selectedComponents.size()];
+    int i = 0;
+    for (final Component component : this.selectedComponents) {
+      indices[i++] = this.components.indexOf(component);
+    }
+    final Axis axis = this.selectedAxis;
+    this.simulation.submit(new Runnable() {
+      @Override
+      public void run() {
+        final List<Component> simulated = PA2.this.simulation.model()
+            .components();
+        for (final int index : indices) {
+          simulated.get(index).rotate(axis, angle);
+        }
+      }
+    });
+  }
+
+  /**
+   * Starts a smooth transition of the model to the specified pose, which is
+   * advanced by the simulation thread.
+   * 
+   * @param state
+   *          The angles of each of the joints, keyed by joint name.
+   */
   private void setModelState(final Map<String, Angled> state) {
-    //this.upperArm.setAngles(state.get(UPPER_ARM_NAME));
-    //this.forearm.setAngles(state.get(FOREARM_NAME));
-    //this.hand.setAngles(state.get(HAND_NAME));
-    this.legs[0].palmJoint().setAngles(state.get(PINKY_LIMB_NAME));
-    this.legs[0].middleJoint().setAngles(state.get(PINKY_MIDDLE_NAME));
-    this.legs[0].distalJoint().setAngles(state.get(PINKY_DISTAL_NAME));
-    this.legs[1].palmJoint().setAngles(state.get(RING_LIMB_NAME));
-    this.legs[1].middleJoint().setAngles(state.get(RING_MIDDLE_NAME));
-    this.legs[1].distalJoint().setAngles(state.get(RING_DISTAL_NAME));
-    this.legs[2].palmJoint().setAngles(state.get(MIDDLE_LIMB_NAME));
-    this.legs[2].middleJoint().setAngles(state.get(MIDDLE_MIDDLE_NAME));
-    this.legs[2].distalJoint().setAngles(state.get(MIDDLE_DISTAL_NAME));
-    this.legs[3].palmJoint().setAngles(state.get(INDEX_LIMB_NAME));
-    this.legs[3].middleJoint().setAngles(state.get(INDEX_MIDDLE_NAME));
-    this.legs[3].distalJoint().setAngles(state.get(INDEX_DISTAL_NAME));
-    this.legs[4].palmJoint().setAngles(state.get(CLAW_NAME));
-    this.legs[4].middleJoint().setAngles(state.get(CLAW_MIDDLE_NAME));
-    this.legs[5].palmJoint().setReverseAngles(state.get(PINKY_LIMB_NAME));
-    this.legs[5].middleJoint().setAngles(state.get(PINKY_MIDDLE_NAME));
-    this.legs[5].distalJoint().setAngles(state.get(PINKY_DISTAL_NAME));
-    this.legs[6].palmJoint().setReverseAngles(state.get(RING_LIMB_NAME));
-    this.legs[6].middleJoint().setAngles(state.get(RING_MIDDLE_NAME));
-    this.legs[6].distalJoint().setAngles(state.get(RING_DISTAL_NAME));
-    this.legs[7].palmJoint().setReverseAngles(state.get(MIDDLE_LIMB_NAME));
-    this.legs[7].middleJoint().setAngles(state.get(MIDDLE_MIDDLE_NAME));
-    this.legs[7].distalJoint().setAngles(state.get(MIDDLE_DISTAL_NAME));
-    this.legs[8].palmJoint().setReverseAngles(state.get(INDEX_LIMB_NAME));
-    this.legs[8].middleJoint().setAngles(state.get(INDEX_MIDDLE_NAME));
-    this.legs[8].distalJoint().setAngles(state.get(INDEX_DISTAL_NAME));
-    this.legs[9].palmJoint().setClawAngles(state.get(CLAW_NAME));
-    this.legs[9].middleJoint().setAngles(state.get(CLAW_MIDDLE_NAME));
-    
-    this.stateChanged = true;
+    this.simulation.transitionTo(state);
+  }
+
+  /**
+   * Exits the program if Q or Esc was typed, and otherwise passes the typed
+   * key to the thread which draws the scene, as described in
+   * {@link #typeKey(char)}.
+   * 
+   * @param key
+   *          The key typed event object.
+   */
+  public void keyTyped(final KeyEvent key) {
+    switch (key.getKeyChar()) {
+    case 'Q':
+    case 'q':
+    case KeyEvent.VK_ESCAPE:
+      new Thread() {
+        @Override
+        public void run() {
+          if (PA2.this.animator != null) {
+            PA2.this.animator.stop();
+          } else {
+            PA2.this.scheduler.stop();
+          }
+          PA2.this.simulation.stop();
+          if (PA2.this.hitchRecorder != null) {
+            PA2.this.hitchRecorder.stop();
+          }
+        }
+      }.start();
+      System.exit(0);
+      break;
+    default:
+      this.input.offer(KEY_TYPED, key.getKeyChar(), 0);
+      this.requestFrame();
+      break;
+    }
   }
 
   /**
@@ -740,21 +792,33 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
    * 
    * K : prints the angles of the five fingers for debugging purposes
    * 
-   * Q, Esc : exits the program
+   * G : prints the OpenGL calls made most often, if they are counted
    * 
+   * W : cycles the walking gait through tripod, ripple, wave, and standing
+   * 
+   * Q, Esc : exits the program, handled by {@link #keyTyped(KeyEvent)}
+   * 
+   * @param key
+   *          The typed character.
    */
-  public void keyTyped(final KeyEvent key) {
-    switch (key.getKeyChar()) {
-    case 'Q':
-    case 'q':
-    case KeyEvent.VK_ESCAPE:
-      new Thread() {
-        @Override
-        public void run() {
-          PA2.this.animator.stop();
-        }
-      }.start();
-      System.exit(0);
+  private void typeKey(final char key) {
+    switch (key) {
+    // walk in the next gait, or stand after the last one
+    case 'W':
+    case 'w':
+      final Gait[] gaits = Gait.values();
+      this.gait = this.gait == null ? gaits[0]
+          : this.gait.ordinal() + 1 < gaits.length ? gaits[this.gait
+              .ordinal() + 1] : null;
+      this.simulation.setGait(this.gait);
+      break;
+
+    // print the OpenGL calls made most often
+    case 'G':
+    case 'g':
+      if (this.glCallCounter != null) {
+        System.out.print(this.glCallCounter.report(GL_REPORT_LIMIT));
+      }
       break;
 
     // print the angles of the components
@@ -901,41 +965,15 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
   }
 
   /**
-   * Updates the rotation quaternion as the mouse is dragged.
+   * Passes mouse drags to the thread which draws the scene, which updates the
+   * rotation quaternion.
    * 
    * @param mouse
    *          The mouse drag event object.
    */
   public void mouseDragged(final MouseEvent mouse) {
-	if (this.rotate_world) {
-		// get the current position of the mouse
-		final int x = mouse.getX();
-		final int y = mouse.getY();
-	
-		// get the change in position from the previous one
-		final int dx = x - this.last_x;
-		final int dy = y - this.last_y;
-	
-		// create a unit vector in the direction of the vector (dy, dx, 0)
-		final double magnitude = Math.sqrt(dx * dx + dy * dy);
-		final float[] axis = magnitude == 0 ? new float[]{1,0,0}: // avoid dividing by 0
-			new float[] { (float) (dy / magnitude),(float) (dx / magnitude), 0 };
-	
-		// calculate appropriate quaternion
-		final float viewing_delta = 3.1415927f / 180.0f;
-		final float s = (float) Math.sin(0.5f * viewing_delta);
-		final float c = (float) Math.cos(0.5f * viewing_delta);
-		final Quaternion Q = new Quaternion(c, s * axis[0], s * axis[1], s
-				* axis[2]);
-		this.viewing_quaternion = Q.multiply(this.viewing_quaternion);
-	
-		// normalize to counteract acccumulating round-off error
-		this.viewing_quaternion.normalize();
-	
-		// save x, y as last x, y
-		this.last_x = x;
-		this.last_y = y;
-	}
+    this.input.offer(MOUSE_DRAGGED, mouse.getX(), mouse.getY());
+    this.requestFrame();
   }
 
   /**
@@ -959,33 +997,27 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
   }
 
   /**
-   * This method is intentionally unimplemented.
+   * Passes mouse moves to the thread which draws the scene, which turns the
+   * eyes toward the mouse.
    * 
    * @param mouse
-   *          This parameter is ignored.
+   *          The mouse move event object.
    */
-  public void mouseMoved(MouseEvent mouse) {
-    // intentionally unimplemented
-    int x = mouse.getX();
-    int y = mouse.getY();
-    double angle_x = (x - 256.0)/256.0*90.0;
-    double angle_y = (y - 256.0)/256.0*90.0;
-    this.components.get(components.size()-2).setAngles(angle_y,angle_x,0);
-    this.components.get(components.size()-1).setAngles(angle_y,angle_x,0);
-    this.stateChanged = true;
+  public void mouseMoved(final MouseEvent mouse) {
+    this.input.offer(MOUSE_MOVED, mouse.getX(), mouse.getY());
+    this.requestFrame();
   }
 
   /**
-   * Starts rotating the world if the left mouse button was released.
+   * Starts rotating the world if the left mouse button was pressed.
    * 
    * @param mouse
    *          The mouse press event object.
    */
   public void mousePressed(final MouseEvent mouse) {
     if (mouse.getButton() == MouseEvent.BUTTON1) {
-      this.last_x = mouse.getX();
-      this.last_y = mouse.getY();
-      this.rotate_world = true;
+      this.input.offer(MOUSE_PRESSED, mouse.getX(), mouse.getY());
+      this.requestFrame();
     }
   }
 
@@ -997,10 +1029,134 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
    */
   public void mouseReleased(final MouseEvent mouse) {
     if (mouse.getButton() == MouseEvent.BUTTON1) {
-      this.rotate_world = false;
+      this.input.offer(MOUSE_RELEASED, 0, 0);
+      this.requestFrame();
     }
   }
 
+  /**
+   * Applies the pending rotation of the view by mouse drags, as one rotation
+   * around the sum of their rotations by the length of that sum in degrees.
+   * Drags which cancel each other out leave the view as it is.
+   */
+  private void applyPendingDrags() {
+    final double magnitude = Math.sqrt(this.pendingDragX * this.pendingDragX
+        + this.pendingDragY * this.pendingDragY);
+    if (magnitude == 0) {
+      return;
+    }
+    final float viewing_delta = 3.1415927f / 180.0f * (float) magnitude;
+    this.drag_quaternion.setFromAxisAngle(
+        (float) (this.pendingDragX / magnitude),
+        (float) (this.pendingDragY / magnitude), 0, viewing_delta);
+    this.viewing_quaternion.premultiplyInPlace(this.drag_quaternion);
+
+    // normalize to counteract acccumulating round-off error
+    this.viewing_quaternion.normalize();
+
+    this.pendingDragX = 0;
+    this.pendingDragY = 0;
+  }
+
+  /**
+   * Turns the eyes toward the last position of the mouse, if it has moved.
+   */
+  private void applyPendingMove() {
+    if (!this.pendingMove) {
+      return;
+    }
+    final double angle_x = (this.pendingMoveX - 256.0)/256.0*90.0;
+    final double angle_y = (this.pendingMoveY - 256.0)/256.0*90.0;
+    this.simulation.lookAt(angle_y, angle_x);
+    this.pendingMove = false;
+  }
+
+  /**
+   * Applies the pending rotation of the selected components by the arrow
+   * keys, as one rotation by the sum of their angles.
+   */
+  private void applyPendingRotation() {
+    if (this.pendingRotation != 0) {
+      this.rotateSelection(this.pendingRotation);
+      this.pendingRotation = 0;
+    }
+  }
+
+  /**
+   * Handles the input events received since the last frame, on the thread
+   * which draws the scene, so the selection and the view are only touched by
+   * this thread.
+   * 
+   * Events are coalesced: consecutive arrow key presses become one rotation,
+   * consecutive mouse drags one rotation of the view, and of the mouse moves
+   * only the last is followed. Pending rotations are applied before each typed
+   * key, which may change the selection, the axis, or the view.
+   * 
+   * @return The number of events handled.
+   */
+  private int processInput() {
+    final int[] event = this.inputEvent;
+    int count = 0;
+    while (this.input.poll(event)) {
+      ++count;
+      switch (event[0]) {
+      case KEY_PRESSED:
+        if (event[1] == KeyEvent.VK_UP || event[1] == KeyEvent.VK_KP_UP) {
+          this.pendingRotation += ROTATION_ANGLE;
+        } else if (event[1] == KeyEvent.VK_DOWN
+            || event[1] == KeyEvent.VK_KP_DOWN) {
+          this.pendingRotation -= ROTATION_ANGLE;
+        }
+        break;
+      case KEY_TYPED:
+        this.applyPendingRotation();
+        this.applyPendingDrags();
+        this.typeKey((char) event[1]);
+        break;
+      case MOUSE_DRAGGED:
+        if (this.rotate_world) {
+          // get the change in position from the previous one
+          final int dx = event[1] - this.last_x;
+          final int dy = event[2] - this.last_y;
+
+          // rotate by one degree around a unit vector in the direction of
+          // (dy, dx, 0), or around the x axis if the mouse has not moved
+          final double magnitude = Math.sqrt(dx * dx + dy * dy);
+          if (magnitude == 0) { // avoid dividing by 0
+            this.pendingDragX += 1;
+          } else {
+            this.pendingDragX += dy / magnitude;
+            this.pendingDragY += dx / magnitude;
+          }
+
+          // save x, y as last x, y
+          this.last_x = event[1];
+          this.last_y = event[2];
+        }
+        break;
+      case MOUSE_MOVED:
+        this.pendingMove = true;
+        this.pendingMoveX = event[1];
+        this.pendingMoveY = event[2];
+        break;
+      case MOUSE_PRESSED:
+        this.last_x = event[1];
+        this.last_y = event[2];
+        this.rotate_world = true;
+        break;
+      case MOUSE_RELEASED:
+        this.rotate_world = false;
+        break;
+      default:
+        break;
+      }
+    }
+    this.applyPendingRotation();
+    this.applyPendingDrags();
+    this.applyPendingMove();
+    return count;
+  }
+
   /**
    * {@inheritDoc}
    * 
@@ -1042,6 +1198,17 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
     gl.glMatrixMode(GL2.GL_MODELVIEW);
   }
 
+  /**
+   * Starts drawing frames, either at a fixed rate or on demand.
+   */
+  public void start() {
+    if (this.animator != null) {
+      this.animator.start();
+    } else {
+      this.scheduler.start();
+    }
+  }
+
   private void toggleSelection(final Component component) {
     if (this.selectedComponents.contains(component)) {
       this.selectedComponents.remove(component);
@@ -1068,7 +1235,10 @@ public class PA2 extends JFrame implements GLEventListener, KeyListener,
 
 @Override
 public void dispose(GLAutoDrawable drawable) {
-	// TODO Auto-generated method stub
-	
+  // stop the worker threads which updated the world transformations
+  if (this.transformEvaluator != null) {
+    this.transformEvaluator.shutdown();
+    this.transformEvaluator = null;
+  }
 }
 }
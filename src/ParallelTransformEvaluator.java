@@ -0,0 +1,222 @@
+/**
+ * ParallelTransformEvaluator.java - computes world transformations in parallel
+ */
+
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the world transformations of every component in a tree, splitting
+ * the tree by subtree across the worker threads of a {@link ForkJoinPool}.
+ *
+ * Each component is updated once, after its parent, so the subtrees of
+ * different children are independent and can be updated concurrently. The
+ * children of a component are split in halves until each task covers at most
+ * {@link #grain()} components, so a crowd of many small creatures is spread
+ * across the workers as well as a single large tree; each creature, or each
+ * leg of a large creature, ends up in one task. {@link #evaluate(Component)}
+ * returns only when every task has finished, so the thread which draws the
+ * scene simply reads the finished matrices with
+ * {@link Component#worldTransform()}, which then has nothing left to
+ * recompute.
+ *
+ * The tree must not be modified while it is being evaluated.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class ParallelTransformEvaluator {
+
+  /**
+   * Updates the subtrees of a range of the children of a component whose world
+   * transformation is already up to date.
+   *
+   * @author Tian Chen
+   * @since Fall 2020
+   */
+  private static class SubtreeTask extends RecursiveAction {
+    /** Randomly generated serial version UID. */
+    private static final long serialVersionUID = 5083177425713815512L;
+
+    /** The index of the first child to update. */
+    private final int from;
+    /** The maximum number of components to update without splitting. */
+    private final int grain;
+    /** The component whose children are updated. */
+    private final Component parent;
+    /** The index after the last child to update. */
+    private final int to;
+
+    /**
+     * Instantiates this task for the specified range of children.
+     *
+     * @param parent
+     *          The component whose children are updated.
+     * @param from
+     *          The index of the first child to update.
+     * @param to
+     *          The index after the last child to update.
+     * @param grain
+     *          The maximum number of components to update without splitting.
+     */
+    SubtreeTask(final Component parent, final int from, final int to,
+        final int grain) {
+      this.parent = parent;
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+    }
+
+    /** Updates the subtrees, splitting this task if they are large. */
+    @Override
+    protected void compute() {
+      int size = 0;
+      for (int i = this.from; i < this.to; ++i) {
+        size += this.parent.child(i).descendantCount() + 1;
+      }
+      if (size > this.grain && this.to - this.from > 1) {
+        final int middle = (this.from + this.to) >>> 1;
+        invokeAll(new SubtreeTask(this.parent, this.from, middle, this.grain),
+            new SubtreeTask(this.parent, middle, this.to, this.grain));
+        return;
+      }
+
+      for (int i = this.from; i < this.to; ++i) {
+        final Component child = this.parent.child(i);
+        child.updateWorldTransform();
+        if (child.descendantCount() > this.grain) {
+          // a single large subtree is split among its own children
+          new SubtreeTask(child, 0, child.childCount(), this.grain).compute();
+        } else {
+          evaluateChildren(child);
+        }
+      }
+    }
+  }
+
+  /** The default maximum number of components to update in a single task. */
+  public static final int DEFAULT_GRAIN = 256;
+
+  /**
+   * Updates the world transformations of the descendants of the specified
+   * component on the current thread, assuming its own is up to date.
+   *
+   * @param component
+   *          The component whose descendants to update.
+   */
+  private static void evaluateChildren(final Component component) {
+    for (int i = 0; i < component.childCount(); ++i) {
+      final Component child = component.child(i);
+      child.updateWorldTransform();
+      evaluateChildren(child);
+    }
+  }
+
+  /**
+   * Updates the world transformations of every component in the tree rooted
+   * at the specified component on the current thread, visiting each component
+   * once.
+   *
+   * @param root
+   *          The top level component of the tree.
+   */
+  public static void evaluateSequentially(final Component root) {
+    if (root.parent() != null) {
+      root.parent().worldTransform();
+    }
+    root.updateWorldTransform();
+    evaluateChildren(root);
+  }
+
+  /** The maximum number of components to update in a single task. */
+  private final int grain;
+  /** The pool whose workers update the subtrees. */
+  private final ForkJoinPool pool;
+
+  /**
+   * Instantiates this evaluator with one worker thread per available
+   * processor.
+   */
+  public ParallelTransformEvaluator() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Instantiates this evaluator with the specified number of worker threads
+   * and the default grain.
+   *
+   * @param parallelism
+   *          The number of worker threads.
+   */
+  public ParallelTransformEvaluator(final int parallelism) {
+    this(parallelism, DEFAULT_GRAIN);
+  }
+
+  /**
+   * Instantiates this evaluator with the specified number of worker threads
+   * and grain.
+   *
+   * @param parallelism
+   *          The number of worker threads.
+   * @param grain
+   *          The maximum number of components to update in a single task.
+   * @throws IllegalArgumentException
+   *           If either argument is not positive.
+   */
+  public ParallelTransformEvaluator(final int parallelism, final int grain) {
+    if (parallelism <= 0 || grain <= 0) {
+      throw new IllegalArgumentException("Invalid parallelism " + parallelism
+          + " or grain " + grain);
+    }
+    this.grain = grain;
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * Updates the world transformations of every component in the tree rooted
+   * at the specified component, and waits until they are all up to date.
+   *
+   * Trees with at most {@link #grain()} components are updated on the calling
+   * thread.
+   *
+   * @param root
+   *          The top level component of the tree.
+   */
+  public void evaluate(final Component root) {
+    if (root.descendantCount() < this.grain) {
+      evaluateSequentially(root);
+      return;
+    }
+    if (root.parent() != null) {
+      root.parent().worldTransform();
+    }
+    root.updateWorldTransform();
+    this.pool.invoke(new SubtreeTask(root, 0, root.childCount(), this.grain));
+  }
+
+  /**
+   * Gets the maximum number of components updated in a single task.
+   *
+   * @return The maximum number of components updated in a single task.
+   */
+  public int grain() {
+    return this.grain;
+  }
+
+  /**
+   * Gets the number of worker threads which update the subtrees.
+   *
+   * @return The number of worker threads.
+   */
+  public int parallelism() {
+    return this.pool.getParallelism();
+  }
+
+  /**
+   * Stops the worker threads; this evaluator must not be used afterwards.
+   */
+  public void shutdown() {
+    this.pool.shutdown();
+  }
+}
@@ -0,0 +1,223 @@
+/**
+ * PoseAnimator.java - smooth transitions between poses of the spider model
+ */
+
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Animates the joints of a {@link SpiderModel} from their current angles to a
+ * new pose, such as one of the {@link TestCases}, over a duration given per
+ * joint and shaped by an {@link Easing} curve per joint, instead of snapping to
+ * the new pose at once.
+ *
+ * The angles of the start and end of a transition are kept in flat arrays,
+ * three per joint, in the order of {@link SpiderModel#posedJoints()}, and the
+ * angles are interpolated linearly between them. Neither starting a transition
+ * nor advancing it with {@link #update(double)} allocates, so one animator per
+ * creature can be advanced every frame.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class PoseAnimator {
+  /** The default duration of the transition of each joint, in seconds. */
+  public static final double DEFAULT_DURATION = 0.5;
+  /** The default easing curve of each joint. */
+  public static final Easing DEFAULT_EASING = Easing.EASE_IN_OUT;
+
+  /** Whether a transition is in progress. */
+  private boolean animating = false;
+  /** The duration of the transition of each joint, in seconds. */
+  private final double[] durations;
+  /** The easing curve of each joint. */
+  private final Easing[] easings;
+  /** The time since the start of the current transition, in seconds. */
+  private double elapsed = 0;
+  /** The joints which are animated. */
+  private final Component[] joints;
+  /** The angles of each joint at the start of the current transition. */
+  private final double[] startAngles;
+  /** The angles of each joint at the end of the current transition. */
+  private final double[] targetAngles;
+
+  /**
+   * Instantiates this animator for the posed joints of the specified model,
+   * with the default duration and easing curve for every joint.
+   *
+   * @param model
+   *          The model to animate.
+   */
+  public PoseAnimator(final SpiderModel model) {
+    this.joints = model.posedJoints();
+    this.durations = new double[this.joints.length];
+    this.easings = new Easing[this.joints.length];
+    this.startAngles = new double[this.joints.length
+        * SceneArena.ANGLE_STRIDE];
+    this.targetAngles = new double[this.joints.length
+        * SceneArena.ANGLE_STRIDE];
+    Arrays.fill(this.durations, DEFAULT_DURATION);
+    Arrays.fill(this.easings, DEFAULT_EASING);
+  }
+
+  /**
+   * Gets the duration of the transition of the specified joint.
+   *
+   * @param joint
+   *          The index of the joint within {@link SpiderModel#posedJoints()}.
+   * @return The duration of the transition of the joint, in seconds.
+   */
+  public double duration(final int joint) {
+    return this.durations[joint];
+  }
+
+  /**
+   * Gets the easing curve of the specified joint.
+   *
+   * @param joint
+   *          The index of the joint within {@link SpiderModel#posedJoints()}.
+   * @return The easing curve of the joint.
+   */
+  public Easing easing(final int joint) {
+    return this.easings[joint];
+  }
+
+  /**
+   * Ends the current transition immediately, setting every joint to its target
+   * angles.
+   */
+  public void finish() {
+    if (this.animating) {
+      this.elapsed = Double.POSITIVE_INFINITY;
+      this.update(0);
+    }
+  }
+
+  /**
+   * Gets whether a transition is in progress.
+   *
+   * @return Whether a transition is in progress.
+   */
+  public boolean isAnimating() {
+    return this.animating;
+  }
+
+  /**
+   * Sets the duration of the transition of every joint.
+   *
+   * @param seconds
+   *          The duration of the transition of every joint, in seconds.
+   * @throws IllegalArgumentException
+   *           If the duration is negative.
+   */
+  public void setDuration(final double seconds) {
+    for (int j = 0; j < this.durations.length; ++j) {
+      this.setDuration(j, seconds);
+    }
+  }
+
+  /**
+   * Sets the duration of the transition of the specified joint; a joint with
+   * a duration of zero snaps to its target angles on the next update.
+   *
+   * @param joint
+   *          The index of the joint within {@link SpiderModel#posedJoints()}.
+   * @param seconds
+   *          The duration of the transition of the joint, in seconds.
+   * @throws IllegalArgumentException
+   *           If the duration is negative.
+   */
+  public void setDuration(final int joint, final double seconds) {
+    if (!(seconds >= 0)) {
+      throw new IllegalArgumentException("Invalid duration " + seconds);
+    }
+    this.durations[joint] = seconds;
+  }
+
+  /**
+   * Sets the easing curve of every joint.
+   *
+   * @param easing
+   *          The easing curve of every joint.
+   */
+  public void setEasing(final Easing easing) {
+    Arrays.fill(this.easings, easing);
+  }
+
+  /**
+   * Sets the easing curve of the specified joint.
+   *
+   * @param joint
+   *          The index of the joint within {@link SpiderModel#posedJoints()}.
+   * @param easing
+   *          The easing curve of the joint.
+   */
+  public void setEasing(final int joint, final Easing easing) {
+    this.easings[joint] = easing;
+  }
+
+  /**
+   * Starts a transition from the current angles of the joints to the
+   * specified pose, replacing any transition in progress.
+   *
+   * @param state
+   *          The angles of each of the joints, keyed by joint name as in
+   *          {@link TestCases}.
+   */
+  public void transitionTo(final Map<String, Angled> state) {
+    final ModelStateEvent event = ModelStateEvent.isRecorded()
+        ? new ModelStateEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
+    SpiderModel.resolvePose(state, this.targetAngles, 0);
+    for (int j = 0; j < this.joints.length; ++j) {
+      final int i = j * SceneArena.ANGLE_STRIDE;
+      this.startAngles[i] = this.joints[j].xAngle();
+      this.startAngles[i + 1] = this.joints[j].yAngle();
+      this.startAngles[i + 2] = this.joints[j].zAngle();
+    }
+    this.elapsed = 0;
+    this.animating = true;
+    if (event != null) {
+      event.animated = true;
+      event.commit();
+    }
+  }
+
+  /**
+   * Advances the current transition by the specified time and sets the angles
+   * of each joint accordingly.
+   *
+   * @param deltaSeconds
+   *          The time since the last update, in seconds.
+   * @return Whether a transition was in progress, that is, whether the angles
+   *         of the joints may have changed.
+   */
+  public boolean update(final double deltaSeconds) {
+    if (!this.animating) {
+      return false;
+    }
+    this.elapsed += deltaSeconds;
+
+    boolean finished = true;
+    final double[] from = this.startAngles;
+    final double[] to = this.targetAngles;
+    for (int j = 0; j < this.joints.length; ++j) {
+      final int i = j * SceneArena.ANGLE_STRIDE;
+      if (this.elapsed >= this.durations[j]) {
+        this.joints[j].setAngles(to[i], to[i + 1], to[i + 2]);
+        continue;
+      }
+      finished = false;
+      final double t = this.easings[j].apply(this.elapsed
+          / this.durations[j]);
+      this.joints[j].setAngles(from[i] + t * (to[i] - from[i]), from[i + 1]
+          + t * (to[i + 1] - from[i + 1]), from[i + 2] + t
+          * (to[i + 2] - from[i + 2]));
+    }
+    this.animating = !finished;
+    return true;
+  }
+}
@@ -0,0 +1,138 @@
+/**
+ * PoseSnapshot.java - the angles of every component at one simulated instant
+ */
+
+
+/**
+ * The x, y, and z angles of every component of a model at one instant of a
+ * {@link Simulation}, stored in a flat array, {@link SceneArena#ANGLE_STRIDE}
+ * elements per component, in the order of {@link SpiderModel#components()}.
+ *
+ * Snapshots are recycled by a {@link PoseTripleBuffer} rather than allocated
+ * each step; a snapshot is only written while it is the back buffer of the
+ * simulation, so one obtained from {@link PoseTripleBuffer#latest()} does not
+ * change until the reader asks for the latest snapshot again.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class PoseSnapshot {
+  /** The angles of each component, in degrees. */
+  private final double[] angles;
+  /** The instant of the simulation captured, from {@link System#nanoTime()}. */
+  private long nanoTime = 0;
+  /** The position of this snapshot in the order of publication. */
+  private long sequence = 0;
+
+  /**
+   * Instantiates this snapshot for the specified number of components, with
+   * every angle zero.
+   *
+   * @param componentCount
+   *          The number of components.
+   */
+  public PoseSnapshot(final int componentCount) {
+    this.angles = new double[componentCount * SceneArena.ANGLE_STRIDE];
+  }
+
+  /**
+   * Gets the angle of the specified component around the specified axis.
+   *
+   * @param component
+   *          The index of the component.
+   * @param axis
+   *          The axis of rotation.
+   * @return The angle, in degrees.
+   */
+  public double angle(final int component, final Axis axis) {
+    return this.angles[component * SceneArena.ANGLE_STRIDE + axis.ordinal()];
+  }
+
+  /**
+   * Sets this snapshot to the current angles of the specified components.
+   *
+   * @param components
+   *          The components, as many as this snapshot was created for.
+   * @param nanoTime
+   *          The instant of the simulation captured.
+   * @param sequence
+   *          The position of the snapshot in the order of publication.
+   */
+  void capture(final Component[] components, final long nanoTime,
+      final long sequence) {
+    for (int c = 0; c < components.length; ++c) {
+      final int i = c * SceneArena.ANGLE_STRIDE;
+      this.angles[i] = components[c].xAngle();
+      this.angles[i + 1] = components[c].yAngle();
+      this.angles[i + 2] = components[c].zAngle();
+    }
+    this.nanoTime = nanoTime;
+    this.sequence = sequence;
+  }
+
+  /**
+   * Gets the number of components in this snapshot.
+   *
+   * @return The number of components.
+   */
+  public int componentCount() {
+    return this.angles.length / SceneArena.ANGLE_STRIDE;
+  }
+
+  /**
+   * Sets this snapshot to a copy of the specified snapshot.
+   *
+   * @param snapshot
+   *          The snapshot to copy, of the same number of components.
+   */
+  void copyFrom(final PoseSnapshot snapshot) {
+    System.arraycopy(snapshot.angles, 0, this.angles, 0, this.angles.length);
+    this.nanoTime = snapshot.nanoTime;
+    this.sequence = snapshot.sequence;
+  }
+
+  /**
+   * Sets the angles of the specified components to those interpolated
+   * linearly between two snapshots.
+   *
+   * @param from
+   *          The earlier snapshot.
+   * @param to
+   *          The later snapshot.
+   * @param t
+   *          The fraction of the way from the earlier snapshot to the later
+   *          one, between 0 and 1.
+   * @param components
+   *          The components to pose, as many as the snapshots were created
+   *          for.
+   */
+  public static void interpolate(final PoseSnapshot from,
+      final PoseSnapshot to, final double t, final Component[] components) {
+    final double[] a = from.angles;
+    final double[] b = to.angles;
+    for (int c = 0; c < components.length; ++c) {
+      final int i = c * SceneArena.ANGLE_STRIDE;
+      components[c].setAngles(a[i] + t * (b[i] - a[i]), a[i + 1] + t
+          * (b[i + 1] - a[i + 1]), a[i + 2] + t * (b[i + 2] - a[i + 2]));
+    }
+  }
+
+  /**
+   * Gets the instant of the simulation captured by this snapshot.
+   *
+   * @return The instant captured, on the clock of {@link System#nanoTime()}.
+   */
+  public long nanoTime() {
+    return this.nanoTime;
+  }
+
+  /**
+   * Gets the position of this snapshot in the order in which the simulation
+   * published its poses.
+   *
+   * @return The position of this snapshot, 0 for the initial pose.
+   */
+  public long sequence() {
+    return this.sequence;
+  }
+}
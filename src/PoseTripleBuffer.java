@@ -0,0 +1,96 @@
+/**
+ * PoseTripleBuffer.java - lock-free handoff of poses between two threads
+ */
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands {@link PoseSnapshot}s from one writing thread to one reading thread
+ * without locks and without allocating, using three snapshots.
+ *
+ * The writer fills its back snapshot and publishes it, exchanging it for the
+ * middle snapshot; the reader takes the latest published snapshot by
+ * exchanging its front snapshot for the middle one. Each exchange is a single
+ * atomic operation on an integer holding the index of the middle snapshot and
+ * a flag saying whether it is newer than the front one, so neither thread
+ * ever waits for the other: the writer may publish any number of times between
+ * reads, and the reader always gets the most recent snapshot. The atomic
+ * exchange also makes the angles written before publishing visible to the
+ * reader.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class PoseTripleBuffer {
+  /** The flag set when the middle snapshot has not yet been read. */
+  private static final int FRESH = 4;
+  /** The mask of the index of the middle snapshot. */
+  private static final int INDEX_MASK = 3;
+
+  /** The index of the snapshot being written, used only by the writer. */
+  private int back = 0;
+  /** The index of the snapshot being read, used only by the reader. */
+  private int front = 2;
+  /** The index of the middle snapshot, and whether it is fresh. */
+  private final AtomicInteger middle = new AtomicInteger(1);
+  /** The three snapshots. */
+  private final PoseSnapshot[] snapshots;
+
+  /**
+   * Instantiates this buffer with snapshots of the specified number of
+   * components.
+   *
+   * @param componentCount
+   *          The number of components in each snapshot.
+   */
+  public PoseTripleBuffer(final int componentCount) {
+    this.snapshots = new PoseSnapshot[] { new PoseSnapshot(componentCount),
+        new PoseSnapshot(componentCount), new PoseSnapshot(componentCount) };
+  }
+
+  /**
+   * Gets the snapshot to be filled by the writer before it is published.
+   *
+   * @return The back snapshot.
+   */
+  public PoseSnapshot back() {
+    return this.snapshots[this.back];
+  }
+
+  /**
+   * Sets every snapshot to the current angles of the specified components,
+   * before either thread uses this buffer.
+   *
+   * @param components
+   *          The components.
+   * @param nanoTime
+   *          The instant captured.
+   */
+  public void initialize(final Component[] components, final long nanoTime) {
+    for (final PoseSnapshot snapshot : this.snapshots) {
+      snapshot.capture(components, nanoTime, 0);
+    }
+  }
+
+  /**
+   * Gets the latest published snapshot, which does not change until this
+   * method is called again. Only the reader may call this method.
+   *
+   * @return The latest snapshot.
+   */
+  public PoseSnapshot latest() {
+    if ((this.middle.get() & FRESH) != 0) {
+      this.front = this.middle.getAndSet(this.front) & INDEX_MASK;
+    }
+    return this.snapshots[this.front];
+  }
+
+  /**
+   * Publishes the back snapshot, making it the latest, and takes another
+   * snapshot to write. Only the writer may call this method.
+   */
+  public void publish() {
+    this.back = this.middle.getAndSet(this.back | FRESH) & INDEX_MASK;
+  }
+}
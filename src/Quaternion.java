@@ -3,6 +3,13 @@
  * 
  * History:
  * 
+ * Fall 2020
+ * 
+ * - added allocation-free in-place operations, slerp, nlerp, vector rotation,
+ * and Euler angle conversion
+ * 
+ * (Tian Chen)
+ * 
  * 18 February 2011
  * 
  * - made members private and added accessors
@@ -29,6 +36,12 @@
  * @since Spring 2008
  */
 public class Quaternion {
+  /**
+   * The cosine of the y angle below which {@link #toEuler(double[], int)}
+   * treats the x and z axes as aligned, within the round off of a unit
+   * quaternion of floats.
+   */
+  public static final double GIMBAL_LOCK_THRESHOLD = 1e-6;
   /** The threshold below which to renormalize this quaternion, if necessary. */
   public static final float ROUND_OFF_THRESHOLD = 0.0001f;
   /** The scalar component of this quaternion. */
@@ -61,6 +74,29 @@ public class Quaternion {
     this.set(s, v0, v1, v2);
   }
 
+  /**
+   * Negates the vector components of this quaternion, so that it represents
+   * the inverse rotation if it is unit.
+   */
+  public void conjugate() {
+    this.v[0] = -this.v[0];
+    this.v[1] = -this.v[1];
+    this.v[2] = -this.v[2];
+  }
+
+  /**
+   * Returns the dot product of this and the specified other quaternion, as
+   * four dimensional vectors.
+   * 
+   * @param that
+   *          The other quaternion.
+   * @return The dot product of this and the specified other quaternion.
+   */
+  public float dot(final Quaternion that) {
+    return this.s * that.s + this.v[0] * that.v[0] + this.v[1] * that.v[1]
+        + this.v[2] * that.v[2];
+  }
+
   /**
    * Returns a new quaternion representing the product of this and the specified
    * other quaternion.
@@ -86,6 +122,44 @@ public class Quaternion {
     return new Quaternion(newS, i, j, k);
   }
 
+  /**
+   * Sets this quaternion to the product of this and the specified other
+   * quaternion, without allocating.
+   * 
+   * The other quaternion may be this quaternion.
+   * 
+   * @param that
+   *          The quaternion by which to multiply this one on the right.
+   */
+  public void multiplyInPlace(final Quaternion that) {
+    this.setProduct(this.s, this.v[0], this.v[1], this.v[2], that.s,
+        that.v[0], that.v[1], that.v[2]);
+  }
+
+  /**
+   * Sets this quaternion to the normalized linear interpolation between the
+   * specified unit quaternions, taking the shorter path.
+   * 
+   * This is cheaper than {@link #slerp(Quaternion, Quaternion, float)} but
+   * does not interpolate at a constant angular velocity. Either of the
+   * specified quaternions may be this quaternion.
+   * 
+   * @param from
+   *          The quaternion at parameter 0.
+   * @param to
+   *          The quaternion at parameter 1.
+   * @param t
+   *          The interpolation parameter, between 0 and 1.
+   */
+  public void nlerp(final Quaternion from, final Quaternion to, final float t) {
+    final float sign = from.dot(to) < 0 ? -1 : 1;
+    final float a = 1 - t;
+    final float b = sign * t;
+    this.set(a * from.s + b * to.s, a * from.v[0] + b * to.v[0], a
+        * from.v[1] + b * to.v[1], a * from.v[2] + b * to.v[2]);
+    this.normalize();
+  }
+
   /**
    * Returns the norm (magnitude) of this quaternion.
    * 
@@ -112,6 +186,20 @@ public class Quaternion {
     }
   }
 
+  /**
+   * Sets this quaternion to the product of the specified other quaternion and
+   * this one, without allocating.
+   * 
+   * The other quaternion may be this quaternion.
+   * 
+   * @param that
+   *          The quaternion by which to multiply this one on the left.
+   */
+  public void premultiplyInPlace(final Quaternion that) {
+    this.setProduct(that.s, that.v[0], that.v[1], that.v[2], this.s,
+        this.v[0], this.v[1], this.v[2]);
+  }
+
   /**
    * Resets this quaternion to (1, 0, 0, 0).
    */
@@ -119,6 +207,38 @@ public class Quaternion {
     this.set(1f, 0f, 0f, 0f);
   }
 
+  /**
+   * Rotates the specified vector in place by the rotation which this unit
+   * quaternion represents, without allocating.
+   * 
+   * @param vector
+   *          The array containing the x, y, and z components of the vector.
+   * @param offset
+   *          The offset of the vector within the array.
+   */
+  public void rotateVector(final float[] vector, final int offset) {
+    final float x = vector[offset];
+    final float y = vector[offset + 1];
+    final float z = vector[offset + 2];
+
+    // t = 2 (v x p), then p' = p + s t + v x t
+    final float tx = 2 * (this.v[1] * z - this.v[2] * y);
+    final float ty = 2 * (this.v[2] * x - this.v[0] * z);
+    final float tz = 2 * (this.v[0] * y - this.v[1] * x);
+    vector[offset] = x + this.s * tx + this.v[1] * tz - this.v[2] * ty;
+    vector[offset + 1] = y + this.s * ty + this.v[2] * tx - this.v[0] * tz;
+    vector[offset + 2] = z + this.s * tz + this.v[0] * ty - this.v[1] * tx;
+  }
+
+  /**
+   * Returns the scalar component of this quaternion.
+   * 
+   * @return The scalar component of this quaternion.
+   */
+  public float s() {
+    return this.s;
+  }
+
   /**
    * Sets the components of this quaternion to the specified values.
    * 
@@ -131,52 +251,267 @@ public class Quaternion {
    * @param v2
    *          The third vector component of this quaternion.
    */
-  private void set(float s, float v0, float v1, float v2) {
+  public void set(float s, float v0, float v1, float v2) {
     this.s = s;
     this.v[0] = v0;
     this.v[1] = v1;
     this.v[2] = v2;
   }
 
+  /**
+   * Sets the components of this quaternion to those of the specified other
+   * quaternion.
+   * 
+   * @param that
+   *          The quaternion to copy.
+   */
+  public void set(final Quaternion that) {
+    this.set(that.s, that.v[0], that.v[1], that.v[2]);
+  }
+
+  /**
+   * Sets this quaternion to represent a rotation by the specified angle
+   * around the specified axis.
+   * 
+   * @param x
+   *          The x component of the axis, which must be unit length.
+   * @param y
+   *          The y component of the axis.
+   * @param z
+   *          The z component of the axis.
+   * @param angle
+   *          The angle of rotation, in radians.
+   */
+  public void setFromAxisAngle(final float x, final float y, final float z,
+      final float angle) {
+    final float sin = (float) Math.sin(0.5 * angle);
+    this.set((float) Math.cos(0.5 * angle), sin * x, sin * y, sin * z);
+  }
+
+  /**
+   * Sets this quaternion to represent rotations around the x, y, and z axes,
+   * in that order, with the same convention as the joint angles of a
+   * {@link Component}: the rotation is the same as that of calling
+   * {@code glRotated(xAngle, 1, 0, 0)}, {@code glRotated(yAngle, 0, 1, 0)},
+   * and {@code glRotated(zAngle, 0, 0, 1)} on the identity matrix.
+   * 
+   * @param xAngle
+   *          The angle of rotation around the x axis, in degrees.
+   * @param yAngle
+   *          The angle of rotation around the y axis, in degrees.
+   * @param zAngle
+   *          The angle of rotation around the z axis, in degrees.
+   */
+  public void setFromEuler(final double xAngle, final double yAngle,
+      final double zAngle) {
+    final double hx = Math.toRadians(xAngle) / 2;
+    final double hy = Math.toRadians(yAngle) / 2;
+    final double hz = Math.toRadians(zAngle) / 2;
+    final double cx = Math.cos(hx);
+    final double sx = Math.sin(hx);
+    final double cy = Math.cos(hy);
+    final double sy = Math.sin(hy);
+    final double cz = Math.cos(hz);
+    final double sz = Math.sin(hz);
+
+    // the product qx * qy * qz
+    this.set((float) (cx * cy * cz - sx * sy * sz),
+        (float) (sx * cy * cz + cx * sy * sz),
+        (float) (cx * sy * cz - sx * cy * sz),
+        (float) (sx * sy * cz + cx * cy * sz));
+  }
+
+  /**
+   * Sets this quaternion to the product of the two specified quaternions,
+   * given by their components.
+   * 
+   * @param s1
+   *          The scalar component of the left operand.
+   * @param a1
+   *          The first vector component of the left operand.
+   * @param b1
+   *          The second vector component of the left operand.
+   * @param c1
+   *          The third vector component of the left operand.
+   * @param s2
+   *          The scalar component of the right operand.
+   * @param a2
+   *          The first vector component of the right operand.
+   * @param b2
+   *          The second vector component of the right operand.
+   * @param c2
+   *          The third vector component of the right operand.
+   */
+  private void setProduct(final float s1, final float a1, final float b1,
+      final float c1, final float s2, final float a2, final float b2,
+      final float c2) {
+    // s = s1*s2 - v1.v2, v = s1 v2 + s2 v1 + v1 x v2
+    this.set(s1 * s2 - a1 * a2 - b1 * b2 - c1 * c2, s1 * a2 + s2 * a1 + b1 * c2
+        - c1 * b2, s1 * b2 + s2 * b1 + c1 * a2 - a1 * c2, s1 * c2 + s2 * c1
+        + a1 * b2 - b1 * a2);
+  }
+
+  /**
+   * Sets this quaternion to the spherical linear interpolation between the
+   * specified unit quaternions, taking the shorter path, without allocating.
+   * 
+   * Either of the specified quaternions may be this quaternion.
+   * 
+   * @param from
+   *          The quaternion at parameter 0.
+   * @param to
+   *          The quaternion at parameter 1.
+   * @param t
+   *          The interpolation parameter, between 0 and 1.
+   */
+  public void slerp(final Quaternion from, final Quaternion to, final float t) {
+    float cosine = from.dot(to);
+    final float sign = cosine < 0 ? -1 : 1;
+    cosine *= sign;
+
+    final float a;
+    final float b;
+    if (cosine > 1 - ROUND_OFF_THRESHOLD) {
+      // the quaternions are nearly parallel, so interpolate linearly
+      a = 1 - t;
+      b = t;
+    } else {
+      final double angle = Math.acos(cosine);
+      final double inverseSin = 1 / Math.sin(angle);
+      a = (float) (Math.sin((1 - t) * angle) * inverseSin);
+      b = (float) (Math.sin(t * angle) * inverseSin);
+    }
+    this.set(a * from.s + sign * b * to.s, a * from.v[0] + sign * b
+        * to.v[0], a * from.v[1] + sign * b * to.v[1], a * from.v[2] + sign
+        * b * to.v[2]);
+    this.normalize();
+  }
+
+  /**
+   * Stores the Euler angles of the rotation which this unit quaternion
+   * represents in the specified array, with the convention of
+   * {@link #setFromEuler(double, double, double)}.
+   * 
+   * The y angle is between -90 and 90 degrees. Near either limit the x and z
+   * rotations are about almost the same axis, so only their combination is
+   * well determined; the z angle is computed first, and taken to be zero when
+   * the cosine of the y angle is below {@link #GIMBAL_LOCK_THRESHOLD}, and the
+   * x angle is then solved from the remaining rotation, so the angles always
+   * reproduce this rotation to within round off.
+   * 
+   * @param dst
+   *          The array in which to store the x, y, and z angles, in degrees.
+   * @param offset
+   *          The offset of the angles within the array.
+   */
+  public void toEuler(final double[] dst, final int offset) {
+    final double s = this.s;
+    final double a = this.v[0];
+    final double b = this.v[1];
+    final double c = this.v[2];
+
+    // elements of the rotation matrix Rx * Ry * Rz, as in toMatrix()
+    final double r00 = 1 - 2 * b * b - 2 * c * c;
+    final double r01 = 2 * a * b - 2 * s * c;
+    final double r02 = 2 * a * c + 2 * s * b;
+    final double r10 = 2 * a * b + 2 * s * c;
+    final double r11 = 1 - 2 * a * a - 2 * c * c;
+    final double r20 = 2 * a * c - 2 * s * b;
+    final double r21 = 2 * b * c + 2 * s * a;
+
+    // the first row is (cos y cos z, -cos y sin z, sin y)
+    final double cosY = Math.sqrt(r00 * r00 + r01 * r01);
+    final double z = cosY < GIMBAL_LOCK_THRESHOLD ? 0 : Math.atan2(-r01, r00);
+
+    // the second column of R * Rz(-z) = Rx * Ry is (0, cos x, sin x)
+    final double sinZ = Math.sin(z);
+    final double cosZ = Math.cos(z);
+    dst[offset] = Math.toDegrees(Math.atan2(r20 * sinZ + r21 * cosZ, r10
+        * sinZ + r11 * cosZ));
+    dst[offset + 1] = Math.toDegrees(Math.atan2(r02, cosY));
+    dst[offset + 2] = Math.toDegrees(z);
+  }
+
   /**
    * Returns a 4 by 4 matrix which represents a transformation equivalent to
    * that of this quaternion.
    * 
    * Note: OpenGL uses column major order when specifying a matrix.
    * 
-   * Algorithm: follows equation 5-107 on page 273 of Hearn and Baker.
-   * 
-   * @return
+   * @return A new array containing the matrix, in column major order.
+   * @see #toMatrix(float[], int)
    */
   public float[] toMatrix() {
     final float[] M = new float[16];
+    this.toMatrix(M, 0);
+    return M;
+  }
 
+  /**
+   * Stores a 4 by 4 matrix which represents a transformation equivalent to
+   * that of this quaternion in the specified array, without allocating.
+   * 
+   * Note: OpenGL uses column major order when specifying a matrix.
+   * 
+   * Algorithm: follows equation 5-107 on page 273 of Hearn and Baker.
+   * 
+   * @param M
+   *          The array in which to store the matrix, in column major order.
+   * @param offset
+   *          The offset of the matrix within the array.
+   */
+  public void toMatrix(final float[] M, final int offset) {
     final float a = this.v[0];
     final float b = this.v[1];
     final float c = this.v[2];
 
     // Specify the matrix in column major
-    M[0] = 1 - 2 * b * b - 2 * c * c; // M[0][0]
-    M[1] = 2 * a * b + 2 * this.s * c; // M[1][0]
-    M[2] = 2 * a * c - 2 * this.s * b; // M[2][0]
-    M[3] = 0.0f; // M[3][0]
-
-    M[4] = 2 * a * b - 2 * this.s * c; // M[0][1]
-    M[5] = 1 - 2 * a * a - 2 * c * c; // M[1][1]
-    M[6] = 2 * b * c + 2 * this.s * a; // M[2][1]
-    M[7] = 0.0f; // M[3][1]
-
-    M[8] = 2 * a * c + 2 * this.s * b; // M[0][2]
-    M[9] = 2 * b * c - 2 * this.s * a; // M[1][2]
-    M[10] = 1 - 2 * a * a - 2 * b * b; // M[2][2]
-    M[11] = 0.0f; // M[3][2]
-
-    M[12] = 0.0f; // M[0][3]
-    M[13] = 0.0f; // M[1][3]
-    M[14] = 0.0f; // M[2][3]
-    M[15] = 1.0f; // M[3][3]
+    M[offset] = 1 - 2 * b * b - 2 * c * c; // M[0][0]
+    M[offset + 1] = 2 * a * b + 2 * this.s * c; // M[1][0]
+    M[offset + 2] = 2 * a * c - 2 * this.s * b; // M[2][0]
+    M[offset + 3] = 0.0f; // M[3][0]
 
-    return M;
+    M[offset + 4] = 2 * a * b - 2 * this.s * c; // M[0][1]
+    M[offset + 5] = 1 - 2 * a * a - 2 * c * c; // M[1][1]
+    M[offset + 6] = 2 * b * c + 2 * this.s * a; // M[2][1]
+    M[offset + 7] = 0.0f; // M[3][1]
+
+    M[offset + 8] = 2 * a * c + 2 * this.s * b; // M[0][2]
+    M[offset + 9] = 2 * b * c - 2 * this.s * a; // M[1][2]
+    M[offset + 10] = 1 - 2 * a * a - 2 * b * b; // M[2][2]
+    M[offset + 11] = 0.0f; // M[3][2]
+
+    M[offset + 12] = 0.0f; // M[0][3]
+    M[offset + 13] = 0.0f; // M[1][3]
+    M[offset + 14] = 0.0f; // M[2][3]
+    M[offset + 15] = 1.0f; // M[3][3]
+  }
+
+  /**
+   * Returns the first vector component of this quaternion.
+   * 
+   * @return The first vector component of this quaternion.
+   */
+  public float v0() {
+    return this.v[0];
+  }
+
+  /**
+   * Returns the second vector component of this quaternion.
+   * 
+   * @return The second vector component of this quaternion.
+   */
+  public float v1() {
+    return this.v[1];
+  }
+
+  /**
+   * Returns the third vector component of this quaternion.
+   * 
+   * @return The third vector component of this quaternion.
+   */
+  public float v2() {
+    return this.v[2];
   }
 
 }
@@ -0,0 +1,375 @@
+/**
+ * RecordingRenderBackend.java - records drawing commands into flat arrays
+ */
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link RenderBackend} which records the commands of each frame into flat
+ * arrays instead of drawing them, and counts the commands it receives.
+ *
+ * Each command is recorded as an opcode in an {@code int} array, followed by
+ * its integer operands, and its floating point operands are appended to a
+ * separate {@code float} array. A draw command refers to its displayable by a
+ * mesh ID, so all the {@link Circular} shapes with the same
+ * {@link GeometryKey} share one ID. The arrays are reused from frame to frame
+ * and only grow, so recording a frame does not allocate once they are large
+ * enough.
+ *
+ * This backend requires no OpenGL context, so it can be used to run the scene
+ * headlessly, for example in tests and benchmarks (see {@link HeadlessRender}).
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class RecordingRenderBackend implements RenderBackend {
+  /**
+   * The opcode of a draw command, followed by the mesh ID and the color ID in
+   * the command array and the red, green, and blue components of the color in
+   * the operand array.
+   */
+  public static final int DRAW = 0;
+  /**
+   * The opcode of a matrix multiplication, followed by the 16 elements of the
+   * matrix in the operand array.
+   */
+  public static final int MULT_MATRIX = 1;
+  /** The opcode of a pop of the matrix stack. */
+  public static final int POP_MATRIX = 2;
+  /** The opcode of a push of the matrix stack. */
+  public static final int PUSH_MATRIX = 3;
+  /** The number of distinct opcodes. */
+  public static final int OPCODE_COUNT = 4;
+
+  /**
+   * Resolves the geometry key of the specified displayable, if it draws a
+   * {@link Circular} shape.
+   *
+   * @param displayable
+   *          The displayable object.
+   * @return The geometry key of the shape drawn by the displayable, or
+   *         {@code null} if it does not draw a circular shape.
+   */
+  private static GeometryKey geometryKey(final Displayable displayable) {
+    if (displayable instanceof Circular) {
+      return ((Circular) displayable).geometryKey();
+    }
+    if (displayable instanceof VertexBufferDisplayable) {
+      return ((VertexBufferDisplayable) displayable).shape().geometryKey();
+    }
+    return null;
+  }
+
+  /** The first color seen with each color ID, indexed by ID. */
+  private final List<FloatColor> colors = new ArrayList<FloatColor>();
+  /** The opcodes and integer operands recorded in the current frame. */
+  private int[] commands = new int[256];
+  /** The number of elements used in the command array. */
+  private int commandLength = 0;
+  /** The number of commands with each opcode in the current frame. */
+  private final int[] frameCounts = new int[OPCODE_COUNT];
+  /** The number of frames recorded. */
+  private long frames = 0;
+  /** The color ID of each distinct color, resolved the first time. */
+  private final Map<FloatColor, Integer> idsByColor = new IdentityHashMap<FloatColor, Integer>();
+  /** The mesh ID of each distinct displayable, resolved the first time. */
+  private final Map<Displayable, Integer> idsByDisplayable = new IdentityHashMap<Displayable, Integer>();
+  /** The mesh ID of each distinct geometry. */
+  private final Map<GeometryKey, Integer> idsByGeometry = new HashMap<GeometryKey, Integer>();
+  /** The first displayable seen with each mesh ID, indexed by ID. */
+  private final List<Displayable> meshes = new ArrayList<Displayable>();
+  /** The floating point operands recorded in the current frame. */
+  private float[] operands = new float[1024];
+  /** The number of elements used in the operand array. */
+  private int operandLength = 0;
+  /** The depth of the matrix stack. */
+  private int stackDepth = 0;
+  /** The number of commands with each opcode in all frames. */
+  private final long[] totalCounts = new long[OPCODE_COUNT];
+
+  /**
+   * Clears the commands recorded in the previous frame.
+   *
+   * @throws IllegalStateException
+   *           If the previous frame left the matrix stack unbalanced.
+   */
+  @Override
+  public void beginFrame() {
+    if (this.stackDepth != 0) {
+      throw new IllegalStateException("Unbalanced matrix stack: "
+          + this.stackDepth);
+    }
+    this.commandLength = 0;
+    this.operandLength = 0;
+    for (int i = 0; i < OPCODE_COUNT; ++i) {
+      this.frameCounts[i] = 0;
+    }
+  }
+
+  /**
+   * Gets the color ID of the specified color, assigning a new ID the first
+   * time a distinct color object is seen.
+   *
+   * @param color
+   *          The color.
+   * @return The color ID of the color.
+   */
+  private int colorId(final FloatColor color) {
+    Integer id = this.idsByColor.get(color);
+    if (id == null) {
+      id = this.colors.size();
+      this.colors.add(color);
+      this.idsByColor.put(color, id);
+    }
+    return id;
+  }
+
+  /**
+   * Gets the array of opcodes and integer operands recorded in the current
+   * frame; only the first {@link #commandLength()} elements are meaningful.
+   *
+   * @return The array of opcodes and integer operands.
+   */
+  public int[] commands() {
+    return this.commands;
+  }
+
+  /**
+   * Gets the number of meaningful elements in the command array.
+   *
+   * @return The number of meaningful elements in the command array.
+   */
+  public int commandLength() {
+    return this.commandLength;
+  }
+
+  /**
+   * Records a draw command for the specified displayable in the specified
+   * color.
+   *
+   * @param displayable
+   *          {@inheritDoc}
+   * @param color
+   *          {@inheritDoc}
+   */
+  @Override
+  public void draw(final Displayable displayable, final FloatColor color) {
+    this.record(DRAW, 2, 3);
+    this.commands[this.commandLength++] = this.meshId(displayable);
+    this.commands[this.commandLength++] = this.colorId(color);
+    this.operands[this.operandLength++] = color.red();
+    this.operands[this.operandLength++] = color.green();
+    this.operands[this.operandLength++] = color.blue();
+  }
+
+  /**
+   * Finishes the current frame.
+   *
+   * @throws IllegalStateException
+   *           If the frame left the matrix stack unbalanced.
+   */
+  @Override
+  public void endFrame() {
+    if (this.stackDepth != 0) {
+      throw new IllegalStateException("Unbalanced matrix stack: "
+          + this.stackDepth);
+    }
+    ++this.frames;
+  }
+
+  /**
+   * Gets the number of commands with the specified opcode in the current
+   * frame.
+   *
+   * @param opcode
+   *          The opcode.
+   * @return The number of commands with the specified opcode.
+   */
+  public int frameCount(final int opcode) {
+    return this.frameCounts[opcode];
+  }
+
+  /**
+   * Gets the number of frames recorded.
+   *
+   * @return The number of frames recorded.
+   */
+  public long frames() {
+    return this.frames;
+  }
+
+  /**
+   * Gets the displayable with the specified mesh ID.
+   *
+   * @param id
+   *          The mesh ID.
+   * @return The first displayable recorded with the specified mesh ID.
+   */
+  public Displayable mesh(final int id) {
+    return this.meshes.get(id);
+  }
+
+  /**
+   * Gets the number of distinct meshes recorded.
+   *
+   * @return The number of distinct meshes recorded.
+   */
+  public int meshCount() {
+    return this.meshes.size();
+  }
+
+  /**
+   * Gets the mesh ID of the specified displayable, assigning a new ID the
+   * first time a displayable with a distinct geometry is seen.
+   *
+   * @param displayable
+   *          The displayable object.
+   * @return The mesh ID of the displayable.
+   */
+  private int meshId(final Displayable displayable) {
+    Integer id = this.idsByDisplayable.get(displayable);
+    if (id == null) {
+      final GeometryKey key = geometryKey(displayable);
+      id = key == null ? null : this.idsByGeometry.get(key);
+      if (id == null) {
+        id = this.meshes.size();
+        this.meshes.add(displayable);
+        if (key != null) {
+          this.idsByGeometry.put(key, id);
+        }
+      }
+      this.idsByDisplayable.put(displayable, id);
+    }
+    return id;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param matrix
+   *          {@inheritDoc}
+   * @param offset
+   *          {@inheritDoc}
+   */
+  @Override
+  public void multMatrix(final float[] matrix, final int offset) {
+    this.record(MULT_MATRIX, 0, Matrix4.SIZE);
+    System.arraycopy(matrix, offset, this.operands, this.operandLength,
+        Matrix4.SIZE);
+    this.operandLength += Matrix4.SIZE;
+  }
+
+  /**
+   * Gets the array of floating point operands recorded in the current frame;
+   * only the first {@link #operandLength()} elements are meaningful.
+   *
+   * @return The array of floating point operands.
+   */
+  public float[] operands() {
+    return this.operands;
+  }
+
+  /**
+   * Gets the number of meaningful elements in the operand array.
+   *
+   * @return The number of meaningful elements in the operand array.
+   */
+  public int operandLength() {
+    return this.operandLength;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void popMatrix() {
+    this.record(POP_MATRIX, 0, 0);
+    --this.stackDepth;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void pushMatrix() {
+    this.record(PUSH_MATRIX, 0, 0);
+    ++this.stackDepth;
+  }
+
+  /**
+   * Appends the specified opcode to the command array, after making room for
+   * it and the specified numbers of integer and floating point operands, and
+   * counts it.
+   *
+   * @param opcode
+   *          The opcode of the command.
+   * @param commandCount
+   *          The number of integer operands of the command.
+   * @param operandCount
+   *          The number of floating point operands of the command.
+   */
+  private void record(final int opcode, final int commandCount,
+      final int operandCount) {
+    if (this.commandLength + 1 + commandCount > this.commands.length) {
+      final int[] newCommands = new int[2 * this.commands.length];
+      System.arraycopy(this.commands, 0, newCommands, 0, this.commandLength);
+      this.commands = newCommands;
+    }
+    if (this.operandLength + operandCount > this.operands.length) {
+      final float[] newOperands = new float[2 * this.operands.length];
+      System.arraycopy(this.operands, 0, newOperands, 0, this.operandLength);
+      this.operands = newOperands;
+    }
+    this.commands[this.commandLength++] = opcode;
+    ++this.frameCounts[opcode];
+    ++this.totalCounts[opcode];
+  }
+
+  /**
+   * Issues the commands recorded in the current frame to the specified
+   * backend, in order, as a single frame.
+   *
+   * @param backend
+   *          The backend to which to issue the commands.
+   */
+  public void replay(final RenderBackend backend) {
+    backend.beginFrame();
+    int operand = 0;
+    for (int command = 0; command < this.commandLength;) {
+      switch (this.commands[command++]) {
+      case DRAW:
+        backend.draw(this.meshes.get(this.commands[command]), this.colors
+            .get(this.commands[command + 1]));
+        command += 2;
+        operand += 3;
+        break;
+      case MULT_MATRIX:
+        backend.multMatrix(this.operands, operand);
+        operand += Matrix4.SIZE;
+        break;
+      case POP_MATRIX:
+        backend.popMatrix();
+        break;
+      case PUSH_MATRIX:
+        backend.pushMatrix();
+        break;
+      default:
+        throw new IllegalStateException("Unknown opcode: "
+            + this.commands[command - 1]);
+      }
+    }
+    backend.endFrame();
+  }
+
+  /**
+   * Gets the number of commands with the specified opcode in all frames.
+   *
+   * @param opcode
+   *          The opcode.
+   * @return The number of commands with the specified opcode.
+   */
+  public long totalCount(final int opcode) {
+    return this.totalCounts[opcode];
+  }
+}
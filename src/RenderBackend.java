@@ -0,0 +1,61 @@
+/**
+ * RenderBackend.java - a target for the drawing commands of a scene
+ */
+
+
+/**
+ * A target for the commands issued while drawing a tree of components: matrix
+ * stack operations, colors, and the displayable objects to draw.
+ *
+ * Traversing the scene against this interface instead of against an OpenGL
+ * object (see {@link Component#render(RenderBackend)}) allows the same scene
+ * to be drawn with OpenGL, recorded, counted, or rasterized in software,
+ * without a window or an OpenGL context.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public interface RenderBackend {
+
+  /**
+   * Prepares this backend to receive the commands of a new frame.
+   */
+  void beginFrame();
+
+  /**
+   * Draws the specified displayable object in the specified color, using the
+   * current transformation.
+   *
+   * @param displayable
+   *          The object to draw.
+   * @param color
+   *          The color in which to draw the object.
+   */
+  void draw(final Displayable displayable, final FloatColor color);
+
+  /**
+   * Finishes the current frame.
+   */
+  void endFrame();
+
+  /**
+   * Multiplies the current transformation by the specified matrix.
+   *
+   * @param matrix
+   *          The array containing the matrix, in column major order.
+   * @param offset
+   *          The offset of the matrix within the array.
+   */
+  void multMatrix(final float[] matrix, final int offset);
+
+  /**
+   * Restores the transformation saved by the matching call to
+   * {@link #pushMatrix()}.
+   */
+  void popMatrix();
+
+  /**
+   * Saves the current transformation.
+   */
+  void pushMatrix();
+}
@@ -0,0 +1,44 @@
+/**
+ * RenderMode.java - the way in which the scene is drawn with OpenGL
+ */
+
+
+/**
+ * The way in which the scene is drawn with OpenGL, selected when the program
+ * starts.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public enum RenderMode {
+  /**
+   * Each component compiles a call list when it changes, and the scene is
+   * drawn by calling the call list of the top level component.
+   */
+  CALL_LIST,
+  /**
+   * The world transformations of all the components are computed on the CPU,
+   * and all the components which share a mesh are drawn with instanced draw
+   * calls (see {@link InstancedRenderer}).
+   */
+  INSTANCED,
+  /**
+   * The shapes are drawn from vertex and index buffer objects while the
+   * component tree is traversed every frame.
+   */
+  VERTEX_BUFFER;
+
+  /**
+   * Gets the render mode with the specified name, ignoring case and allowing
+   * hyphens in place of underscores.
+   *
+   * @param name
+   *          The name of the render mode, for example {@code vertex-buffer}.
+   * @return The render mode with the specified name.
+   * @throws IllegalArgumentException
+   *           If there is no render mode with the specified name.
+   */
+  public static RenderMode forName(final String name) {
+    return valueOf(name.trim().replace('-', '_').toUpperCase());
+  }
+}
@@ -0,0 +1,129 @@
+/**
+ * RollingHistogram.java - percentiles of the most recent samples
+ */
+
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent samples of a quantity, such as the time taken by each
+ * of the last few hundred frames, and computes their percentiles and maximum,
+ * so that the statistics follow changes in behavior instead of being diluted
+ * by everything recorded since the program started.
+ *
+ * Samples are kept in a ring, so recording one is constant time and does not
+ * allocate; percentiles are computed on request by sorting a copy of the
+ * ring, which is cheap for the window sizes used here. One thread may record
+ * samples while others read the statistics.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class RollingHistogram {
+  /** The number of samples recorded since the last reset. */
+  private long count = 0;
+  /** The index in the ring at which to record the next sample. */
+  private int next = 0;
+  /** The ring of the most recent samples. */
+  private final long[] samples;
+  /** The scratch array in which the samples are sorted. */
+  private final long[] sorted;
+
+  /**
+   * Instantiates this histogram over the specified number of most recent
+   * samples.
+   *
+   * @param window
+   *          The number of samples kept.
+   * @throws IllegalArgumentException
+   *           If the window is not positive.
+   */
+  public RollingHistogram(final int window) {
+    if (window <= 0) {
+      throw new IllegalArgumentException("Invalid window " + window);
+    }
+    this.samples = new long[window];
+    this.sorted = new long[window];
+  }
+
+  /**
+   * Gets the number of samples recorded since this histogram was created or
+   * reset, including those which have left the window.
+   *
+   * @return The number of samples recorded.
+   */
+  public synchronized long count() {
+    return this.count;
+  }
+
+  /**
+   * Gets the largest of the samples in the window.
+   *
+   * @return The maximum sample, or 0 if there are none.
+   */
+  public synchronized long max() {
+    final int size = this.size();
+    long max = 0;
+    for (int i = 0; i < size; ++i) {
+      max = Math.max(max, this.samples[i]);
+    }
+    return max;
+  }
+
+  /**
+   * Gets the specified percentile of the samples in the window, the smallest
+   * sample which is at least as large as that percentage of the samples.
+   *
+   * @param percentile
+   *          The percentile, between 0 and 100.
+   * @return The sample at the percentile, or 0 if there are none.
+   */
+  public synchronized long percentile(final double percentile) {
+    final int size = this.size();
+    if (size == 0) {
+      return 0;
+    }
+    System.arraycopy(this.samples, 0, this.sorted, 0, size);
+    Arrays.sort(this.sorted, 0, size);
+    final int rank = (int) Math.ceil(percentile / 100 * size);
+    return this.sorted[Math.max(0, Math.min(size - 1, rank - 1))];
+  }
+
+  /**
+   * Records a sample, replacing the oldest one if the window is full.
+   *
+   * @param sample
+   *          The sample.
+   */
+  public synchronized void record(final long sample) {
+    this.samples[this.next] = sample;
+    this.next = this.next + 1 == this.samples.length ? 0 : this.next + 1;
+    ++this.count;
+  }
+
+  /**
+   * Discards every sample.
+   */
+  public synchronized void reset() {
+    this.count = 0;
+    this.next = 0;
+  }
+
+  /**
+   * Gets the number of samples in the window.
+   *
+   * @return The number of samples kept, at most the window.
+   */
+  private int size() {
+    return (int) Math.min(this.count, this.samples.length);
+  }
+
+  /**
+   * Gets the maximum number of samples kept.
+   *
+   * @return The window.
+   */
+  public int window() {
+    return this.samples.length;
+  }
+}
@@ -25,11 +25,6 @@ public class RoundedCylinder extends Circular implements Displayable {
    */
   public static final int DEFAULT_STACKS = 28;
 
-  /**
-   * The OpenGL handle to the display list which contains all the components
-   * which comprise this cylinder.
-   */
-  private int callListHandle;
   /** The height of this cylinder. */
   private final double height;
 
@@ -53,30 +48,13 @@ public class RoundedCylinder extends Circular implements Displayable {
   }
 
   /**
-   * {@inheritDoc}
+   * Draws the cylinder and the sphere at its top.
    * 
    * @param gl
    *          {@inheritDoc}
-   * @see edu.bu.cs.cs480.Displayable#draw(javax.media.opengl.GL)
    */
   @Override
-  public void draw(final GL2 gl) {
-    gl.glCallList(this.callListHandle);
-  }
-
-  /**
-   * {@inheritDoc}
-   * 
-   * @param gl
-   *          {@inheritDoc}
-   * @see edu.bu.cs.cs480.Displayable#initialize(javax.media.opengl.GL)
-   */
-  @Override
-  public void initialize(final GL2 gl) {
-    this.callListHandle = gl.glGenLists(1);
-
-    gl.glNewList(this.callListHandle, GL2.GL_COMPILE);
-
+  protected void compile(final GL2 gl) {
     this.glut().glutSolidCylinder(this.radius(), this.height, DEFAULT_SLICES,
         DEFAULT_STACKS);
 
@@ -84,7 +62,30 @@ public class RoundedCylinder extends Circular implements Displayable {
     gl.glTranslated(0, 0, this.height);
     this.glut().glutSolidSphere(this.radius(), DEFAULT_SLICES, DEFAULT_STACKS);
     gl.glPopMatrix();
+  }
 
-    gl.glEndList();
+  /**
+   * {@inheritDoc}
+   * 
+   * @return {@inheritDoc}
+   */
+  @Override
+  public GeometryKey geometryKey() {
+    return new GeometryKey(GeometryKey.Shape.ROUNDED_CYLINDER, this.radius(),
+        this.height, DEFAULT_SLICES, DEFAULT_STACKS);
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @param slices
+   *          {@inheritDoc}
+   * @param stacks
+   *          {@inheritDoc}
+   * @return {@inheritDoc}
+   */
+  @Override
+  public Mesh tessellate(final int slices, final int stacks) {
+    return Tessellator.capsule(this.radius(), this.height, slices, stacks);
   }
 }
@@ -0,0 +1,189 @@
+/**
+ * ScalarTransformKernels.java - batch transform operations with scalar loops
+ */
+
+
+/**
+ * The implementation of the {@link TransformKernels} with plain scalar loops,
+ * which is used when the Java Vector API is not available.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class ScalarTransformKernels extends TransformKernels {
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param parents
+   *          {@inheritDoc}
+   * @param locals
+   *          {@inheritDoc}
+   * @param worlds
+   *          {@inheritDoc}
+   * @param count
+   *          {@inheritDoc}
+   */
+  @Override
+  public void composeHierarchy(final int[] parents, final float[] locals,
+      final float[] worlds, final int count) {
+    for (int i = 0; i < count; ++i) {
+      final int offset = i * Matrix4.SIZE;
+      if (parents[i] < 0) {
+        Matrix4.copy(locals, offset, worlds, offset);
+      } else {
+        Matrix4.multiply(worlds, parents[i] * Matrix4.SIZE, locals, offset,
+            worlds, offset);
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param a
+   *          {@inheritDoc}
+   * @param aOffset
+   *          {@inheritDoc}
+   * @param b
+   *          {@inheritDoc}
+   * @param bOffset
+   *          {@inheritDoc}
+   * @param dst
+   *          {@inheritDoc}
+   * @param dstOffset
+   *          {@inheritDoc}
+   * @param count
+   *          {@inheritDoc}
+   */
+  @Override
+  public void multiplyMatrices(final float[] a, final int aOffset,
+      final float[] b, final int bOffset, final float[] dst,
+      final int dstOffset, final int count) {
+    for (int i = 0; i < count; ++i) {
+      final int offset = i * Matrix4.SIZE;
+      Matrix4.multiply(a, aOffset + offset, b, bOffset + offset, dst,
+          dstOffset + offset);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param a
+   *          {@inheritDoc}
+   * @param aOffset
+   *          {@inheritDoc}
+   * @param b
+   *          {@inheritDoc}
+   * @param bOffset
+   *          {@inheritDoc}
+   * @param dst
+   *          {@inheritDoc}
+   * @param dstOffset
+   *          {@inheritDoc}
+   * @param count
+   *          {@inheritDoc}
+   */
+  @Override
+  public void multiplyQuaternions(final float[] a, final int aOffset,
+      final float[] b, final int bOffset, final float[] dst,
+      final int dstOffset, final int count) {
+    for (int i = 0; i < count; ++i) {
+      final int j = aOffset + i * QUATERNION_STRIDE;
+      final int k = bOffset + i * QUATERNION_STRIDE;
+      final float s1 = a[j], a1 = a[j + 1], b1 = a[j + 2], c1 = a[j + 3];
+      final float s2 = b[k], a2 = b[k + 1], b2 = b[k + 2], c2 = b[k + 3];
+
+      // s = s1*s2 - v1.v2, v = s1 v2 + s2 v1 + v1 x v2
+      final int d = dstOffset + i * QUATERNION_STRIDE;
+      dst[d] = s1 * s2 - a1 * a2 - b1 * b2 - c1 * c2;
+      dst[d + 1] = s1 * a2 + s2 * a1 + b1 * c2 - c1 * b2;
+      dst[d + 2] = s1 * b2 + s2 * b1 + c1 * a2 - a1 * c2;
+      dst[d + 3] = s1 * c2 + s2 * c1 + a1 * b2 - b1 * a2;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @return {@inheritDoc}
+   */
+  @Override
+  public String name() {
+    return "scalar";
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param quaternions
+   *          {@inheritDoc}
+   * @param offset
+   *          {@inheritDoc}
+   * @param count
+   *          {@inheritDoc}
+   */
+  @Override
+  public void normalizeQuaternions(final float[] quaternions,
+      final int offset, final int count) {
+    for (int i = 0; i < count; ++i) {
+      final int j = offset + i * QUATERNION_STRIDE;
+      final float s = quaternions[j];
+      final float a = quaternions[j + 1];
+      final float b = quaternions[j + 2];
+      final float c = quaternions[j + 3];
+      final float norm = (float) Math.sqrt(s * s + a * a + b * b + c * c);
+      if (norm > Quaternion.ROUND_OFF_THRESHOLD) {
+        quaternions[j] = s / norm;
+        quaternions[j + 1] = a / norm;
+        quaternions[j + 2] = b / norm;
+        quaternions[j + 3] = c / norm;
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param quaternions
+   *          {@inheritDoc}
+   * @param offset
+   *          {@inheritDoc}
+   * @param matrices
+   *          {@inheritDoc}
+   * @param matrixOffset
+   *          {@inheritDoc}
+   * @param count
+   *          {@inheritDoc}
+   */
+  @Override
+  public void quaternionsToMatrices(final float[] quaternions,
+      final int offset, final float[] matrices, final int matrixOffset,
+      final int count) {
+    for (int i = 0; i < count; ++i) {
+      final int j = offset + i * QUATERNION_STRIDE;
+      final float s = quaternions[j];
+      final float a = quaternions[j + 1];
+      final float b = quaternions[j + 2];
+      final float c = quaternions[j + 3];
+      final int m = matrixOffset + i * Matrix4.SIZE;
+      matrices[m] = 1 - 2 * b * b - 2 * c * c;
+      matrices[m + 1] = 2 * a * b + 2 * s * c;
+      matrices[m + 2] = 2 * a * c - 2 * s * b;
+      matrices[m + 3] = 0;
+      matrices[m + 4] = 2 * a * b - 2 * s * c;
+      matrices[m + 5] = 1 - 2 * a * a - 2 * c * c;
+      matrices[m + 6] = 2 * b * c + 2 * s * a;
+      matrices[m + 7] = 0;
+      matrices[m + 8] = 2 * a * c + 2 * s * b;
+      matrices[m + 9] = 2 * b * c - 2 * s * a;
+      matrices[m + 10] = 1 - 2 * a * a - 2 * b * b;
+      matrices[m + 11] = 0;
+      matrices[m + 12] = 0;
+      matrices[m + 13] = 0;
+      matrices[m + 14] = 0;
+      matrices[m + 15] = 1;
+    }
+  }
+}
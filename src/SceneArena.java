@@ -0,0 +1,199 @@
+/**
+ * SceneArena.java - contiguous storage for the state of many components
+ */
+
+
+/**
+ * Storage for the positions, angles, rotation extents, parent indices, and
+ * transformations of many {@link Component}s in contiguous primitive arrays.
+ *
+ * Each component created with an arena is assigned the next free node index,
+ * and is a thin view over the elements of these arrays at that index. The
+ * arrays are allocated once, up front, for the specified capacity, so no
+ * array is ever reallocated while components refer to it.
+ *
+ * The nodes are in topological order: a component in an arena only accepts a
+ * child from the same arena which was allocated after it (see
+ * {@link Component#addChild(Component)}), so every parent precedes its
+ * children, and a scene must be built from the top down.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class SceneArena {
+  /** The number of elements per node in the array of angles. */
+  public static final int ANGLE_STRIDE = 3;
+  /** The number of elements per node in the array of extents. */
+  public static final int EXTENT_STRIDE = 6;
+  /** The parent index of a node which has no parent. */
+  public static final int NO_PARENT = -1;
+  /** The number of elements per node in the array of positions. */
+  public static final int POSITION_STRIDE = 3;
+  /** The number of elements per node in each array of transformations. */
+  public static final int TRANSFORM_STRIDE = Matrix4.SIZE;
+
+  /**
+   * Sets the specified extents to their default values, allowing a full turn
+   * in either direction around each of the three axes.
+   *
+   * The extents are stored in the order x negative, x positive, y negative, y
+   * positive, z negative, z positive.
+   *
+   * @param extents
+   *          The array of extents.
+   * @param offset
+   *          The offset of the six extents within the array.
+   */
+  static void setDefaultExtents(final double[] extents, final int offset) {
+    for (int i = 0; i < EXTENT_STRIDE; i += 2) {
+      extents[offset + i] = -360;
+      extents[offset + i + 1] = 360;
+    }
+  }
+
+  /** The x, y, and z angles of each node. */
+  private final double[] angles;
+  /** The maximum number of nodes which can be stored in this arena. */
+  private final int capacity;
+  /** The six rotation extents of each node. */
+  private final double[] extents;
+  /** The local transformation of each node. */
+  private final float[] localTransforms;
+  /** The index of the parent of each node, or {@link #NO_PARENT}. */
+  private final int[] parents;
+  /** The x, y, and z components of the position of each node. */
+  private final double[] positions;
+  /** The number of nodes which have been allocated in this arena. */
+  private int size = 0;
+  /** The world transformation of each node. */
+  private final float[] worldTransforms;
+
+  /**
+   * Instantiates this arena with room for the specified number of nodes.
+   *
+   * @param capacity
+   *          The maximum number of nodes which can be stored in this arena.
+   */
+  public SceneArena(final int capacity) {
+    this.capacity = capacity;
+    this.angles = new double[capacity * ANGLE_STRIDE];
+    this.extents = new double[capacity * EXTENT_STRIDE];
+    this.localTransforms = new float[capacity * TRANSFORM_STRIDE];
+    this.parents = new int[capacity];
+    this.positions = new double[capacity * POSITION_STRIDE];
+    this.worldTransforms = new float[capacity * TRANSFORM_STRIDE];
+  }
+
+  /**
+   * Allocates a new node at the specified position, with angles of zero,
+   * default extents, and no parent.
+   *
+   * @param position
+   *          The position of the new node.
+   * @return The index of the new node.
+   * @throws IllegalStateException
+   *           If this arena is full.
+   */
+  int allocate(final Point3D position) {
+    if (this.size == this.capacity) {
+      throw new IllegalStateException("Scene arena is full: capacity is "
+          + this.capacity);
+    }
+    final int index = this.size++;
+    this.positions[index * POSITION_STRIDE] = position.x();
+    this.positions[index * POSITION_STRIDE + 1] = position.y();
+    this.positions[index * POSITION_STRIDE + 2] = position.z();
+    setDefaultExtents(this.extents, index * EXTENT_STRIDE);
+    this.parents[index] = NO_PARENT;
+    return index;
+  }
+
+  /**
+   * Gets the array of the angles of all nodes, {@link #ANGLE_STRIDE} elements
+   * per node.
+   *
+   * @return The array of the angles of all nodes.
+   */
+  double[] angles() {
+    return this.angles;
+  }
+
+  /**
+   * Gets the maximum number of nodes which can be stored in this arena.
+   *
+   * @return The maximum number of nodes which can be stored in this arena.
+   */
+  public int capacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Gets the array of the extents of all nodes, {@link #EXTENT_STRIDE}
+   * elements per node.
+   *
+   * @return The array of the extents of all nodes.
+   */
+  double[] extents() {
+    return this.extents;
+  }
+
+  /**
+   * Gets the array of the local transformations of all nodes,
+   * {@link #TRANSFORM_STRIDE} elements per node.
+   *
+   * @return The array of the local transformations of all nodes.
+   */
+  float[] localTransforms() {
+    return this.localTransforms;
+  }
+
+  /**
+   * Gets the index of the parent of the specified node.
+   *
+   * @param index
+   *          The index of the node.
+   * @return The index of the parent of the node, or {@link #NO_PARENT} if it
+   *         has no parent in this arena.
+   */
+  public int parent(final int index) {
+    return this.parents[index];
+  }
+
+  /**
+   * Gets the array of the parent indices of all nodes.
+   *
+   * @return The array of the parent indices of all nodes.
+   */
+  int[] parents() {
+    return this.parents;
+  }
+
+  /**
+   * Gets the array of the positions of all nodes, {@link #POSITION_STRIDE}
+   * elements per node.
+   *
+   * @return The array of the positions of all nodes.
+   */
+  double[] positions() {
+    return this.positions;
+  }
+
+  /**
+   * Gets the number of nodes which have been allocated in this arena.
+   *
+   * @return The number of nodes which have been allocated in this arena.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Gets the array of the world transformations of all nodes,
+   * {@link #TRANSFORM_STRIDE} elements per node.
+   *
+   * @return The array of the world transformations of all nodes.
+   */
+  float[] worldTransforms() {
+    return this.worldTransforms;
+  }
+}
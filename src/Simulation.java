@@ -0,0 +1,428 @@
+/**
+ * Simulation.java - steps the spider at a fixed rate on its own thread
+ */
+
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.jogamp.opengl.util.gl2.GLUT;//for new version of gl
+
+/**
+ * Steps the animation and walking of a spider at a fixed rate on a dedicated
+ * thread, independently of the rate at which the scene is drawn, and hands the
+ * resulting poses to the thread which draws the scene through a
+ * {@link PoseTripleBuffer}.
+ *
+ * The simulation owns a headless {@link SpiderModel} of its own, which is only
+ * touched by the simulation thread; changes requested by other threads, such
+ * as the event dispatch thread, are queued with {@link #submit(Runnable)} and
+ * run at the start of the next step. After each batch of steps which changes
+ * the pose, the angles of every component are published as a
+ * {@link PoseSnapshot} stamped with the simulated instant, and the listener,
+ * if any, is told. While nothing is moving the thread sleeps until the next
+ * command, which it then runs at once. The drawing thread calls
+ * {@link #apply(Component[], long)}, which poses the components of the model
+ * it draws by interpolating between the two latest snapshots it has seen, one
+ * step behind the present, so motion stays smooth whatever the two rates, and
+ * neither a stalled frame nor a slow step holds up the other thread.
+ *
+ * If the simulation falls more than {@link #MAX_LAG_STEPS} steps behind, for
+ * example after the computer sleeps, the missed time is dropped rather than
+ * simulated in a burst.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class Simulation {
+  /** The default number of steps per second. */
+  public static final int DEFAULT_RATE = 120;
+  /** The number of steps behind after which missed time is dropped. */
+  public static final int MAX_LAG_STEPS = 12;
+
+  /** The animator of transitions between poses. */
+  private final PoseAnimator animator;
+  /** The buffer through which poses are handed to the drawing thread. */
+  private final PoseTripleBuffer buffer;
+  /** The changes waiting to be run by the simulation thread. */
+  private final Queue<Runnable> commands = new ConcurrentLinkedQueue<Runnable>();
+  /** The components of the simulated model, in the order of the snapshots. */
+  private final Component[] components;
+  /** The latest snapshot, copied by the drawing thread. */
+  private final PoseSnapshot current;
+  /** The layer of {@link #eyeMixer} on which the pupils follow a target. */
+  private final int eyeLayer;
+  /** The mixer which blends the angles of the two pupils. */
+  private final AnimationMixer eyeMixer;
+  /** The generator of the walk of the legs, or {@code null} when standing. */
+  private GaitGenerator gaitGenerator = null;
+  /** The interpolation last applied by the drawing thread. */
+  private double lastFraction = -1;
+  /** The sequence of the snapshot last applied by the drawing thread. */
+  private long lastSequence = -1;
+  /** The action run after each pose is published, or {@code null}. */
+  private volatile Runnable listener = null;
+  /** The simulated model. */
+  private final SpiderModel model;
+  /** The snapshot before the latest, kept by the drawing thread. */
+  private final PoseSnapshot previous;
+  /** The number of poses published so far. */
+  private long publishCount = 0;
+  /** Whether the simulation thread should keep running. */
+  private volatile boolean running = false;
+  /** The number of steps simulated so far. */
+  private volatile long stepCount = 0;
+  /** The thread which runs the simulation, or {@code null} if stopped. */
+  private volatile Thread thread = null;
+  /** The duration of each step, in nanoseconds. */
+  private final long timestepNanos;
+
+  /**
+   * Instantiates this simulation of a new spider model at the default rate.
+   */
+  public Simulation() {
+    this(DEFAULT_RATE);
+  }
+
+  /**
+   * Instantiates this simulation of a new spider model at the specified rate.
+   *
+   * @param rate
+   *          The number of steps per second.
+   * @throws IllegalArgumentException
+   *           If the rate is not positive.
+   */
+  public Simulation(final int rate) {
+    if (rate <= 0) {
+      throw new IllegalArgumentException("Invalid rate " + rate);
+    }
+    this.timestepNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+    this.model = new SpiderModel(new GLUT());
+    this.animator = new PoseAnimator(this.model);
+    this.components = this.model.components().toArray(
+        new Component[this.model.components().size()]);
+    final long start = System.nanoTime();
+    this.buffer = new PoseTripleBuffer(this.components.length);
+    this.buffer.initialize(this.components, start);
+    this.current = new PoseSnapshot(this.components.length);
+    this.current.capture(this.components, start, 0);
+    this.previous = new PoseSnapshot(this.components.length);
+    this.previous.copyFrom(this.current);
+
+    // the pupils follow a target on a layer of their own
+    this.eyeMixer = new AnimationMixer(
+        this.component(SpiderModel.LEFT_PUPIL_NAME),
+        this.component(SpiderModel.RIGHT_PUPIL_NAME));
+    this.eyeLayer = this.eyeMixer.addLayer();
+  }
+
+  /**
+   * Poses the specified components by interpolating between the latest
+   * snapshots, as they were at the specified instant less one step. Only the
+   * drawing thread may call this method.
+   *
+   * @param targets
+   *          The components to pose, corresponding one to one with the
+   *          components of the simulated model, such as the
+   *          {@link SpiderModel#components()} of another spider model.
+   * @param nanoTime
+   *          The present instant, from {@link System#nanoTime()}.
+   * @return Whether the pose of the components may have changed since the
+   *         last call.
+   */
+  public boolean apply(final Component[] targets, final long nanoTime) {
+    // the latest snapshot may be handed back to the writer on the next call,
+    // so the two being interpolated are copied while they are held
+    final PoseSnapshot latest = this.buffer.latest();
+    if (latest.sequence() != this.current.sequence()) {
+      this.previous.copyFrom(this.current);
+      this.current.copyFrom(latest);
+    }
+
+    final long span = this.current.nanoTime() - this.previous.nanoTime();
+    double fraction = 1;
+    if (span > 0) {
+      fraction = (double) (nanoTime - this.timestepNanos - this.previous
+          .nanoTime())
+          / span;
+      fraction = Math.max(0, Math.min(1, fraction));
+    }
+    if (fraction == this.lastFraction
+        && this.current.sequence() == this.lastSequence) {
+      return false;
+    }
+    this.lastFraction = fraction;
+    this.lastSequence = this.current.sequence();
+    PoseSnapshot.interpolate(this.previous, this.current, fraction, targets);
+    return true;
+  }
+
+  /**
+   * Gets the gait in which the simulated spider walks.
+   *
+   * Only the simulation thread, including commands, may call this method.
+   *
+   * @return The gait, or {@code null} if the spider is standing.
+   */
+  public Gait gait() {
+    return this.gaitGenerator == null ? null : this.gaitGenerator.gait();
+  }
+
+  /**
+   * Gets the simulated model, which only the simulation thread, including
+   * commands, may touch.
+   *
+   * @return The simulated model.
+   */
+  public SpiderModel model() {
+    return this.model;
+  }
+
+  /**
+   * Returns whether nothing will change until a command is submitted: no
+   * transition is in progress, the spider is not walking, and no commands are
+   * waiting.
+   *
+   * @return Whether the simulation is idle.
+   */
+  private boolean isIdle() {
+    return !this.animator.isAnimating() && this.gaitGenerator == null
+        && this.commands.isEmpty();
+  }
+
+  /**
+   * Runs the simulation until it is stopped, stepping whenever a step is due,
+   * publishing the pose after each batch of steps which changed it, and
+   * sleeping until the next step is due, or, when idle, until a command is
+   * submitted.
+   */
+  private void run() {
+    long next = System.nanoTime() + this.timestepNanos;
+    while (this.running) {
+      boolean changed = false;
+      for (Runnable command; (command = this.commands.poll()) != null;) {
+        command.run();
+        changed = true;
+      }
+
+      long now = System.nanoTime();
+      if (now - next > MAX_LAG_STEPS * this.timestepNanos) {
+        next = now;
+      }
+      while (now - next >= 0) {
+        changed |= this.step();
+        next += this.timestepNanos;
+      }
+      if (changed) {
+        this.buffer.back().capture(this.components,
+            next - this.timestepNanos, ++this.publishCount);
+        this.buffer.publish();
+        final Runnable listener = this.listener;
+        if (listener != null) {
+          listener.run();
+        }
+      }
+
+      if (this.isIdle()) {
+        // wait for a command, which is then run without waiting for a step
+        LockSupport.park(this);
+        next = System.nanoTime() + this.timestepNanos;
+      } else {
+        LockSupport.parkNanos(this, next - System.nanoTime());
+      }
+    }
+  }
+
+  /**
+   * Returns whether the pose last applied by {@link #apply(Component[], long)}
+   * was partway between two snapshots, so that applying again later would
+   * change it. Only the drawing thread may call this method.
+   *
+   * @return Whether the applied pose has not yet reached the latest snapshot.
+   */
+  public boolean isInterpolating() {
+    return this.lastFraction < 1;
+  }
+
+  /**
+   * Gets the component of the simulated model with the specified name.
+   *
+   * @param name
+   *          The name of the component.
+   * @return The first component with that name.
+   * @throws IllegalStateException
+   *           If the model has no component with that name.
+   */
+  private Component component(final String name) {
+    for (final Component component : this.components) {
+      if (name.equals(component.name())) {
+        return component;
+      }
+    }
+    throw new IllegalStateException("The model has no component named "
+        + name);
+  }
+
+  /**
+   * Queues a request to turn the pupils of the simulated spider to the
+   * specified angles, by blending them on the eye tracking layer of the
+   * mixer of the pupils.
+   *
+   * @param x
+   *          The angle of the pupils around the x axis, in degrees.
+   * @param y
+   *          The angle of the pupils around the y axis, in degrees.
+   */
+  public void lookAt(final double x, final double y) {
+    this.submit(new Runnable() {
+      @Override
+      public void run() {
+        final AnimationMixer mixer = Simulation.this.eyeMixer;
+        final int layer = Simulation.this.eyeLayer;
+        for (int j = 0; j < mixer.jointCount(); ++j) {
+          mixer.setAngles(layer, j, x, y, 0);
+        }
+        mixer.apply();
+      }
+    });
+  }
+
+  /**
+   * Sets the action run on the simulation thread after each pose is
+   * published, such as a request to draw a frame.
+   *
+   * @param listener
+   *          The action, or {@code null} for none.
+   */
+  public void setListener(final Runnable listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Queues a request to make the simulated spider walk in the specified
+   * gait, starting from its current pose, or to stop walking.
+   *
+   * @param gait
+   *          The gait, or {@code null} to stop walking.
+   */
+  public void setGait(final Gait gait) {
+    this.submit(new Runnable() {
+      @Override
+      public void run() {
+        if (gait == null) {
+          Simulation.this.gaitGenerator = null;
+        } else if (Simulation.this.gaitGenerator == null) {
+          Simulation.this.gaitGenerator = new GaitGenerator(
+              Simulation.this.model, gait);
+          Simulation.this.gaitGenerator.setTimestep(
+              Simulation.this.timestepNanos * 1e-9);
+        } else {
+          Simulation.this.gaitGenerator.setGait(gait);
+        }
+      }
+    });
+  }
+
+  /**
+   * Starts the simulation thread, if it is not already running.
+   */
+  public synchronized void start() {
+    if (this.thread != null) {
+      return;
+    }
+    this.running = true;
+    this.thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        Simulation.this.run();
+      }
+    }, "simulation");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Advances the animation and walking of the simulated spider by one step.
+   *
+   * @return Whether the pose of the spider may have changed.
+   */
+  private boolean step() {
+    boolean changed = this.animator.update(this.timestepNanos * 1e-9);
+    if (this.gaitGenerator != null) {
+      this.gaitGenerator.step();
+      changed = true;
+    }
+    ++this.stepCount;
+    return changed;
+  }
+
+  /**
+   * Gets the number of steps simulated so far.
+   *
+   * @return The number of steps simulated.
+   */
+  public long stepCount() {
+    return this.stepCount;
+  }
+
+  /**
+   * Stops the simulation thread and waits for it to finish its current step.
+   */
+  public synchronized void stop() {
+    if (this.thread == null) {
+      return;
+    }
+    this.running = false;
+    LockSupport.unpark(this.thread);
+    try {
+      this.thread.join();
+    } catch (final InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+    this.thread = null;
+  }
+
+  /**
+   * Queues a change to be run by the simulation thread at the start of its
+   * next step, waking it at once if it is idle; the change may touch the
+   * {@link #model()}. Any thread may call this method.
+   *
+   * @param command
+   *          The change to run.
+   */
+  public void submit(final Runnable command) {
+    this.commands.add(command);
+    final Thread thread = this.thread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * Gets the duration of each step.
+   *
+   * @return The duration of each step, in seconds.
+   */
+  public double timestep() {
+    return this.timestepNanos * 1e-9;
+  }
+
+  /**
+   * Queues a smooth transition of the simulated spider to the specified pose.
+   *
+   * @param state
+   *          The angles of each of the joints, keyed by joint name as in
+   *          {@link TestCases}.
+   */
+  public void transitionTo(final Map<String, Angled> state) {
+    this.submit(new Runnable() {
+      @Override
+      public void run() {
+        Simulation.this.animator.transitionTo(state);
+      }
+    });
+  }
+}
@@ -0,0 +1,103 @@
+/**
+ * SoftwareRender.java - rasterizes the spider in software and saves images
+ */
+
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import com.jogamp.opengl.util.gl2.GLUT;//for new version of gl
+
+/**
+ * Builds the same spider model as {@link PA2} and rasterizes it with a
+ * {@link SoftwareRenderBackend}, without a window, OpenGL, or a GPU.
+ *
+ * The model is drawn for a number of frames while cycling through the poses of
+ * the {@link TestCases}, and then the frames per second, in total and per
+ * rasterizer thread, are printed. If an output directory is given, one image
+ * of each pose is written into it, for use as a thumbnail or a regression
+ * image.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class SoftwareRender {
+  /** The default number of frames to draw. */
+  public static final int DEFAULT_FRAMES = 300;
+  /** The default width and height of the images, in pixels. */
+  public static final int DEFAULT_SIZE = PA2.DEFAULT_WINDOW_WIDTH;
+  /** The number of frames for which each pose is held. */
+  public static final int FRAMES_PER_POSE = 30;
+
+  /**
+   * Draws the spider model with the software rasterizer.
+   *
+   * @param args
+   *          The number of frames to draw, the width and height of the
+   *          images, the number of rasterizer threads, and the directory in
+   *          which to write the images of the poses, each of which is
+   *          optional.
+   * @throws IOException
+   *           If an image cannot be written.
+   */
+  public static void main(final String[] args) throws IOException {
+    final int frames = args.length > 0 ? Integer.parseInt(args[0])
+        : DEFAULT_FRAMES;
+    final int size = args.length > 1 ? Integer.parseInt(args[1])
+        : DEFAULT_SIZE;
+    final int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime
+        .getRuntime().availableProcessors();
+    final File directory = args.length > 3 ? new File(args[3]) : null;
+
+    final SpiderModel model = new SpiderModel(new GLUT());
+    final TestCases testCases = new TestCases();
+    final SoftwareRenderBackend backend = new SoftwareRenderBackend(size,
+        size, threads);
+    try {
+      for (int frame = 0; frame < frames; ++frame) {
+        if (frame % FRAMES_PER_POSE == 0) {
+          model.setModelState(testCases.next());
+        }
+        render(model, backend);
+      }
+      System.out.println("frames:         " + backend.frames());
+      System.out.println("size:           " + size + "x" + size);
+      System.out.println("threads:        " + backend.threads());
+      System.out.println("frames/s:       " + backend.framesPerSecond());
+      System.out.println("frames/s/core:  " + backend.framesPerSecondPerCore());
+
+      if (directory != null) {
+        directory.mkdirs();
+        final Map<String, Angled> first = testCases.next();
+        Map<String, Angled> pose = first;
+        int index = 0;
+        do {
+          model.setModelState(pose);
+          render(model, backend);
+          final File file = new File(directory, "pose-" + index++ + ".png");
+          backend.writeImage(file);
+          System.out.println("wrote " + file);
+          pose = testCases.next();
+        } while (pose != first);
+      }
+    } finally {
+      backend.shutdown();
+    }
+  }
+
+  /**
+   * Draws one frame of the specified model into the specified backend.
+   *
+   * @param model
+   *          The model to draw.
+   * @param backend
+   *          The backend into which to draw.
+   */
+  private static void render(final SpiderModel model,
+      final RenderBackend backend) {
+    backend.beginFrame();
+    model.topLevelComponent().render(backend);
+    backend.endFrame();
+  }
+}
@@ -0,0 +1,760 @@
+/**
+ * SoftwareRenderBackend.java - rasterizes the scene in software, in parallel
+ */
+
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+/**
+ * A {@link RenderBackend} which rasterizes the scene in pure Java into an
+ * {@code int} framebuffer, without OpenGL.
+ *
+ * The camera and the lighting are the same as those set up by
+ * {@link PA2#init(javax.media.opengl.GLAutoDrawable)} and
+ * {@link PA2#reshape(javax.media.opengl.GLAutoDrawable, int, int, int, int)}:
+ * a perspective projection looking down the negative z axis from a distance of
+ * 12, and one directional light with ambient and diffuse terms, evaluated at
+ * each vertex and interpolated across each triangle (Gouraud shading). The
+ * color of each component is its material, as with
+ * {@code GL_COLOR_MATERIAL}.
+ *
+ * While a frame is drawn, the vertices of each shape are transformed and lit on
+ * the calling thread, and each resulting triangle is binned into the square
+ * tiles of the screen which its bounding box overlaps. When the frame ends,
+ * the tiles are rasterized in parallel by a fixed pool of threads; each tile
+ * owns its region of the color and depth buffers, so no synchronization is
+ * needed between the threads.
+ *
+ * Shapes are drawn from the meshes produced by {@link Circular#tessellate()},
+ * which are shared by all the shapes with the same {@link GeometryKey}; other
+ * displayable objects are ignored.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class SoftwareRenderBackend implements RenderBackend {
+
+  /**
+   * The geometry of a mesh copied into arrays for fast access.
+   *
+   * @author Tian Chen
+   * @since Fall 2020
+   */
+  private static final class MeshData {
+    /** The indices of the vertices of each triangle. */
+    final int[] indices;
+    /** The x, y, and z components of the normal at each vertex. */
+    final float[] normals;
+    /** The x, y, and z components of the position of each vertex. */
+    final float[] positions;
+    /** The number of vertices. */
+    final int vertexCount;
+
+    /**
+     * Copies the geometry of the specified mesh.
+     *
+     * @param mesh
+     *          The mesh to copy.
+     */
+    MeshData(final Mesh mesh) {
+      this.vertexCount = mesh.vertexCount();
+      final FloatBuffer vertices = mesh.vertices().duplicate();
+      vertices.rewind();
+      this.positions = new float[vertices.remaining()];
+      vertices.get(this.positions);
+      final FloatBuffer normals = mesh.normals().duplicate();
+      normals.rewind();
+      this.normals = new float[normals.remaining()];
+      normals.get(this.normals);
+      final IntBuffer indices = mesh.indices().duplicate();
+      indices.rewind();
+      this.indices = new int[mesh.indexCount()];
+      indices.get(this.indices);
+    }
+  }
+
+  /** The ambient light, the global ambient plus the ambient of the light. */
+  public static final float AMBIENT = 0.2f + 0.25f;
+  /** The color to which the framebuffer is cleared, opaque black. */
+  public static final int CLEAR_COLOR = 0xFF000000;
+  /** The diffuse intensity of the light. */
+  public static final float DIFFUSE = 1;
+  /** The distance from the camera to the origin. */
+  public static final double EYE_DISTANCE = 12;
+  /** The distance to the far clipping plane. */
+  public static final double FAR = 100;
+  /** The vertical field of view, in degrees. */
+  public static final double FIELD_OF_VIEW = 25;
+  /** The distance to the near clipping plane. */
+  public static final double NEAR = 0.1;
+  /** The width and height of a tile, in pixels. */
+  public static final int TILE_SIZE = 32;
+
+  /** The normalized direction towards the light, in eye coordinates. */
+  private static final float LIGHT = (float) (1 / Math.sqrt(3));
+  /** The maximum depth of the matrix stack. */
+  private static final int MAX_STACK_DEPTH = 64;
+  /**
+   * The number of floats per binned triangle: the screen x, y, and depth of
+   * each vertex, followed by the red, green, and blue of each vertex.
+   */
+  private static final int TRIANGLE_STRIDE = 18;
+
+  /**
+   * Packs the specified color components into an opaque ARGB pixel.
+   *
+   * @param red
+   *          The red component, clamped to between 0 and 1.
+   * @param green
+   *          The green component, clamped to between 0 and 1.
+   * @param blue
+   *          The blue component, clamped to between 0 and 1.
+   * @return The packed pixel.
+   */
+  private static int pack(final float red, final float green,
+      final float blue) {
+    return CLEAR_COLOR | (toByte(red) << 16) | (toByte(green) << 8)
+        | toByte(blue);
+  }
+
+  /**
+   * Converts the specified color component to a byte.
+   *
+   * @param component
+   *          The color component, clamped to between 0 and 1.
+   * @return The color component scaled to between 0 and 255.
+   */
+  private static int toByte(final float component) {
+    if (component <= 0) {
+      return 0;
+    }
+    if (component >= 1) {
+      return 255;
+    }
+    return (int) (component * 255 + 0.5f);
+  }
+
+  /** The number of triangles in the bin of each tile in the current frame. */
+  private final int[] binCounts;
+  /** The indices of the triangles overlapping each tile. */
+  private final int[][] bins;
+  /** The color of each pixel, in rows from the top of the screen. */
+  private final int[] colorBuffer;
+  /** The depth of each pixel, in rows from the top of the screen. */
+  private final float[] depthBuffer;
+  /** The thread pool which rasterizes the tiles, if there is more than one. */
+  private final ExecutorService executor;
+  /** The time at which the current frame began, in nanoseconds. */
+  private long frameStart;
+  /** The number of frames drawn. */
+  private long frames = 0;
+  /** The height of the framebuffer, in pixels. */
+  private final int height;
+  /** The mesh data of each distinct displayable, resolved the first time. */
+  private final Map<Displayable, MeshData> meshesByDisplayable = new IdentityHashMap<Displayable, MeshData>();
+  /** The mesh data of each distinct geometry. */
+  private final Map<GeometryKey, MeshData> meshesByGeometry = new HashMap<GeometryKey, MeshData>();
+  /** The product of the projection and the current model view matrix. */
+  private final float[] modelViewProjection = new float[Matrix4.SIZE];
+  /** The index of the next tile to be rasterized in the current frame. */
+  private final AtomicInteger nextTile = new AtomicInteger();
+  /** The projection matrix. */
+  private final float[] projection = new float[Matrix4.SIZE];
+  /** The total time spent drawing frames, in nanoseconds. */
+  private long renderNanos = 0;
+  /** The depth of each transformed vertex of the current shape. */
+  private float[] screenDepths = new float[0];
+  /**
+   * The screen x and y of each transformed vertex of the current shape, or
+   * {@code NaN} if the vertex is behind the near clipping plane.
+   */
+  private float[] screenPositions = new float[0];
+  /** The matrix stack; the current model view matrix is on top. */
+  private final float[] stack = new float[MAX_STACK_DEPTH * Matrix4.SIZE];
+  /** The index of the current model view matrix on the stack. */
+  private int stackDepth = 0;
+  /** The number of threads which rasterize the tiles. */
+  private final int threads;
+  /** The number of tiles across the screen. */
+  private final int tilesAcross;
+  /** The number of triangles binned in the current frame. */
+  private int triangleCount = 0;
+  /** The screen positions and colors of the triangles of the current frame. */
+  private float[] triangles = new float[TRIANGLE_STRIDE * 1024];
+  /** The color components of each lit vertex of the current shape. */
+  private float[] vertexColors = new float[0];
+  /** The view matrix loaded at the beginning of each frame. */
+  private final float[] view = new float[Matrix4.SIZE];
+  /** The width of the framebuffer, in pixels. */
+  private final int width;
+  /** The tasks which rasterize tiles until there are none left. */
+  private final List<Callable<Void>> workers;
+
+  /**
+   * Instantiates this backend with a framebuffer of the specified size, using
+   * one thread per available processor.
+   *
+   * @param width
+   *          The width of the framebuffer, in pixels.
+   * @param height
+   *          The height of the framebuffer, in pixels.
+   */
+  public SoftwareRenderBackend(final int width, final int height) {
+    this(width, height, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Instantiates this backend with a framebuffer of the specified size,
+   * rasterized by the specified number of threads.
+   *
+   * @param width
+   *          The width of the framebuffer, in pixels.
+   * @param height
+   *          The height of the framebuffer, in pixels.
+   * @param threads
+   *          The number of threads which rasterize the tiles.
+   * @throws IllegalArgumentException
+   *           If any argument is not positive.
+   */
+  public SoftwareRenderBackend(final int width, final int height,
+      final int threads) {
+    if (width <= 0 || height <= 0 || threads <= 0) {
+      throw new IllegalArgumentException("Invalid size " + width + "x"
+          + height + " or thread count " + threads);
+    }
+    this.width = width;
+    this.height = height;
+    this.threads = threads;
+    this.colorBuffer = new int[width * height];
+    this.depthBuffer = new float[width * height];
+
+    this.tilesAcross = (width + TILE_SIZE - 1) / TILE_SIZE;
+    final int tileCount = this.tilesAcross
+        * ((height + TILE_SIZE - 1) / TILE_SIZE);
+    this.bins = new int[tileCount][64];
+    this.binCounts = new int[tileCount];
+
+    // the camera of PA2.reshape: a perspective projection, then looking at
+    // the origin from a distance along the positive z axis
+    final float[] camera = new float[Matrix4.SIZE];
+    Matrix4.setPerspective(camera, 0, FIELD_OF_VIEW, (double) width / height,
+        NEAR, FAR);
+    Matrix4.setTranslationRotation(this.projection, 0, 0, 0, -EYE_DISTANCE,
+        0, 0, 0);
+    Matrix4.multiply(camera, 0, this.projection, 0, this.projection, 0);
+    Matrix4.setIdentity(this.view, 0);
+
+    this.workers = new ArrayList<Callable<Void>>(threads);
+    for (int i = 0; i < threads; ++i) {
+      this.workers.add(new Callable<Void>() {
+        @Override
+        public Void call() {
+          SoftwareRenderBackend.this.rasterizeTiles();
+          return null;
+        }
+      });
+    }
+    this.executor = threads == 1 ? null : Executors.newFixedThreadPool(
+        threads, new ThreadFactory() {
+          private final AtomicInteger count = new AtomicInteger();
+
+          @Override
+          public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "rasterizer-"
+                + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+  }
+
+  /**
+   * Resets the matrix stack to the view matrix and clears the triangle bins.
+   */
+  @Override
+  public void beginFrame() {
+    this.frameStart = System.nanoTime();
+    this.stackDepth = 0;
+    Matrix4.copy(this.view, 0, this.stack, 0);
+    this.triangleCount = 0;
+    for (int i = 0; i < this.binCounts.length; ++i) {
+      this.binCounts[i] = 0;
+    }
+  }
+
+  /**
+   * Appends the specified triangle to the bin of the specified tile.
+   *
+   * @param tile
+   *          The index of the tile.
+   * @param triangle
+   *          The index of the triangle.
+   */
+  private void bin(final int tile, final int triangle) {
+    int[] bin = this.bins[tile];
+    if (this.binCounts[tile] == bin.length) {
+      final int[] newBin = new int[2 * bin.length];
+      System.arraycopy(bin, 0, newBin, 0, bin.length);
+      this.bins[tile] = bin = newBin;
+    }
+    bin[this.binCounts[tile]++] = triangle;
+  }
+
+  /**
+   * Gets the color buffer, whose pixels are opaque ARGB values in rows from
+   * the top of the screen.
+   *
+   * @return The color buffer.
+   */
+  public int[] colorBuffer() {
+    return this.colorBuffer;
+  }
+
+  /**
+   * Transforms, lights, and bins the triangles of the specified displayable.
+   *
+   * @param displayable
+   *          {@inheritDoc}
+   * @param color
+   *          {@inheritDoc}
+   */
+  @Override
+  public void draw(final Displayable displayable, final FloatColor color) {
+    final MeshData mesh = this.meshData(displayable);
+    if (mesh == null) {
+      return;
+    }
+    final float[] m = this.stack;
+    final int o = this.stackDepth * Matrix4.SIZE;
+    final float[] mvp = this.modelViewProjection;
+    Matrix4.multiply(this.projection, 0, m, o, mvp, 0);
+
+    final int vertexCount = mesh.vertexCount;
+    if (this.screenDepths.length < vertexCount) {
+      this.screenDepths = new float[vertexCount];
+      this.screenPositions = new float[2 * vertexCount];
+      this.vertexColors = new float[3 * vertexCount];
+    }
+    final float[] positions = mesh.positions;
+    final float[] normals = mesh.normals;
+    final float red = color.red();
+    final float green = color.green();
+    final float blue = color.blue();
+    final float halfWidth = 0.5f * this.width;
+    final float halfHeight = 0.5f * this.height;
+    for (int i = 0; i < vertexCount; ++i) {
+      final float x = positions[3 * i];
+      final float y = positions[3 * i + 1];
+      final float z = positions[3 * i + 2];
+      final float w = mvp[3] * x + mvp[7] * y + mvp[11] * z + mvp[15];
+      if (w <= NEAR) {
+        this.screenPositions[2 * i] = Float.NaN;
+        continue;
+      }
+      final float inverseW = 1 / w;
+      this.screenPositions[2 * i] = halfWidth
+          * (1 + inverseW
+              * (mvp[0] * x + mvp[4] * y + mvp[8] * z + mvp[12]));
+      this.screenPositions[2 * i + 1] = halfHeight
+          * (1 - inverseW
+              * (mvp[1] * x + mvp[5] * y + mvp[9] * z + mvp[13]));
+      this.screenDepths[i] = 0.5f
+          + 0.5f * inverseW
+          * (mvp[2] * x + mvp[6] * y + mvp[10] * z + mvp[14]);
+
+      // the normal in eye coordinates, assuming the model view matrix is
+      // a rigid transformation, then the lighting of GL_LIGHT0
+      final float nx = normals[3 * i];
+      final float ny = normals[3 * i + 1];
+      final float nz = normals[3 * i + 2];
+      final float ex = m[o] * nx + m[o + 4] * ny + m[o + 8] * nz;
+      final float ey = m[o + 1] * nx + m[o + 5] * ny + m[o + 9] * nz;
+      final float ez = m[o + 2] * nx + m[o + 6] * ny + m[o + 10] * nz;
+      final float length = (float) Math.sqrt(ex * ex + ey * ey + ez * ez);
+      final float cosine = length == 0 ? 0 : LIGHT * (ex + ey + ez) / length;
+      final float intensity = AMBIENT + DIFFUSE * Math.max(0, cosine);
+      this.vertexColors[3 * i] = red * intensity;
+      this.vertexColors[3 * i + 1] = green * intensity;
+      this.vertexColors[3 * i + 2] = blue * intensity;
+    }
+
+    final int[] indices = mesh.indices;
+    for (int i = 0; i < indices.length; i += 3) {
+      this.setUpTriangle(indices[i], indices[i + 1], indices[i + 2]);
+    }
+  }
+
+  /**
+   * Rasterizes the triangles binned in this frame into the framebuffer.
+   *
+   * @throws IllegalStateException
+   *           If the matrix stack is unbalanced, or if rasterization is
+   *           interrupted or fails.
+   */
+  @Override
+  public void endFrame() {
+    if (this.stackDepth != 0) {
+      throw new IllegalStateException("Unbalanced matrix stack: "
+          + this.stackDepth);
+    }
+    this.nextTile.set(0);
+    if (this.executor == null) {
+      this.rasterizeTiles();
+    } else {
+      try {
+        for (final Future<Void> future : this.executor.invokeAll(this.workers)) {
+          future.get();
+        }
+      } catch (final InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while rasterizing",
+            exception);
+      } catch (final ExecutionException exception) {
+        throw new IllegalStateException("Failed to rasterize",
+            exception.getCause());
+      }
+    }
+    ++this.frames;
+    this.renderNanos += System.nanoTime() - this.frameStart;
+  }
+
+  /**
+   * Gets the number of frames drawn.
+   *
+   * @return The number of frames drawn.
+   */
+  public long frames() {
+    return this.frames;
+  }
+
+  /**
+   * Gets the average number of frames drawn per second, measured from the
+   * beginning to the end of each frame.
+   *
+   * @return The average number of frames drawn per second.
+   */
+  public double framesPerSecond() {
+    return this.renderNanos == 0 ? 0 : this.frames * 1e9 / this.renderNanos;
+  }
+
+  /**
+   * Gets the average number of frames drawn per second divided by the number
+   * of rasterizer threads.
+   *
+   * @return The average number of frames drawn per second per thread.
+   */
+  public double framesPerSecondPerCore() {
+    return this.framesPerSecond() / this.threads;
+  }
+
+  /**
+   * Gets the height of the framebuffer.
+   *
+   * @return The height of the framebuffer, in pixels.
+   */
+  public int height() {
+    return this.height;
+  }
+
+  /**
+   * Gets the mesh data of the specified displayable, tessellating its shape
+   * the first time a distinct geometry is seen.
+   *
+   * @param displayable
+   *          The displayable object.
+   * @return The mesh data of the displayable, or {@code null} if it does not
+   *         draw a {@link Circular} shape.
+   */
+  private MeshData meshData(final Displayable displayable) {
+    MeshData mesh = this.meshesByDisplayable.get(displayable);
+    if (mesh == null) {
+      final Circular shape;
+      if (displayable instanceof Circular) {
+        shape = (Circular) displayable;
+      } else if (displayable instanceof VertexBufferDisplayable) {
+        shape = ((VertexBufferDisplayable) displayable).shape();
+      } else {
+        return null;
+      }
+      final GeometryKey key = shape.geometryKey();
+      mesh = this.meshesByGeometry.get(key);
+      if (mesh == null) {
+        mesh = new MeshData(shape.tessellate());
+        this.meshesByGeometry.put(key, mesh);
+      }
+      this.meshesByDisplayable.put(displayable, mesh);
+    }
+    return mesh;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param matrix
+   *          {@inheritDoc}
+   * @param offset
+   *          {@inheritDoc}
+   */
+  @Override
+  public void multMatrix(final float[] matrix, final int offset) {
+    final int top = this.stackDepth * Matrix4.SIZE;
+    final float[] product = this.modelViewProjection;
+    Matrix4.multiply(this.stack, top, matrix, offset, product, 0);
+    Matrix4.copy(product, 0, this.stack, top);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void popMatrix() {
+    if (this.stackDepth == 0) {
+      throw new IllegalStateException("Matrix stack underflow");
+    }
+    --this.stackDepth;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalStateException
+   *           If the matrix stack is full.
+   */
+  @Override
+  public void pushMatrix() {
+    if (this.stackDepth == MAX_STACK_DEPTH - 1) {
+      throw new IllegalStateException("Matrix stack overflow");
+    }
+    Matrix4.copy(this.stack, this.stackDepth * Matrix4.SIZE, this.stack,
+        (this.stackDepth + 1) * Matrix4.SIZE);
+    ++this.stackDepth;
+  }
+
+  /**
+   * Clears the specified tile and rasterizes the triangles in its bin.
+   *
+   * @param tile
+   *          The index of the tile.
+   */
+  private void rasterizeTile(final int tile) {
+    final int tileX = (tile % this.tilesAcross) * TILE_SIZE;
+    final int tileY = (tile / this.tilesAcross) * TILE_SIZE;
+    final int tileRight = Math.min(this.width, tileX + TILE_SIZE);
+    final int tileBottom = Math.min(this.height, tileY + TILE_SIZE);
+    final int[] colors = this.colorBuffer;
+    final float[] depths = this.depthBuffer;
+    for (int y = tileY; y < tileBottom; ++y) {
+      final int row = y * this.width;
+      for (int x = tileX; x < tileRight; ++x) {
+        colors[row + x] = CLEAR_COLOR;
+        depths[row + x] = 1;
+      }
+    }
+
+    final float[] t = this.triangles;
+    final int[] bin = this.bins[tile];
+    final int count = this.binCounts[tile];
+    for (int i = 0; i < count; ++i) {
+      final int b = bin[i] * TRIANGLE_STRIDE;
+      final float ax = t[b], ay = t[b + 1], az = t[b + 2];
+      final float bx = t[b + 3], by = t[b + 4], bz = t[b + 5];
+      final float cx = t[b + 6], cy = t[b + 7], cz = t[b + 8];
+      final float area = (bx - ax) * (cy - ay) - (cx - ax) * (by - ay);
+      if (area == 0) {
+        continue;
+      }
+      final float inverseArea = 1 / area;
+
+      final int minX = Math.max(tileX, (int) Math.min(ax, Math.min(bx, cx)));
+      final int maxX = Math.min(tileRight - 1,
+          (int) Math.max(ax, Math.max(bx, cx)));
+      final int minY = Math.max(tileY, (int) Math.min(ay, Math.min(by, cy)));
+      final int maxY = Math.min(tileBottom - 1,
+          (int) Math.max(ay, Math.max(by, cy)));
+
+      // the barycentric weights of a and b are linear in the pixel position;
+      // the weight of c is whatever remains
+      final float stepA = (by - cy) * inverseArea;
+      final float stepB = (cy - ay) * inverseArea;
+      for (int y = minY; y <= maxY; ++y) {
+        final float py = y + 0.5f;
+        final float px = minX + 0.5f;
+        float weightA = ((bx - px) * (cy - py) - (cx - px) * (by - py))
+            * inverseArea;
+        float weightB = ((cx - px) * (ay - py) - (ax - px) * (cy - py))
+            * inverseArea;
+        final int row = y * this.width;
+        for (int x = minX; x <= maxX; ++x, weightA += stepA, weightB += stepB) {
+          final float weightC = 1 - weightA - weightB;
+          if (weightA < 0 || weightB < 0 || weightC < 0) {
+            continue;
+          }
+          final float depth = weightA * az + weightB * bz + weightC * cz;
+          if (depth < 0 || depth >= depths[row + x]) {
+            continue;
+          }
+          depths[row + x] = depth;
+          colors[row + x] = pack(
+              weightA * t[b + 9] + weightB * t[b + 12] + weightC * t[b + 15],
+              weightA * t[b + 10] + weightB * t[b + 13] + weightC * t[b + 16],
+              weightA * t[b + 11] + weightB * t[b + 14] + weightC * t[b + 17]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Rasterizes tiles until none are left in the current frame.
+   */
+  private void rasterizeTiles() {
+    int tile = this.nextTile.getAndIncrement();
+    while (tile < this.bins.length) {
+      this.rasterizeTile(tile);
+      tile = this.nextTile.getAndIncrement();
+    }
+  }
+
+  /**
+   * Copies the transformed vertices with the specified indices into the
+   * triangle array, and bins the triangle into each tile which its bounding
+   * box overlaps, unless it is clipped or off the screen.
+   *
+   * @param a
+   *          The index of the first vertex.
+   * @param b
+   *          The index of the second vertex.
+   * @param c
+   *          The index of the third vertex.
+   */
+  private void setUpTriangle(final int a, final int b, final int c) {
+    final float[] p = this.screenPositions;
+    final float ax = p[2 * a], ay = p[2 * a + 1];
+    final float bx = p[2 * b], by = p[2 * b + 1];
+    final float cx = p[2 * c], cy = p[2 * c + 1];
+    if (Float.isNaN(ax) || Float.isNaN(bx) || Float.isNaN(cx)) {
+      return;
+    }
+    final int minX = Math.max(0, (int) Math.min(ax, Math.min(bx, cx)));
+    final int maxX = Math.min(this.width - 1,
+        (int) Math.max(ax, Math.max(bx, cx)));
+    final int minY = Math.max(0, (int) Math.min(ay, Math.min(by, cy)));
+    final int maxY = Math.min(this.height - 1,
+        (int) Math.max(ay, Math.max(by, cy)));
+    if (minX > maxX || minY > maxY) {
+      return;
+    }
+
+    if ((this.triangleCount + 1) * TRIANGLE_STRIDE > this.triangles.length) {
+      final float[] newTriangles = new float[2 * this.triangles.length];
+      System.arraycopy(this.triangles, 0, newTriangles, 0,
+          this.triangleCount * TRIANGLE_STRIDE);
+      this.triangles = newTriangles;
+    }
+    final float[] t = this.triangles;
+    final int o = this.triangleCount * TRIANGLE_STRIDE;
+    t[o] = ax;
+    t[o + 1] = ay;
+    t[o + 2] = this.screenDepths[a];
+    t[o + 3] = bx;
+    t[o + 4] = by;
+    t[o + 5] = this.screenDepths[b];
+    t[o + 6] = cx;
+    t[o + 7] = cy;
+    t[o + 8] = this.screenDepths[c];
+    System.arraycopy(this.vertexColors, 3 * a, t, o + 9, 3);
+    System.arraycopy(this.vertexColors, 3 * b, t, o + 12, 3);
+    System.arraycopy(this.vertexColors, 3 * c, t, o + 15, 3);
+
+    final int tilesDown = this.bins.length / this.tilesAcross;
+    final int firstColumn = minX / TILE_SIZE;
+    final int lastColumn = Math.min(this.tilesAcross - 1, maxX / TILE_SIZE);
+    final int lastRow = Math.min(tilesDown - 1, maxY / TILE_SIZE);
+    for (int row = minY / TILE_SIZE; row <= lastRow; ++row) {
+      for (int column = firstColumn; column <= lastColumn; ++column) {
+        this.bin(row * this.tilesAcross + column, this.triangleCount);
+      }
+    }
+    ++this.triangleCount;
+  }
+
+  /**
+   * Sets the view matrix, which is loaded onto the matrix stack at the
+   * beginning of each frame, like the viewing rotation of {@link PA2}.
+   *
+   * @param matrix
+   *          The array containing the view matrix, in column major order.
+   * @param offset
+   *          The offset of the view matrix within the array.
+   */
+  public void setView(final float[] matrix, final int offset) {
+    Matrix4.copy(matrix, offset, this.view, 0);
+  }
+
+  /**
+   * Stops the rasterizer threads; this backend must not be used afterwards.
+   */
+  public void shutdown() {
+    if (this.executor != null) {
+      this.executor.shutdown();
+    }
+  }
+
+  /**
+   * Gets the number of threads which rasterize the tiles.
+   *
+   * @return The number of rasterizer threads.
+   */
+  public int threads() {
+    return this.threads;
+  }
+
+  /**
+   * Copies the color buffer into a new image.
+   *
+   * @return An image of the last frame.
+   */
+  public BufferedImage toImage() {
+    final BufferedImage image = new BufferedImage(this.width, this.height,
+        BufferedImage.TYPE_INT_RGB);
+    image.setRGB(0, 0, this.width, this.height, this.colorBuffer, 0,
+        this.width);
+    return image;
+  }
+
+  /**
+   * Gets the width of the framebuffer.
+   *
+   * @return The width of the framebuffer, in pixels.
+   */
+  public int width() {
+    return this.width;
+  }
+
+  /**
+   * Writes the last frame to the specified file as a PNG image.
+   *
+   * @param file
+   *          The file to write.
+   * @throws IOException
+   *           If the file cannot be written.
+   */
+  public void writeImage(final File file) throws IOException {
+    ImageIO.write(this.toImage(), "png", file);
+  }
+}
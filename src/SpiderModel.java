@@ -0,0 +1,670 @@
+/**
+ * SpiderModel.java - the scene graph of the spider model
+ */
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.jogamp.opengl.util.gl2.GLUT;//for new version of gl
+
+/**
+ * The scene graph of the spider model: its bodies, its legs, and its eyes, with
+ * their positions and rotation limits.
+ * 
+ * This class does not require a window or an OpenGL context, so the model can
+ * be built, posed, and traversed headlessly.
+ * 
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class SpiderModel {
+  /** The height of the distal joint on each of the limbs. */
+  public static final double DISTAL_JOINT_HEIGHT = 0.2;
+  /** The radius of each joint which comprises the limb. */
+  public static final double LIMB_RADIUS = 0.09;
+  /** The radius of the body. */
+  public static final double BODY_RADIUS = 0.5;
+  /** The initial position of the top level component in the scene. */
+  public static final Point3D INITIAL_POSITION = new Point3D(0, 0, 0);
+  /** The height of the middle joint on each of the limbs. */
+  public static final double MIDDLE_JOINT_HEIGHT = 0.25;
+  /** The height of the palm joint on each of the limbs. */
+  public static final double LIMB_JOINT_HEIGHT = 0.25;
+
+  public static String INDEX_LIMB_NAME = "index limb";
+  public static String INDEX_MIDDLE_NAME = "index middle";
+  public static String INDEX_DISTAL_NAME = "index distal";
+  public static String RING_LIMB_NAME = "ring limb";
+  public static String RING_MIDDLE_NAME = "ring middle";
+  public static String RING_DISTAL_NAME = "ring distal";
+  public static String MIDDLE_LIMB_NAME = "middle limb";
+  public static String MIDDLE_MIDDLE_NAME = "middle middle";
+  public static String MIDDLE_DISTAL_NAME = "middle distal";
+  public static String PINKY_LIMB_NAME = "pinky limb";
+  public static String PINKY_MIDDLE_NAME = "pinky middle";
+  public static String PINKY_DISTAL_NAME = "pinky distal";
+  public static String CLAW_NAME = "claw";
+  public static String CLAW_MIDDLE_NAME = "claw middle";
+  public static String CLAW_DISTAL_NAME = "claw distal";
+  public static String LEFT_EYE_NAME = "left eye";
+  public static String LEFT_PUPIL_NAME = "left pupil";
+  public static String RIGHT_EYE_NAME = "right eye";
+  public static String RIGHT_PUPIL_NAME = "right pupil";
+  public static String LEFT_BODY_NAME = "left body";
+  public static String MIDDLE_BODY_NAME = "middle body";
+  public static String RIGHT_BODY_NAME = "right body";
+  public static String TOP_LEVEL_NAME = "top level";
+
+  /** The pose angles of a joint are applied as they are. */
+  private static final int DIRECT = 0;
+  /**
+   * The pose angles of a joint are mirrored to the other side of the body, as
+   * by {@link Component#setReverseAngles(Angled)}.
+   */
+  private static final int REVERSE = 1;
+  /**
+   * The pose angles of a joint are turned to face the claw on the other side
+   * of the body, as by {@link Component#setClawAngles(Angled)}.
+   */
+  private static final int CLAW = 2;
+  /** How the pose angles of each posed joint are applied to it. */
+  private static final int[] POSE_MAPPINGS = { DIRECT, DIRECT, DIRECT, DIRECT,
+      DIRECT, DIRECT, DIRECT, DIRECT, DIRECT, DIRECT, DIRECT, DIRECT, DIRECT,
+      DIRECT, REVERSE, DIRECT, DIRECT, REVERSE, DIRECT, DIRECT, REVERSE,
+      DIRECT, DIRECT, REVERSE, DIRECT, DIRECT, CLAW, DIRECT };
+  /** The name under which a pose gives the angles of each posed joint. */
+  private static final String[] POSE_NAMES = { PINKY_LIMB_NAME,
+      PINKY_MIDDLE_NAME, PINKY_DISTAL_NAME, RING_LIMB_NAME, RING_MIDDLE_NAME,
+      RING_DISTAL_NAME, MIDDLE_LIMB_NAME, MIDDLE_MIDDLE_NAME,
+      MIDDLE_DISTAL_NAME, INDEX_LIMB_NAME, INDEX_MIDDLE_NAME,
+      INDEX_DISTAL_NAME, CLAW_NAME, CLAW_MIDDLE_NAME, PINKY_LIMB_NAME,
+      PINKY_MIDDLE_NAME, PINKY_DISTAL_NAME, RING_LIMB_NAME, RING_MIDDLE_NAME,
+      RING_DISTAL_NAME, MIDDLE_LIMB_NAME, MIDDLE_MIDDLE_NAME,
+      MIDDLE_DISTAL_NAME, INDEX_LIMB_NAME, INDEX_MIDDLE_NAME,
+      INDEX_DISTAL_NAME, CLAW_NAME, CLAW_MIDDLE_NAME };
+  /** The number of joints whose angles are given by a pose. */
+  public static final int POSED_JOINT_COUNT = POSE_NAMES.length;
+  /**
+   * The number of joints which can be animated: the posed joints and the two
+   * pupils.
+   */
+  public static final int ANIMATED_JOINT_COUNT = POSED_JOINT_COUNT + 2;
+  /**
+   * The number of components in the model, including the top level component,
+   * which is the room the model takes in a {@link SceneArena}.
+   */
+  public static final int COMPONENT_COUNT = 38;
+
+  /**
+   * The joints which can be animated, in the order of
+   * {@link #animatedJoints()}.
+   */
+  private final Component[] animatedJoints;
+  /** The arena in which the components are stored, if any. */
+  private final SceneArena arena;
+  /** The set of all components. */
+  private final List<Component> components;
+  /** The OpenGL utility toolkit object with which the shapes are drawn. */
+  private final GLUT glut;
+  /** The left body to be modeled. */
+  private final Component leftBody;
+  /** The legs on the body to be modeled. */
+  private final Leg[] legs;
+  /** The middle body to be modeled. */
+  private final Component middleBody;
+  /** The resolved angles of each posed joint, used by setModelState. */
+  private final double[] poseAngles = new double[POSED_JOINT_COUNT
+      * SceneArena.ANGLE_STRIDE];
+  /**
+   * The joints whose angles are given by a pose, in the order of
+   * {@link #resolvePose(Map, double[], int)}.
+   */
+  private final Component[] posedJoints;
+  /** The way in which the scene is drawn. */
+  private final RenderMode renderMode;
+  /** The right body to be modeled. */
+  private final Component rightBody;
+  /**
+   * The top level component in the scene which controls the positioning and
+   * rotation of everything in the scene.
+   */
+  private final Component topLevelComponent;
+
+  /**
+   * Builds the spider model, drawing its shapes with call lists.
+   * 
+   * @param glut
+   *          The OpenGL utility toolkit object with which to draw the shapes.
+   */
+  public SpiderModel(final GLUT glut) {
+    this(glut, RenderMode.CALL_LIST);
+  }
+
+  /**
+   * Builds the spider model, drawing its shapes in the way required by the
+   * specified render mode.
+   * 
+   * @param glut
+   *          The OpenGL utility toolkit object with which to draw the shapes.
+   * @param renderMode
+   *          The way in which the scene will be drawn.
+   */
+  public SpiderModel(final GLUT glut, final RenderMode renderMode) {
+    this(glut, renderMode, null);
+  }
+
+  /**
+   * Builds the spider model, drawing its shapes in the way required by the
+   * specified render mode, and storing the state of its components in the
+   * specified arena.
+   * 
+   * The components are allocated from the top down, so every parent precedes
+   * its children in the arena, and the world transformations of the whole
+   * arena can be computed in one pass with
+   * {@link TransformKernels#composeHierarchy(int[], float[], float[], int)}.
+   * Several models may share one arena.
+   * 
+   * @param glut
+   *          The OpenGL utility toolkit object with which to draw the shapes.
+   * @param renderMode
+   *          The way in which the scene will be drawn.
+   * @param arena
+   *          The arena in which to store the components, with room for
+   *          {@link #COMPONENT_COUNT} more of them, or {@code null} to store
+   *          the state of each component in arrays of its own.
+   * @throws IllegalStateException
+   *           If the arena is full.
+   */
+  public SpiderModel(final GLUT glut, final RenderMode renderMode,
+      final SceneArena arena) {
+    this.arena = arena;
+    this.glut = glut;
+    this.renderMode = renderMode;
+
+    // the top level component which provides an initial position and rotation
+    // to the scene (but does not cause anything to be drawn); the components
+    // are created from the top down, so that in an arena every parent
+    // precedes its children
+    this.topLevelComponent = this.component(INITIAL_POSITION, null,
+        TOP_LEVEL_NAME);
+
+    // the left body, which models the left joint
+    this.leftBody = this.component(new Point3D(0, 0, 0), this.displayable(new Limb(
+            BODY_RADIUS, this.glut)), LEFT_BODY_NAME);
+
+    // the middle, which models the middle joint
+    this.middleBody = this.component(new Point3D(0,0,-1), this.displayable(new Limb(BODY_RADIUS, this.glut)), LEFT_BODY_NAME);
+
+    // the right body which models the right joint
+    this.rightBody = this.component(new Point3D(0,0,-0.5), this.displayable(new Limb(BODY_RADIUS, this.glut)), LEFT_BODY_NAME);
+
+    // all the limb joints, displaced by various amounts from the limb
+    final Component limb1 = this.component(new Point3D(-0.3, 0, 0.7),
+        this.displayable(new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut)),
+            PINKY_LIMB_NAME);
+    final Component limb2 = this.component(new Point3D(-.1, 0, 0.9),
+        this.displayable(new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut)),
+            RING_LIMB_NAME);
+    final Component limb3 = this.component(new Point3D(0.1, 0, 0.95),
+        this.displayable(new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut)),
+            MIDDLE_LIMB_NAME);
+    final Component limb4 = this.component(new Point3D(0.3, 0, 0.75),
+        this.displayable(new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut)),
+            INDEX_LIMB_NAME);
+    final Component claw1 = this.component(new Point3D(0.24, 0, 0.23),
+        this.displayable(new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut)),
+            CLAW_NAME);
+    final Component limb6 = this.component(new Point3D(-0.3, 0, -0.7),
+            this.displayable(new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut)),
+            PINKY_LIMB_NAME);
+    final Component limb7 = this.component(new Point3D(-.1, 0, -0.9),
+            this.displayable(new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut)),
+            RING_LIMB_NAME);
+    final Component limb8 = this.component(new Point3D(0.1, 0, -0.95),
+            this.displayable(new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut)),
+            MIDDLE_LIMB_NAME);
+    final Component limb9 = this.component(new Point3D(0.3, 0, -0.75),
+            this.displayable(new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut)),
+            INDEX_LIMB_NAME);
+    final Component claw2 = this.component(new Point3D(0.24, 0, -0.23),
+            this.displayable(new RoundedCylinder(LIMB_RADIUS, LIMB_JOINT_HEIGHT, this.glut)),
+            CLAW_NAME);
+    final Component eye1 = this.component(new Point3D(0.24, 0, 0.23),
+            this.displayable(new eyeball(LIMB_RADIUS *2, this.glut)),
+            LEFT_EYE_NAME);
+    Component lefteye = this.component(new Point3D(0,0,0.23),this.displayable(new eyeball(LIMB_RADIUS,this.glut)), LEFT_PUPIL_NAME);
+    eye1.addChild(lefteye);
+    final Component eye2 = this.component(new Point3D(0.24, 0, -0.23),
+            this.displayable(new eyeball(LIMB_RADIUS *2, this.glut)),
+            RIGHT_EYE_NAME);
+    Component righteye = this.component(new Point3D(0,0,0.23),this.displayable(new eyeball(LIMB_RADIUS,this.glut)), RIGHT_PUPIL_NAME);
+    eye2.addChild(righteye);
+
+    // all the middle joints
+    final Component middle1 = this.component(new Point3D(0, 0,
+            LIMB_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+        MIDDLE_JOINT_HEIGHT, this.glut)), PINKY_MIDDLE_NAME);
+    final Component middle2 = this.component(new Point3D(0, 0,
+            LIMB_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+        MIDDLE_JOINT_HEIGHT, this.glut)), RING_MIDDLE_NAME);
+    final Component middle3 = this.component(new Point3D(0, 0,
+            LIMB_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+        MIDDLE_JOINT_HEIGHT, this.glut)), MIDDLE_MIDDLE_NAME);
+    final Component middle4 = this.component(new Point3D(0, 0,
+            LIMB_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+        MIDDLE_JOINT_HEIGHT, this.glut)), INDEX_MIDDLE_NAME);
+    final Component middle5 = this.component(new Point3D(0, 0,
+            LIMB_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+        MIDDLE_JOINT_HEIGHT, this.glut)), CLAW_MIDDLE_NAME);
+    final Component middle6 = this.component(new Point3D(0, 0,
+            LIMB_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+            MIDDLE_JOINT_HEIGHT, this.glut)), PINKY_MIDDLE_NAME);
+    final Component middle7 = this.component(new Point3D(0, 0,
+            LIMB_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+            MIDDLE_JOINT_HEIGHT, this.glut)), RING_MIDDLE_NAME);
+    final Component middle8 = this.component(new Point3D(0, 0,
+            LIMB_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+            MIDDLE_JOINT_HEIGHT, this.glut)), MIDDLE_MIDDLE_NAME);
+    final Component middle9 = this.component(new Point3D(0, 0,
+            LIMB_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+            MIDDLE_JOINT_HEIGHT, this.glut)), INDEX_MIDDLE_NAME);
+    final Component middle10 = this.component(new Point3D(0, 0,
+            LIMB_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+            MIDDLE_JOINT_HEIGHT, this.glut)), CLAW_MIDDLE_NAME);
+
+    // all the distal joints
+    final Component distal1 = this.component(new Point3D(0, 0,
+        MIDDLE_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+        DISTAL_JOINT_HEIGHT, this.glut)), PINKY_DISTAL_NAME);
+    final Component distal2 = this.component(new Point3D(0, 0,
+        MIDDLE_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+        DISTAL_JOINT_HEIGHT, this.glut)), RING_DISTAL_NAME);
+    final Component distal3 = this.component(new Point3D(0, 0,
+        MIDDLE_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+        DISTAL_JOINT_HEIGHT, this.glut)), MIDDLE_DISTAL_NAME);
+    final Component distal4 = this.component(new Point3D(0, 0,
+        MIDDLE_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+        DISTAL_JOINT_HEIGHT, this.glut)), INDEX_DISTAL_NAME);
+    final Component distal5 = this.component(new Point3D(0, 0,
+        MIDDLE_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+        DISTAL_JOINT_HEIGHT, this.glut)), CLAW_DISTAL_NAME);
+    final Component distal6 = this.component(new Point3D(0, 0,
+            MIDDLE_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+            DISTAL_JOINT_HEIGHT, this.glut)), PINKY_DISTAL_NAME);
+    final Component distal7 = this.component(new Point3D(0, 0,
+            MIDDLE_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+            DISTAL_JOINT_HEIGHT, this.glut)), RING_DISTAL_NAME);
+    final Component distal8 = this.component(new Point3D(0, 0,
+            MIDDLE_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+            DISTAL_JOINT_HEIGHT, this.glut)), MIDDLE_DISTAL_NAME);
+    final Component distal9 = this.component(new Point3D(0, 0,
+            MIDDLE_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+            DISTAL_JOINT_HEIGHT, this.glut)), INDEX_DISTAL_NAME);
+    final Component distal10 = this.component(new Point3D(0, 0,
+            MIDDLE_JOINT_HEIGHT), this.displayable(new RoundedCylinder(LIMB_RADIUS,
+            DISTAL_JOINT_HEIGHT, this.glut)), CLAW_DISTAL_NAME);
+
+    // put together limbs for easier selection by keyboard input later on
+    this.legs = new Leg[] { new Leg(limb1, middle1, distal1),
+        new Leg(limb2, middle2, distal2),
+        new Leg(limb3, middle3, distal3),
+        new Leg(limb4, middle4, distal4),
+        new Leg(claw1, middle5, distal5),
+            new Leg(limb6, middle6, distal6),
+            new Leg(limb7, middle7, distal7),
+            new Leg(limb8, middle8, distal8),
+            new Leg(limb9, middle9, distal9),
+            new Leg(claw2, middle10, distal10),};
+
+    this.leftBody.addChildren(middleBody, rightBody);
+    //this.topLevelComponent.addChild(this.hand);
+    this.topLevelComponent.addChild(leftBody);
+
+    // the left body's connected to the...left legs
+    this.leftBody.addChildren(limb1, limb2, limb3, limb4, claw1);
+    this.leftBody.addChildren(limb6, limb7, limb8, limb9, claw2);
+    this.leftBody.addChildren(eye1, eye2);
+    limb1.addChild(middle1);
+    limb2.addChild(middle2);
+    limb3.addChild(middle3);
+    limb4.addChild(middle4);
+    claw1.addChild(middle5);
+    middle1.addChild(distal1);
+    middle2.addChild(distal2);
+    middle3.addChild(distal3);
+    middle4.addChild(distal4);
+    limb6.addChild(middle6);
+    limb7.addChild(middle7);
+    limb8.addChild(middle8);
+    limb9.addChild(middle9);
+    claw2.addChild(middle10);
+    middle6.addChild(distal6);
+    middle7.addChild(distal7);
+    middle8.addChild(distal8);
+    middle9.addChild(distal9);
+
+
+    this.leftBody.rotate(Axis.Y,-90);
+    middle1.rotate(Axis.X, 50);
+    middle2.rotate(Axis.X, 50);
+    middle3.rotate(Axis.X, 50);
+    middle4.rotate(Axis.X, 50);
+    limb6.rotate(Axis.Y, -180);
+    limb7.rotate(Axis.Y, -180);
+    limb8.rotate(Axis.Y, -180);
+    limb9.rotate(Axis.Y, -180);
+    middle6.rotate(Axis.X, 50);
+    middle7.rotate(Axis.X, 50);
+    middle8.rotate(Axis.X, 50);
+    middle9.rotate(Axis.X, 50);
+
+    eye2.rotate(Axis.Y, 90);
+    eye1.rotate(Axis.Y, 90);
+    claw1.rotate(Axis.X, 90);
+    claw2.rotate(Axis.X, 90);
+    
+    // set rotation limits for the right body
+    this.rightBody.setXPositiveExtent(0);
+    this.rightBody.setXNegativeExtent(0);
+    this.rightBody.setYPositiveExtent(0);
+    this.rightBody.setYNegativeExtent(0);
+    this.rightBody.setZPositiveExtent(0);
+    this.rightBody.setZNegativeExtent(0);
+
+    // set rotation limits for the middle body
+    this.middleBody.setXPositiveExtent(0);
+    this.middleBody.setXNegativeExtent(0);
+    this.middleBody.setYPositiveExtent(0);
+    this.middleBody.setYNegativeExtent(0);
+    this.middleBody.setZPositiveExtent(0);
+    this.middleBody.setZNegativeExtent(0);
+
+    // set rotation limits for the left body
+    this.leftBody.setXPositiveExtent(90);
+    this.leftBody.setXNegativeExtent(-90);
+    this.leftBody.setYPositiveExtent(-80);
+    this.leftBody.setYNegativeExtent(-100);
+    this.leftBody.setZPositiveExtent(10);
+    this.leftBody.setZNegativeExtent(-10);
+
+    // set rotation limits for the limb joints of the limbs
+    for (final Component limbJoint : Arrays.asList(limb1, limb2, limb3, limb4)) {
+      limbJoint.setXPositiveExtent(30);
+      limbJoint.setXNegativeExtent(-15);
+      limbJoint.setYPositiveExtent(10);
+      limbJoint.setYNegativeExtent(-10);
+      limbJoint.setZPositiveExtent(0);
+      limbJoint.setZNegativeExtent(0);
+    }
+
+    for (final Component limbJoint : Arrays.asList(limb6, limb7, limb8, limb9)) {
+      limbJoint.setXPositiveExtent(15);
+      limbJoint.setXNegativeExtent(-30);
+      limbJoint.setYPositiveExtent(-170);
+      limbJoint.setYNegativeExtent(-190);
+      limbJoint.setZPositiveExtent(0);
+      limbJoint.setZNegativeExtent(0);
+    }
+
+    // and set the rotation limits for the claw joint of the claw
+    claw1.setXPositiveExtent(100);
+    claw1.setXNegativeExtent(90);
+    claw1.setYPositiveExtent(30);
+    claw1.setYNegativeExtent(0);
+    claw1.setZPositiveExtent(0);
+    claw1.setZNegativeExtent(0);
+
+    claw2.setXPositiveExtent(90);
+    claw2.setXNegativeExtent(80);
+    claw2.setYPositiveExtent(30);
+    claw2.setYNegativeExtent(0);
+    claw2.setZPositiveExtent(0);
+    claw2.setZNegativeExtent(0);
+
+    // set rotation limits for the middle joints of the limbs
+    for (final Component middleJoint : Arrays.asList(middle1, middle2,
+        middle3, middle4, middle6, middle7, middle8, middle9)) {
+      middleJoint.setXPositiveExtent(100);
+      middleJoint.setXNegativeExtent(0);
+      middleJoint.setYPositiveExtent(0);
+      middleJoint.setYNegativeExtent(0);
+      middleJoint.setZPositiveExtent(0);
+      middleJoint.setZNegativeExtent(0);
+    }
+
+    for (final Component middleJoint : Arrays.asList(middle5)) {
+      middleJoint.setXPositiveExtent(15);
+      middleJoint.setXNegativeExtent(0);
+      middleJoint.setYPositiveExtent(0);
+      middleJoint.setYNegativeExtent(0);
+      middleJoint.setZPositiveExtent(0);
+      middleJoint.setZNegativeExtent(0);
+    }
+
+    for (final Component middleJoint : Arrays.asList(middle10)) {
+      middleJoint.setXPositiveExtent(0);
+      middleJoint.setXNegativeExtent(-15);
+      middleJoint.setYPositiveExtent(0);
+      middleJoint.setYNegativeExtent(0);
+      middleJoint.setZPositiveExtent(0);
+      middleJoint.setZNegativeExtent(0);
+    }
+
+
+
+    // set rotation limits for the distal joints of the limb
+    for (final Component distalJoint : Arrays.asList(distal1, distal2,
+        distal3, distal4, distal5, distal6, distal7, distal8, distal9,distal10)) {
+      distalJoint.setXPositiveExtent(70);
+      distalJoint.setXNegativeExtent(-5);
+      distalJoint.setYPositiveExtent(0);
+      distalJoint.setYNegativeExtent(0);
+      distalJoint.setZPositiveExtent(0);
+      distalJoint.setZNegativeExtent(0);
+    }
+
+    // create the list of all the components for debugging purposes
+    this.components = Collections.unmodifiableList(Arrays.asList(limb1,
+        middle1, distal1, limb2, middle2, distal2, limb3, middle3, distal3,
+        limb4, middle4, distal4, claw1, middle5, distal5, limb6, middle6,
+        distal6, limb7, middle7, distal7, limb8, middle8, distal8, limb9,
+        middle9, distal9, claw2, middle10, distal10, this.leftBody,
+        this.middleBody, this.rightBody, lefteye, righteye));
+    this.posedJoints = new Component[] { limb1, middle1, distal1, limb2,
+        middle2, distal2, limb3, middle3, distal3, limb4, middle4, distal4,
+        claw1, middle5, limb6, middle6, distal6, limb7, middle7, distal7, limb8,
+        middle8, distal8, limb9, middle9, distal9, claw2, middle10 };
+    this.animatedJoints = Arrays.copyOf(this.posedJoints,
+        ANIMATED_JOINT_COUNT);
+    this.animatedJoints[POSED_JOINT_COUNT] = lefteye;
+    this.animatedJoints[POSED_JOINT_COUNT + 1] = righteye;
+  }
+
+  /**
+   * Gets the joints which can be animated: the {@link #posedJoints()} in the
+   * same order, followed by the left pupil and the right pupil, which follow
+   * the mouse. The array must not be modified.
+   * 
+   * @return The joints which can be animated.
+   */
+  public Component[] animatedJoints() {
+    return this.animatedJoints;
+  }
+
+  /**
+   * Gets an unmodifiable view of the list of all the components in the model,
+   * except the top level component; the last two are the left and right
+   * pupils.
+   * 
+   * @return The list of all the components in the model.
+   */
+  public List<Component> components() {
+    return this.components;
+  }
+
+  /**
+   * Creates a component of this model, in the arena of this model if it has
+   * one.
+   * 
+   * @param position
+   *          The position of the component.
+   * @param displayable
+   *          The object which the component represents, or {@code null}.
+   * @param name
+   *          The name of the component.
+   * @return The new component.
+   */
+  private Component component(final Point3D position,
+      final Displayable displayable, final String name) {
+    if (this.arena == null) {
+      return new Component(position, displayable, name);
+    }
+    return new Component(this.arena, position, displayable, name);
+  }
+
+  /**
+   * Gets the object which draws the specified shape in the way given by the
+   * render mode of this model.
+   * 
+   * @param shape
+   *          The shape to draw.
+   * @return The shape itself if it is drawn from call lists, or an object
+   *         which draws it from buffer objects.
+   */
+  private Displayable displayable(final Circular shape) {
+    if (this.renderMode == RenderMode.VERTEX_BUFFER) {
+      return new VertexBufferDisplayable(shape);
+    }
+    return shape;
+  }
+
+  /**
+   * Gets the left body, to which all the legs are attached.
+   * 
+   * @return The left body.
+   */
+  public Component leftBody() {
+    return this.leftBody;
+  }
+
+  /**
+   * Gets the legs of the model; the first five are on one side of the body and
+   * the last five are on the other side, and the fifth leg on each side is a
+   * claw.
+   * 
+   * @return The legs of the model.
+   */
+  public Leg[] legs() {
+    return this.legs;
+  }
+
+  /**
+   * Gets the middle body.
+   * 
+   * @return The middle body.
+   */
+  public Component middleBody() {
+    return this.middleBody;
+  }
+
+  /**
+   * Gets the right body.
+   * 
+   * @return The right body.
+   */
+  public Component rightBody() {
+    return this.rightBody;
+  }
+
+  /**
+   * Gets the joints whose angles are given by a pose: the three joints of each
+   * walking leg and the first two joints of each claw, in the order of the
+   * legs. The array must not be modified.
+   * 
+   * @return The joints whose angles are given by a pose.
+   */
+  public Component[] posedJoints() {
+    return this.posedJoints;
+  }
+
+  /**
+   * Resolves a pose keyed by joint name into the angles of each of the
+   * {@link #posedJoints()}, without changing the model and without
+   * allocating.
+   * 
+   * Several joints share a name in a pose, since the legs on the second side
+   * of the body mirror those on the first side; the mirrored angles are those
+   * set by {@link Component#setReverseAngles(Angled)} and
+   * {@link Component#setClawAngles(Angled)}.
+   * 
+   * @param state
+   *          The angles of each of the joints, keyed by joint name as in
+   *          {@link TestCases}.
+   * @param angles
+   *          The array in which to store the x, y, and z angles of each posed
+   *          joint, {@link SceneArena#ANGLE_STRIDE} elements per joint.
+   * @param offset
+   *          The offset of the angles of the first joint within the array.
+   */
+  public static void resolvePose(final Map<String, Angled> state,
+      final double[] angles, final int offset) {
+    for (int j = 0; j < POSED_JOINT_COUNT; ++j) {
+      final Angled angled = state.get(POSE_NAMES[j]);
+      final int i = offset + j * SceneArena.ANGLE_STRIDE;
+      switch (POSE_MAPPINGS[j]) {
+      case REVERSE:
+        angles[i] = -angled.xAngle();
+        angles[i + 1] = -angled.yAngle() - 180;
+        break;
+      case CLAW:
+        angles[i] = 180 - angled.xAngle();
+        angles[i + 1] = angled.yAngle();
+        break;
+      default:
+        angles[i] = angled.xAngle();
+        angles[i + 1] = angled.yAngle();
+        break;
+      }
+      angles[i + 2] = angled.zAngle();
+    }
+  }
+
+  /**
+   * Sets the angles of each of the joints of the legs to those given by the
+   * specified pose, keyed by joint name as in {@link TestCases}.
+   * 
+   * The legs on the second side of the body mirror those on the first side.
+   * 
+   * @param state
+   *          The angles of each of the joints, keyed by joint name.
+   */
+  public void setModelState(final Map<String, Angled> state) {
+    final ModelStateEvent event = ModelStateEvent.isRecorded()
+        ? new ModelStateEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
+    resolvePose(state, this.poseAngles, 0);
+    for (int j = 0; j < POSED_JOINT_COUNT; ++j) {
+      final int i = j * SceneArena.ANGLE_STRIDE;
+      this.posedJoints[j].setAngles(this.poseAngles[i],
+          this.poseAngles[i + 1], this.poseAngles[i + 2]);
+    }
+    if (event != null) {
+      event.commit();
+    }
+  }
+
+  /**
+   * Gets the top level component in the scene which controls the positioning
+   * and rotation of everything in the scene.
+   * 
+   * @return The top level component in the scene.
+   */
+  public Component topLevelComponent() {
+    return this.topLevelComponent;
+  }
+}
@@ -0,0 +1,177 @@
+/**
+ * SwingTwistJoint.java - a joint orientation limited by a swing cone and twist
+ */
+
+
+/**
+ * The orientation of a joint as a unit quaternion, whose limits are expressed
+ * as a swing cone around the z axis of the joint and a twist range about that
+ * axis.
+ *
+ * The limits are derived from the six rotation extents of a
+ * {@link Component}. The center of the extents around each axis gives the
+ * rest orientation of the joint. Relative to the rest orientation, the swing
+ * of the z axis is limited to an elliptical cone whose half angles around the
+ * x and y axes are half the x and y ranges, and the twist about the z axis is
+ * limited to half the z range either way. Ranges of 360 degrees or more leave
+ * the joint unlimited, as with the default extents.
+ *
+ * None of the methods of this class allocate.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class SwingTwistJoint {
+  /** The index of the x negative extent within the six extents of a node. */
+  private static final int X_NEGATIVE_EXTENT = 0;
+  /** The index of the x positive extent within the six extents of a node. */
+  private static final int X_POSITIVE_EXTENT = 1;
+  /** The index of the y negative extent within the six extents of a node. */
+  private static final int Y_NEGATIVE_EXTENT = 2;
+  /** The index of the y positive extent within the six extents of a node. */
+  private static final int Y_POSITIVE_EXTENT = 3;
+  /** The index of the z negative extent within the six extents of a node. */
+  private static final int Z_NEGATIVE_EXTENT = 4;
+  /** The index of the z positive extent within the six extents of a node. */
+  private static final int Z_POSITIVE_EXTENT = 5;
+
+  /** The current orientation of the joint. */
+  private final Quaternion orientation = new Quaternion();
+  /** The rest orientation, at the center of the extents. */
+  private final Quaternion rest = new Quaternion();
+  /** The swing part of the orientation relative to the rest orientation. */
+  private final Quaternion swing = new Quaternion();
+  /** The twist part of the orientation relative to the rest orientation. */
+  private final Quaternion twist = new Quaternion();
+
+  /**
+   * Limits the orientation of this joint to the swing cone and twist range
+   * derived from the specified extents.
+   *
+   * @param extents
+   *          The array containing the minimum and maximum angles around the x,
+   *          y, and z axes, in degrees.
+   * @param offset
+   *          The offset of the six extents within the array.
+   * @return Whether the orientation was changed.
+   */
+  public boolean constrain(final double[] extents, final int offset) {
+    final double xHalfRange = 0.5 * (extents[offset + X_POSITIVE_EXTENT]
+        - extents[offset + X_NEGATIVE_EXTENT]);
+    final double yHalfRange = 0.5 * (extents[offset + Y_POSITIVE_EXTENT]
+        - extents[offset + Y_NEGATIVE_EXTENT]);
+    final double zHalfRange = 0.5 * (extents[offset + Z_POSITIVE_EXTENT]
+        - extents[offset + Z_NEGATIVE_EXTENT]);
+    if (xHalfRange >= 180 && yHalfRange >= 180 && zHalfRange >= 180) {
+      return false;
+    }
+    this.rest.setFromEuler(extents[offset + X_NEGATIVE_EXTENT] + xHalfRange,
+        extents[offset + Y_NEGATIVE_EXTENT] + yHalfRange,
+        extents[offset + Z_NEGATIVE_EXTENT] + zHalfRange);
+
+    // the orientation relative to the rest orientation, with a non-negative
+    // scalar part so that the angles below are at most 180 degrees
+    final Quaternion relative = this.swing;
+    relative.set(this.rest);
+    relative.conjugate();
+    relative.multiplyInPlace(this.orientation);
+    if (relative.s() < 0) {
+      relative.set(-relative.s(), -relative.v0(), -relative.v1(),
+          -relative.v2());
+    }
+
+    // the twist is the projection onto the z axis, and the swing is what
+    // remains: relative = swing * twist
+    double twistAngle = Math.toDegrees(2 * Math.atan2(relative.v2(), relative
+        .s()));
+    this.twist.setFromAxisAngle(0, 0, 1, (float) Math.toRadians(twistAngle));
+    this.twist.conjugate();
+    relative.multiplyInPlace(this.twist);
+
+    // the swing as a rotation vector in the x-y plane, in degrees
+    final double sinHalfSwing = Math.sqrt(relative.v0() * relative.v0()
+        + relative.v1() * relative.v1());
+    final double swingAngle = Math.toDegrees(2 * Math.atan2(sinHalfSwing,
+        relative.s()));
+    double xSwing = sinHalfSwing == 0 ? 0 : swingAngle * relative.v0()
+        / sinHalfSwing;
+    double ySwing = sinHalfSwing == 0 ? 0 : swingAngle * relative.v1()
+        / sinHalfSwing;
+
+    boolean changed = false;
+    if (xHalfRange <= 0 && xSwing != 0) {
+      xSwing = 0;
+      changed = true;
+    }
+    if (yHalfRange <= 0 && ySwing != 0) {
+      ySwing = 0;
+      changed = true;
+    }
+    final double x = xHalfRange <= 0 ? 0 : xSwing / xHalfRange;
+    final double y = yHalfRange <= 0 ? 0 : ySwing / yHalfRange;
+    final double ellipse = x * x + y * y;
+    if (ellipse > 1) {
+      final double scale = 1 / Math.sqrt(ellipse);
+      xSwing *= scale;
+      ySwing *= scale;
+      changed = true;
+    }
+    if (twistAngle > zHalfRange || twistAngle < -zHalfRange) {
+      twistAngle = Math.max(-zHalfRange, Math.min(zHalfRange, twistAngle));
+      changed = true;
+    }
+    if (!changed) {
+      return false;
+    }
+
+    // orientation = rest * swing * twist
+    final double limitedSwing = Math.sqrt(xSwing * xSwing + ySwing * ySwing);
+    if (limitedSwing == 0) {
+      this.swing.reset();
+    } else {
+      this.swing.setFromAxisAngle((float) (xSwing / limitedSwing),
+          (float) (ySwing / limitedSwing), 0, (float) Math
+              .toRadians(limitedSwing));
+    }
+    this.twist.setFromAxisAngle(0, 0, 1, (float) Math.toRadians(twistAngle));
+    this.orientation.set(this.rest);
+    this.orientation.multiplyInPlace(this.swing);
+    this.orientation.multiplyInPlace(this.twist);
+    return true;
+  }
+
+  /**
+   * Gets the current orientation of this joint, which may be modified
+   * directly.
+   *
+   * @return The current orientation of this joint.
+   */
+  public Quaternion orientation() {
+    return this.orientation;
+  }
+
+  /**
+   * Rotates this joint around one of its own axes by the specified angle.
+   *
+   * @param axis
+   *          The axis of rotation, in the coordinate system of the joint.
+   * @param angleDelta
+   *          The angle by which to rotate, in degrees.
+   */
+  public void rotate(final Axis axis, final double angleDelta) {
+    final float angle = (float) Math.toRadians(angleDelta);
+    switch (axis) {
+    case X:
+      this.swing.setFromAxisAngle(1, 0, 0, angle);
+      break;
+    case Y:
+      this.swing.setFromAxisAngle(0, 1, 0, angle);
+      break;
+    default:
+      this.swing.setFromAxisAngle(0, 0, 1, angle);
+      break;
+    }
+    this.orientation.multiplyInPlace(this.swing);
+    this.orientation.normalize();
+  }
+}
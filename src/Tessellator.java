@@ -0,0 +1,256 @@
+/**
+ * Tessellator.java - generates triangle meshes for circular shapes
+ */
+
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Generates indexed triangle meshes for the shapes drawn by the subclasses of
+ * {@link Circular}, matching the geometry which GLUT draws for them, without
+ * requiring an OpenGL context.
+ *
+ * Spheres and ellipsoids are divided into slices around the z axis and stacks
+ * along the z axis, as with {@code glutSolidSphere}; cylinders extend from the
+ * x-y plane along the positive z axis, as with {@code glutSolidCylinder}.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public final class Tessellator {
+
+  /**
+   * Generates a mesh for a cylinder with a sphere at its top, as drawn by
+   * {@link RoundedCylinder}.
+   *
+   * The disk at the top of the cylinder is omitted, since it is entirely
+   * inside the sphere.
+   *
+   * @param radius
+   *          The radius of the cylinder and the sphere.
+   * @param height
+   *          The height of the cylinder, which is also the height of the center
+   *          of the sphere.
+   * @param slices
+   *          The number of subdivisions around the z axis.
+   * @param stacks
+   *          The number of subdivisions along the z axis.
+   * @return A new mesh for the rounded cylinder.
+   */
+  public static Mesh capsule(final double radius, final double height,
+      final int slices, final int stacks) {
+    final int gridVertices = (slices + 1) * (stacks + 1);
+    final int gridIndices = 6 * slices * stacks;
+    final int diskVertices = slices + 2;
+    final int diskIndices = 3 * slices;
+    final Mesh mesh = new Mesh(2 * gridVertices + diskVertices, 2
+        * gridIndices + diskIndices);
+
+    // the side of the cylinder
+    final FloatBuffer vertices = mesh.vertices();
+    final FloatBuffer normals = mesh.normals();
+    int vertex = 0;
+    for (int stack = 0; stack <= stacks; ++stack) {
+      final double z = height * stack / stacks;
+      for (int slice = 0; slice <= slices; ++slice) {
+        final double theta = 2 * Math.PI * slice / slices;
+        final double x = Math.cos(theta);
+        final double y = Math.sin(theta);
+        put(vertices, vertex, radius * x, radius * y, z);
+        put(normals, vertex, x, y, 0);
+        ++vertex;
+      }
+    }
+    gridIndices(mesh.indices(), 0, 0, slices, stacks);
+
+    // the sphere at the top of the cylinder
+    ellipsoid(mesh, gridVertices, gridIndices, radius, 1, 1, 1, height,
+        slices, stacks);
+
+    // the disk at the bottom of the cylinder, facing down
+    final int center = 2 * gridVertices;
+    put(vertices, center, 0, 0, 0);
+    put(normals, center, 0, 0, -1);
+    for (int slice = 0; slice <= slices; ++slice) {
+      final double theta = 2 * Math.PI * slice / slices;
+      put(vertices, center + 1 + slice, radius * Math.cos(theta), radius
+          * Math.sin(theta), 0);
+      put(normals, center + 1 + slice, 0, 0, -1);
+    }
+    final IntBuffer indices = mesh.indices();
+    int index = 2 * gridIndices;
+    for (int slice = 0; slice < slices; ++slice) {
+      indices.put(index++, center);
+      indices.put(index++, center + 2 + slice);
+      indices.put(index++, center + 1 + slice);
+    }
+
+    return mesh;
+  }
+
+  /**
+   * Generates a mesh for a sphere scaled along each axis, then translated
+   * along the z axis, as drawn by {@link Limb}.
+   *
+   * @param radius
+   *          The radius of the sphere before scaling.
+   * @param xScale
+   *          The factor by which to scale the sphere along the x axis.
+   * @param yScale
+   *          The factor by which to scale the sphere along the y axis.
+   * @param zScale
+   *          The factor by which to scale the sphere along the z axis.
+   * @param zOffset
+   *          The height of the center of the ellipsoid.
+   * @param slices
+   *          The number of subdivisions around the z axis.
+   * @param stacks
+   *          The number of subdivisions along the z axis.
+   * @return A new mesh for the ellipsoid.
+   */
+  public static Mesh ellipsoid(final double radius, final double xScale,
+      final double yScale, final double zScale, final double zOffset,
+      final int slices, final int stacks) {
+    final Mesh mesh = new Mesh((slices + 1) * (stacks + 1), 6 * slices
+        * stacks);
+    ellipsoid(mesh, 0, 0, radius, xScale, yScale, zScale, zOffset, slices,
+        stacks);
+    return mesh;
+  }
+
+  /**
+   * Writes the vertices, normals, and indices of an ellipsoid into the
+   * specified mesh.
+   *
+   * @param mesh
+   *          The mesh into which to write the ellipsoid.
+   * @param firstVertex
+   *          The index of the first vertex of the ellipsoid within the mesh.
+   * @param firstIndex
+   *          The offset of the first index of the ellipsoid within the mesh.
+   * @param radius
+   *          The radius of the sphere before scaling.
+   * @param xScale
+   *          The factor by which to scale the sphere along the x axis.
+   * @param yScale
+   *          The factor by which to scale the sphere along the y axis.
+   * @param zScale
+   *          The factor by which to scale the sphere along the z axis.
+   * @param zOffset
+   *          The height of the center of the ellipsoid.
+   * @param slices
+   *          The number of subdivisions around the z axis.
+   * @param stacks
+   *          The number of subdivisions along the z axis.
+   */
+  private static void ellipsoid(final Mesh mesh, final int firstVertex,
+      final int firstIndex, final double radius, final double xScale,
+      final double yScale, final double zScale, final double zOffset,
+      final int slices, final int stacks) {
+    final FloatBuffer vertices = mesh.vertices();
+    final FloatBuffer normals = mesh.normals();
+    int vertex = firstVertex;
+    for (int stack = 0; stack <= stacks; ++stack) {
+      // from the bottom pole to the top pole
+      final double phi = Math.PI * stack / stacks - Math.PI / 2;
+      final double cosPhi = Math.cos(phi);
+      final double sinPhi = Math.sin(phi);
+      for (int slice = 0; slice <= slices; ++slice) {
+        final double theta = 2 * Math.PI * slice / slices;
+        final double x = cosPhi * Math.cos(theta);
+        final double y = cosPhi * Math.sin(theta);
+        final double z = sinPhi;
+        put(vertices, vertex, radius * xScale * x, radius * yScale * y, radius
+            * zScale * z + zOffset);
+
+        // normals transform by the inverse transpose of the scale
+        final double nx = x / xScale;
+        final double ny = y / yScale;
+        final double nz = z / zScale;
+        final double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        put(normals, vertex, nx / length, ny / length, nz / length);
+        ++vertex;
+      }
+    }
+    gridIndices(mesh.indices(), firstIndex, firstVertex, slices, stacks);
+  }
+
+  /**
+   * Writes the indices of the triangles which connect a grid of vertices with
+   * {@code slices + 1} vertices per row and {@code stacks + 1} rows.
+   *
+   * @param indices
+   *          The buffer into which to write the indices.
+   * @param firstIndex
+   *          The offset of the first index to write within the buffer.
+   * @param firstVertex
+   *          The index of the first vertex of the grid.
+   * @param slices
+   *          The number of cells in each row of the grid.
+   * @param stacks
+   *          The number of rows of cells in the grid.
+   */
+  private static void gridIndices(final IntBuffer indices,
+      final int firstIndex, final int firstVertex, final int slices,
+      final int stacks) {
+    int index = firstIndex;
+    for (int stack = 0; stack < stacks; ++stack) {
+      for (int slice = 0; slice < slices; ++slice) {
+        final int a = firstVertex + stack * (slices + 1) + slice;
+        final int b = a + 1;
+        final int c = b + slices + 1;
+        final int d = a + slices + 1;
+        indices.put(index++, a);
+        indices.put(index++, b);
+        indices.put(index++, c);
+        indices.put(index++, a);
+        indices.put(index++, c);
+        indices.put(index++, d);
+      }
+    }
+  }
+
+  /**
+   * Writes the three components of a vector into the specified buffer.
+   *
+   * @param buffer
+   *          The buffer into which to write the vector.
+   * @param vertex
+   *          The index of the vertex to which the vector belongs.
+   * @param x
+   *          The x component of the vector.
+   * @param y
+   *          The y component of the vector.
+   * @param z
+   *          The z component of the vector.
+   */
+  private static void put(final FloatBuffer buffer, final int vertex,
+      final double x, final double y, final double z) {
+    buffer.put(3 * vertex, (float) x);
+    buffer.put(3 * vertex + 1, (float) y);
+    buffer.put(3 * vertex + 2, (float) z);
+  }
+
+  /**
+   * Generates a mesh for a sphere whose bottom touches the x-y plane, as drawn
+   * by {@link eyeball}.
+   *
+   * @param radius
+   *          The radius of the sphere.
+   * @param slices
+   *          The number of subdivisions around the z axis.
+   * @param stacks
+   *          The number of subdivisions along the z axis.
+   * @return A new mesh for the sphere.
+   */
+  public static Mesh sphere(final double radius, final int slices,
+      final int stacks) {
+    return ellipsoid(radius, 1, 1, 1, radius, slices, stacks);
+  }
+
+  /** This class should not be instantiated. */
+  private Tessellator() {
+    // intentionally unimplemented
+  }
+}
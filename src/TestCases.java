@@ -31,127 +31,127 @@ public class TestCases extends CyclicIterator<Map<String, Angled>> {
 
     // the upper arm, forearm, and hand angles do not change through any of the
     // test cases
-    stop.put(PA2.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
-    peace.put(PA2.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
-    fist.put(PA2.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
-    shaka.put(PA2.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
-    claw.put(PA2.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
-
-    stop.put(PA2.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
-    peace.put(PA2.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
-    fist.put(PA2.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
-    shaka.put(PA2.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
-    spread.put(PA2.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
-    claw.put(PA2.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
-
-    stop.put(PA2.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
-    peace.put(PA2.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
-    fist.put(PA2.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
-    shaka.put(PA2.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
-    claw.put(PA2.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
+    peace.put(SpiderModel.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
+    fist.put(SpiderModel.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
+    shaka.put(SpiderModel.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
+    claw.put(SpiderModel.RIGHT_BODY_NAME, new BaseAngled(0, 0, 0));
+
+    stop.put(SpiderModel.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
+    peace.put(SpiderModel.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
+    fist.put(SpiderModel.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
+    shaka.put(SpiderModel.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
+    spread.put(SpiderModel.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
+    claw.put(SpiderModel.MIDDLE_BODY_NAME, new BaseAngled(0, 90, 0));
+
+    stop.put(SpiderModel.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
+    peace.put(SpiderModel.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
+    fist.put(SpiderModel.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
+    shaka.put(SpiderModel.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
+    claw.put(SpiderModel.LEFT_BODY_NAME, new BaseAngled(0, 0, 0));
 
     // the stop test case
-    stop.put(PA2.PINKY_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.PINKY_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.PINKY_LIMB_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.RING_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.RING_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.RING_LIMB_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.MIDDLE_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.MIDDLE_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.MIDDLE_LIMB_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.INDEX_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.INDEX_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.INDEX_LIMB_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.CLAW_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.CLAW_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    stop.put(PA2.CLAW_NAME, new BaseAngled(90, 0, 0));
+    stop.put(SpiderModel.PINKY_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.PINKY_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.PINKY_LIMB_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.RING_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.RING_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.RING_LIMB_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.MIDDLE_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.MIDDLE_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.MIDDLE_LIMB_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.INDEX_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.INDEX_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.INDEX_LIMB_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.CLAW_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.CLAW_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    stop.put(SpiderModel.CLAW_NAME, new BaseAngled(90, 0, 0));
 
     // the peace sign test case
-    peace.put(PA2.PINKY_DISTAL_NAME, new BaseAngled(50, 0, 0));
-    peace.put(PA2.PINKY_MIDDLE_NAME, new BaseAngled(90, 0, 0));
-    peace.put(PA2.PINKY_LIMB_NAME, new BaseAngled(60, 0, 0));
-    peace.put(PA2.RING_DISTAL_NAME, new BaseAngled(50, 0, 0));
-    peace.put(PA2.RING_MIDDLE_NAME, new BaseAngled(90, 0, 0));
-    peace.put(PA2.RING_LIMB_NAME, new BaseAngled(60, 0, 0));
-    peace.put(PA2.MIDDLE_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    peace.put(PA2.MIDDLE_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    peace.put(PA2.MIDDLE_LIMB_NAME, new BaseAngled(0, 0, 0));
-    peace.put(PA2.INDEX_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    peace.put(PA2.INDEX_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    peace.put(PA2.INDEX_LIMB_NAME, new BaseAngled(0, 0, 0));
-    peace.put(PA2.CLAW_DISTAL_NAME, new BaseAngled(10, 0, 0));
-    peace.put(PA2.CLAW_MIDDLE_NAME, new BaseAngled(0, 2, 0));
-    peace.put(PA2.CLAW_NAME, new BaseAngled(92, 0, 0));
+    peace.put(SpiderModel.PINKY_DISTAL_NAME, new BaseAngled(50, 0, 0));
+    peace.put(SpiderModel.PINKY_MIDDLE_NAME, new BaseAngled(90, 0, 0));
+    peace.put(SpiderModel.PINKY_LIMB_NAME, new BaseAngled(60, 0, 0));
+    peace.put(SpiderModel.RING_DISTAL_NAME, new BaseAngled(50, 0, 0));
+    peace.put(SpiderModel.RING_MIDDLE_NAME, new BaseAngled(90, 0, 0));
+    peace.put(SpiderModel.RING_LIMB_NAME, new BaseAngled(60, 0, 0));
+    peace.put(SpiderModel.MIDDLE_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    peace.put(SpiderModel.MIDDLE_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    peace.put(SpiderModel.MIDDLE_LIMB_NAME, new BaseAngled(0, 0, 0));
+    peace.put(SpiderModel.INDEX_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    peace.put(SpiderModel.INDEX_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    peace.put(SpiderModel.INDEX_LIMB_NAME, new BaseAngled(0, 0, 0));
+    peace.put(SpiderModel.CLAW_DISTAL_NAME, new BaseAngled(10, 0, 0));
+    peace.put(SpiderModel.CLAW_MIDDLE_NAME, new BaseAngled(0, 2, 0));
+    peace.put(SpiderModel.CLAW_NAME, new BaseAngled(92, 0, 0));
 
     // the fist test case
-    fist.put(PA2.PINKY_DISTAL_NAME, new BaseAngled(50, 0, 0));
-    fist.put(PA2.PINKY_MIDDLE_NAME, new BaseAngled(90, 0, 0));
-    fist.put(PA2.PINKY_LIMB_NAME, new BaseAngled(60, 0, 0));
-    fist.put(PA2.RING_DISTAL_NAME, new BaseAngled(50, 0, 0));
-    fist.put(PA2.RING_MIDDLE_NAME, new BaseAngled(90, 0, 0));
-    fist.put(PA2.RING_LIMB_NAME, new BaseAngled(60, 0, 0));
-    fist.put(PA2.MIDDLE_DISTAL_NAME, new BaseAngled(50, 0, 0));
-    fist.put(PA2.MIDDLE_MIDDLE_NAME, new BaseAngled(90, 0, 0));
-    fist.put(PA2.MIDDLE_LIMB_NAME, new BaseAngled(60, 0, 0));
-    fist.put(PA2.INDEX_DISTAL_NAME, new BaseAngled(50, 0, 0));
-    fist.put(PA2.INDEX_MIDDLE_NAME, new BaseAngled(90, 0, 0));
-    fist.put(PA2.INDEX_LIMB_NAME, new BaseAngled(60, 0, 0));
-    fist.put(PA2.CLAW_DISTAL_NAME, new BaseAngled(50, 0, 0));
-    fist.put(PA2.CLAW_MIDDLE_NAME, new BaseAngled(0, 4, 0));
-    fist.put(PA2.CLAW_NAME, new BaseAngled(94, 0, 0));
+    fist.put(SpiderModel.PINKY_DISTAL_NAME, new BaseAngled(50, 0, 0));
+    fist.put(SpiderModel.PINKY_MIDDLE_NAME, new BaseAngled(90, 0, 0));
+    fist.put(SpiderModel.PINKY_LIMB_NAME, new BaseAngled(60, 0, 0));
+    fist.put(SpiderModel.RING_DISTAL_NAME, new BaseAngled(50, 0, 0));
+    fist.put(SpiderModel.RING_MIDDLE_NAME, new BaseAngled(90, 0, 0));
+    fist.put(SpiderModel.RING_LIMB_NAME, new BaseAngled(60, 0, 0));
+    fist.put(SpiderModel.MIDDLE_DISTAL_NAME, new BaseAngled(50, 0, 0));
+    fist.put(SpiderModel.MIDDLE_MIDDLE_NAME, new BaseAngled(90, 0, 0));
+    fist.put(SpiderModel.MIDDLE_LIMB_NAME, new BaseAngled(60, 0, 0));
+    fist.put(SpiderModel.INDEX_DISTAL_NAME, new BaseAngled(50, 0, 0));
+    fist.put(SpiderModel.INDEX_MIDDLE_NAME, new BaseAngled(90, 0, 0));
+    fist.put(SpiderModel.INDEX_LIMB_NAME, new BaseAngled(60, 0, 0));
+    fist.put(SpiderModel.CLAW_DISTAL_NAME, new BaseAngled(50, 0, 0));
+    fist.put(SpiderModel.CLAW_MIDDLE_NAME, new BaseAngled(0, 4, 0));
+    fist.put(SpiderModel.CLAW_NAME, new BaseAngled(94, 0, 0));
 
     // the shaka test case
-    shaka.put(PA2.PINKY_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    shaka.put(PA2.PINKY_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    shaka.put(PA2.PINKY_LIMB_NAME, new BaseAngled(0, -15, 0));
-    shaka.put(PA2.RING_DISTAL_NAME, new BaseAngled(50, 0, 0));
-    shaka.put(PA2.RING_MIDDLE_NAME, new BaseAngled(80, 0, 0));
-    shaka.put(PA2.RING_LIMB_NAME, new BaseAngled(45, 0, 0));
-    shaka.put(PA2.MIDDLE_DISTAL_NAME, new BaseAngled(50, 0, 0));
-    shaka.put(PA2.MIDDLE_MIDDLE_NAME, new BaseAngled(80, 0, 0));
-    shaka.put(PA2.MIDDLE_LIMB_NAME, new BaseAngled(45, 0, 0));
-    shaka.put(PA2.INDEX_DISTAL_NAME, new BaseAngled(50, 0, 0));
-    shaka.put(PA2.INDEX_MIDDLE_NAME, new BaseAngled(80, 0, 0));
-    shaka.put(PA2.INDEX_LIMB_NAME, new BaseAngled(45, 0, 0));
-    shaka.put(PA2.CLAW_DISTAL_NAME, new BaseAngled(-10, 0, 0));
-    shaka.put(PA2.CLAW_MIDDLE_NAME, new BaseAngled(0, 6, 0));
-    shaka.put(PA2.CLAW_NAME, new BaseAngled(96, 0, 0));
+    shaka.put(SpiderModel.PINKY_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    shaka.put(SpiderModel.PINKY_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    shaka.put(SpiderModel.PINKY_LIMB_NAME, new BaseAngled(0, -15, 0));
+    shaka.put(SpiderModel.RING_DISTAL_NAME, new BaseAngled(50, 0, 0));
+    shaka.put(SpiderModel.RING_MIDDLE_NAME, new BaseAngled(80, 0, 0));
+    shaka.put(SpiderModel.RING_LIMB_NAME, new BaseAngled(45, 0, 0));
+    shaka.put(SpiderModel.MIDDLE_DISTAL_NAME, new BaseAngled(50, 0, 0));
+    shaka.put(SpiderModel.MIDDLE_MIDDLE_NAME, new BaseAngled(80, 0, 0));
+    shaka.put(SpiderModel.MIDDLE_LIMB_NAME, new BaseAngled(45, 0, 0));
+    shaka.put(SpiderModel.INDEX_DISTAL_NAME, new BaseAngled(50, 0, 0));
+    shaka.put(SpiderModel.INDEX_MIDDLE_NAME, new BaseAngled(80, 0, 0));
+    shaka.put(SpiderModel.INDEX_LIMB_NAME, new BaseAngled(45, 0, 0));
+    shaka.put(SpiderModel.CLAW_DISTAL_NAME, new BaseAngled(-10, 0, 0));
+    shaka.put(SpiderModel.CLAW_MIDDLE_NAME, new BaseAngled(0, 6, 0));
+    shaka.put(SpiderModel.CLAW_NAME, new BaseAngled(96, 0, 0));
 
     // the spread test case
-    spread.put(PA2.PINKY_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.PINKY_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.PINKY_LIMB_NAME, new BaseAngled(0, -10, 0));
-    spread.put(PA2.RING_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.RING_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.RING_LIMB_NAME, new BaseAngled(0, -7, 0));
-    spread.put(PA2.MIDDLE_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.MIDDLE_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.MIDDLE_LIMB_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.INDEX_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.INDEX_MIDDLE_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.INDEX_LIMB_NAME, new BaseAngled(0, 10, 0));
-    spread.put(PA2.CLAW_DISTAL_NAME, new BaseAngled(0, 0, 0));
-    spread.put(PA2.CLAW_MIDDLE_NAME, new BaseAngled(0, 8, 0));
-    spread.put(PA2.CLAW_NAME, new BaseAngled(98, 0, 0));
+    spread.put(SpiderModel.PINKY_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.PINKY_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.PINKY_LIMB_NAME, new BaseAngled(0, -10, 0));
+    spread.put(SpiderModel.RING_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.RING_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.RING_LIMB_NAME, new BaseAngled(0, -7, 0));
+    spread.put(SpiderModel.MIDDLE_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.MIDDLE_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.MIDDLE_LIMB_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.INDEX_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.INDEX_MIDDLE_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.INDEX_LIMB_NAME, new BaseAngled(0, 10, 0));
+    spread.put(SpiderModel.CLAW_DISTAL_NAME, new BaseAngled(0, 0, 0));
+    spread.put(SpiderModel.CLAW_MIDDLE_NAME, new BaseAngled(0, 8, 0));
+    spread.put(SpiderModel.CLAW_NAME, new BaseAngled(98, 0, 0));
 
     // the claw test case
-    claw.put(PA2.PINKY_DISTAL_NAME, new BaseAngled(60, 0, 0));
-    claw.put(PA2.PINKY_MIDDLE_NAME, new BaseAngled(80, 0, 0));
-    claw.put(PA2.PINKY_LIMB_NAME, new BaseAngled(0, 0, 0));
-    claw.put(PA2.RING_DISTAL_NAME, new BaseAngled(60, 0, 0));
-    claw.put(PA2.RING_MIDDLE_NAME, new BaseAngled(80, 0, 0));
-    claw.put(PA2.RING_LIMB_NAME, new BaseAngled(0, 0, 0));
-    claw.put(PA2.MIDDLE_DISTAL_NAME, new BaseAngled(60, 0, 0));
-    claw.put(PA2.MIDDLE_MIDDLE_NAME, new BaseAngled(80, 0, 0));
-    claw.put(PA2.MIDDLE_LIMB_NAME, new BaseAngled(0, 0, 0));
-    claw.put(PA2.INDEX_DISTAL_NAME, new BaseAngled(60, 0, 0));
-    claw.put(PA2.INDEX_MIDDLE_NAME, new BaseAngled(80, 0, 0));
-    claw.put(PA2.INDEX_LIMB_NAME, new BaseAngled(0, 0, 0));
-    claw.put(PA2.CLAW_DISTAL_NAME, new BaseAngled(70, 0, 0));
-    claw.put(PA2.CLAW_MIDDLE_NAME, new BaseAngled(0, 10, 0));
-    claw.put(PA2.CLAW_NAME, new BaseAngled(100, 0, 0));
+    claw.put(SpiderModel.PINKY_DISTAL_NAME, new BaseAngled(60, 0, 0));
+    claw.put(SpiderModel.PINKY_MIDDLE_NAME, new BaseAngled(80, 0, 0));
+    claw.put(SpiderModel.PINKY_LIMB_NAME, new BaseAngled(0, 0, 0));
+    claw.put(SpiderModel.RING_DISTAL_NAME, new BaseAngled(60, 0, 0));
+    claw.put(SpiderModel.RING_MIDDLE_NAME, new BaseAngled(80, 0, 0));
+    claw.put(SpiderModel.RING_LIMB_NAME, new BaseAngled(0, 0, 0));
+    claw.put(SpiderModel.MIDDLE_DISTAL_NAME, new BaseAngled(60, 0, 0));
+    claw.put(SpiderModel.MIDDLE_MIDDLE_NAME, new BaseAngled(80, 0, 0));
+    claw.put(SpiderModel.MIDDLE_LIMB_NAME, new BaseAngled(0, 0, 0));
+    claw.put(SpiderModel.INDEX_DISTAL_NAME, new BaseAngled(60, 0, 0));
+    claw.put(SpiderModel.INDEX_MIDDLE_NAME, new BaseAngled(80, 0, 0));
+    claw.put(SpiderModel.INDEX_LIMB_NAME, new BaseAngled(0, 0, 0));
+    claw.put(SpiderModel.CLAW_DISTAL_NAME, new BaseAngled(70, 0, 0));
+    claw.put(SpiderModel.CLAW_MIDDLE_NAME, new BaseAngled(0, 10, 0));
+    claw.put(SpiderModel.CLAW_NAME, new BaseAngled(100, 0, 0));
   }
 }
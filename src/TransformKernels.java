@@ -0,0 +1,207 @@
+/**
+ * TransformKernels.java - batch operations on arrays of rotations and matrices
+ */
+
+
+/**
+ * Batch operations on many quaternions or 4 by 4 matrices stored contiguously
+ * in {@code float} arrays, for computing the transformations of large scenes
+ * on the CPU.
+ *
+ * Each quaternion occupies {@link #QUATERNION_STRIDE} elements in the order
+ * of the components of a {@link Quaternion}: the scalar component followed by
+ * the three vector components. Each matrix occupies {@link Matrix4#SIZE}
+ * elements in column major order, as in {@link Matrix4} and
+ * {@link SceneArena}. Offsets are given in elements, and none of the methods
+ * allocate.
+ *
+ * The implementation returned by {@link #instance()} uses the incubating Java
+ * Vector API if it is available, which requires running with
+ * {@code --add-modules jdk.incubator.vector}; otherwise it falls back to plain
+ * scalar loops. The vector implementation is loaded reflectively, so this
+ * class and the scalar implementation do not depend on the incubator module.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public abstract class TransformKernels {
+  /** The number of elements in a quaternion. */
+  public static final int QUATERNION_STRIDE = 4;
+  /**
+   * The simple name of the class which implements these kernels with vectors.
+   */
+  public static final String VECTOR_IMPLEMENTATION = "VectorTransformKernels";
+
+  /**
+   * The scalar implementation, which must be initialized before the vector
+   * implementation since the latter uses it for the remainders of batches.
+   */
+  private static final TransformKernels SCALAR = new ScalarTransformKernels();
+  /** The fastest available implementation. */
+  private static final TransformKernels INSTANCE = load();
+
+  /**
+   * Gets the fastest available implementation of these kernels.
+   *
+   * @return The vector implementation if the Java Vector API is available,
+   *         otherwise the scalar implementation.
+   */
+  public static TransformKernels instance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Loads the vector implementation of these kernels, falling back to the
+   * scalar implementation if it cannot be loaded.
+   *
+   * @return The fastest available implementation.
+   */
+  private static TransformKernels load() {
+    try {
+      // the vector implementation is in the same package as this class, which
+      // is not the unnamed package when compiled with the benchmarks
+      final String packageName = TransformKernels.class.getPackageName();
+      return (TransformKernels) Class.forName(packageName.isEmpty()
+          ? VECTOR_IMPLEMENTATION : packageName + "." + VECTOR_IMPLEMENTATION)
+          .getDeclaredConstructor().newInstance();
+    } catch (final ReflectiveOperationException exception) {
+      return SCALAR;
+    } catch (final LinkageError error) {
+      // the jdk.incubator.vector module is not in the module graph
+      return SCALAR;
+    }
+  }
+
+  /**
+   * Gets the scalar implementation of these kernels, which is always
+   * available.
+   *
+   * @return The scalar implementation.
+   */
+  public static TransformKernels scalar() {
+    return SCALAR;
+  }
+
+  /**
+   * Computes the world transformation of each node of a tree from its local
+   * transformation and the world transformation of its parent, as
+   * {@code worlds[i] = worlds[parents[i]] * locals[i]}.
+   *
+   * The nodes must be ordered so that every parent precedes its children, as
+   * a {@link SceneArena} guarantees. The world transformation of a node
+   * without a parent is its local transformation.
+   *
+   * @param parents
+   *          The index of the parent of each node, or a negative number for a
+   *          node without a parent.
+   * @param locals
+   *          The local transformation of each node.
+   * @param worlds
+   *          The array in which to store the world transformation of each
+   *          node.
+   * @param count
+   *          The number of nodes.
+   */
+  public abstract void composeHierarchy(final int[] parents,
+      final float[] locals, final float[] worlds, final int count);
+
+  /**
+   * Computes the products {@code a[i] * b[i]} of pairs of matrices.
+   *
+   * The destination may be the same as {@code b}, but must not overlap
+   * {@code a}.
+   *
+   * @param a
+   *          The array containing the left operands.
+   * @param aOffset
+   *          The offset of the first left operand.
+   * @param b
+   *          The array containing the right operands.
+   * @param bOffset
+   *          The offset of the first right operand.
+   * @param dst
+   *          The array in which to store the products.
+   * @param dstOffset
+   *          The offset of the first product.
+   * @param count
+   *          The number of products to compute.
+   */
+  public abstract void multiplyMatrices(final float[] a, final int aOffset,
+      final float[] b, final int bOffset, final float[] dst,
+      final int dstOffset, final int count);
+
+  /**
+   * Computes the products {@code a[i] * b[i]} of pairs of quaternions, the
+   * same as {@link Quaternion#multiply(Quaternion)}.
+   *
+   * The destination may be the same as either operand.
+   *
+   * @param a
+   *          The array containing the left operands.
+   * @param aOffset
+   *          The offset of the first left operand.
+   * @param b
+   *          The array containing the right operands.
+   * @param bOffset
+   *          The offset of the first right operand.
+   * @param dst
+   *          The array in which to store the products.
+   * @param dstOffset
+   *          The offset of the first product.
+   * @param count
+   *          The number of products to compute.
+   */
+  public abstract void multiplyQuaternions(final float[] a, final int aOffset,
+      final float[] b, final int bOffset, final float[] dst,
+      final int dstOffset, final int count);
+
+  /**
+   * Gets a short name for this implementation.
+   *
+   * @return The name of this implementation.
+   */
+  public abstract String name();
+
+  /**
+   * Normalizes quaternions in place, the same as
+   * {@link Quaternion#normalize()}.
+   *
+   * @param quaternions
+   *          The array containing the quaternions.
+   * @param offset
+   *          The offset of the first quaternion.
+   * @param count
+   *          The number of quaternions to normalize.
+   */
+  public abstract void normalizeQuaternions(final float[] quaternions,
+      final int offset, final int count);
+
+  /**
+   * Converts unit quaternions to rotation matrices, the same as
+   * {@link Quaternion#toMatrix(float[], int)}.
+   *
+   * @param quaternions
+   *          The array containing the quaternions.
+   * @param offset
+   *          The offset of the first quaternion.
+   * @param matrices
+   *          The array in which to store the matrices.
+   * @param matrixOffset
+   *          The offset of the first matrix.
+   * @param count
+   *          The number of quaternions to convert.
+   */
+  public abstract void quaternionsToMatrices(final float[] quaternions,
+      final int offset, final float[] matrices, final int matrixOffset,
+      final int count);
+
+  /**
+   * Returns the name of this implementation.
+   *
+   * @return The name of this implementation.
+   */
+  @Override
+  public String toString() {
+    return this.name();
+  }
+}
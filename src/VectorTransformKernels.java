@@ -0,0 +1,305 @@
+/**
+ * VectorTransformKernels.java - batch transform operations with the Vector API
+ */
+
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The implementation of the {@link TransformKernels} with the incubating Java
+ * Vector API.
+ *
+ * The quaternion products and normalization load several consecutive
+ * quaternions into one vector of the preferred shape and combine them with
+ * shuffles within each group of four lanes, so no gathers or scatters are
+ * needed; the remainder of each batch is processed by the scalar
+ * implementation. The matrix products hold the four columns of a matrix in 128
+ * bit vectors and compute each column of the result as a combination of
+ * them. The conversion of quaternions to matrices is limited by its stores
+ * rather than its arithmetic, so it uses the scalar implementation.
+ *
+ * This class must be compiled and run with
+ * {@code --add-modules jdk.incubator.vector}. It is only referred to by name
+ * from {@link TransformKernels#instance()}, so the rest of the program works
+ * without that module.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class VectorTransformKernels extends TransformKernels {
+  /** The shape of the vectors which hold one column of a matrix. */
+  private static final VectorSpecies<Float> COLUMN = FloatVector.SPECIES_128;
+  /** The shape of the vectors which hold several whole quaternions. */
+  private static final VectorSpecies<Float> LANES = FloatVector.SPECIES_PREFERRED;
+
+  /** The signs of the second term of a quaternion product. */
+  private static final FloatVector SIGNS_1 = groupSigns(-1, 1, -1, 1);
+  /** The signs of the third term of a quaternion product. */
+  private static final FloatVector SIGNS_2 = groupSigns(-1, 1, 1, -1);
+  /** The signs of the fourth term of a quaternion product. */
+  private static final FloatVector SIGNS_3 = groupSigns(-1, -1, 1, 1);
+  /** Copies the scalar component of each quaternion to all its lanes. */
+  private static final VectorShuffle<Float> SPREAD_0 = groupShuffle(0, 0, 0, 0);
+  /** Copies the first vector component of each quaternion to all its lanes. */
+  private static final VectorShuffle<Float> SPREAD_1 = groupShuffle(1, 1, 1, 1);
+  /** Copies the second vector component of each quaternion to all its lanes. */
+  private static final VectorShuffle<Float> SPREAD_2 = groupShuffle(2, 2, 2, 2);
+  /** Copies the third vector component of each quaternion to all its lanes. */
+  private static final VectorShuffle<Float> SPREAD_3 = groupShuffle(3, 3, 3, 3);
+  /** Swaps adjacent components of each quaternion. */
+  private static final VectorShuffle<Float> SWAP_1 = groupShuffle(1, 0, 3, 2);
+  /** Swaps the halves of each quaternion. */
+  private static final VectorShuffle<Float> SWAP_2 = groupShuffle(2, 3, 0, 1);
+  /** Reverses the components of each quaternion. */
+  private static final VectorShuffle<Float> SWAP_3 = groupShuffle(3, 2, 1, 0);
+  /**
+   * Creates a vector of {@link #LANES} which repeats the specified four values
+   * for each quaternion it holds.
+   *
+   * @param signs
+   *          The four values to repeat.
+   * @return The vector of repeated values.
+   */
+  private static FloatVector groupSigns(final float... signs) {
+    final float[] values = new float[LANES.length()];
+    for (int i = 0; i < values.length; ++i) {
+      values[i] = signs[i % QUATERNION_STRIDE];
+    }
+    return FloatVector.fromArray(LANES, values, 0);
+  }
+
+  /**
+   * Creates a shuffle of {@link #LANES} which applies the specified
+   * permutation to the four lanes of each quaternion it holds.
+   *
+   * @param permutation
+   *          The source of each of the four lanes of a quaternion.
+   * @return The shuffle applying the permutation to every quaternion.
+   */
+  private static VectorShuffle<Float> groupShuffle(final int... permutation) {
+    final int[] indices = new int[LANES.length()];
+    for (int i = 0; i < indices.length; ++i) {
+      indices[i] = i - i % QUATERNION_STRIDE
+          + permutation[i % QUATERNION_STRIDE];
+    }
+    return VectorShuffle.fromArray(LANES, indices, 0);
+  }
+
+  /**
+   * Computes the product {@code a * b} of two matrices, as
+   * {@link Matrix4#multiply(float[], int, float[], int, float[], int)}.
+   *
+   * @param a
+   *          The array containing the left operand.
+   * @param aOffset
+   *          The offset of the left operand.
+   * @param b
+   *          The array containing the right operand.
+   * @param bOffset
+   *          The offset of the right operand.
+   * @param dst
+   *          The array in which to store the product.
+   * @param dstOffset
+   *          The offset of the product.
+   */
+  private static void multiply(final float[] a, final int aOffset,
+      final float[] b, final int bOffset, final float[] dst,
+      final int dstOffset) {
+    final FloatVector column0 = FloatVector.fromArray(COLUMN, a, aOffset);
+    final FloatVector column1 = FloatVector.fromArray(COLUMN, a, aOffset + 4);
+    final FloatVector column2 = FloatVector.fromArray(COLUMN, a, aOffset + 8);
+    final FloatVector column3 = FloatVector.fromArray(COLUMN, a, aOffset + 12);
+    for (int j = 0; j < 16; j += 4) {
+      column0.mul(b[bOffset + j]).add(column1.mul(b[bOffset + j + 1]))
+          .add(column2.mul(b[bOffset + j + 2]))
+          .add(column3.mul(b[bOffset + j + 3])).intoArray(dst, dstOffset + j);
+    }
+  }
+
+  /** The implementation used for the remainders of the quaternion batches. */
+  private final TransformKernels scalar = TransformKernels.scalar();
+
+  /**
+   * Instantiates these kernels.
+   *
+   * @throws UnsupportedOperationException
+   *           If the preferred vector shape cannot hold whole quaternions.
+   */
+  public VectorTransformKernels() {
+    if (LANES.length() % QUATERNION_STRIDE != 0) {
+      throw new UnsupportedOperationException("Unsupported vector shape: "
+          + LANES);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param parents
+   *          {@inheritDoc}
+   * @param locals
+   *          {@inheritDoc}
+   * @param worlds
+   *          {@inheritDoc}
+   * @param count
+   *          {@inheritDoc}
+   */
+  @Override
+  public void composeHierarchy(final int[] parents, final float[] locals,
+      final float[] worlds, final int count) {
+    for (int i = 0; i < count; ++i) {
+      final int offset = i * Matrix4.SIZE;
+      if (parents[i] < 0) {
+        Matrix4.copy(locals, offset, worlds, offset);
+      } else {
+        multiply(worlds, parents[i] * Matrix4.SIZE, locals, offset, worlds,
+            offset);
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param a
+   *          {@inheritDoc}
+   * @param aOffset
+   *          {@inheritDoc}
+   * @param b
+   *          {@inheritDoc}
+   * @param bOffset
+   *          {@inheritDoc}
+   * @param dst
+   *          {@inheritDoc}
+   * @param dstOffset
+   *          {@inheritDoc}
+   * @param count
+   *          {@inheritDoc}
+   */
+  @Override
+  public void multiplyMatrices(final float[] a, final int aOffset,
+      final float[] b, final int bOffset, final float[] dst,
+      final int dstOffset, final int count) {
+    for (int i = 0; i < count; ++i) {
+      final int offset = i * Matrix4.SIZE;
+      multiply(a, aOffset + offset, b, bOffset + offset, dst, dstOffset
+          + offset);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param a
+   *          {@inheritDoc}
+   * @param aOffset
+   *          {@inheritDoc}
+   * @param b
+   *          {@inheritDoc}
+   * @param bOffset
+   *          {@inheritDoc}
+   * @param dst
+   *          {@inheritDoc}
+   * @param dstOffset
+   *          {@inheritDoc}
+   * @param count
+   *          {@inheritDoc}
+   */
+  @Override
+  public void multiplyQuaternions(final float[] a, final int aOffset,
+      final float[] b, final int bOffset, final float[] dst,
+      final int dstOffset, final int count) {
+    final int perVector = LANES.length() / QUATERNION_STRIDE;
+    int i = 0;
+    for (; i + perVector <= count; i += perVector) {
+      final int offset = i * QUATERNION_STRIDE;
+      final FloatVector q1 = FloatVector.fromArray(LANES, a, aOffset + offset);
+      final FloatVector q2 = FloatVector.fromArray(LANES, b, bOffset + offset);
+
+      // s1 q2 + a1 (-a2, s2, -c2, b2) + b1 (-b2, c2, s2, -a2)
+      // + c1 (-c2, -b2, a2, s2), within each group of four lanes
+      q1.rearrange(SPREAD_0).mul(q2)
+          .add(q1.rearrange(SPREAD_1).mul(q2.rearrange(SWAP_1).mul(SIGNS_1)))
+          .add(q1.rearrange(SPREAD_2).mul(q2.rearrange(SWAP_2).mul(SIGNS_2)))
+          .add(q1.rearrange(SPREAD_3).mul(q2.rearrange(SWAP_3).mul(SIGNS_3)))
+          .intoArray(dst, dstOffset + offset);
+    }
+    this.scalar.multiplyQuaternions(a, aOffset + i * QUATERNION_STRIDE, b,
+        bOffset + i * QUATERNION_STRIDE, dst, dstOffset + i
+            * QUATERNION_STRIDE, count - i);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @return {@inheritDoc}
+   */
+  @Override
+  public String name() {
+    return "vector" + LANES.length();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param quaternions
+   *          {@inheritDoc}
+   * @param offset
+   *          {@inheritDoc}
+   * @param count
+   *          {@inheritDoc}
+   */
+  @Override
+  public void normalizeQuaternions(final float[] quaternions,
+      final int offset, final int count) {
+    final int perVector = LANES.length() / QUATERNION_STRIDE;
+    final FloatVector one = FloatVector.broadcast(LANES, 1);
+    int i = 0;
+    for (; i + perVector <= count; i += perVector) {
+      final int j = offset + i * QUATERNION_STRIDE;
+      final FloatVector q = FloatVector.fromArray(LANES, quaternions, j);
+
+      // sum the squares within each group of four lanes
+      FloatVector sum = q.mul(q);
+      sum = sum.add(sum.rearrange(SWAP_1));
+      sum = sum.add(sum.rearrange(SWAP_2));
+      final FloatVector norm = sum.lanewise(VectorOperators.SQRT);
+
+      // leave quaternions which are nearly zero unchanged
+      final VectorMask<Float> large = norm.compare(VectorOperators.GT,
+          Quaternion.ROUND_OFF_THRESHOLD);
+      q.div(one.blend(norm, large)).intoArray(quaternions, j);
+    }
+    this.scalar.normalizeQuaternions(quaternions, offset + i
+        * QUATERNION_STRIDE, count - i);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @param quaternions
+   *          {@inheritDoc}
+   * @param offset
+   *          {@inheritDoc}
+   * @param matrices
+   *          {@inheritDoc}
+   * @param matrixOffset
+   *          {@inheritDoc}
+   * @param count
+   *          {@inheritDoc}
+   */
+  @Override
+  public void quaternionsToMatrices(final float[] quaternions,
+      final int offset, final float[] matrices, final int matrixOffset,
+      final int count) {
+    // each matrix is sixteen independent stores of short expressions, which
+    // the scalar loop already does at the rate of the stores; building the
+    // columns in 128 bit vectors measured about half as fast
+    this.scalar.quaternionsToMatrices(quaternions, offset, matrices,
+        matrixOffset, count);
+  }
+}
@@ -0,0 +1,73 @@
+/**
+ * VertexBufferDisplayable.java - draws a circular shape from buffer objects
+ */
+
+
+import javax.media.opengl.GL2;
+
+/**
+ * Draws the geometry of a {@link Circular} shape from OpenGL vertex and index
+ * buffer objects instead of from a call list.
+ *
+ * The tessellated mesh is uploaded once per distinct geometry and shared
+ * through the {@link GeometryCache}. This object should be drawn directly
+ * (see {@link Component#render(RenderBackend)}), not from within a call list, since
+ * compiling a draw from buffer objects into a call list copies the vertex
+ * data into the list.
+ *
+ * @author Tian Chen
+ * @since Fall 2020
+ */
+public class VertexBufferDisplayable implements Displayable {
+  /** The buffer objects containing the mesh of the shape. */
+  private MeshBuffers buffers;
+  /** The shape whose geometry this object draws. */
+  private final Circular shape;
+
+  /**
+   * Instantiates this object with the specified shape.
+   *
+   * @param shape
+   *          The shape whose geometry this object draws.
+   */
+  public VertexBufferDisplayable(final Circular shape) {
+    this.shape = shape;
+  }
+
+  /**
+   * Binds the buffer objects of the mesh and draws its triangles.
+   *
+   * @param gl
+   *          {@inheritDoc}
+   * @see Displayable#draw(GL2)
+   */
+  @Override
+  public void draw(final GL2 gl) {
+    this.buffers.bind(gl);
+    this.buffers.drawElements(gl);
+    this.buffers.unbind(gl);
+  }
+
+  /**
+   * Gets the buffer objects for the mesh of the shape from the
+   * {@link GeometryCache}, tessellating and uploading it only if no shape with
+   * the same geometry has done so already.
+   *
+   * @param gl
+   *          {@inheritDoc}
+   * @see Displayable#initialize(GL2)
+   */
+  @Override
+  public void initialize(final GL2 gl) {
+    this.buffers = GeometryCache.instance().meshBuffers(gl, this.shape);
+  }
+
+  /**
+   * Gets the shape whose geometry this object draws.
+   *
+   * @return The shape whose geometry this object draws.
+   */
+  public Circular shape() {
+    return this.shape;
+  }
+}
@@ -15,11 +15,10 @@ import javax.media.opengl.GL2;
  */
 public class eyeball extends Circular implements Displayable {
 
-  /**
-   * The OpenGL handle to the display list which contains all the components
-   * which comprise this cylinder.
-   */
-  private int callListHandle;
+  /** The number of slices to use when drawing the sphere. */
+  public static final int SLICES = 36;
+  /** The number of stacks to use when drawing the sphere. */
+  public static final int STACKS = 18;
 
   /**
    * Instantiates this object with the specified radius and OpenGL utility
@@ -35,39 +34,46 @@ public class eyeball extends Circular implements Displayable {
   }
 
   /**
-   * {@inheritDoc}
+   * Draws a scaled sphere.
    * 
    * @param gl
    *          {@inheritDoc}
-   * @see edu.bu.cs.cs480.Displayable#draw(javax.media.opengl.GL)
    */
   @Override
-  public void draw(GL2 gl) {
-    gl.glCallList(this.callListHandle);
-  }
-
-  /**
-   * Defines the OpenGL call list which draws a scaled sphere.
-   * 
-   * @param gl
-   *          {@inheritDoc}
-   * 
-   * @see edu.bu.cs.cs480.Displayable#initialize(javax.media.opengl.GL)
-   */
-  @Override
-  public void initialize(final GL2 gl) {
-    this.callListHandle = gl.glGenLists(1);
-
+  protected void compile(final GL2 gl) {
     // create an ellipsoid for the palm by scaling a sphere
-    gl.glNewList(this.callListHandle, GL2.GL_COMPILE);
     gl.glPushMatrix();
     // position this so that the sphere is drawn above the x-y plane, not at
     // the origin
     gl.glTranslated(0, 0, this.radius());
     gl.glScalef(1, 1, 1);
-    this.glut().glutSolidSphere(this.radius(), 36, 18);
+    this.glut().glutSolidSphere(this.radius(), SLICES, STACKS);
     gl.glPopMatrix();
-    gl.glEndList();
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @return {@inheritDoc}
+   */
+  @Override
+  public GeometryKey geometryKey() {
+    return new GeometryKey(GeometryKey.Shape.SPHERE, this.radius(), 0, SLICES,
+        STACKS);
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @param slices
+   *          {@inheritDoc}
+   * @param stacks
+   *          {@inheritDoc}
+   * @return {@inheritDoc}
+   */
+  @Override
+  public Mesh tessellate(final int slices, final int stacks) {
+    return Tessellator.sphere(this.radius(), slices, stacks);
   }
 
 }